@@ -10,15 +10,20 @@ import br.com.primeleague.x1.listeners.PlayerListener;
 import br.com.primeleague.x1.managers.ArenaManager;
 import br.com.primeleague.x1.managers.ConfigManager;
 import br.com.primeleague.x1.managers.DuelManager;
+import br.com.primeleague.x1.managers.DuelScheduler;
 import br.com.primeleague.x1.managers.EconomyManager;
 import br.com.primeleague.x1.managers.MessageManager;
+import br.com.primeleague.x1.managers.StartupManager;
 import br.com.primeleague.x1.managers.StatsManager;
 import br.com.primeleague.x1.managers.TeamManager;
 import br.com.primeleague.x1.managers.TeamTagManager;
 import br.com.primeleague.x1.replay.DuelLogManager;
 import br.com.primeleague.x1.storage.FileStorage;
+import br.com.primeleague.x1.storage.SQLiteStorage;
+import br.com.primeleague.x1.storage.StatsRepository;
 import br.com.primeleague.x1.utils.ColorUtils;
 import br.com.primeleague.x1.utils.NametagManager;
+import br.com.primeleague.x1.listeners.ArenaListener;
 import br.com.primeleague.x1.listeners.ChatListener;
 import br.com.primeleague.x1.managers.X1ScoreboardManager;
 import br.com.primeleague.x1.rival.RivalManager;
@@ -45,6 +50,7 @@ public class Main extends JavaPlugin {
     private ConfigManager configManager;
     private MessageManager messageManager;
     private DuelManager duelManager;
+    private DuelScheduler duelScheduler;
     private ArenaManager arenaManager;
     private StatsManager statsManager;
     private TeamManager teamManager;
@@ -53,6 +59,7 @@ public class Main extends JavaPlugin {
     private TeamTagManager teamTagManager;
     private DuelLogManager duelLogManager;
     private RivalManager rivalManager;
+    private StartupManager startupManager;
     
     // Hooks de integração
     private WorldGuardHook worldGuardHook;
@@ -61,7 +68,7 @@ public class Main extends JavaPlugin {
     private NametagManager nametagManager;
     
     // Storage
-    private FileStorage fileStorage;
+    private StatsRepository statsRepository;
     
     @Override
     public void onEnable() {
@@ -124,7 +131,11 @@ public class Main extends JavaPlugin {
             }
             
             System.out.println("[PrimeLeagueX1] Inicializando outros componentes...");
-            fileStorage = new FileStorage(this);
+            // Os dados são carregados em paralelo; desafios ficam bloqueados até o fim do carregamento
+            startupManager = new StartupManager(this);
+            statsRepository = createStatsRepository();
+            // Tarefa única que executa as contagens, prazos e scoreboards de todos os duelos
+            duelScheduler = new DuelScheduler(this);
             arenaManager = new ArenaManager(this);
             statsManager = new StatsManager(this);
             teamManager = new TeamManager(this);
@@ -181,9 +192,20 @@ public class Main extends JavaPlugin {
             duelManager.cancelAllDuels();
         }
         
+        // Restaurar os blocos das arenas que ainda não terminaram de ser restauradas
+        if (arenaManager != null) {
+            arenaManager.finishRestores();
+        }
+        
+        // Salvar dados de rivalidades (antes das estatísticas, que podem estar no mesmo banco de dados)
+        if (rivalManager != null) {
+            System.out.println("[PrimeLeagueX1] Salvando dados de rivalidades...");
+            rivalManager.saveAll();
+        }
+        
         // Salvar dados
         System.out.println("[PrimeLeagueX1] Salvando estatísticas e histórico de duelos...");
-        fileStorage.saveAll();
+        statsRepository.saveAll();
         
         // Finalizar logs de duelos pendentes
         if (duelLogManager != null) {
@@ -191,12 +213,6 @@ public class Main extends JavaPlugin {
             duelLogManager.finishAllLogs();
         }
         
-        // Salvar dados de rivalidades
-        if (rivalManager != null) {
-            System.out.println("[PrimeLeagueX1] Salvando dados de rivalidades...");
-            rivalManager.saveData();
-        }
-        
         // Limpar jogadores com PvP ativado
         if (worldGuardHook != null) {
             worldGuardHook.clearPvPPlayers();
@@ -207,13 +223,43 @@ public class Main extends JavaPlugin {
             nametagManager.clearAllTags();
         }
         
+        // Encerrar o pool de carregamento (após os salvamentos, que aguardam o carregamento)
+        if (startupManager != null) {
+            startupManager.shutdown();
+        }
+        
         // Desabilitar scoreboards
         X1ScoreboardManager.desabilitar();
         
+        // Parar o agendador de duelos
+        if (duelScheduler != null) {
+            duelScheduler.shutdown();
+        }
+        
         // Mensagem de desativação
         Bukkit.getConsoleSender().sendMessage(ColorUtils.colorize(messageManager.getPrefix() + messageManager.getMessage("geral.plugin-desativado")));
     }
     
+    /**
+     * Cria o repositório de estatísticas conforme o tipo de armazenamento configurado
+     * Se o banco de dados não puder ser aberto, os arquivos YAML são usados.
+     * 
+     * @return Repositório de estatísticas
+     */
+    private StatsRepository createStatsRepository() {
+        if ("sqlite".equalsIgnoreCase(configManager.getStorageType())) {
+            try {
+                StatsRepository repository = new SQLiteStorage(this);
+                getLogger().info("Estatísticas armazenadas em banco de dados SQLite.");
+                return repository;
+            } catch (Exception e) {
+                getLogger().severe("Não foi possível abrir o banco de dados SQLite: " + e.getMessage());
+                getLogger().severe("Usando armazenamento em arquivos YAML.");
+            }
+        }
+        return new FileStorage(this);
+    }
+    
     /**
      * Registra os comandos do plugin
      */
@@ -233,6 +279,7 @@ public class Main extends JavaPlugin {
         pm.registerEvents(new DuelListener(this), this);
         pm.registerEvents(new GUIListener(this), this);
         pm.registerEvents(new ChatListener(this), this);
+        pm.registerEvents(new ArenaListener(this), this);
     }
     
     /**
@@ -271,6 +318,15 @@ public class Main extends JavaPlugin {
         return duelManager;
     }
     
+    /**
+     * Obtém o agendador das tarefas de duelo
+     * 
+     * @return Agendador de duelos
+     */
+    public DuelScheduler getDuelScheduler() {
+        return duelScheduler;
+    }
+    
     /**
      * Obtém o gerenciador de arenas
      * 
@@ -335,12 +391,12 @@ public class Main extends JavaPlugin {
     }
     
     /**
-     * Obtém o armazenamento de arquivos
+     * Obtém o repositório de estatísticas e histórico
      * 
-     * @return Armazenamento de arquivos
+     * @return Repositório de estatísticas
      */
-    public FileStorage getFileStorage() {
-        return fileStorage;
+    public StatsRepository getStatsRepository() {
+        return statsRepository;
     }
     
     /**
@@ -370,6 +426,15 @@ public class Main extends JavaPlugin {
         return rivalManager;
     }
     
+    /**
+     * Obtém o gerenciador do carregamento inicial
+     * 
+     * @return Gerenciador do carregamento inicial
+     */
+    public StartupManager getStartupManager() {
+        return startupManager;
+    }
+    
     /**
      * Verifica se o sistema de registro de duelos está ativado
      * 
@@ -1,21 +1,31 @@
 package br.com.primeleague.x1.commands;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.Map;
-import java.util.HashMap;
 
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import br.com.primeleague.x1.Main;
+import br.com.primeleague.x1.enums.ReplayEventType;
+import br.com.primeleague.x1.enums.ReplaySortType;
+import br.com.primeleague.x1.replay.ReplayData;
+import br.com.primeleague.x1.replay.ReplayEvent;
+import br.com.primeleague.x1.replay.ReplayFile;
+import br.com.primeleague.x1.replay.ReplayHighlights;
+import br.com.primeleague.x1.replay.ReplayIndex;
+import br.com.primeleague.x1.replay.ReplayInfo;
+import br.com.primeleague.x1.replay.ReplayReader;
+import br.com.primeleague.x1.replay.ReplayTextFormat;
 import br.com.primeleague.x1.utils.ColorUtils;
 
 /**
@@ -25,6 +35,9 @@ public class ReplayCommand {
     
     private final Main plugin;
     
+    private static final int EVENTS_PER_PAGE = 10; // Eventos por página em /x1 replay ver
+    private static final int HIGHLIGHT_LINES = 10; // Linhas guardadas por lista nos highlights
+    
     /**
      * Construtor
      * 
@@ -70,10 +83,19 @@ public class ReplayCommand {
                 
             case "ver":
                 if (args.length < 3) {
-                    sender.sendMessage(ColorUtils.colorize("&cUso correto: /x1 replay ver <id>"));
+                    sender.sendMessage(ColorUtils.colorize("&cUso correto: /x1 replay ver <id> [página]"));
+                    return true;
+                }
+                viewLog(sender, args[2], args.length > 3 ? args[3] : "1");
+                break;
+                
+            case "player":
+            case "jogador":
+                if (args.length < 3) {
+                    sender.sendMessage(ColorUtils.colorize("&cUso correto: /x1 replay player <nome> [página]"));
                     return true;
                 }
-                viewLog(sender, args[2]);
+                showPlayerReplays(sender, args[2], args.length > 3 ? args[3] : "1");
                 break;
                 
             case "limpar":
@@ -93,6 +115,15 @@ public class ReplayCommand {
                 showHighlights(sender, args[2]);
                 break;
                 
+            case "texto":
+            case "exportar":
+                if (args.length < 3) {
+                    sender.sendMessage(ColorUtils.colorize("&cUso correto: /x1 replay texto <id>"));
+                    return true;
+                }
+                exportText(sender, args[2]);
+                break;
+                
             case "share":
             case "compartilhar":
                 if (args.length < 3) {
@@ -120,108 +151,53 @@ public class ReplayCommand {
         
         sender.sendMessage(ColorUtils.colorize(prefix + "&eComandos de registro de duelos:"));
         sender.sendMessage(ColorUtils.colorize(prefix + "&7/x1 replay list &f- Lista os duelos registrados"));
-        sender.sendMessage(ColorUtils.colorize(prefix + "&7/x1 replay ver <id> &f- Exibe detalhes de um duelo registrado"));
+        sender.sendMessage(ColorUtils.colorize(prefix + "&7/x1 replay ver <id> [página] &f- Exibe detalhes e eventos de um duelo registrado"));
+        sender.sendMessage(ColorUtils.colorize(prefix + "&7/x1 replay player <nome> [página] &f- Lista os duelos de um jogador"));
         sender.sendMessage(ColorUtils.colorize(prefix + "&7/x1 replay limpar &f- Remove logs antigos"));
         sender.sendMessage(ColorUtils.colorize(prefix + "&7/x1 replay top [dano|kills|tempo] &f- Mostra top replays por métrica"));
         sender.sendMessage(ColorUtils.colorize(prefix + "&7/x1 replay highlight <id> &f- Mostra melhores momentos de um replay"));
         sender.sendMessage(ColorUtils.colorize(prefix + "&7/x1 replay share <id> &f- Compartilha um replay no chat"));
+        sender.sendMessage(ColorUtils.colorize(prefix + "&7/x1 replay texto <id> &f- Exporta um replay completo em texto"));
     }
     
     /**
      * Lista todos os logs de duelo disponíveis
+     * Servido pelo índice de replays, sem abrir os arquivos de log.
      * 
      * @param sender Remetente do comando
      */
     private void listAllLogs(CommandSender sender) {
         String prefix = plugin.getMessageManager().getPrefix();
         
-        // Obter arquivos de log
-        File[] logFiles = plugin.getDuelLogManager().getLogFiles();
-        
-        if (logFiles == null || logFiles.length == 0) {
+        ReplayIndex index = plugin.getDuelLogManager().getReplayIndex();
+        if (index.size() == 0) {
             sender.sendMessage(ColorUtils.colorize(prefix + plugin.getMessageManager().getMessage("duelo-log.nenhum-log")));
-            System.out.println("[PrimeLeagueX1] Nenhum replay encontrado na pasta: " + 
-                plugin.getDuelLogManager().getLogsFolder().getAbsolutePath());
             return;
         }
         
-        // Verificar se a pasta de logs existe e tem permissão de leitura
-        File logsFolder = plugin.getDuelLogManager().getLogsFolder();
-        if (!logsFolder.exists()) {
-            sender.sendMessage(ColorUtils.colorize(prefix + "A pasta de replays não existe!"));
-            System.out.println("[PrimeLeagueX1] Pasta de replays não existe: " + logsFolder.getAbsolutePath());
-            return;
-        }
-        
-        if (!logsFolder.canRead()) {
-            sender.sendMessage(ColorUtils.colorize(prefix + "Sem permissão para ler a pasta de replays!"));
-            System.out.println("[PrimeLeagueX1] Sem permissão para ler pasta de replays: " + logsFolder.getAbsolutePath());
-            return;
-        }
-        
-        System.out.println("[PrimeLeagueX1] Encontrados " + logFiles.length + " arquivos de replay na pasta: " + 
-            logsFolder.getAbsolutePath());
-        
         // Enviar header
         sender.sendMessage(ColorUtils.colorize("&a=== Replays de Duelos Disponíveis ==="));
         
-        // Criar lista formatada com IDs simples e data
-        for (File file : logFiles) {
-            String uuid = file.getName().replace(".duellog", "");
-            String simpleId = plugin.getDuelLogManager().getSimpleIdFromUUID(UUID.fromString(uuid));
-            
+        // Criar lista formatada com IDs simples e data, dos mais recentes para os mais antigos
+        for (ReplayInfo replay : index.getSorted(ReplaySortType.DATE)) {
+            String simpleId = plugin.getDuelLogManager().getSimpleIdFromUUID(replay.getId());
             if (simpleId == null) {
-                System.out.println("[PrimeLeagueX1] UUID sem ID simples associado: " + uuid);
-                continue; // Pular este arquivo
-            }
-            
-            // Extrair informações básicas do arquivo de log
-            String data = "";
-            String tipo = "";
-            List<String> time1 = new ArrayList<>();
-            List<String> time2 = new ArrayList<>();
-            boolean readingTeam1 = false;
-            boolean readingTeam2 = false;
-            
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.startsWith("Data:")) {
-                        data = line.substring(5).trim();
-                    } else if (line.startsWith("Tipo:")) {
-                        tipo = line.substring(5).trim();
-                    } else if (line.equals("Equipe 1:")) {
-                        readingTeam1 = true;
-                        readingTeam2 = false;
-                    } else if (line.equals("Equipe 2:")) {
-                        readingTeam1 = false;
-                        readingTeam2 = true;
-                    } else if (line.equals("Eventos:")) {
-                        break; // Não precisamos ler os eventos aqui
-                    } else if (line.startsWith("- ") && readingTeam1) {
-                        time1.add(line.substring(2));
-                    } else if (line.startsWith("- ") && readingTeam2) {
-                        time2.add(line.substring(2));
-                    }
-                }
-            } catch (IOException e) {
-                System.out.println("[PrimeLeagueX1] Erro ao ler arquivo de replay: " + file.getName() + " - " + e.getMessage());
-                continue; // Pular este arquivo
+                continue; // Replay sem ID simples associado
             }
             
             // Formatar mensagem com detalhes básicos
             StringBuilder sb = new StringBuilder();
             sb.append("&e[").append(simpleId).append("] &7");
-            sb.append(data).append(" - ");
+            sb.append(replay.getDate()).append(" - ");
             
-            if ("SOLO".equals(tipo)) {
-                if (time1.size() > 0 && time2.size() > 0) {
-                    sb.append(time1.get(0)).append(" vs ").append(time2.get(0));
+            if (!replay.isTeamDuel()) {
+                if (replay.getTeam1Size() > 0 && replay.getTeam2Size() > 0) {
+                    sb.append(replay.getTeam1First()).append(" vs ").append(replay.getTeam2First());
                 } else {
                     sb.append("Duelo 1v1");
                 }
             } else {
-                sb.append("Duelo em Equipe (").append(time1.size()).append("v").append(time2.size()).append(")");
+                sb.append("Duelo em Equipe (").append(replay.getTeam1Size()).append("v").append(replay.getTeam2Size()).append(")");
             }
             
             sender.sendMessage(ColorUtils.colorize(sb.toString()));
@@ -232,170 +208,163 @@ public class ReplayCommand {
     }
     
     /**
-     * Exibe detalhes de um log de duelo
+     * Lista os replays de um jogador, dos mais recentes para os mais antigos
+     * Servido pelo índice invertido de jogadores, sem percorrer os replays.
+     * 
+     * @param sender Remetente do comando
+     * @param playerName Nome do jogador
+     * @param pageArg Página informada
+     */
+    private void showPlayerReplays(CommandSender sender, String playerName, String pageArg) {
+        String prefix = plugin.getMessageManager().getPrefix();
+        final int pageSize = 8;
+        
+        int page;
+        try {
+            page = Integer.parseInt(pageArg);
+        } catch (NumberFormatException e) {
+            sender.sendMessage(ColorUtils.colorize(prefix + "&cPágina inválida: &f" + pageArg));
+            return;
+        }
+        
+        ReplayIndex index = plugin.getDuelLogManager().getReplayIndex();
+        int total = index.countByPlayer(playerName);
+        if (total == 0) {
+            sender.sendMessage(ColorUtils.colorize(prefix + "&cNenhum replay encontrado para &f" + playerName + "&c."));
+            return;
+        }
+        
+        int pages = (total + pageSize - 1) / pageSize;
+        if (page < 1 || page > pages) {
+            sender.sendMessage(ColorUtils.colorize(prefix + "&cPágina inválida! Use uma página entre 1 e " + pages + "."));
+            return;
+        }
+        
+        sender.sendMessage(ColorUtils.colorize("&a=== Replays de " + playerName + " &7(" + page + "/" + pages + ", " + total + " duelos)&a ==="));
+        
+        for (ReplayInfo replay : index.getByPlayer(playerName, page, pageSize)) {
+            String simpleId = plugin.getDuelLogManager().getSimpleIdFromUUID(replay.getId());
+            
+            // Adversários: a outra equipe
+            int team = replay.getTeamOf(playerName);
+            String opponents;
+            if (replay.isSingles()) {
+                opponents = team == 1 ? replay.getTeam2First() : replay.getTeam1First();
+            } else {
+                opponents = "Equipe " + replay.getTeam1Size() + "v" + replay.getTeam2Size();
+            }
+            
+            sender.sendMessage(ColorUtils.colorize("&e[" + (simpleId != null ? simpleId : "?") + "] &7" + replay.getDate()
+                + " &f" + (replay.isTeamDuel() ? "TEAM" : "SOLO") + " &7vs &f" + opponents
+                + " &7| Duração: &f" + replay.getFormattedDuration()));
+        }
+        
+        if (page < pages) {
+            sender.sendMessage(ColorUtils.colorize("&7Use &f/x1 replay player " + playerName + " " + (page + 1) + " &7para a próxima página"));
+        } else {
+            sender.sendMessage(ColorUtils.colorize("&7Use &f/x1 replay ver <ID> &7para ver detalhes de um replay"));
+        }
+    }
+    
+    /**
+     * Exibe detalhes de um log de duelo e uma página dos seus eventos
+     * Os eventos são lidos do arquivo em sequência ({@link ReplayReader}): a página N pula direto
+     * para o seu primeiro evento e só as linhas da página são montadas.
      * 
      * @param sender Remetente do comando
      * @param simpleId ID simplificado do log
+     * @param pageArg Página de eventos informada
      */
-    private void viewLog(CommandSender sender, String simpleId) {
+    private void viewLog(CommandSender sender, String simpleId, String pageArg) {
         String prefix = plugin.getMessageManager().getPrefix();
         
+        int page;
+        try {
+            page = Integer.parseInt(pageArg);
+        } catch (NumberFormatException e) {
+            sender.sendMessage(ColorUtils.colorize(prefix + "&cPágina inválida: &f" + pageArg));
+            return;
+        }
+        
         // Obter arquivo de log a partir do ID simplificado
         File logFile = plugin.getDuelLogManager().getLogFileFromSimpleId(simpleId);
         
-        if (logFile == null || !logFile.exists()) {
+        if (logFile == null) {
             sender.sendMessage(ColorUtils.colorize(prefix + plugin.getMessageManager().getMessage("duelo-log.detalhes-nao-encontrado")));
             return;
         }
         
-        // Ler informações detalhadas
-        String data = "";
-        String tipo = "";
-        String duracao = "";
-        List<String> time1 = new ArrayList<>();
-        List<String> time2 = new ArrayList<>();
-        List<String> eventos = new ArrayList<>();
-        String vencedor = "Empate";
-        boolean readingTeam1 = false;
-        boolean readingTeam2 = false;
-        boolean readingEvents = false;
-        boolean readingDanoRecebido = false;
-        boolean readingDanoCausado = false;
-        boolean readingEliminacoes = false;
-        int totalEventos = 0;
-        int kills = 0;
-        int significantDamages = 0;
-        int danoTotal = 0;
-        Map<String, Integer> danoCausado = new HashMap<>();
-        Map<String, Integer> danoRecebido = new HashMap<>();
-        Map<String, Integer> eliminacoes = new HashMap<>();
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("Duelo:")) {
-                    // nada a fazer
-                } else if (line.startsWith("Data:")) {
-                    data = line.substring(5).trim();
-                } else if (line.startsWith("Tipo:")) {
-                    tipo = line.substring(5).trim();
-                } else if (line.startsWith("Duração:")) {
-                    duracao = line.substring(9).trim();
-                } else if (line.equals("Equipe 1:")) {
-                    readingTeam1 = true;
-                    readingTeam2 = false;
-                    readingEvents = false;
-                    readingDanoRecebido = false;
-                    readingDanoCausado = false;
-                    readingEliminacoes = false;
-                } else if (line.equals("Equipe 2:")) {
-                    readingTeam1 = false;
-                    readingTeam2 = true;
-                    readingEvents = false;
-                    readingDanoRecebido = false;
-                    readingDanoCausado = false;
-                    readingEliminacoes = false;
-                } else if (line.equals("Dano Causado:")) {
-                    readingTeam1 = false;
-                    readingTeam2 = false;
-                    readingEvents = false;
-                    readingDanoRecebido = false;
-                    readingDanoCausado = true;
-                    readingEliminacoes = false;
-                } else if (line.equals("Dano Recebido:")) {
-                    readingTeam1 = false;
-                    readingTeam2 = false;
-                    readingEvents = false;
-                    readingDanoRecebido = true;
-                    readingDanoCausado = false;
-                    readingEliminacoes = false;
-                } else if (line.equals("Eliminações:")) {
-                    readingTeam1 = false;
-                    readingTeam2 = false;
-                    readingEvents = false;
-                    readingDanoRecebido = false;
-                    readingDanoCausado = false;
-                    readingEliminacoes = true;
-                } else if (line.equals("Eventos:")) {
-                    readingTeam1 = false;
-                    readingTeam2 = false;
-                    readingEvents = true;
-                    readingDanoRecebido = false;
-                    readingDanoCausado = false;
-                    readingEliminacoes = false;
-                } else if (line.startsWith("Dano Total:")) {
-                    try {
-                        danoTotal = Integer.parseInt(line.substring(11).trim());
-                    } catch (NumberFormatException e) {
-                        // Ignorar se não for um número válido
-                    }
-                } else if (line.startsWith("- ") && readingTeam1) {
-                    time1.add(line.substring(2));
-                } else if (line.startsWith("- ") && readingTeam2) {
-                    time2.add(line.substring(2));
-                } else if (readingDanoCausado && line.contains(":")) {
-                    String[] parts = line.split(":");
-                    if (parts.length == 2) {
-                        String player = parts[0].trim();
-                        try {
-                            int dano = Integer.parseInt(parts[1].trim());
-                            danoCausado.put(player, dano);
-                        } catch (NumberFormatException e) {
-                            // Ignorar se não for um número válido
-                        }
-                    }
-                } else if (readingDanoRecebido && line.contains(":")) {
-                    String[] parts = line.split(":");
-                    if (parts.length == 2) {
-                        String player = parts[0].trim();
-                        try {
-                            int dano = Integer.parseInt(parts[1].trim());
-                            danoRecebido.put(player, dano);
-                        } catch (NumberFormatException e) {
-                            // Ignorar se não for um número válido
-                        }
-                    }
-                } else if (readingEliminacoes && line.contains(":")) {
-                    String[] parts = line.split(":");
-                    if (parts.length == 2) {
-                        String player = parts[0].trim();
-                        try {
-                            int kill = Integer.parseInt(parts[1].trim());
-                            eliminacoes.put(player, kill);
-                            kills += kill;
-                        } catch (NumberFormatException e) {
-                            // Ignorar se não for um número válido
-                        }
-                    }
-                } else if (readingEvents) {
-                    totalEventos++;
-                    
-                    // Contar tipos de eventos
-                    if (line.contains("foi eliminado por")) {
-                        // Já contabilizado acima pelos dados de estatísticas
-                    } else if (line.contains("recebeu dano significativo")) {
-                        significantDamages++;
-                    } else if (line.contains("Duelo terminou. Vencedor:")) {
-                        if (line.contains("Equipe 1")) {
-                            vencedor = time1.size() == 1 ? time1.get(0) : "Equipe 1";
-                        } else if (line.contains("Equipe 2")) {
-                            vencedor = time2.size() == 1 ? time2.get(0) : "Equipe 2";
-                        }
-                    }
-                    
-                    // Guardar eventos importantes apenas (filtra eventos de menor importância)
-                    if (line.contains("Duelo iniciado") || 
-                        line.contains("Duelo terminou") || 
-                        line.contains("foi eliminado por") ||
-                        line.contains("recebeu dano significativo")) {
-                    eventos.add(line);
-                    }
+        try (ReplayReader reader = ReplayReader.open(logFile)) {
+            ReplayData replay = reader.getHeader();
+            int totalEventos = reader.getEventCount();
+            int pages = Math.max(1, (totalEventos + EVENTS_PER_PAGE - 1) / EVENTS_PER_PAGE);
+            if (page < 1 || page > pages) {
+                sender.sendMessage(ColorUtils.colorize(prefix + "&cPágina inválida! Use uma página entre 1 e " + pages + "."));
+                return;
+            }
+            
+            // Danos significativos do resumo do índice; só sem o resumo (índice ainda carregando)
+            // o restante do arquivo é percorrido na primeira página para contá-los
+            ReplayInfo info = plugin.getDuelLogManager().getReplayIndex().get(replay.getId());
+            boolean countDamages = page == 1 && info == null;
+            
+            reader.seek((page - 1) * EVENTS_PER_PAGE);
+            List<String> eventos = new ArrayList<>(EVENTS_PER_PAGE);
+            int lidos = 0;
+            int significantDamages = info != null ? info.getSignificantDamages() : 0;
+            while (reader.hasNext() && (countDamages || lidos < EVENTS_PER_PAGE)) {
+                ReplayEvent event = reader.next();
+                if (event != null && lidos < EVENTS_PER_PAGE) {
+                    eventos.add(replay.formatEvent(event));
                 }
+                if (countDamages && event != null && event.getType() == ReplayEventType.SIGNIFICANT_DAMAGE) {
+                    significantDamages++;
+                }
+                lidos++;
+            }
+            
+            if (page == 1) {
+                showSummary(sender, simpleId, replay, totalEventos, significantDamages);
+            }
+            
+            sender.sendMessage(ColorUtils.colorize("&6&l=== Eventos &7(" + page + "/" + pages + ") &6&l==="));
+            for (String evento : eventos) {
+                sender.sendMessage(ColorUtils.colorize("&f" + evento));
+            }
+            
+            if (page < pages) {
+                sender.sendMessage(ColorUtils.colorize("&7Use &f/x1 replay ver " + simpleId + " " + (page + 1) + " &7para a próxima página"));
+            } else {
+                // O arquivo é binário; o texto completo é gerado sob demanda
+                sender.sendMessage(ColorUtils.colorize("&7Para guardar o replay completo, exporte-o em texto:"));
+                sender.sendMessage(ColorUtils.colorize("&f/x1 replay texto " + simpleId));
             }
         } catch (IOException e) {
-            sender.sendMessage(ColorUtils.colorize("&cErro ao ler arquivo de log: " + e.getMessage()));
-            return;
+            System.out.println("[PrimeLeagueX1] Erro ao ler arquivo de replay: " + logFile.getName() + " - " + e.getMessage());
+            sender.sendMessage(ColorUtils.colorize("&cErro ao ler arquivo de log: " + logFile.getName()));
         }
+    }
+        
+    /**
+     * Exibe o resumo de um duelo (primeira página de /x1 replay ver)
+     * 
+     * @param sender Remetente do comando
+     * @param simpleId ID simplificado do log
+     * @param replay Dados do cabeçalho do replay
+     * @param totalEventos Número de eventos do replay
+     * @param significantDamages Número de danos significativos
+     */
+    private void showSummary(CommandSender sender, String simpleId, ReplayData replay, int totalEventos, int significantDamages) {
+        String data = replay.getDate();
+        String tipo = replay.getType();
+        String duracao = replay.getFormattedDuration();
+        List<String> time1 = replay.getTeam1();
+        List<String> time2 = replay.getTeam2();
+        String vencedor = replay.getWinnerName();
+        int kills = replay.getTotalKills();
+        int danoTotal = replay.getTotalDamage();
+        Map<String, Integer> danoCausado = replay.getDamageDealt();
+        Map<String, Integer> eliminacoes = replay.getKills();
         
         // Enviar detalhes formatados
         sender.sendMessage(ColorUtils.colorize("&a&l=== Detalhes do Duelo " + simpleId + " ==="));
@@ -463,48 +432,11 @@ public class ReplayCommand {
                 sender.sendMessage(ColorUtils.colorize(playerColor + entry.getKey() + "&7: &f" + entry.getValue() + " de dano"));
             }
         }
-        
-        // Resumo dos eventos importantes (limitar a 5 eventos)
-        sender.sendMessage(ColorUtils.colorize("&6&l=== Eventos Importantes ==="));
-        
-        // Garantir que temos o início e o fim
-        List<String> eventosImportantes = new ArrayList<>();
-        String inicio = "";
-        String fim = "";
-        
-        for (String evento : eventos) {
-            if (evento.contains("Duelo iniciado")) {
-                inicio = evento;
-            } else if (evento.contains("Duelo terminou")) {
-                fim = evento;
-            } else if (eventosImportantes.size() < 5) {
-                eventosImportantes.add(evento);
-            }
-        }
-        
-        // Mostrar o evento de início
-        if (!inicio.isEmpty()) {
-            sender.sendMessage(ColorUtils.colorize("&f" + inicio));
-        }
-        
-        // Mostrar até 3 eventos do meio
-        for (String evento : eventosImportantes) {
-            sender.sendMessage(ColorUtils.colorize("&f" + evento));
-        }
-        
-        // Mostrar o evento de fim
-        if (!fim.isEmpty()) {
-            sender.sendMessage(ColorUtils.colorize("&f" + fim));
-        }
-        
-        // Caminho relativo do arquivo
-        String relativePath = "plugins/PrimeLeagueX1/duellogs/" + logFile.getName();
-        sender.sendMessage(ColorUtils.colorize("&7Para mais detalhes, veja o arquivo completo em:"));
-        sender.sendMessage(ColorUtils.colorize("&f" + relativePath));
     }
     
     /**
      * Remove logs antigos
+     * A decisão usa o índice de replays; os arquivos são apagados na thread de gravação.
      * 
      * @param sender Remetente do comando
      */
@@ -516,99 +448,30 @@ public class ReplayCommand {
         // 2. Manter replays importantes (muitas eliminações/dano) mesmo antigos
         // 3. Remover os demais replays antigos
         
-        File[] logFiles = plugin.getDuelLogManager().getLogFiles();
-        if (logFiles == null || logFiles.length == 0) {
+        ReplayIndex index = plugin.getDuelLogManager().getReplayIndex();
+        if (index.size() == 0) {
             sender.sendMessage(ColorUtils.colorize(prefix + "Nenhum replay para limpar."));
             return;
         }
         
-        int totalReplays = logFiles.length;
-        int removidos = 0;
+        int totalReplays = index.size();
         int preservados = 0;
-        int ignorados = 0; // Recentes
-        
-        // Mapa para armazenar informações de cada replay
-        class ReplayInfo {
-            File file;
-            long timestamp;
-            int eliminacoes;
-            int danoTotal;
-            boolean importante;
-            
-            public ReplayInfo(File file, long timestamp, int eliminacoes, int danoTotal) {
-                this.file = file;
-                this.timestamp = timestamp;
-                this.eliminacoes = eliminacoes;
-                this.danoTotal = danoTotal;
-                
-                // Considerar importante se tiver mais de 3 eliminações ou mais de 150 de dano
-                this.importante = (eliminacoes > 3 || danoTotal > 150);
-            }
-        }
-        
-        List<ReplayInfo> replaysInfo = new ArrayList<>();
-        long agora = System.currentTimeMillis();
         long seteDiasEmMillis = 7 * 24 * 60 * 60 * 1000L; // 7 dias em milissegundos
         
-        // Analisar cada arquivo de replay
-        for (File file : logFiles) {
-            try {
-                // Verificar data de criação do arquivo
-                long lastModified = file.lastModified();
-                boolean recente = (agora - lastModified) < seteDiasEmMillis;
-                
-                if (recente) {
-                    // Ignorar arquivos recentes (não serão apagados)
-                    ignorados++;
-                    continue;
-                }
-                
-                // Para arquivos antigos, verificar se são importantes
-                int eliminacoes = 0;
-                int danoTotal = 0;
-                boolean readingEvents = false;
-                
-                try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        // Contar eliminações
-                        if (line.contains("foi eliminado por")) {
-                            eliminacoes++;
-                        } 
-                        // Extrair dano total
-                        else if (line.startsWith("Dano Total:")) {
-                            try {
-                                danoTotal = Integer.parseInt(line.substring(11).trim());
-                            } catch (NumberFormatException e) {
-                                // Ignorar erro
-                            }
-                        }
-                    }
-                } catch (IOException e) {
-                    // Se não conseguir ler, considerar não importante
-                    continue;
-                }
-                
-                // Adicionar informações à lista
-                replaysInfo.add(new ReplayInfo(file, lastModified, eliminacoes, danoTotal));
-                
-            } catch (Exception e) {
-                // Ignorar erro e continuar
-            }
-        }
+        List<ReplayInfo> antigos = index.getOlderThan(System.currentTimeMillis() - seteDiasEmMillis);
+        int ignorados = totalReplays - antigos.size(); // Recentes
         
-        // Processar os arquivos antigos
-        for (ReplayInfo info : replaysInfo) {
-            if (info.importante) {
-                // Marcar como importante e preservar
+        List<UUID> remover = new ArrayList<>();
+        for (ReplayInfo info : antigos) {
+            // Considerar importante se tiver mais de 3 eliminações ou mais de 150 de dano
+            if (info.getKills() > 3 || info.getTotalDamage() > 150) {
                 preservados++;
             } else {
                 // Não é importante e não é recente - pode ser removido
-                if (info.file.delete()) {
-                    removidos++;
-                }
+                remover.add(info.getId());
             }
         }
+        int removidos = plugin.getDuelLogManager().deleteLogs(remover);
         
         // Enviar mensagem resumindo a operação
         sender.sendMessage(ColorUtils.colorize(prefix + "&aOperação de limpeza concluída:"));
@@ -620,171 +483,75 @@ public class ReplayCommand {
     
     /**
      * Mostra os replays mais interessantes com base em uma métrica
+     * Servido pelo índice de replays, sem abrir os arquivos de log.
      * 
      * @param sender Remetente do comando
      * @param metrica Métrica a usar (dano, kills, tempo)
      */
     private void showTopReplays(CommandSender sender, String metrica) {
-        File[] logFiles = plugin.getDuelLogManager().getLogFiles();
+        ReplayIndex index = plugin.getDuelLogManager().getReplayIndex();
         
-        if (logFiles == null || logFiles.length == 0) {
+        if (index.size() == 0) {
             sender.sendMessage(ColorUtils.colorize(plugin.getMessageManager().getPrefix() + "Nenhum replay encontrado!"));
             return;
         }
         
-        // Classe para armazenar dados dos replays para ranking
-        class ReplayRanking {
-            String id;
-            String data;
-            String tipo;
-            String players;
-            int danoTotal;
-            int kills;
-            int duracao; // em segundos
-            
-            public ReplayRanking(String id, String data, String tipo, String players, int danoTotal, int kills, int duracao) {
-                this.id = id;
-                this.data = data;
-                this.tipo = tipo;
-                this.players = players;
-                this.danoTotal = danoTotal;
-                this.kills = kills;
-                this.duracao = duracao;
-            }
-        }
-        
-        List<ReplayRanking> replays = new ArrayList<>();
-        
-        // Ler dados de todos os replays
-        for (File file : logFiles) {
-            try {
-                String uuid = file.getName().replace(".duellog", "");
-                String simpleId = plugin.getDuelLogManager().getSimpleIdFromUUID(UUID.fromString(uuid));
-                
-                if (simpleId == null) {
-                    continue;
-                }
-                
-                String data = "";
-                String tipo = "";
-                int danoTotal = 0;
-                int kills = 0;
-                int duracaoSegundos = 0;
-                List<String> time1 = new ArrayList<>();
-                List<String> time2 = new ArrayList<>();
-                
-                boolean readingTeam1 = false;
-                boolean readingTeam2 = false;
-                
-                try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.startsWith("Data:")) {
-                            data = line.substring(5).trim();
-                        } else if (line.startsWith("Tipo:")) {
-                            tipo = line.substring(5).trim();
-                        } else if (line.startsWith("Duração:")) {
-                            String duracao = line.substring(9).trim();
-                            // Converter duração (MM:SS) para segundos
-                            String[] parts = duracao.split(":");
-                            if (parts.length == 2) {
-                                try {
-                                    int minutos = Integer.parseInt(parts[0]);
-                                    int segundos = Integer.parseInt(parts[1]);
-                                    duracaoSegundos = minutos * 60 + segundos;
-                                } catch (NumberFormatException e) {
-                                    // Ignorar erro
-                                }
-                            }
-                        } else if (line.equals("Equipe 1:")) {
-                            readingTeam1 = true;
-                            readingTeam2 = false;
-                        } else if (line.equals("Equipe 2:")) {
-                            readingTeam1 = false;
-                            readingTeam2 = true;
-                        } else if (line.startsWith("Dano Total:")) {
-                            try {
-                                danoTotal = Integer.parseInt(line.substring(11).trim());
-                            } catch (NumberFormatException e) {
-                                // Ignorar
-                            }
-                        } else if (line.startsWith("- ") && readingTeam1) {
-                            time1.add(line.substring(2));
-                        } else if (line.startsWith("- ") && readingTeam2) {
-                            time2.add(line.substring(2));
-                        } else if (line.contains("foi eliminado por")) {
-                            kills++;
-                        }
-                    }
-                } catch (IOException e) {
-                    continue;
-                }
-                
-                // Formar string de jogadores
-                String players;
-                if (time1.size() == 1 && time2.size() == 1) {
-                    players = time1.get(0) + " vs " + time2.get(0);
-                } else {
-                    players = "Equipe " + time1.size() + "v" + time2.size();
-                }
-                
-                replays.add(new ReplayRanking(simpleId, data, tipo, players, danoTotal, kills, duracaoSegundos));
-                
-            } catch (Exception e) {
-                // Ignorar arquivos com problemas
-                continue;
-            }
-        }
-        
-        // Ordenar pela métrica escolhida
+        // Escolher a métrica
+        ReplaySortType tipo;
         switch (metrica.toLowerCase()) {
             case "kills":
             case "eliminacoes":
-                replays.sort((a, b) -> Integer.compare(b.kills, a.kills));
+                tipo = ReplaySortType.KILLS;
                 sender.sendMessage(ColorUtils.colorize("&a&l=== Top Replays por Eliminações ==="));
                 break;
                 
             case "tempo":
             case "duration":
             case "duracao":
-                replays.sort((a, b) -> Integer.compare(b.duracao, a.duracao));
+                tipo = ReplaySortType.DURATION;
                 sender.sendMessage(ColorUtils.colorize("&a&l=== Top Replays por Duração ==="));
                 break;
                 
             default: // dano
-                replays.sort((a, b) -> Integer.compare(b.danoTotal, a.danoTotal));
+                tipo = ReplaySortType.DAMAGE;
                 sender.sendMessage(ColorUtils.colorize("&a&l=== Top Replays por Dano Total ==="));
                 break;
         }
         
         // Mostrar top 5 replays
         int count = 0;
-        for (ReplayRanking replay : replays) {
-            if (count >= 5) break;
+        for (ReplayInfo replay : index.top(tipo, 5)) {
+            String id = plugin.getDuelLogManager().getSimpleIdFromUUID(replay.getId());
+            if (id == null) {
+                continue;
+            }
             
-            String duracao = String.format("%02d:%02d", replay.duracao / 60, replay.duracao % 60);
+            String players;
+            if (replay.isSingles()) {
+                players = replay.getTeam1First() + " vs " + replay.getTeam2First();
+            } else {
+                players = "Equipe " + replay.getTeam1Size() + "v" + replay.getTeam2Size();
+            }
+            String duracao = replay.getFormattedDuration();
             
-            sender.sendMessage(ColorUtils.colorize("&e#" + (count + 1) + " &7[ID: &f" + replay.id + "&7] &f" + replay.players));
+            sender.sendMessage(ColorUtils.colorize("&e#" + (count + 1) + " &7[ID: &f" + id + "&7] &f" + players));
             
-            switch (metrica.toLowerCase()) {
-                case "kills":
-                case "eliminacoes":
-                    sender.sendMessage(ColorUtils.colorize("   &7Eliminações: &f" + replay.kills + 
-                                                        " &7| Dano: &f" + replay.danoTotal +
+            switch (tipo) {
+                case KILLS:
+                    sender.sendMessage(ColorUtils.colorize("   &7Eliminações: &f" + replay.getKills() + 
+                                                        " &7| Dano: &f" + replay.getTotalDamage() +
                                                         " &7| Duração: &f" + duracao));
                     break;
                     
-                case "tempo":
-                case "duration":
-                case "duracao":
+                case DURATION:
                     sender.sendMessage(ColorUtils.colorize("   &7Duração: &f" + duracao + 
-                                                        " &7| Dano: &f" + replay.danoTotal +
-                                                        " &7| Eliminações: &f" + replay.kills));
+                                                        " &7| Dano: &f" + replay.getTotalDamage() +
+                                                        " &7| Eliminações: &f" + replay.getKills()));
                     break;
                     
                 default: // dano
-                    sender.sendMessage(ColorUtils.colorize("   &7Dano: &f" + replay.danoTotal + 
-                                                        " &7| Eliminações: &f" + replay.kills +
+                    sender.sendMessage(ColorUtils.colorize("   &7Dano: &f" + replay.getTotalDamage() + 
+                                                        " &7| Eliminações: &f" + replay.getKills() +
                                                         " &7| Duração: &f" + duracao));
                     break;
             }
@@ -797,6 +564,7 @@ public class ReplayCommand {
 
     /**
      * Mostra os momentos mais importantes de um replay específico
+     * Os momentos são calculados em uma passada pelos eventos, guardando só as linhas exibidas.
      * 
      * @param sender Remetente do comando
      * @param simpleId ID simplificado do log
@@ -807,97 +575,35 @@ public class ReplayCommand {
         // Obter arquivo de log a partir do ID simplificado
         File logFile = plugin.getDuelLogManager().getLogFileFromSimpleId(simpleId);
         
-        if (logFile == null || !logFile.exists()) {
+        if (logFile == null) {
             sender.sendMessage(ColorUtils.colorize(prefix + plugin.getMessageManager().getMessage("duelo-log.detalhes-nao-encontrado")));
             return;
         }
         
-        // Ler informações detalhadas
-        String data = "";
-        String duracao = "";
-        List<String> time1 = new ArrayList<>();
-        List<String> time2 = new ArrayList<>();
-        List<String> eventos = new ArrayList<>();
-        Map<String, Integer> killsByPlayer = new HashMap<>();
-        Map<String, List<String>> playerHighlights = new HashMap<>();
-        boolean readingTeam1 = false;
-        boolean readingTeam2 = false;
-        boolean readingEvents = false;
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("Data:")) {
-                    data = line.substring(5).trim();
-                } else if (line.startsWith("Duração:")) {
-                    duracao = line.substring(9).trim();
-                } else if (line.equals("Equipe 1:")) {
-                    readingTeam1 = true;
-                    readingTeam2 = false;
-                    readingEvents = false;
-                } else if (line.equals("Equipe 2:")) {
-                    readingTeam1 = false;
-                    readingTeam2 = true;
-                    readingEvents = false;
-                } else if (line.equals("Eventos:")) {
-                    readingTeam1 = false;
-                    readingTeam2 = false;
-                    readingEvents = true;
-                } else if (line.startsWith("- ") && readingTeam1) {
-                    String playerName = line.substring(2);
-                    time1.add(playerName);
-                    playerHighlights.put(playerName, new ArrayList<>());
-                    killsByPlayer.put(playerName, 0);
-                } else if (line.startsWith("- ") && readingTeam2) {
-                    String playerName = line.substring(2);
-                    time2.add(playerName);
-                    playerHighlights.put(playerName, new ArrayList<>());
-                    killsByPlayer.put(playerName, 0);
-                } else if (readingEvents) {
-                    // Filtrar eventos significativos
-                    if (line.contains("foi eliminado por")) {
-                        eventos.add(line);
-                        
-                        // Registrar quem fez a eliminação
-                        for (String player : playerHighlights.keySet()) {
-                            if (line.contains(player + " eliminou") || line.contains("eliminado por " + player)) {
-                                playerHighlights.get(player).add(line);
-                                killsByPlayer.put(player, killsByPlayer.getOrDefault(player, 0) + 1);
-                                break;
-                            }
-                        }
-                    } else if (line.contains("recebeu dano significativo")) {
-                        // Registrar danos significativos para os jogadores envolvidos
-                        for (String player : playerHighlights.keySet()) {
-                            if (line.contains(player + " causou") || line.contains(player + " recebeu")) {
-                                playerHighlights.get(player).add(line);
-                                break;
-                            }
-                        }
-                        eventos.add(line);
-                    } else if (line.contains("Duelo iniciado") || line.contains("Duelo terminou")) {
-                        eventos.add(line);
-                    }
-                }
-            }
+        // Ler o cabeçalho e percorrer os eventos uma vez
+        ReplayData replay;
+        ReplayHighlights highlights;
+        try (ReplayReader reader = ReplayReader.open(logFile)) {
+            replay = reader.getHeader();
+            highlights = ReplayHighlights.collect(reader, HIGHLIGHT_LINES);
         } catch (IOException e) {
-            sender.sendMessage(ColorUtils.colorize("&cErro ao ler arquivo de log: " + e.getMessage()));
+            System.out.println("[PrimeLeagueX1] Erro ao ler arquivo de replay: " + logFile.getName() + " - " + e.getMessage());
+            sender.sendMessage(ColorUtils.colorize("&cErro ao ler arquivo de log: " + logFile.getName()));
             return;
         }
         
+        String data = replay.getDate();
+        String duracao = replay.getFormattedDuration();
+        List<String> time1 = replay.getTeam1();
+        List<String> time2 = replay.getTeam2();
+        
         // Determinar o vencedor
-        String vencedor = determinarVencedor(eventos, time1, time2);
-        int equipeVencedora = getEquipeVencedora(vencedor, time1, time2);
-        
-        // Encontrar o jogador com mais destaques (MVP do duelo)
-        String mvpPlayer = "";
-        int maxKills = 0;
-        for (Map.Entry<String, Integer> entry : killsByPlayer.entrySet()) {
-            if (entry.getValue() > maxKills) {
-                maxKills = entry.getValue();
-                mvpPlayer = entry.getKey();
-            }
-        }
+        String vencedor = replay.getWinnerName();
+        int equipeVencedora = replay.getWinnerTeam();
+        
+        // Jogador com mais eliminações (MVP do duelo)
+        String mvpPlayer = highlights.getMvp();
+        int maxKills = highlights.getMvpKills();
         
         // Enviar header
         sender.sendMessage(ColorUtils.colorize("&a&l=== Highlights do Duelo " + simpleId + " ==="));
@@ -921,7 +627,7 @@ public class ReplayCommand {
         }
         
         // MVP do duelo (jogador com mais eliminações)
-        if (!mvpPlayer.isEmpty() && maxKills > 0) {
+        if (mvpPlayer != null && maxKills > 0) {
             boolean isTeam1 = time1.contains(mvpPlayer);
             String playerColor = isTeam1 ? "&a" : "&c";
             sender.sendMessage(ColorUtils.colorize("&6MVP: " + playerColor + mvpPlayer + " &7com &f" + maxKills + " eliminações"));
@@ -930,62 +636,40 @@ public class ReplayCommand {
         // Momentos importantes - Ordenados por importância
         sender.sendMessage(ColorUtils.colorize("&e&l=== Momentos Importantes ==="));
         
-        // Primeiro o início e o fim
-        String inicio = "";
-        String fim = "";
-        for (String evento : eventos) {
-            if (evento.contains("Duelo iniciado")) {
-                inicio = evento;
-            } else if (evento.contains("Duelo terminou")) {
-                fim = evento;
-            }
-        }
-        
-        if (!inicio.isEmpty()) {
-            sender.sendMessage(ColorUtils.colorize("&7" + inicio));
+        if (highlights.getStart() != null) {
+            sender.sendMessage(ColorUtils.colorize("&7" + highlights.getStart()));
         } else {
             // Garantir que sempre temos o evento de início mesmo que falte no log
             sender.sendMessage(ColorUtils.colorize("&7[00:00] Duelo iniciado"));
         }
         
-        // Separar eliminações e danos significativos
-        List<String> eliminacoes = new ArrayList<>();
-        List<String> danosSig = new ArrayList<>();
-        
-        for (String evento : eventos) {
-            if (evento.contains("foi eliminado por")) {
-                eliminacoes.add(evento);
-            } else if (evento.contains("recebeu dano significativo")) {
-                danosSig.add(evento);
-            }
-        }
-        
-        // Mostrar todas as eliminações (geralmente são poucos eventos)
-        if (!eliminacoes.isEmpty()) {
+        // Eliminações (geralmente são poucos eventos)
+        if (highlights.getKillCount() > 0) {
             sender.sendMessage(ColorUtils.colorize("&e&l--- Eliminações ---"));
-            for (String eliminacao : eliminacoes) {
+            for (String eliminacao : highlights.getKills()) {
                 sender.sendMessage(ColorUtils.colorize("&f" + eliminacao));
             }
+            if (highlights.getKillCount() > highlights.getKills().size()) {
+                sender.sendMessage(ColorUtils.colorize("&7...e mais " + (highlights.getKillCount() - highlights.getKills().size()) + " eliminações."));
+            }
         }
         
         // Mostrar até 5 danos significativos
-        if (!danosSig.isEmpty()) {
+        if (highlights.getDamageCount() > 0) {
             sender.sendMessage(ColorUtils.colorize("&e&l--- Danos Significativos ---"));
-            int count = 0;
-            for (String dano : danosSig) {
-                if (count >= 5) break;
-                sender.sendMessage(ColorUtils.colorize("&f" + dano));
-                count++;
+            List<String> danosSig = highlights.getDamages();
+            for (int i = 0; i < Math.min(5, danosSig.size()); i++) {
+                sender.sendMessage(ColorUtils.colorize("&f" + danosSig.get(i)));
             }
             
-            if (danosSig.size() > 5) {
-                sender.sendMessage(ColorUtils.colorize("&7...e mais " + (danosSig.size() - 5) + " eventos de dano."));
+            if (highlights.getDamageCount() > 5) {
+                sender.sendMessage(ColorUtils.colorize("&7...e mais " + (highlights.getDamageCount() - 5) + " eventos de dano."));
             }
         }
         
         // Final do duelo
-        if (!fim.isEmpty()) {
-            sender.sendMessage(ColorUtils.colorize("&7" + fim));
+        if (highlights.getEnd() != null) {
+            sender.sendMessage(ColorUtils.colorize("&7" + highlights.getEnd()));
         } else {
             // Garantir que sempre temos o evento de fim
             if (vencedor.equals("Empate")) {
@@ -998,16 +682,16 @@ public class ReplayCommand {
         }
         
         // Se houver um MVP com mais de uma eliminação, mostrar seus highlights
-        if (!mvpPlayer.isEmpty() && maxKills > 1 && playerHighlights.containsKey(mvpPlayer)) {
-            List<String> mvpHighlights = playerHighlights.get(mvpPlayer);
-            if (!mvpHighlights.isEmpty()) {
-                boolean isTeam1 = time1.contains(mvpPlayer);
-                String playerColor = isTeam1 ? "&a" : "&c";
+        if (mvpPlayer != null && maxKills > 1 && !highlights.getMvpMoments().isEmpty()) {
+            boolean isTeam1 = time1.contains(mvpPlayer);
+            String playerColor = isTeam1 ? "&a" : "&c";
                 
-                sender.sendMessage(ColorUtils.colorize("&6&l=== Highlights de " + playerColor + mvpPlayer + " &6&l==="));
-                for (String highlight : mvpHighlights) {
-                    sender.sendMessage(ColorUtils.colorize("&f" + highlight));
-                }
+            sender.sendMessage(ColorUtils.colorize("&6&l=== Highlights de " + playerColor + mvpPlayer + " &6&l==="));
+            for (String highlight : highlights.getMvpMoments()) {
+                sender.sendMessage(ColorUtils.colorize("&f" + highlight));
+            }
+            if (highlights.getMvpMomentCount() > highlights.getMvpMoments().size()) {
+                sender.sendMessage(ColorUtils.colorize("&7...e mais " + (highlights.getMvpMomentCount() - highlights.getMvpMoments().size()) + " momentos."));
             }
         }
         
@@ -1035,77 +719,27 @@ public class ReplayCommand {
         // Obter arquivo de log a partir do ID simplificado
         File logFile = plugin.getDuelLogManager().getLogFileFromSimpleId(simpleId);
         
-        if (logFile == null || !logFile.exists()) {
+        if (logFile == null) {
             sender.sendMessage(ColorUtils.colorize(prefix + plugin.getMessageManager().getMessage("duelo-log.detalhes-nao-encontrado")));
             return;
         }
         
-        // Ler informações básicas do replay
-        String data = "";
-        String tipo = "";
-        String duracao = "";
-        int danoTotal = 0;
-        int eliminacoes = 0;
-        List<String> time1 = new ArrayList<>();
-        List<String> time2 = new ArrayList<>();
-        List<String> eventos = new ArrayList<>();
-        boolean readingTeam1 = false;
-        boolean readingTeam2 = false;
-        boolean readingEvents = false;
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("Data:")) {
-                    data = line.substring(5).trim();
-                } else if (line.startsWith("Tipo:")) {
-                    tipo = line.substring(5).trim();
-                } else if (line.startsWith("Duração:")) {
-                    duracao = line.substring(9).trim();
-                } else if (line.equals("Equipe 1:")) {
-                    readingTeam1 = true;
-                    readingTeam2 = false;
-                    readingEvents = false;
-                } else if (line.equals("Equipe 2:")) {
-                    readingTeam1 = false;
-                    readingTeam2 = true;
-                    readingEvents = false;
-                } else if (line.equals("Eventos:")) {
-                    readingTeam1 = false;
-                    readingTeam2 = false;
-                    readingEvents = true;
-                } else if (line.startsWith("- ") && readingTeam1) {
-                    time1.add(line.substring(2));
-                } else if (line.startsWith("- ") && readingTeam2) {
-                    time2.add(line.substring(2));
-                } else if (line.startsWith("Dano Total:")) {
-                    try {
-                        danoTotal = Integer.parseInt(line.substring(11).trim());
-                    } catch (NumberFormatException e) {
-                        // Ignorar se não for um número
-                    }
-                } else if (line.contains("foi eliminado por")) {
-                    eliminacoes++;
-                } else if (readingEvents) {
-                    eventos.add(line);
-                }
-                
-                // Se já temos todas as informações básicas, podemos parar
-                if (!data.isEmpty() && !tipo.isEmpty() && !duracao.isEmpty() && 
-                    !time1.isEmpty() && !time2.isEmpty() && readingEvents) {
-                    if (eventos.size() >= 2) { // Temos pelo menos início e fim
-                        break;
-                    }
-                }
-            }
-        } catch (IOException e) {
-            sender.sendMessage(ColorUtils.colorize("&cErro ao ler arquivo de log: " + e.getMessage()));
+        // Ler só o cabeçalho do replay
+        ReplayData replay = readReplayHeader(logFile);
+        if (replay == null) {
+            sender.sendMessage(ColorUtils.colorize("&cErro ao ler arquivo de log: " + logFile.getName()));
             return;
         }
         
+        String duracao = replay.getFormattedDuration();
+        int danoTotal = replay.getTotalDamage();
+        int eliminacoes = replay.getTotalKills();
+        List<String> time1 = replay.getTeam1();
+        List<String> time2 = replay.getTeam2();
+        
         // Determinar o vencedor
-        String vencedor = determinarVencedor(eventos, time1, time2);
-        int equipeVencedora = getEquipeVencedora(vencedor, time1, time2);
+        String vencedor = replay.getWinnerName();
+        int equipeVencedora = replay.getWinnerTeam();
         
         // Determinar o título do replay
         String replayTitle;
@@ -1144,111 +778,62 @@ public class ReplayCommand {
     }
 
     /**
-     * Determina quem foi o vencedor do duelo com base nos eventos do replay
+     * Exporta um replay no formato em texto
+     * A conversão é feita em segundo plano e o jogador é avisado quando o arquivo estiver pronto.
      * 
-     * @param eventos Lista de eventos do duelo
-     * @param time1 Lista de jogadores da equipe 1
-     * @param time2 Lista de jogadores da equipe 2
-     * @return Nome do vencedor ou "Empate" se não houver vencedor
+     * @param sender Remetente do comando
+     * @param simpleId ID simplificado do log
      */
-    private String determinarVencedor(List<String> eventos, List<String> time1, List<String> time2) {
-        // Primeiro verificar o evento de "Duelo terminou" que geralmente tem o resultado
-        for (String evento : eventos) {
-            if (evento.contains("Duelo terminou")) {
-                if (evento.contains("Vencedor: Equipe 1")) {
-                    return time1.size() == 1 ? time1.get(0) : "Equipe 1";
-                } else if (evento.contains("Vencedor: Equipe 2")) {
-                    return time2.size() == 1 ? time2.get(0) : "Equipe 2";
-                } else if (evento.contains("Resultado: Empate")) {
-                    return "Empate";
-                } else if (evento.contains("Vencedor:")) {
-                    // Verificar se o vencedor é um jogador específico
-                    for (String player : time1) {
-                        if (evento.contains("Vencedor: " + player)) {
-                            return player;
-                        }
-                    }
-                    for (String player : time2) {
-                        if (evento.contains("Vencedor: " + player)) {
-                            return player;
-                        }
-                    }
-                }
-            }
+    private void exportText(final CommandSender sender, final String simpleId) {
+        final String prefix = plugin.getMessageManager().getPrefix();
+        final File logFile = plugin.getDuelLogManager().getLogFileFromSimpleId(simpleId);
+        
+        if (logFile == null) {
+            sender.sendMessage(ColorUtils.colorize(prefix + plugin.getMessageManager().getMessage("duelo-log.detalhes-nao-encontrado")));
+            return;
         }
         
-        // Se não encontrou o vencedor explícito, tentar inferir pelas eliminações
-        Map<String, Integer> eliminacoesPorJogador = new HashMap<>();
-        Map<String, Integer> eliminacoesPorEquipe = new HashMap<>();
-        eliminacoesPorEquipe.put("Equipe 1", 0);
-        eliminacoesPorEquipe.put("Equipe 2", 0);
-        
-        for (String evento : eventos) {
-            if (evento.contains("foi eliminado por")) {
-                for (String player : time1) {
-                    if (evento.contains("eliminado por " + player)) {
-                        eliminacoesPorJogador.put(player, eliminacoesPorJogador.getOrDefault(player, 0) + 1);
-                        eliminacoesPorEquipe.put("Equipe 1", eliminacoesPorEquipe.get("Equipe 1") + 1);
-                        break;
+        final File textFolder = new File(plugin.getDuelLogManager().getLogsFolder(), "texto");
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, new Runnable() {
+            @Override
+            public void run() {
+                String message;
+                File textFile = new File(textFolder, simpleId + ".txt");
+                try {
+                    ReplayData replay = ReplayFile.read(logFile);
+                    textFolder.mkdirs();
+                    try (Writer writer = new BufferedWriter(new FileWriter(textFile))) {
+                        ReplayTextFormat.write(writer, replay);
                     }
+                    message = prefix + "&aReplay exportado em: &fplugins/PrimeLeagueX1/duellogs/texto/" + textFile.getName();
+                } catch (IOException e) {
+                    message = "&cErro ao exportar o replay: " + e.getMessage();
                 }
-                for (String player : time2) {
-                    if (evento.contains("eliminado por " + player)) {
-                        eliminacoesPorJogador.put(player, eliminacoesPorJogador.getOrDefault(player, 0) + 1);
-                        eliminacoesPorEquipe.put("Equipe 2", eliminacoesPorEquipe.get("Equipe 2") + 1);
-                        break;
+                
+                final String result = message;
+                plugin.getServer().getScheduler().runTask(plugin, new Runnable() {
+                    @Override
+                    public void run() {
+                        sender.sendMessage(ColorUtils.colorize(result));
                     }
-                }
+                });
             }
-        }
-        
-        // Verificar se alguma equipe tem mais eliminações
-        if (eliminacoesPorEquipe.get("Equipe 1") > eliminacoesPorEquipe.get("Equipe 2")) {
-            // Encontrar jogador com mais eliminações na equipe 1
-            String melhorJogador = "";
-            int maxElims = 0;
-            for (String player : time1) {
-                int elims = eliminacoesPorJogador.getOrDefault(player, 0);
-                if (elims > maxElims) {
-                    maxElims = elims;
-                    melhorJogador = player;
-                }
-            }
-            return !melhorJogador.isEmpty() ? melhorJogador : (time1.size() == 1 ? time1.get(0) : "Equipe 1");
-        } else if (eliminacoesPorEquipe.get("Equipe 2") > eliminacoesPorEquipe.get("Equipe 1")) {
-            // Encontrar jogador com mais eliminações na equipe 2
-            String melhorJogador = "";
-            int maxElims = 0;
-            for (String player : time2) {
-                int elims = eliminacoesPorJogador.getOrDefault(player, 0);
-                if (elims > maxElims) {
-                    maxElims = elims;
-                    melhorJogador = player;
-                }
-            }
-            return !melhorJogador.isEmpty() ? melhorJogador : (time2.size() == 1 ? time2.get(0) : "Equipe 2");
-        }
-        
-        // Se tudo falhar, retornar empate
-        return "Empate";
+        });
     }
     
     /**
-     * Determina qual equipe venceu baseado no nome do vencedor
+     * Lê o cabeçalho de um arquivo de replay
+     * Só o cabeçalho é lido ({@link ReplayReader#getHeader()}); os eventos não são carregados.
      * 
-     * @param vencedor Nome do vencedor ou "Empate"
-     * @param time1 Lista de jogadores da equipe 1
-     * @param time2 Lista de jogadores da equipe 2
-     * @return 1 para equipe 1, 2 para equipe 2, 0 para empate
+     * @param file Arquivo do replay
+     * @return Dados do replay, sem os eventos, ou null se o arquivo não puder ser lido
      */
-    private int getEquipeVencedora(String vencedor, List<String> time1, List<String> time2) {
-        if (vencedor.equals("Empate")) {
-            return 0;
-        } else if (vencedor.equals("Equipe 1") || time1.contains(vencedor)) {
-            return 1;
-        } else if (vencedor.equals("Equipe 2") || time2.contains(vencedor)) {
-            return 2;
+    private ReplayData readReplayHeader(File file) {
+        try (ReplayReader reader = ReplayReader.open(file)) {
+            return reader.getHeader();
+        } catch (IOException e) {
+            System.out.println("[PrimeLeagueX1] Erro ao ler arquivo de replay: " + file.getName() + " - " + e.getMessage());
+            return null;
         }
-        return 0; // Empate por padrão se não conseguir determinar
     }
 } 
\ No newline at end of file
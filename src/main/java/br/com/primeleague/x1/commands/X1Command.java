@@ -10,8 +10,12 @@ import org.bukkit.entity.Player;
 import org.bukkit.ChatColor;
 
 import br.com.primeleague.x1.Main;
+import br.com.primeleague.x1.managers.ArenaManager;
+import br.com.primeleague.x1.managers.DuelScheduler;
 import br.com.primeleague.x1.managers.MessageManager;
 import br.com.primeleague.x1.enums.DuelType;
+import br.com.primeleague.x1.enums.RankingType;
+import br.com.primeleague.x1.models.Arena;
 import br.com.primeleague.x1.commands.ReplayCommand;
 import br.com.primeleague.x1.rival.RivalData;
 
@@ -134,6 +138,7 @@ public class X1Command implements CommandExecutor, TabCompleter {
             commands.add("kits");
             commands.add("status");
             commands.add("stats");
+            commands.add("top");
             commands.add("sair");
             commands.add("help");
             commands.add("ajuda");
@@ -187,6 +192,8 @@ public class X1Command implements CommandExecutor, TabCompleter {
                 adminCommands.add("setpos2");
                 adminCommands.add("setspectator");
                 adminCommands.add("resetarena");
+                adminCommands.add("relatorio");
+                adminCommands.add("agendador");
                 
                 for (String s : adminCommands) {
                     if (s.toLowerCase().startsWith(args[1].toLowerCase())) {
@@ -197,16 +204,24 @@ public class X1Command implements CommandExecutor, TabCompleter {
                 List<String> replayCommands = new ArrayList<>();
                 replayCommands.add("list");
                 replayCommands.add("ver");
+                replayCommands.add("player");
                 replayCommands.add("limpar");
                 replayCommands.add("top");
                 replayCommands.add("highlight");
                 replayCommands.add("share");
+                replayCommands.add("texto");
                 
                 for (String s : replayCommands) {
                     if (s.toLowerCase().startsWith(args[1].toLowerCase())) {
                         completions.add(s);
                     }
                 }
+            } else if (args[0].equalsIgnoreCase("top") || args[0].equalsIgnoreCase("ranking")) {
+                for (RankingType type : RankingType.values()) {
+                    if (type.getName().startsWith(args[1].toLowerCase())) {
+                        completions.add(type.getName());
+                    }
+                }
             }
         } else if (args.length == 3) {
             if (args[0].equalsIgnoreCase("replay") && args[1].equalsIgnoreCase("top")) {
@@ -220,6 +235,12 @@ public class X1Command implements CommandExecutor, TabCompleter {
                         completions.add(s);
                     }
                 }
+            } else if (args[0].equalsIgnoreCase("admin") && args[1].toLowerCase().startsWith("set")) {
+                for (Arena arena : plugin.getArenaManager().getArenas()) {
+                    if (arena.getName().toLowerCase().startsWith(args[2].toLowerCase())) {
+                        completions.add(arena.getName());
+                    }
+                }
             }
         }
         
@@ -245,23 +266,47 @@ public class X1Command implements CommandExecutor, TabCompleter {
         
         switch (adminCmd) {
             case "setpos1":
-                plugin.getArenaManager().setPos1(player.getLocation());
+                // Sem nome, define a arena padrão
+                plugin.getArenaManager().setPos1(args.length > 2 ? args[2] : ArenaManager.DEFAULT_ARENA, player.getLocation());
                 messageManager.sendMessage(player, "arena.pos1-definida");
                 break;
                 
             case "setpos2":
-                plugin.getArenaManager().setPos2(player.getLocation());
+                // Sem nome, define a arena padrão
+                plugin.getArenaManager().setPos2(args.length > 2 ? args[2] : ArenaManager.DEFAULT_ARENA, player.getLocation());
                 messageManager.sendMessage(player, "arena.pos2-definida");
                 break;
                 
             case "setspectator":
-                plugin.getArenaManager().setSpectatorLocation(player.getLocation());
+                // Sem nome, define a arena padrão
+                plugin.getArenaManager().setSpectatorLocation(args.length > 2 ? args[2] : ArenaManager.DEFAULT_ARENA, player.getLocation());
                 messageManager.sendMessage(player, "arena.espectador-definido");
                 break;
                 
             case "reload":
                 return handleReloadCommand(player, args);
                 
+            case "relatorio":
+                int days = 7;
+                if (args.length > 2) {
+                    try {
+                        days = Math.max(1, Math.min(365, Integer.parseInt(args[2])));
+                    } catch (NumberFormatException e) {
+                        player.sendMessage("§cUso: /x1 admin relatorio [dias]");
+                        return true;
+                    }
+                }
+                plugin.getStatsManager().showReport(player, days);
+                break;
+                
+            case "agendador":
+                DuelScheduler scheduler = plugin.getDuelScheduler();
+                player.sendMessage(messageManager.getPrefix() + "§eAgendador de duelos:");
+                player.sendMessage("§7Tarefas na fila: §f" + scheduler.getPendingTasks());
+                player.sendMessage("§7Custo médio por tick: §f" + String.format("%.3f", scheduler.getAverageTickNanos() / 1000000.0) + " ms");
+                player.sendMessage("§7Pico desde a última consulta: §f" + String.format("%.3f", scheduler.takePeakTickNanos() / 1000000.0) + " ms");
+                break;
+                
             default:
                 messageManager.sendMessage(player, "geral.comando-inexistente");
                 break;
@@ -430,9 +475,14 @@ public class X1Command implements CommandExecutor, TabCompleter {
     }
     
     /**
-     * Processa comando para cancelar um desafio enviado
+     * Processa comando para cancelar um desafio enviado ou sair da fila de arenas
      */
     private boolean handleCancelCommand(Player player, String[] args) {
+        // Duelo aguardando arena livre
+        if (plugin.getDuelManager().cancelQueuedDuel(player)) {
+            return true;
+        }
+        
         String challenged = plugin.getDuelManager().getChallenged(player.getName());
         
         if (challenged == null) {
@@ -479,10 +529,38 @@ public class X1Command implements CommandExecutor, TabCompleter {
      * Processa comando para ver o ranking
      */
     private boolean handleTopCommand(Player player, String[] args) {
-        plugin.getGUIManager().openRankingMenu(player);
+        RankingType type = RankingType.VICTORIES;
+        if (args.length > 1) {
+            type = RankingType.fromName(args[1]);
+            if (type == null || (type == RankingType.ELO && !plugin.getConfigManager().useElo())) {
+                messageManager.sendMessage(player, "ranking.tipo-invalido", "tipos", getRankingTypeNames());
+                return true;
+            }
+        }
+        
+        plugin.getGUIManager().openRankingMenu(player, type);
         return true;
     }
     
+    /**
+     * Obtém os nomes dos tipos de ranking disponíveis
+     * 
+     * @return Nomes separados por vírgula
+     */
+    private String getRankingTypeNames() {
+        StringBuilder names = new StringBuilder();
+        for (RankingType type : RankingType.values()) {
+            if (type == RankingType.ELO && !plugin.getConfigManager().useElo()) {
+                continue;
+            }
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(type.getName());
+        }
+        return names.toString();
+    }
+    
     /**
      * Processa comando para assistir duelos
      */
@@ -513,10 +591,10 @@ public class X1Command implements CommandExecutor, TabCompleter {
         player.sendMessage(messageManager.getMessageWithPrefix("prefixo") + "§e/x1 desafiar <jogador> §7- Desafiar um jogador para duelo");
         player.sendMessage(messageManager.getMessageWithPrefix("prefixo") + "§e/x1 aceitar §7- Aceitar um desafio de duelo");
         player.sendMessage(messageManager.getMessageWithPrefix("prefixo") + "§e/x1 rejeitar §7- Rejeitar um desafio de duelo");
-        player.sendMessage(messageManager.getMessageWithPrefix("prefixo") + "§e/x1 cancelar §7- Cancelar um desafio enviado");
+        player.sendMessage(messageManager.getMessageWithPrefix("prefixo") + "§e/x1 cancelar §7- Cancelar um desafio enviado ou sair da fila de arenas");
         player.sendMessage(messageManager.getMessageWithPrefix("prefixo") + "§e/x1 team §7- Comandos de equipe");
         player.sendMessage(messageManager.getMessageWithPrefix("prefixo") + "§e/x1 stats §7- Ver suas estatísticas");
-        player.sendMessage(messageManager.getMessageWithPrefix("prefixo") + "§e/x1 top §7- Ver o ranking de duelos");
+        player.sendMessage(messageManager.getMessageWithPrefix("prefixo") + "§e/x1 top [vitorias/elo/sequencia/taxa/duelos] §7- Ver o ranking de duelos");
         player.sendMessage(messageManager.getMessageWithPrefix("prefixo") + "§e/x1 rival §7- Ver suas rivalidades");
         
         if (player.hasPermission("primeleague.x1.admin")) {
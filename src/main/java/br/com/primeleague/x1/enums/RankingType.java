@@ -0,0 +1,105 @@
+package br.com.primeleague.x1.enums;
+
+import br.com.primeleague.x1.models.PlayerStats;
+
+/**
+ * Tipos de ranking disponíveis
+ */
+public enum RankingType {
+    
+    VICTORIES("vitorias", "Vitórias"),
+    ELO("elo", "Elo"),
+    STREAK("sequencia", "Sequência"),
+    WIN_RATE("taxa", "Taxa de Vitórias"),
+    DUELS("duelos", "Duelos");
+    
+    // Multiplicador da taxa de vitórias, deixando espaço para desempatar pela quantidade de duelos
+    private static final long WIN_RATE_FACTOR = 1000000L;
+    
+    private final String name;
+    private final String formattedName;
+    
+    /**
+     * Construtor
+     * 
+     * @param name Nome do tipo (usado no comando)
+     * @param formattedName Nome formatado para exibição
+     */
+    RankingType(String name, String formattedName) {
+        this.name = name;
+        this.formattedName = formattedName;
+    }
+    
+    /**
+     * Obtém o nome do tipo
+     * 
+     * @return Nome do tipo
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Obtém o nome formatado para exibição
+     * 
+     * @return Nome formatado
+     */
+    public String getFormattedName() {
+        return formattedName;
+    }
+    
+    /**
+     * Calcula a pontuação de um jogador neste ranking
+     * A taxa de vitórias é usada em centésimos de porcentagem, desempatada pela quantidade de duelos.
+     * 
+     * @param stats Estatísticas do jogador
+     * @return Pontuação do jogador
+     */
+    public long getScore(PlayerStats stats) {
+        switch (this) {
+            case ELO:
+                return stats.getElo();
+            case STREAK:
+                return stats.getStreak();
+            case WIN_RATE:
+                int total = stats.getTotalDuels();
+                if (total == 0) {
+                    return 0;
+                }
+                long rate = stats.getVictories() * 10000L / total;
+                return rate * WIN_RATE_FACTOR + Math.min(total, WIN_RATE_FACTOR - 1);
+            case DUELS:
+                return stats.getTotalDuels();
+            default:
+                return stats.getVictories();
+        }
+    }
+    
+    /**
+     * Formata o valor de um jogador neste ranking para exibição
+     * 
+     * @param stats Estatísticas do jogador
+     * @return Valor formatado
+     */
+    public String formatValue(PlayerStats stats) {
+        if (this == WIN_RATE) {
+            return String.format("%.1f%%", stats.getWinRate());
+        }
+        return String.valueOf(getScore(stats));
+    }
+    
+    /**
+     * Obtém um tipo de ranking pelo nome
+     * 
+     * @param name Nome do tipo (também aceita o nome da constante)
+     * @return Tipo de ranking ou null se não existir
+     */
+    public static RankingType fromName(String name) {
+        for (RankingType type : values()) {
+            if (type.name.equalsIgnoreCase(name) || type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+} 
\ No newline at end of file
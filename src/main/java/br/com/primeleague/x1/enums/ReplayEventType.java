@@ -0,0 +1,62 @@
+package br.com.primeleague.x1.enums;
+
+/**
+ * Tipos de eventos registrados no replay de um duelo
+ */
+public enum ReplayEventType {
+    
+    /**
+     * Início do duelo
+     */
+    DUEL_START(0),
+    
+    /**
+     * Fim do duelo
+     */
+    DUEL_END(1),
+    
+    /**
+     * Eliminação de um jogador
+     */
+    PLAYER_KILL(2),
+    
+    /**
+     * Dano significativo (acima de 3 corações)
+     */
+    SIGNIFICANT_DAMAGE(3);
+    
+    private final int code;
+    
+    /**
+     * Construtor
+     * 
+     * @param code Código gravado no arquivo de replay
+     */
+    ReplayEventType(int code) {
+        this.code = code;
+    }
+    
+    /**
+     * Obtém o código gravado no arquivo de replay
+     * 
+     * @return Código do tipo de evento
+     */
+    public int getCode() {
+        return code;
+    }
+    
+    /**
+     * Obtém o tipo de evento a partir do código gravado
+     * 
+     * @param code Código do tipo de evento
+     * @return Tipo do evento ou null se o código for desconhecido
+     */
+    public static ReplayEventType fromCode(int code) {
+        for (ReplayEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+} 
\ No newline at end of file
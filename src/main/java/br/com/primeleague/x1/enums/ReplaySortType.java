@@ -0,0 +1,60 @@
+package br.com.primeleague.x1.enums;
+
+import br.com.primeleague.x1.replay.ReplayInfo;
+
+/**
+ * Critérios de ordenação do índice de replays
+ */
+public enum ReplaySortType {
+    
+    /**
+     * Mais recentes primeiro
+     */
+    DATE,
+    
+    /**
+     * Maior dano total primeiro
+     */
+    DAMAGE,
+    
+    /**
+     * Mais eliminações primeiro
+     */
+    KILLS,
+    
+    /**
+     * Maior duração primeiro
+     */
+    DURATION;
+    
+    /**
+     * Obtém o valor usado na ordenação de um replay
+     * 
+     * @param info Resumo do replay
+     * @return Valor do critério (maior vem primeiro)
+     */
+    public long getValue(ReplayInfo info) {
+        switch (this) {
+            case DAMAGE:
+                return info.getTotalDamage();
+            case KILLS:
+                return info.getKills();
+            case DURATION:
+                return info.getDuration();
+            default:
+                return info.getStartTime();
+        }
+    }
+    
+    /**
+     * Compara dois replays pelo critério, do maior para o menor; empates pelo mais recente
+     * 
+     * @param a Primeiro replay
+     * @param b Segundo replay
+     * @return Resultado da comparação
+     */
+    public int compare(ReplayInfo a, ReplayInfo b) {
+        int result = Long.compare(getValue(b), getValue(a));
+        return result != 0 ? result : Long.compare(b.getStartTime(), a.getStartTime());
+    }
+} 
\ No newline at end of file
@@ -18,6 +18,7 @@ import org.bukkit.inventory.meta.SkullMeta;
 
 import br.com.primeleague.x1.Main;
 import br.com.primeleague.x1.enums.DuelType;
+import br.com.primeleague.x1.enums.RankingType;
 import br.com.primeleague.x1.models.PlayerStats;
 import br.com.primeleague.x1.rival.RivalData;
 import br.com.primeleague.x1.utils.ColorUtils;
@@ -30,6 +31,9 @@ public class GUIManager {
 
     private final Main plugin;
     
+    // Posições dos botões de tipo de ranking, na mesma ordem de RankingType
+    private static final int[] RANKING_TYPE_SLOTS = {46, 47, 48, 50, 51};
+    
     // Inventários de menu
     private Inventory mainMenu;
     private Inventory adminMenu;
@@ -86,6 +90,10 @@ public class GUIManager {
                 plugin.getMessageManager().getItemDisplayName("gui.item-espectador"),
                 ColorUtils.colorize(plugin.getMessageManager().getMessage("gui.desc-espectador")));
         
+        ItemStack leaveQueue = InventoryUtils.createNamedItem(Material.WATCH, 
+                plugin.getMessageManager().getItemDisplayName("gui.item-sair-fila"),
+                ColorUtils.colorize(plugin.getMessageManager().getMessage("gui.desc-sair-fila")));
+        
         ItemStack admin = InventoryUtils.createNamedItem(Material.REDSTONE, 
                 plugin.getMessageManager().getItemDisplayName("gui.item-admin"),
                 ColorUtils.colorize(plugin.getMessageManager().getMessage("gui.desc-admin")));
@@ -95,6 +103,7 @@ public class GUIManager {
         mainMenu.setItem(22, stats);     // Centro
         mainMenu.setItem(23, ranking);   // Direita
         mainMenu.setItem(31, team);      // Centro-baixo
+        mainMenu.setItem(32, leaveQueue); // Ao lado das equipes
         
         // Botões adicionais posicionados onde são facilmente acessíveis
         mainMenu.setItem(40, spectate);  // Espectador no fim da cruz 
@@ -563,14 +572,24 @@ public class GUIManager {
      * @param player Jogador
      */
     public void openRankingMenu(Player player) {
+        openRankingMenu(player, RankingType.VICTORIES);
+    }
+    
+    /**
+     * Abre o menu de ranking de um tipo específico
+     * 
+     * @param player Jogador
+     * @param type Tipo de ranking
+     */
+    public void openRankingMenu(Player player, RankingType type) {
         // Criar inventário para o ranking
         Inventory rankingMenu = Bukkit.createInventory(null, 54, getRankingMenuTitle());
         
-        // Obter a quantidade de jogadores a mostrar
-        int topAmount = plugin.getConfigManager().getTopPlayersAmount();
+        // Obter a quantidade de jogadores a mostrar (as duas últimas linhas ficam para os botões)
+        int topAmount = Math.min(plugin.getConfigManager().getTopPlayersAmount(), 45);
         
         // Obter os melhores jogadores
-        List<PlayerStats> topPlayers = plugin.getStatsManager().getTopPlayers(topAmount);
+        List<PlayerStats> topPlayers = plugin.getStatsManager().getTopPlayers(type, topAmount);
         
         // Adicionar os jogadores ao ranking
         for (int i = 0; i < topPlayers.size(); i++) {
@@ -584,6 +603,9 @@ public class GUIManager {
             // Definir título e lore
             meta.setDisplayName(truncateDisplayName("§e§l#" + (i + 1) + " " + stats.getPlayerName()));
             List<String> lore = new ArrayList<>();
+            if (type != RankingType.VICTORIES && type != RankingType.ELO) {
+                lore.add("§7" + type.getFormattedName() + ": §e" + type.formatValue(stats));
+            }
             lore.add("§7Vitórias: §a" + stats.getVictories());
             lore.add("§7Derrotas: §c" + stats.getDefeats());
             lore.add("§7KDR: §f" + String.format("%.2f", stats.getKDR()));
@@ -599,6 +621,19 @@ public class GUIManager {
             rankingMenu.setItem(i, skull);
         }
         
+        // Botões de tipo de ranking
+        for (RankingType rankingType : RankingType.values()) {
+            if (rankingType == RankingType.ELO && !plugin.getConfigManager().useElo()) {
+                continue;
+            }
+            
+            boolean selected = rankingType == type;
+            ItemStack button = InventoryUtils.createNamedItem(getRankingTypeIcon(rankingType),
+                    (selected ? "§a§l" : "§e") + rankingType.getFormattedName(),
+                    selected ? "§7Ranking atual" : "§7Clique para ver este ranking");
+            rankingMenu.setItem(RANKING_TYPE_SLOTS[rankingType.ordinal()], button);
+        }
+        
         // Botão voltar
         ItemStack back = InventoryUtils.createNamedItem(Material.ARROW, 
                 ColorUtils.colorize(plugin.getMessageManager().getMessage("gui.item-voltar")),
@@ -608,6 +643,42 @@ public class GUIManager {
         player.openInventory(rankingMenu);
     }
     
+    /**
+     * Obtém o tipo de ranking de um botão do menu de ranking
+     * 
+     * @param slot Posição clicada
+     * @return Tipo de ranking ou null se a posição não for um botão de tipo
+     */
+    public RankingType getRankingTypeAt(int slot) {
+        for (RankingType type : RankingType.values()) {
+            if (RANKING_TYPE_SLOTS[type.ordinal()] == slot) {
+                return type;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Obtém o ícone de um tipo de ranking
+     * 
+     * @param type Tipo de ranking
+     * @return Material do ícone
+     */
+    private Material getRankingTypeIcon(RankingType type) {
+        switch (type) {
+            case ELO:
+                return Material.DIAMOND;
+            case STREAK:
+                return Material.BLAZE_POWDER;
+            case WIN_RATE:
+                return Material.EXP_BOTTLE;
+            case DUELS:
+                return Material.IRON_SWORD;
+            default:
+                return Material.GOLD_INGOT;
+        }
+    }
+    
     /**
      * Abre o menu de equipe
      * 
@@ -74,6 +74,13 @@ public class MessageKeys {
     public static final String ARENA_SPECTATOR_SET = "arena.espectador-definido";
     public static final String ARENA_NOT_CONFIGURED = "arena.nao-configurada";
     public static final String ARENA_RESET = "arena.redefinida";
+    public static final String ARENA_QUEUE_WAITING = "arena.fila-aguardando";
+    public static final String ARENA_QUEUE_CANCELED = "arena.fila-cancelada";
+    public static final String ARENA_QUEUE_CANCELED_PLAYER = "arena.fila-cancelada-jogador";
+    public static final String ARENA_QUEUE_LEFT = "arena.fila-saiu";
+    public static final String ARENA_QUEUE_EXPIRED = "arena.fila-expirada";
+    public static final String ARENA_QUEUE_DROPPED = "arena.fila-encerrada";
+    public static final String ARENA_QUEUE_NOT_WAITING = "arena.fila-nao-esta";
     
     // Mensagens de apostas
     public static final String BETS_PLACED = "apostas.aposta-realizada";
@@ -182,6 +189,8 @@ public class MessageKeys {
     public static final String GUI_DESC_RANKING = "gui.desc-ranking";
     public static final String GUI_ITEM_TEAM = "gui.item-equipe";
     public static final String GUI_DESC_TEAM = "gui.desc-equipe";
+    public static final String GUI_ITEM_LEAVE_QUEUE = "gui.item-sair-fila";
+    public static final String GUI_DESC_LEAVE_QUEUE = "gui.desc-sair-fila";
     public static final String GUI_ITEM_SPECTATOR = "gui.item-espectador";
     public static final String GUI_DESC_SPECTATOR = "gui.desc-espectador";
     public static final String GUI_ITEM_ADMIN = "gui.item-admin";
@@ -0,0 +1,296 @@
+package br.com.primeleague.x1.leaderboard;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Ranking de jogadores mantido de forma incremental
+ *  
+ * Implementado como uma árvore de estatística de ordem (treap com tamanho das subárvores),
+ * ordenada por pontuação decrescente e nome. Atualizar a pontuação de um jogador e consultar
+ * sua posição custam O(log n); obter os N primeiros custa O(N + log n), independentemente
+ * do total de jogadores. Usado apenas pela thread principal.
+ */
+public class Leaderboard {
+    
+    private final Map<String, Long> scores;
+    private final Random random;
+    private Node root;
+    
+    /**
+     * Construtor
+     */
+    public Leaderboard() {
+        this.scores = new HashMap<String, Long>();
+        this.random = new Random();
+    }
+    
+    /**
+     * Define a pontuação de um jogador, inserindo-o no ranking se necessário
+     *  
+     * @param playerName Nome do jogador
+     * @param score Nova pontuação
+     */
+    public void update(String playerName, long score) {
+        Long current = scores.put(playerName, score);
+        if (current != null) {
+            if (current == score) {
+                return;
+            }
+            root = remove(root, current, playerName);
+        }
+        root = insert(root, new Node(playerName, score, random.nextInt()));
+    }
+    
+    /**
+     * Substitui todo o conteúdo do ranking
+     * Mais rápido que inserir os jogadores um a um: as chaves são ordenadas uma única vez
+     * e a árvore é montada em tempo linear a partir da lista ordenada.
+     *  
+     * @param playerNames Nomes dos jogadores (sem repetição)
+     * @param playerScores Pontuação de cada jogador, na mesma ordem dos nomes
+     */
+    public void build(String[] playerNames, long[] playerScores) {
+        Node[] nodes = new Node[playerNames.length];
+        scores.clear();
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node(playerNames[i], playerScores[i], random.nextInt());
+            scores.put(playerNames[i], playerScores[i]);
+        }
+        Arrays.sort(nodes, new Comparator<Node>() {
+            @Override
+            public int compare(Node a, Node b) {
+                return Leaderboard.compare(a.score, a.playerName, b);
+            }
+        });
+        
+        // Árvore cartesiana: a pilha guarda o caminho mais à direita, com prioridades decrescentes
+        Node[] stack = new Node[nodes.length];
+        int top = 0;
+        for (Node node : nodes) {
+            Node last = null;
+            while (top > 0 && stack[top - 1].priority < node.priority) {
+                last = stack[--top];
+            }
+            node.left = last;
+            if (top > 0) {
+                stack[top - 1].right = node;
+            }
+            stack[top++] = node;
+        }
+        root = top > 0 ? stack[0] : null;
+        computeSizes(root);
+    }
+    
+    /**
+     * Remove um jogador do ranking
+     *  
+     * @param playerName Nome do jogador
+     */
+    public void remove(String playerName) {
+        Long current = scores.remove(playerName);
+        if (current != null) {
+            root = remove(root, current, playerName);
+        }
+    }
+    
+    /**
+     * Obtém a posição de um jogador no ranking
+     *  
+     * @param playerName Nome do jogador
+     * @return Posição (começando em 1) ou -1 se o jogador não estiver no ranking
+     */
+    public int getRank(String playerName) {
+        Long score = scores.get(playerName);
+        if (score == null) {
+            return -1;
+        }
+        
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(score, playerName, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left) + 1;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Obtém a pontuação de um jogador
+     *  
+     * @param playerName Nome do jogador
+     * @return Pontuação ou null se o jogador não estiver no ranking
+     */
+    public Long getScore(String playerName) {
+        return scores.get(playerName);
+    }
+    
+    /**
+     * Obtém os nomes dos primeiros jogadores do ranking, em ordem
+     *  
+     * @param limit Quantidade máxima de jogadores (0 para todos)
+     * @return Lista de nomes
+     */
+    public List<String> getTop(int limit) {
+        int amount = limit > 0 ? Math.min(limit, size()) : size();
+        List<String> top = new ArrayList<String>(amount);
+        Deque<Node> stack = new ArrayDeque<Node>();
+        Node node = root;
+        
+        while ((node != null || !stack.isEmpty()) && top.size() < amount) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            top.add(node.playerName);
+            node = node.right;
+        }
+        return top;
+    }
+    
+    /**
+     * Obtém a quantidade de jogadores no ranking
+     *  
+     * @return Quantidade de jogadores
+     */
+    public int size() {
+        return scores.size();
+    }
+    
+    /**
+     * Compara uma chave (pontuação, nome) com um nó
+     * Pontuações maiores vêm primeiro; empates são ordenados pelo nome.
+     */
+    private static int compare(long score, String playerName, Node node) {
+        if (score != node.score) {
+            return score > node.score ? -1 : 1;
+        }
+        return playerName.compareTo(node.playerName);
+    }
+    
+    /**
+     * Obtém o tamanho de uma subárvore
+     */
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+    
+    /**
+     * Recalcula o tamanho de um nó a partir dos filhos
+     */
+    private static Node refresh(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+    
+    /**
+     * Calcula o tamanho de todas as subárvores após a montagem da árvore
+     */
+    private static int computeSizes(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        node.size = computeSizes(node.left) + computeSizes(node.right) + 1;
+        return node.size;
+    }
+    
+    /**
+     * Insere um nó mantendo a ordem do ranking e a prioridade da treap
+     */
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        
+        if (compare(inserted.score, inserted.playerName, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                Node left = node.left;
+                node.left = left.right;
+                left.right = refresh(node);
+                node = left;
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                Node right = node.right;
+                node.right = right.left;
+                right.left = refresh(node);
+                node = right;
+            }
+        }
+        return refresh(node);
+    }
+    
+    /**
+     * Remove o nó com a chave (pontuação, nome) informada
+     */
+    private static Node remove(Node node, long score, String playerName) {
+        if (node == null) {
+            return null;
+        }
+        
+        int cmp = compare(score, playerName, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, score, playerName);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, score, playerName);
+        } else {
+            return merge(node.left, node.right);
+        }
+        return refresh(node);
+    }
+    
+    /**
+     * Une duas subárvores em que todas as chaves da esquerda vêm antes das da direita
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return refresh(left);
+        }
+        right.left = merge(left, right.left);
+        return refresh(right);
+    }
+    
+    /**
+     * Nó da árvore do ranking
+     */
+    private static class Node {
+        private final String playerName;
+        private final long score;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size;
+        
+        private Node(String playerName, long score, int priority) {
+            this.playerName = playerName;
+            this.score = score;
+            this.priority = priority;
+            this.size = 1;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,182 @@
+package br.com.primeleague.x1.leaderboard;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import br.com.primeleague.x1.enums.RankingType;
+import br.com.primeleague.x1.models.PlayerStats;
+
+/**
+ * Conjunto dos rankings mantidos pelo plugin
+ * 
+ * Todos os rankings são atualizados juntos a partir da mesma alteração de estatísticas,
+ * então cada ranking adicional custa apenas uma atualização O(log n) por alteração e
+ * nenhuma ordenação na consulta. Usado apenas pela thread principal.
+ * 
+ * Para os jogadores exibidos nos rankings (os primeiros de cada um) e os logo abaixo deles, também é
+ * mantida uma cópia das estatísticas, assim a tela de ranking não precisa ler o registro de cada
+ * jogador, nem quando alguém sobe porque outro jogador saiu das primeiras posições.
+ */
+public class Leaderboards {
+    
+    private final Map<RankingType, Leaderboard> boards;
+    private final int minWinRateDuels;
+    private final int displayLimit;
+    private final int summaryLimit; // Posições com cópia: as exibidas e uma margem abaixo delas
+    
+    // Cópias das estatísticas dos jogadores entre os primeiros de algum ranking
+    private final Map<String, PlayerStats> summaries;
+    
+    /**
+     * Construtor
+     * 
+     * @param minWinRateDuels Quantidade mínima de duelos para entrar no ranking de taxa de vitórias
+     * @param displayLimit Quantidade de jogadores exibidos em cada ranking
+     */
+    public Leaderboards(int minWinRateDuels, int displayLimit) {
+        this.boards = new EnumMap<RankingType, Leaderboard>(RankingType.class);
+        this.minWinRateDuels = minWinRateDuels;
+        this.displayLimit = Math.max(1, displayLimit);
+        this.summaryLimit = 2 * this.displayLimit;
+        this.summaries = new HashMap<String, PlayerStats>();
+        for (RankingType type : RankingType.values()) {
+            boards.put(type, new Leaderboard());
+        }
+    }
+    
+    /**
+     * Atualiza a posição de um jogador em todos os rankings
+     * 
+     * @param stats Estatísticas do jogador
+     */
+    public void update(PlayerStats stats) {
+        boolean kept = false;
+        for (Map.Entry<RankingType, Leaderboard> entry : boards.entrySet()) {
+            RankingType type = entry.getKey();
+            if (type == RankingType.WIN_RATE && stats.getTotalDuels() < minWinRateDuels) {
+                entry.getValue().remove(stats.getPlayerName());
+            } else {
+                entry.getValue().update(stats.getPlayerName(), type.getScore(stats));
+                int rank = entry.getValue().getRank(stats.getPlayerName());
+                kept |= rank != -1 && rank <= summaryLimit;
+            }
+        }
+        
+        if (kept) {
+            summaries.put(stats.getPlayerName(), stats.copy());
+            if (summaries.size() > 2 * boards.size() * summaryLimit) {
+                pruneSummaries();
+            }
+        } else {
+            summaries.remove(stats.getPlayerName());
+        }
+    }
+    
+    /**
+     * Remove as cópias de jogadores que saíram das primeiras posições de todos os rankings
+     */
+    private void pruneSummaries() {
+        summaries.keySet().retainAll(getKeptPlayers());
+    }
+    
+    /**
+     * Obtém os jogadores com cópia das estatísticas (os exibidos e a margem abaixo deles)
+     * 
+     * @return Nomes dos jogadores
+     */
+    private Set<String> getKeptPlayers() {
+        Set<String> kept = new HashSet<String>();
+        for (Leaderboard board : boards.values()) {
+            kept.addAll(board.getTop(summaryLimit));
+        }
+        return kept;
+    }
+    
+    /**
+     * Monta todos os rankings de uma vez a partir das estatísticas carregadas
+     * 
+     * @param allStats Estatísticas de todos os jogadores (um registro por jogador)
+     */
+    public void build(Collection<PlayerStats> allStats) {
+        for (Map.Entry<RankingType, Leaderboard> entry : boards.entrySet()) {
+            RankingType type = entry.getKey();
+            String[] names = new String[allStats.size()];
+            long[] scores = new long[allStats.size()];
+            int count = 0;
+            for (PlayerStats stats : allStats) {
+                if (type == RankingType.WIN_RATE && stats.getTotalDuels() < minWinRateDuels) {
+                    continue;
+                }
+                names[count] = stats.getPlayerName();
+                scores[count] = type.getScore(stats);
+                count++;
+            }
+            entry.getValue().build(Arrays.copyOf(names, count), Arrays.copyOf(scores, count));
+        }
+        
+        summaries.clear();
+        Set<String> kept = getKeptPlayers();
+        for (PlayerStats stats : allStats) {
+            if (kept.contains(stats.getPlayerName())) {
+                summaries.put(stats.getPlayerName(), stats.copy());
+            }
+        }
+    }
+    
+    /**
+     * Obtém os nomes dos primeiros jogadores de um ranking
+     * 
+     * @param type Tipo de ranking
+     * @param limit Quantidade máxima de jogadores
+     * @return Nomes dos jogadores, do primeiro colocado em diante
+     */
+    public List<String> getTop(RankingType type, int limit) {
+        return boards.get(type).getTop(limit);
+    }
+    
+    /**
+     * Obtém as estatísticas dos primeiros jogadores de um ranking a partir das cópias mantidas
+     * Um jogador sem cópia (que subiu além da margem sem alterar as estatísticas) é buscado no
+     * registro em memória do armazenamento, e a cópia passa a ser mantida.
+     * 
+     * @param type Tipo de ranking
+     * @param limit Quantidade máxima de jogadores (até a quantidade exibida nos rankings)
+     * @param fallback Busca o registro em memória de um jogador, ou null se ele não estiver carregado
+     * @return Cópias das estatísticas, do primeiro colocado em diante
+     */
+    public List<PlayerStats> getTopStats(RankingType type, int limit, Function<String, PlayerStats> fallback) {
+        List<PlayerStats> top = new ArrayList<PlayerStats>();
+        for (String playerName : getTop(type, Math.min(limit, displayLimit))) {
+            PlayerStats stats = summaries.get(playerName);
+            if (stats == null) {
+                PlayerStats record = fallback.apply(playerName);
+                if (record == null) {
+                    continue;
+                }
+                stats = record.copy();
+                summaries.put(playerName, stats);
+            }
+            top.add(stats);
+        }
+        return top;
+    }
+    
+    /**
+     * Obtém a posição de um jogador em um ranking
+     * 
+     * @param type Tipo de ranking
+     * @param playerName Nome do jogador
+     * @return Posição (começando em 1) ou -1 se o jogador não estiver no ranking
+     */
+    public int getRank(RankingType type, String playerName) {
+        return boards.get(type).getRank(playerName);
+    }
+} 
\ No newline at end of file
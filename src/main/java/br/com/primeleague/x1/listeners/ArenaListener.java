@@ -0,0 +1,162 @@
+package br.com.primeleague.x1.listeners;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+import br.com.primeleague.x1.Main;
+
+/**
+ * Listener das arenas
+ * 
+ * Mantém carregados os chunks das arenas em uso e registra os blocos alterados durante os duelos,
+ * para a arena ser restaurada ao fim de cada duelo. Os eventos de blocos são ouvidos por último e
+ * só quando não foram cancelados, então apenas as alterações que de fato acontecem são registradas.
+ * Blocos removidos são registrados junto com os blocos presos a eles, que caem sem evento próprio.
+ */
+public class ArenaListener implements Listener {
+    
+    private final Main plugin;
+    
+    /**
+     * Construtor
+     * 
+     * @param plugin Instância do plugin
+     */
+    public ArenaListener(Main plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Evento para impedir o descarregamento dos chunks de arenas carregadas
+     */
+    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        if (plugin.getArenaManager().isChunkPinned(event.getChunk())) {
+            event.setCancelled(true);
+        }
+    }
+    
+    /**
+     * Evento disparado quando um bloco é colocado (o bloco já mudou; o estado anterior vem no evento)
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        plugin.getArenaManager().recordBlockChange(event.getBlockReplacedState());
+    }
+    
+    /**
+     * Evento disparado quando um bloco é quebrado
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        plugin.getArenaManager().recordBlockRemoval(event.getBlock());
+    }
+    
+    /**
+     * Evento disparado quando um bloco é queimado
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        plugin.getArenaManager().recordBlockRemoval(event.getBlock());
+    }
+    
+    /**
+     * Evento disparado quando um bloco pega fogo
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockIgnite(BlockIgniteEvent event) {
+        plugin.getArenaManager().recordBlockChange(event.getBlock());
+    }
+    
+    /**
+     * Evento disparado quando fogo ou outro bloco se espalha
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockSpread(BlockSpreadEvent event) {
+        plugin.getArenaManager().recordBlockChange(event.getBlock());
+    }
+    
+    /**
+     * Evento disparado quando água ou lava escorre para outro bloco
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        plugin.getArenaManager().recordBlockChange(event.getToBlock());
+    }
+    
+    /**
+     * Evento disparado quando um balde é esvaziado
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        plugin.getArenaManager().recordBlockChange(event.getBlockClicked().getRelative(event.getBlockFace()));
+    }
+    
+    /**
+     * Evento disparado quando uma explosão destrói blocos
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            plugin.getArenaManager().recordBlockRemoval(block);
+        }
+    }
+    
+    /**
+     * Evento disparado quando uma entidade altera um bloco (areia caindo, endermen, ovelhas)
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        if (event.getTo() == Material.AIR) {
+            plugin.getArenaManager().recordBlockRemoval(event.getBlock());
+        } else {
+            plugin.getArenaManager().recordBlockChange(event.getBlock());
+        }
+    }
+    
+    /**
+     * Evento disparado quando um pistão empurra blocos
+     * Mudam o pistão, a cabeça, os blocos empurrados e o bloco seguinte a cada um deles.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        BlockFace direction = event.getDirection();
+        Block piston = event.getBlock();
+        plugin.getArenaManager().recordBlockChange(piston);
+        plugin.getArenaManager().recordBlockChange(piston.getRelative(direction));
+        for (Block block : event.getBlocks()) {
+            plugin.getArenaManager().recordBlockRemoval(block);
+            plugin.getArenaManager().recordBlockChange(block.getRelative(direction));
+        }
+    }
+    
+    /**
+     * Evento disparado quando um pistão recolhe
+     * Mudam o pistão, a cabeça e, no pistão grudento, o bloco puxado.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        Block piston = event.getBlock();
+        plugin.getArenaManager().recordBlockChange(piston);
+        plugin.getArenaManager().recordBlockChange(piston.getRelative(event.getDirection()));
+        if (event.isSticky()) {
+            plugin.getArenaManager().recordBlockRemoval(event.getRetractLocation().getBlock());
+        }
+    }
+} 
\ No newline at end of file
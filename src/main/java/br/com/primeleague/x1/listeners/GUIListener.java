@@ -16,6 +16,7 @@ import org.bukkit.Material;
 import br.com.primeleague.x1.Main;
 import br.com.primeleague.x1.managers.MessageManager;
 import br.com.primeleague.x1.enums.DuelType;
+import br.com.primeleague.x1.enums.RankingType;
 
 import java.util.List;
 import java.util.Arrays;
@@ -183,6 +184,13 @@ public class GUIListener implements Listener {
                 plugin.getGUIManager().openTeamMenu(player);
                 break;
                 
+            case 32: // Sair da fila de arenas
+                player.closeInventory();
+                if (!plugin.getDuelManager().cancelQueuedDuel(player)) {
+                    plugin.getMessageManager().sendMessage(player, "arena.fila-nao-esta");
+                }
+                break;
+                
             case 40: // Assistir duelos
                 if (!plugin.getArenaManager().isArenaConfigured()) {
                     plugin.getMessageManager().sendMessage(player, "arena.nao-configurada");
@@ -467,6 +475,13 @@ public class GUIListener implements Listener {
     private void handleRankingMenuClick(Player player, ItemStack clickedItem, int slot) {
         if (slot == 49) { // Botão voltar
             plugin.getGUIManager().openMainMenu(player);
+            return;
+        }
+        
+        // Botões de tipo de ranking
+        RankingType type = plugin.getGUIManager().getRankingTypeAt(slot);
+        if (type != null && clickedItem != null && clickedItem.getType() != Material.AIR) {
+            plugin.getGUIManager().openRankingMenu(player, type);
         }
     }
     
@@ -46,8 +46,8 @@ public class PlayerListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         
-        // Carregar estatísticas do jogador
-        plugin.getStatsManager().getPlayerStats(player.getName());
+        // Carregar estatísticas do jogador em segundo plano
+        plugin.getStatsManager().loadPlayer(player.getName());
     }
     
     /**
@@ -102,6 +102,12 @@ public class PlayerListener implements Listener {
                 }
             }
         }
+        
+        // Cancelar o duelo que aguardava arena livre
+        plugin.getDuelManager().leaveArenaQueue(playerName);
+        
+        // Liberar estatísticas do jogador (permanecem em cache enquanto houver espaço)
+        plugin.getStatsManager().unloadPlayer(playerName);
     }
     
     /**
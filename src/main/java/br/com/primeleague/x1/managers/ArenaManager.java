@@ -1,22 +1,83 @@
 package br.com.primeleague.x1.managers;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 
 import br.com.primeleague.x1.Main;
+import br.com.primeleague.x1.enums.DuelType;
+import br.com.primeleague.x1.models.Arena;
+import br.com.primeleague.x1.models.ArenaJournal;
 
 /**
  * Gerenciador de arenas para duelos
+ * 
+ * Mantém as arenas cadastradas pelo nome: a arena padrão vem da seção "arena" da configuração
+ * e as demais da seção "arenas". Cada duelo em arena reserva uma arena livre que aceite o seu
+ * tipo e a libera ao terminar, então vários duelos em arena podem acontecer ao mesmo tempo.
+ * As arenas são indexadas por mundo e chunk: descobrir em qual arena uma localização está consulta
+ * só as arenas que cobrem o chunk dela, sem percorrer todas a cada evento.
+ * Antes do duelo a arena é carregada aos poucos e os seus chunks ficam presos na memória enquanto
+ * ela estiver em uso; depois de um tempo livre, os chunks voltam a poder ser descarregados.
+ * Os blocos alterados durante um duelo são desfeitos ao fim dele, alguns por tick, e a arena só
+ * volta a ficar livre depois de restaurada.
  */
 public class ArenaManager {
 
+    /**
+     * Nome da arena padrão (seção "arena" da configuração)
+     */
+    public static final String DEFAULT_ARENA = "padrao";
+    
+    /**
+     * Chunks máximos de uma arena na grade; arenas maiores são verificadas uma a uma
+     */
+    private static final int MAX_GRID_CHUNKS = 4096;
+    
+    /**
+     * Chunks máximos carregados de uma arena; arenas maiores carregam só os chunks em volta das posições
+     */
+    private static final int MAX_WARM_CHUNKS = 64;
+    
+    /**
+     * Lados em que blocos presos (tochas, placas, escadas, alavancas) caem quando o bloco sai
+     */
+    private static final BlockFace[] ATTACHED_FACES = {
+        BlockFace.NORTH, BlockFace.EAST, BlockFace.SOUTH, BlockFace.WEST, BlockFace.DOWN
+    };
+    
+    /**
+     * Altura máxima das pilhas apoiadas em um bloco (portas, cactos, canas) registradas com ele
+     */
+    private static final int MAX_STACKED_BLOCKS = 4;
+    
     private final Main plugin;
-    private Location pos1;
-    private Location pos2;
-    private Location spectatorLocation;
+    private final Map<String, Arena> arenas; // Nome em minúsculas -> arena, na ordem da configuração
+    private final Map<UUID, Arena> leases; // Duelo -> arena reservada
+    private final Map<String, Map<Long, List<Arena>>> grid; // Mundo -> chunk -> arenas que cobrem o chunk
+    private final List<Arena> largeArenas; // Arenas grandes demais para a grade
+    private final Set<Arena> warmArenas; // Arenas carregadas e presas na memória
+    private final Map<String, Set<Long>> pinnedChunks; // Mundo -> chunks das arenas carregadas
     
     /**
      * Construtor
@@ -25,19 +86,147 @@ public class ArenaManager {
      */
     public ArenaManager(Main plugin) {
         this.plugin = plugin;
+        this.arenas = new LinkedHashMap<>();
+        this.leases = new HashMap<>();
+        this.grid = new HashMap<>();
+        this.largeArenas = new ArrayList<>();
+        this.warmArenas = new HashSet<>();
+        this.pinnedChunks = new HashMap<>();
         loadLocations();
+        
+        // Liberar os chunks das arenas sem uso
+        plugin.getDuelScheduler().runTaskTimer(new ScheduledTask() {
+            @Override
+            public void run() {
+                coolDownIdleArenas();
+            }
+        }, 600L, 600L);
     }
     
     /**
-     * Carrega as localizações da arena da configuração
+     * Carrega as localizações das arenas da configuração
      */
     private void loadLocations() {
         ConfigurationSection config = plugin.getConfigManager().getConfig().getConfigurationSection("arena");
         
+        Arena defaultArena = new Arena(DEFAULT_ARENA);
         if (config != null) {
-            pos1 = loadLocationFromConfig(config.getConfigurationSection("pos1"));
-            pos2 = loadLocationFromConfig(config.getConfigurationSection("pos2"));
-            spectatorLocation = loadLocationFromConfig(config.getConfigurationSection("espectador"));
+            loadArena(defaultArena, config);
+        }
+        arenas.put(DEFAULT_ARENA, defaultArena);
+        
+        ConfigurationSection arenasSection = plugin.getConfigManager().getConfig().getConfigurationSection("arenas");
+        if (arenasSection != null) {
+            for (String name : arenasSection.getKeys(false)) {
+                ConfigurationSection section = arenasSection.getConfigurationSection(name);
+                if (section == null || name.equalsIgnoreCase(DEFAULT_ARENA)) {
+                    continue;
+                }
+                
+                Arena arena = new Arena(name);
+                loadArena(arena, section);
+                arenas.put(name.toLowerCase(), arena);
+            }
+        }
+        
+        rebuildIndex();
+        plugin.getLogger().info("Arenas carregadas: " + arenas.size());
+    }
+    
+    /**
+     * Reconstrói o índice de arenas por chunk
+     */
+    private void rebuildIndex() {
+        grid.clear();
+        largeArenas.clear();
+        
+        for (Arena arena : arenas.values()) {
+            if (!arena.isConfigured()) {
+                continue;
+            }
+            
+            int minChunkX = (int) Math.floor(arena.getMinX()) >> 4;
+            int minChunkZ = (int) Math.floor(arena.getMinZ()) >> 4;
+            int maxChunkX = (int) Math.floor(arena.getMaxX()) >> 4;
+            int maxChunkZ = (int) Math.floor(arena.getMaxZ()) >> 4;
+            long chunks = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+            if (chunks > MAX_GRID_CHUNKS) {
+                largeArenas.add(arena);
+                continue;
+            }
+            
+            Map<Long, List<Arena>> cells = grid.get(arena.getWorldName());
+            if (cells == null) {
+                cells = new HashMap<>();
+                grid.put(arena.getWorldName(), cells);
+            }
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    Long key = getChunkKey(chunkX, chunkZ);
+                    List<Arena> cell = cells.get(key);
+                    if (cell == null) {
+                        cell = new ArrayList<>(1);
+                        cells.put(key, cell);
+                    }
+                    cell.add(arena);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Obtém a chave de um chunk na grade
+     */
+    private static long getChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Carrega as posições, a região, os tipos aceitos e o tamanho de equipe de uma arena
+     * 
+     * @param arena Arena a preencher
+     * @param section Seção de configuração da arena
+     */
+    private void loadArena(Arena arena, ConfigurationSection section) {
+        arena.setPos1(loadLocationFromConfig(section.getConfigurationSection("pos1")));
+        arena.setPos2(loadLocationFromConfig(section.getConfigurationSection("pos2")));
+        arena.setSpectatorLocation(loadLocationFromConfig(section.getConfigurationSection("espectador")));
+        arena.setMaxTeamSize(section.getInt("equipe-maxima", 3));
+        loadRegion(arena, section.getConfigurationSection("regiao"));
+        
+        List<String> types = section.getStringList("tipos");
+        for (String typeName : types) {
+            try {
+                arena.getTypes().add(DuelType.valueOf(typeName.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Tipo de duelo inválido na arena " + arena.getName() + ": " + typeName);
+            }
+        }
+    }
+    
+    /**
+     * Carrega a região de uma arena, usada na grade de chunks e no registro de blocos
+     * Sem região, a arena cobre só a caixa entre as posições 1 e 2.
+     * 
+     * @param arena Arena a preencher
+     * @param section Seção "regiao" da arena, ou null
+     */
+    private void loadRegion(Arena arena, ConfigurationSection section) {
+        if (section == null) {
+            return;
+        }
+        
+        ConfigurationSection corner1 = section.getConfigurationSection("canto1");
+        ConfigurationSection corner2 = section.getConfigurationSection("canto2");
+        if (corner1 == null || corner2 == null) {
+            plugin.getLogger().warning("Região da arena " + arena.getName() + " precisa de canto1 e canto2, usando as posições 1 e 2");
+            return;
+        }
+        
+        arena.setRegion(corner1.getInt("x"), corner1.getInt("y"), corner1.getInt("z"),
+                corner2.getInt("x"), corner2.getInt("y"), corner2.getInt("z"));
+        if (arena.isConfigured() && (!arena.contains(arena.getPos1()) || !arena.contains(arena.getPos2()))) {
+            plugin.getLogger().warning("As posições da arena " + arena.getName() + " estão fora da região configurada");
         }
     }
     
@@ -68,28 +257,41 @@ public class ArenaManager {
     }
     
     /**
-     * Salva as localizações da arena na configuração
+     * Salva as localizações das arenas na configuração
      */
     public void saveLocations() {
-        ConfigurationSection config = plugin.getConfigManager().getConfig().getConfigurationSection("arena");
+        for (Arena arena : arenas.values()) {
+            String path = arena.getName().equals(DEFAULT_ARENA) ? "arena" : "arenas." + arena.getName();
+            ConfigurationSection config = plugin.getConfigManager().getConfig().getConfigurationSection(path);
         
-        if (config == null) {
-            config = plugin.getConfigManager().getConfig().createSection("arena");
+            if (config == null) {
+                config = plugin.getConfigManager().getConfig().createSection(path);
+            }
+            
+            saveArena(config, arena);
         }
         
-        if (pos1 != null) {
-            saveLocationToConfig(config.createSection("pos1"), pos1);
+        plugin.getConfigManager().saveConfig();
+    }
+    
+    /**
+     * Salva uma arena na seção de configuração
+     * 
+     * @param config Seção de configuração da arena
+     * @param arena Arena
+     */
+    private void saveArena(ConfigurationSection config, Arena arena) {
+        if (arena.getPos1() != null) {
+            saveLocationToConfig(config.createSection("pos1"), arena.getPos1());
         }
         
-        if (pos2 != null) {
-            saveLocationToConfig(config.createSection("pos2"), pos2);
+        if (arena.getPos2() != null) {
+            saveLocationToConfig(config.createSection("pos2"), arena.getPos2());
         }
         
-        if (spectatorLocation != null) {
-            saveLocationToConfig(config.createSection("espectador"), spectatorLocation);
+        if (arena.getSpectatorLocation() != null) {
+            saveLocationToConfig(config.createSection("espectador"), arena.getSpectatorLocation());
         }
-        
-        plugin.getConfigManager().saveConfig();
     }
     
     /**
@@ -111,13 +313,59 @@ public class ArenaManager {
         section.set("pitch", location.getPitch());
     }
     
+    /**
+     * Obtém uma arena pelo nome
+     * 
+     * @param name Nome da arena (sem diferenciar maiúsculas)
+     * @return Arena ou null se não existir
+     */
+    public Arena getArena(String name) {
+        return arenas.get(name.toLowerCase());
+    }
+    
+    /**
+     * Obtém todas as arenas cadastradas
+     * 
+     * @return Arenas, na ordem da configuração (somente leitura)
+     */
+    public Collection<Arena> getArenas() {
+        return Collections.unmodifiableCollection(arenas.values());
+    }
+    
+    /**
+     * Obtém uma arena pelo nome, cadastrando-a se ainda não existir
+     * 
+     * @param name Nome da arena
+     * @return Arena
+     */
+    private Arena getOrCreateArena(String name) {
+        Arena arena = arenas.get(name.toLowerCase());
+        if (arena == null) {
+            arena = new Arena(name);
+            arenas.put(name.toLowerCase(), arena);
+        }
+        return arena;
+    }
+    
     /**
      * Define a posição 1 da arena
      * 
      * @param location Localização da posição 1
      */
     public void setPos1(Location location) {
-        pos1 = location.clone();
+        setPos1(DEFAULT_ARENA, location);
+    }
+    
+    /**
+     * Define a posição 1 de uma arena, cadastrando-a se necessário
+     * 
+     * @param arenaName Nome da arena
+     * @param location Localização da posição 1
+     */
+    public void setPos1(String arenaName, Location location) {
+        getOrCreateArena(arenaName).setPos1(location);
+        rebuildIndex();
+        rebuildPinnedChunks();
         saveLocations();
     }
     
@@ -127,7 +375,19 @@ public class ArenaManager {
      * @param location Localização da posição 2
      */
     public void setPos2(Location location) {
-        pos2 = location.clone();
+        setPos2(DEFAULT_ARENA, location);
+    }
+    
+    /**
+     * Define a posição 2 de uma arena, cadastrando-a se necessário
+     * 
+     * @param arenaName Nome da arena
+     * @param location Localização da posição 2
+     */
+    public void setPos2(String arenaName, Location location) {
+        getOrCreateArena(arenaName).setPos2(location);
+        rebuildIndex();
+        rebuildPinnedChunks();
         saveLocations();
     }
     
@@ -137,72 +397,478 @@ public class ArenaManager {
      * @param location Localização do local de espectador
      */
     public void setSpectatorLocation(Location location) {
-        spectatorLocation = location.clone();
+        setSpectatorLocation(DEFAULT_ARENA, location);
+    }
+    
+    /**
+     * Define a posição do local de espectador de uma arena, cadastrando-a se necessário
+     * 
+     * @param arenaName Nome da arena
+     * @param location Localização do local de espectador
+     */
+    public void setSpectatorLocation(String arenaName, Location location) {
+        getOrCreateArena(arenaName).setSpectatorLocation(location);
         saveLocations();
     }
     
     /**
-     * Obtém a posição 1 da arena
+     * Obtém a posição 1 da arena padrão
      * 
      * @return Posição 1 da arena
      */
     public Location getPos1() {
-        return pos1 != null ? pos1.clone() : null;
+        return arenas.get(DEFAULT_ARENA).getPos1();
     }
     
     /**
-     * Obtém a posição 2 da arena
+     * Obtém a posição 2 da arena padrão
      * 
      * @return Posição 2 da arena
      */
     public Location getPos2() {
-        return pos2 != null ? pos2.clone() : null;
+        return arenas.get(DEFAULT_ARENA).getPos2();
     }
     
     /**
      * Obtém a posição do local de espectador
+     * Usa a da arena padrão ou, se ela não tiver, a da primeira arena que tiver.
      * 
      * @return Posição do local de espectador
      */
     public Location getSpectatorLocation() {
-        return spectatorLocation != null ? spectatorLocation.clone() : null;
+        for (Arena arena : arenas.values()) {
+            if (arena.getSpectatorLocation() != null) {
+                return arena.getSpectatorLocation();
+            }
+        }
+        return null;
     }
     
     /**
-     * Verifica se a arena está configurada
+     * Verifica se alguma arena está configurada
      * 
-     * @return true se a arena está configurada
+     * @return true se ao menos uma arena tem as duas posições definidas
      */
     public boolean isArenaConfigured() {
-        return pos1 != null && pos2 != null;
+        for (Arena arena : arenas.values()) {
+            if (arena.isConfigured()) {
+                return true;
+            }
+        }
+        return false;
     }
     
     /**
-     * Verifica se a localização está dentro da arena
+     * Verifica se alguma arena aceita um tipo de duelo, livre ou não
      * 
-     * @param location Localização a verificar
-     * @return true se a localização está dentro da arena
+     * @param type Tipo de duelo
+     * @return true se existir uma arena para o tipo
      */
-    public boolean isInArena(Location location) {
-        if (!isArenaConfigured() || location == null) {
-            return false;
+    public boolean hasArenaFor(DuelType type) {
+        for (Arena arena : arenas.values()) {
+            if (arena.supports(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Reserva uma arena livre para um duelo
+     * Entre as arenas livres que aceitam o tipo, escolhe a de menor tamanho máximo de equipe,
+     * deixando as arenas maiores para os duelos em equipe.
+     * 
+     * @param duelId ID do duelo
+     * @param type Tipo de duelo
+     * @return Arena reservada (a mesma, se o duelo já tiver uma) ou null se nenhuma estiver livre
+     */
+    public Arena leaseArena(UUID duelId, DuelType type) {
+        Arena leased = leases.get(duelId);
+        if (leased != null) {
+            return leased;
         }
         
-        if (!location.getWorld().equals(pos1.getWorld())) {
-            return false;
+        Arena best = findFreeArena(type);
+        if (best != null) {
+            best.setDuelId(duelId);
+            leases.put(duelId, best);
+            warmUp(best);
+        }
+        return best;
+    }
+    
+    /**
+     * Obtém a arena livre que seria reservada para um tipo de duelo
+     */
+    private Arena findFreeArena(DuelType type) {
+        Arena best = null;
+        for (Arena arena : arenas.values()) {
+            if (arena.isFree() && arena.supports(type)
+                    && (best == null || arena.getMaxTeamSize() < best.getMaxTeamSize())) {
+                best = arena;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Prepara a arena que um duelo deste tipo receberia
+     * Usado quando um desafio é enviado, para a arena já estar carregada quando ele for aceito.
+     * 
+     * @param type Tipo de duelo
+     */
+    public void warmUp(DuelType type) {
+        if (!type.isArena()) {
+            return;
         }
         
-        double minX = Math.min(pos1.getX(), pos2.getX());
-        double minY = Math.min(pos1.getY(), pos2.getY());
-        double minZ = Math.min(pos1.getZ(), pos2.getZ());
+        Arena arena = findFreeArena(type);
+        if (arena != null) {
+            warmUp(arena);
+        }
+    }
+    
+    /**
+     * Carrega os chunks de uma arena aos poucos e os mantém carregados
+     * Os chunks ficam presos até a arena ficar livre pelo tempo configurado.
+     * 
+     * @param arena Arena a preparar
+     */
+    public void warmUp(Arena arena) {
+        arena.setLastUsed(System.currentTimeMillis());
+        if (!arena.isConfigured() || !warmArenas.add(arena)) {
+            return;
+        }
+        rebuildPinnedChunks();
+        
+        final World world = arena.getPos1().getWorld();
+        final List<Long> chunks = new ArrayList<>(getArenaChunks(arena));
+        final int perTick = plugin.getConfigManager().getArenaChunksPerTick();
+        plugin.getDuelScheduler().runTaskTimer(new ScheduledTask() {
+            int index = 0;
+            
+            @Override
+            public void run() {
+                int loaded = 0;
+                while (index < chunks.size() && loaded < perTick) {
+                    long key = chunks.get(index++);
+                    int chunkX = (int) (key >> 32);
+                    int chunkZ = (int) key;
+                    if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                        world.loadChunk(chunkX, chunkZ);
+                        loaded++;
+                    }
+                }
+                
+                if (index >= chunks.size()) {
+                    this.cancel();
+                }
+            }
+        }, 1L, 1L);
+    }
+    
+    /**
+     * Verifica se um chunk pertence a uma arena carregada e não deve ser descarregado
+     * 
+     * @param chunk Chunk
+     * @return true se o chunk está preso
+     */
+    public boolean isChunkPinned(Chunk chunk) {
+        Set<Long> chunks = pinnedChunks.get(chunk.getWorld().getName());
+        return chunks != null && chunks.contains(getChunkKey(chunk.getX(), chunk.getZ()));
+    }
+    
+    /**
+     * Solta os chunks das arenas livres há mais tempo que o configurado
+     */
+    private void coolDownIdleArenas() {
+        long idleMillis = plugin.getConfigManager().getArenaIdleSeconds() * 1000L;
+        long now = System.currentTimeMillis();
+        boolean changed = false;
+        
+        Iterator<Arena> iterator = warmArenas.iterator();
+        while (iterator.hasNext()) {
+            Arena arena = iterator.next();
+            if (arena.isFree() && now - arena.getLastUsed() >= idleMillis) {
+                iterator.remove();
+                changed = true;
+            }
+        }
+        
+        if (changed) {
+            rebuildPinnedChunks();
+        }
+    }
+    
+    /**
+     * Reconstrói o conjunto de chunks presos a partir das arenas carregadas
+     */
+    private void rebuildPinnedChunks() {
+        pinnedChunks.clear();
+        for (Arena arena : warmArenas) {
+            if (!arena.isConfigured()) {
+                continue;
+            }
+            
+            Set<Long> chunks = pinnedChunks.get(arena.getWorldName());
+            if (chunks == null) {
+                chunks = new HashSet<>();
+                pinnedChunks.put(arena.getWorldName(), chunks);
+            }
+            chunks.addAll(getArenaChunks(arena));
+        }
+    }
+    
+    /**
+     * Obtém os chunks carregados de uma arena
+     * Arenas pequenas carregam todos os chunks entre as posições; as grandes, só os chunks em volta
+     * das posições 1 e 2.
+     * 
+     * @param arena Arena configurada
+     * @return Chaves dos chunks, começando pelos das posições
+     */
+    private Set<Long> getArenaChunks(Arena arena) {
+        Set<Long> chunks = new LinkedHashSet<>();
+        for (Location spawn : new Location[] { arena.getPos1(), arena.getPos2() }) {
+            int spawnX = spawn.getBlockX() >> 4;
+            int spawnZ = spawn.getBlockZ() >> 4;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    chunks.add(getChunkKey(spawnX + dx, spawnZ + dz));
+                }
+            }
+        }
+        
+        int minChunkX = (int) Math.floor(arena.getMinX()) >> 4;
+        int minChunkZ = (int) Math.floor(arena.getMinZ()) >> 4;
+        int maxChunkX = (int) Math.floor(arena.getMaxX()) >> 4;
+        int maxChunkZ = (int) Math.floor(arena.getMaxZ()) >> 4;
+        if ((long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1) <= MAX_WARM_CHUNKS) {
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    chunks.add(getChunkKey(chunkX, chunkZ));
+                }
+            }
+        }
+        return chunks;
+    }
+    
+    /**
+     * Obtém a arena reservada por um duelo
+     * 
+     * @param duelId ID do duelo
+     * @return Arena ou null se o duelo não tiver arena
+     */
+    public Arena getLeasedArena(UUID duelId) {
+        return leases.get(duelId);
+    }
+    
+    /**
+     * Libera a arena reservada por um duelo
+     * 
+     * @param duelId ID do duelo
+     * @return Arena liberada ou null se o duelo não tinha arena
+     */
+    public Arena releaseArena(UUID duelId) {
+        Arena arena = leases.remove(duelId);
+        if (arena != null) {
+            arena.setDuelId(null);
+            arena.setLastUsed(System.currentTimeMillis());
+            if (!arena.getJournal().isEmpty()) {
+                restore(arena);
+            }
+        }
+        return arena;
+    }
+    
+    /**
+     * Registra o estado de um bloco de arena antes de ele ser alterado
+     * Só registra blocos de arenas com duelo em andamento.
+     * 
+     * @param block Bloco que ainda não foi alterado
+     */
+    public void recordBlockChange(Block block) {
+        Arena arena = getArenaAt(block.getLocation());
+        if (arena == null || arena.getDuelId() == null) {
+            return;
+        }
+        
+        arena.getJournal().record(block.getX(), block.getY(), block.getZ(), block.getTypeId(), block.getData());
+    }
+    
+    /**
+     * Registra o estado de um bloco de arena que vai ser removido e dos blocos presos a ele
+     * Blocos presos ou apoiados caem pela física do servidor, sem evento próprio, quando o bloco
+     * que os sustenta sai; registrados junto, eles voltam na restauração.
+     * 
+     * @param block Bloco que ainda não foi removido
+     */
+    public void recordBlockRemoval(Block block) {
+        Arena arena = getArenaAt(block.getLocation());
+        if (arena == null || arena.getDuelId() == null) {
+            return;
+        }
+        
+        recordIn(arena, block);
+        for (BlockFace face : ATTACHED_FACES) {
+            Block attached = block.getRelative(face);
+            if (isAttachable(attached.getType())) {
+                recordIn(arena, attached);
+            }
+        }
+        
+        Block above = block.getRelative(BlockFace.UP);
+        for (int i = 0; i < MAX_STACKED_BLOCKS && isAttachable(above.getType()); i++) {
+            recordIn(arena, above);
+            above = above.getRelative(BlockFace.UP);
+        }
+    }
+    
+    /**
+     * Registra um bloco no registro da arena, se ele estiver dentro dela
+     */
+    private void recordIn(Arena arena, Block block) {
+        if (arena.contains(block.getLocation())) {
+            arena.getJournal().record(block.getX(), block.getY(), block.getZ(), block.getTypeId(), block.getData());
+        }
+    }
+    
+    /**
+     * Verifica se um tipo de bloco cai quando o bloco que o sustenta sai
+     */
+    private static boolean isAttachable(Material type) {
+        return type != Material.AIR && (!type.isSolid() || type == Material.WOODEN_DOOR
+                || type == Material.IRON_DOOR_BLOCK || type == Material.CACTUS);
+    }
+    
+    /**
+     * Registra o estado anterior de um bloco de arena que já foi alterado
+     * Só registra blocos de arenas com duelo em andamento.
+     * 
+     * @param previous Estado do bloco antes da alteração
+     */
+    public void recordBlockChange(BlockState previous) {
+        Arena arena = getArenaAt(previous.getLocation());
+        if (arena == null || arena.getDuelId() == null) {
+            return;
+        }
+        
+        arena.getJournal().record(previous.getX(), previous.getY(), previous.getZ(),
+                previous.getTypeId(), previous.getRawData());
+    }
+    
+    /**
+     * Desfaz as alterações de blocos de uma arena, alguns blocos por tick
+     * Ao terminar, a arena fica livre e os duelos da fila são iniciados.
+     * 
+     * @param arena Arena a restaurar
+     */
+    private void restore(final Arena arena) {
+        arena.setRestoring(true);
+        final int perTick = plugin.getConfigManager().getArenaRestoreBlocksPerTick();
+        plugin.getDuelScheduler().runTaskTimer(new ScheduledTask() {
+            @Override
+            public void run() {
+                if (restoreBlocks(arena, perTick)) {
+                    this.cancel();
+                    plugin.getLogger().info("Arena " + arena.getName() + " restaurada");
+                    plugin.getDuelManager().startQueuedDuels();
+                }
+            }
+        }, 1L, 1L);
+    }
+    
+    /**
+     * Desfaz as últimas alterações de blocos de uma arena
+     * 
+     * @param arena Arena
+     * @param limit Máximo de blocos a restaurar
+     * @return true se a arena terminou de ser restaurada
+     */
+    private boolean restoreBlocks(Arena arena, int limit) {
+        ArenaJournal journal = arena.getJournal();
+        World world = arena.isConfigured() ? arena.getPos1().getWorld() : null;
+        
+        int restored = 0;
+        while (world != null && !journal.isEmpty() && restored < limit) {
+            long position = journal.lastPosition();
+            world.getBlockAt(ArenaJournal.unpackX(position), ArenaJournal.unpackY(position), ArenaJournal.unpackZ(position))
+                    .setTypeIdAndData(journal.lastTypeId(), journal.lastData(), false);
+            journal.removeLast();
+            restored++;
+        }
         
-        double maxX = Math.max(pos1.getX(), pos2.getX());
-        double maxY = Math.max(pos1.getY(), pos2.getY());
-        double maxZ = Math.max(pos1.getZ(), pos2.getZ());
+        if (world != null && !journal.isEmpty()) {
+            return false;
+        }
+        journal.clear();
+        arena.setRestoring(false);
+        arena.setLastUsed(System.currentTimeMillis());
+        return true;
+    }
+    
+    /**
+     * Restaura de uma vez as arenas com alterações pendentes
+     * Usado ao desligar o plugin, quando as tarefas de restauração não vão mais executar.
+     */
+    public void finishRestores() {
+        for (Arena arena : arenas.values()) {
+            if (!arena.getJournal().isEmpty()) {
+                restoreBlocks(arena, Integer.MAX_VALUE);
+            }
+        }
+    }
+    
+    /**
+     * Libera todas as arenas
+     */
+    public void releaseAll() {
+        for (Arena arena : leases.values()) {
+            arena.setDuelId(null);
+        }
+        leases.clear();
+    }
+    
+    /**
+     * Obtém a arena em que uma localização está
+     * Consulta apenas as arenas que cobrem o chunk da localização.
+     * 
+     * @param location Localização a verificar
+     * @return Arena ou null se a localização não estiver em nenhuma arena
+     */
+    public Arena getArenaAt(Location location) {
+        if (location == null || location.getWorld() == null) {
+            return null;
+        }
+        
+        Map<Long, List<Arena>> cells = grid.get(location.getWorld().getName());
+        if (cells != null) {
+            List<Arena> cell = cells.get(getChunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4));
+            if (cell != null) {
+                for (Arena arena : cell) {
+                    if (arena.contains(location)) {
+                        return arena;
+                    }
+                }
+            }
+        }
         
-        return location.getX() >= minX && location.getX() <= maxX &&
-               location.getY() >= minY && location.getY() <= maxY &&
-               location.getZ() >= minZ && location.getZ() <= maxZ;
+        for (Arena arena : largeArenas) {
+            if (arena.contains(location)) {
+                return arena;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Verifica se a localização está dentro de alguma arena
+     * 
+     * @param location Localização a verificar
+     * @return true se a localização está dentro de uma arena
+     */
+    public boolean isInArena(Location location) {
+        return getArenaAt(location) != null;
     }
     
     /**
@@ -225,6 +891,7 @@ public class ArenaManager {
      * @param player Jogador a teleportar
      */
     public void teleportToArena1(Player player) {
+        Location pos1 = getPos1();
         if (player != null && pos1 != null) {
             player.teleport(pos1);
         }
@@ -236,6 +903,7 @@ public class ArenaManager {
      * @param player Jogador a teleportar
      */
     public void teleportToArena2(Player player) {
+        Location pos2 = getPos2();
         if (player != null && pos2 != null) {
             player.teleport(pos2);
         }
@@ -247,6 +915,7 @@ public class ArenaManager {
      * @param player Jogador a teleportar
      */
     public void teleportToSpectator(Player player) {
+        Location spectatorLocation = getSpectatorLocation();
         if (player != null && spectatorLocation != null) {
             player.teleport(spectatorLocation);
         }
@@ -282,6 +282,15 @@ public class ConfigManager {
         return config.getInt("configuracoes.quantidade-top-jogadores", 10);
     }
     
+    /**
+     * Obtém a quantidade mínima de duelos para aparecer no ranking de taxa de vitórias
+     * 
+     * @return Quantidade mínima de duelos
+     */
+    public int getWinRateMinDuels() {
+        return config.getInt("configuracoes.minimo-duelos-taxa-vitorias", 10);
+    }
+    
     /**
      * Obtém a distância máxima para duelos locais
      * 
@@ -320,6 +329,141 @@ public class ConfigManager {
         return config.getBoolean("integracao.worldguard.permitir-pvp-em-areas-protegidas", true);
     }
     
+    /**
+     * Obtém o tipo de armazenamento das estatísticas (yaml ou sqlite)
+     * 
+     * @return Tipo de armazenamento
+     */
+    public String getStorageType() {
+        return config.getString("armazenamento.tipo", "yaml");
+    }
+    
+    /**
+     * Obtém o intervalo entre salvamentos automáticos das estatísticas em segundos
+     * 
+     * @return Intervalo de salvamento
+     */
+    public int getStorageFlushInterval() {
+        return config.getInt("armazenamento.intervalo-salvamento", 30);
+    }
+    
+    /**
+     * Obtém a quantidade máxima de jogadores offline com estatísticas mantidas em memória
+     * 
+     * @return Tamanho do cache de jogadores offline
+     */
+    public int getOfflineStatsCacheSize() {
+        return config.getInt("armazenamento.cache-jogadores-offline", 500);
+    }
+    
+    /**
+     * Obtém o tamanho a partir do qual o diário de duelos é compactado em KB
+     * 
+     * @return Tamanho máximo do diário
+     */
+    public int getJournalCompactionSize() {
+        return config.getInt("armazenamento.limite-diario-kb", 256);
+    }
+    
+    /**
+     * Obtém a quantidade de replays que podem aguardar gravação na fila
+     * 
+     * @return Capacidade da fila de gravação de replays
+     */
+    public int getDuelLogQueueSize() {
+        return config.getInt("registro-duelos.fila-gravacao", 64);
+    }
+    
+    /**
+     * Obtém por quantos dias os replays são mantidos
+     * 
+     * @return Dias de armazenamento (0 para não remover por idade)
+     */
+    public int getDuelLogRetentionDays() {
+        return config.getInt("registro-duelos.dias-armazenamento", 30);
+    }
+    
+    /**
+     * Obtém o espaço máximo ocupado pelos replays em MB
+     * 
+     * @return Limite de espaço (0 para sem limite)
+     */
+    public int getDuelLogDiskBudget() {
+        return config.getInt("registro-duelos.limite-disco-mb", 0);
+    }
+    
+    /**
+     * Obtém o intervalo da limpeza automática de replays em minutos
+     * 
+     * @return Intervalo da limpeza
+     */
+    public int getDuelLogSweepInterval() {
+        return config.getInt("registro-duelos.intervalo-limpeza-minutos", 60);
+    }
+    
+    /**
+     * Obtém após quantos dias os replays são compactados
+     * 
+     * @return Dias até a compactação (0 para não compactar)
+     */
+    public int getDuelLogArchiveDays() {
+        return config.getInt("registro-duelos.compactar-apos-dias", 3);
+    }
+    
+    /**
+     * Obtém quantos chunks de arena são carregados por tick ao preparar uma arena
+     * 
+     * @return Chunks por tick
+     */
+    public int getArenaChunksPerTick() {
+        return Math.max(1, config.getInt("carregamento-arenas.chunks-por-tick", 4));
+    }
+    
+    /**
+     * Obtém por quanto tempo uma arena livre continua carregada após o último uso
+     * 
+     * @return Tempo em segundos
+     */
+    public int getArenaIdleSeconds() {
+        return config.getInt("carregamento-arenas.manter-carregada-segundos", 300);
+    }
+    
+    /**
+     * Obtém o tempo máximo que um duelo aguarda na fila de arenas
+     * 
+     * @return Tempo em segundos, ou 0 para aguardar sem limite
+     */
+    public int getArenaQueueTimeout() {
+        return Math.max(0, config.getInt("fila-arenas.tempo-maximo-segundos", 300));
+    }
+    
+    /**
+     * Obtém quantos blocos de arena são restaurados por tick após um duelo
+     * 
+     * @return Blocos por tick
+     */
+    public int getArenaRestoreBlocksPerTick() {
+        return Math.max(1, config.getInt("restauracao-arenas.blocos-por-tick", 200));
+    }
+    
+    /**
+     * Obtém o tamanho a partir do qual o registro de rivalidades é compactado em KB
+     * 
+     * @return Tamanho máximo do registro de rivalidades
+     */
+    public int getRivalLogCompactionSize() {
+        return config.getInt("rivalidade.limite-registro-kb", 64);
+    }
+    
+    /**
+     * Obtém a quantidade de duelos recentes mantidos em memória por jogador
+     * 
+     * @return Quantidade de duelos por jogador
+     */
+    public int getPlayerHistorySize() {
+        return config.getInt("armazenamento.historico-por-jogador", 50);
+    }
+    
     /**
      * Obtém o som configurado pelo nome
      * 
@@ -2,6 +2,8 @@ package br.com.primeleague.x1.managers;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -10,11 +12,9 @@ import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.Material;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
@@ -24,6 +24,7 @@ import org.bukkit.inventory.PlayerInventory;
 import br.com.primeleague.x1.Main;
 import br.com.primeleague.x1.enums.DuelState;
 import br.com.primeleague.x1.enums.DuelType;
+import br.com.primeleague.x1.models.Arena;
 import br.com.primeleague.x1.models.Duel;
 import br.com.primeleague.x1.utils.InventoryUtils;
 import br.com.primeleague.x1.utils.ColorUtils;
@@ -45,6 +46,7 @@ public class DuelManager {
     private final Map<String, String> challenges;
     private final Map<String, Double> betAmounts;
     private final Map<String, DuelType> challengeTypes; // Armazena o tipo de duelo do desafio
+    private final List<Duel> arenaQueue; // Duelos aguardando uma arena livre, em ordem de chegada
     
     // Cache de estado de jogadores
     private final Map<String, ItemStack[]> inventoryCache;
@@ -56,8 +58,9 @@ public class DuelManager {
     private final Map<String, Location> locationCache; // Novo cache para localização
     
     // Temporizadores
-    private final Map<UUID, BukkitTask> duelTimers;
-    private final Map<String, BukkitTask> challengeTimers;
+    private final Map<UUID, ScheduledTask> duelTimers;
+    private final Map<String, ScheduledTask> challengeTimers;
+    private final Map<UUID, ScheduledTask> queueTimers; // Tempo máximo de espera dos duelos na fila de arenas
     
     // Mapa para armazenar IDs de logs de duelo
     private final Map<UUID, UUID> duelLogsMap;
@@ -74,6 +77,7 @@ public class DuelManager {
         this.challenges = new HashMap<>();
         this.betAmounts = new HashMap<>();
         this.challengeTypes = new HashMap<>();
+        this.arenaQueue = new LinkedList<>();
         
         this.inventoryCache = new HashMap<>();
         this.armorCache = new HashMap<>();
@@ -85,6 +89,7 @@ public class DuelManager {
         
         this.duelTimers = new HashMap<>();
         this.challengeTimers = new HashMap<>();
+        this.queueTimers = new HashMap<>();
         
         // Inicializar mapa de logs
         this.duelLogsMap = new HashMap<>();
@@ -103,18 +108,24 @@ public class DuelManager {
         String challengerName = challenger.getName();
         String challengedName = challenged.getName();
         
+        // Dados ainda sendo carregados
+        if (plugin.getStartupManager().isWarmingUp()) {
+            plugin.getMessageManager().sendMessage(challenger, "geral.carregando");
+            return false;
+        }
+        
         // Verificações gerais
         if (challengerName.equals(challengedName)) {
             plugin.getMessageManager().sendMessage(challenger, "duelo.desafiar-proprio");
             return false;
         }
         
-        if (isInDuel(challengerName)) {
+        if (isInDuel(challengerName) || isWaitingForArena(challengerName)) {
             plugin.getMessageManager().sendMessage(challenger, "duelo.ja-em-duelo");
             return false;
         }
         
-        if (isInDuel(challengedName)) {
+        if (isInDuel(challengedName) || isWaitingForArena(challengedName)) {
             plugin.getMessageManager().sendMessage(challenger, "duelo.alvo-em-duelo");
             return false;
         }
@@ -160,6 +171,9 @@ public class DuelManager {
         
         // Armazenar o tipo de duelo
         challengeTypes.put(challengerName, type);
+        
+        // Carregar a arena enquanto o desafio aguarda resposta
+        plugin.getArenaManager().warmUp(type);
         System.out.println("[PrimeLeagueX1] Desafio enviado por " + challengerName + " para " + challengedName + 
                 " do tipo " + type.name() + " (usesKit: " + type.usesKit() + ")");
         
@@ -191,7 +205,7 @@ public class DuelManager {
         
         // Inicia o temporizador para o desafio expirar
         int timeout = plugin.getConfigManager().getChallengeTimeout();
-        challengeTimers.put(challengerName, Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        challengeTimers.put(challengerName, plugin.getDuelScheduler().runTaskLater(() -> {
             if (challenges.containsKey(challengerName)) {
                 Map<String, String> placeholders1 = new HashMap<>();
                 placeholders1.put("player", challengedName);
@@ -463,7 +477,7 @@ public class DuelManager {
             
             // Inicia o duelo em equipe usando uma tarefa agendada para evitar recursão infinita
             final UUID duelId = duel.getId();
-            Bukkit.getScheduler().runTask(plugin, () -> {
+            plugin.getDuelScheduler().runTask(() -> {
                 Duel activeDuel = activeDuels.get(duelId);
                 if (activeDuel != null) {
                     startTeamDuel(activeDuel);
@@ -526,6 +540,11 @@ public class DuelManager {
      * @param player2 Jogador 2
      */
     private void startDuel(Duel duel, Player player1, Player player2) {
+        // Reservar uma arena; sem arena livre, o duelo aguarda na fila
+        if (!reserveArena(duel)) {
+            return;
+        }
+        
         // Registrar o duelo como ativo
         UUID duelId = duel.getId();
         activeDuels.put(duelId, duel);
@@ -558,7 +577,7 @@ public class DuelManager {
         
         // Teleportar para a arena, se necessário
         if (duelType.isArena()) {
-                        teleportPlayersToArena(player1, player2);
+                        teleportPlayersToArena(duel, player1, player2);
                     }
         
         // Preparar os jogadores com equipamentos
@@ -599,7 +618,7 @@ public class DuelManager {
         X1ScoreboardManager.mostrarPreDuel(player1, duel);
         X1ScoreboardManager.mostrarPreDuel(player2, duel);
         
-        duelTimers.put(duelId, Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+        duelTimers.put(duelId, plugin.getDuelScheduler().runTaskTimer(new Runnable() {
             int count = countdown;
             
             @Override
@@ -619,7 +638,7 @@ public class DuelManager {
                     count--;
                 } else {
                     // Contagem regressiva terminou, inicia o duelo
-                    BukkitTask task = duelTimers.get(duelId);
+                    ScheduledTask task = duelTimers.get(duelId);
                     if (task != null) {
                         task.cancel();
                     }
@@ -643,7 +662,7 @@ public class DuelManager {
                     
                     // Define o tempo máximo do duelo
                     int maxTime = plugin.getConfigManager().getDuelMaxTime();
-                    duelTimers.put(duelId, Bukkit.getScheduler().runTaskLater(plugin, new Runnable() {
+                    duelTimers.put(duelId, plugin.getDuelScheduler().runTaskLater(new Runnable() {
                         @Override
                         public void run() {
                             if (duel.getState() == DuelState.IN_PROGRESS) {
@@ -669,15 +688,22 @@ public class DuelManager {
     }
     
     /**
-     * Teleporta os jogadores para a arena
+     * Teleporta os jogadores para a arena reservada pelo duelo
+     * Os chunks da arena já foram carregados no desafio ou na reserva ({@link ArenaManager#warmUp(Arena)}).
      * 
+     * @param duel Duelo
      * @param player1 Jogador 1
      * @param player2 Jogador 2
      */
-    private void teleportPlayersToArena(Player player1, Player player2) {
+    private void teleportPlayersToArena(Duel duel, Player player1, Player player2) {
+        Arena arena = plugin.getArenaManager().getLeasedArena(duel.getId());
+        if (arena == null) {
+            return;
+        }
+        
         if (player1 != null && player1.isOnline()) {
             // Carrega os chunks antes do teleporte
-            Location pos1 = plugin.getArenaManager().getPos1();
+            Location pos1 = arena.getPos1();
             if (pos1 != null) {
                 pos1.getChunk().load(true);
                 player1.teleport(pos1);
@@ -686,7 +712,7 @@ public class DuelManager {
         
         if (player2 != null && player2.isOnline()) {
             // Carrega os chunks antes do teleporte
-            Location pos2 = plugin.getArenaManager().getPos2();
+            Location pos2 = arena.getPos2();
             if (pos2 != null) {
                 pos2.getChunk().load(true);
                 player2.teleport(pos2);
@@ -694,6 +720,137 @@ public class DuelManager {
         }
     }
     
+    /**
+     * Reserva uma arena para um duelo em arena
+     * Se todas as arenas que aceitam o tipo estiverem ocupadas, o duelo sai dos duelos ativos e
+     * aguarda na fila até uma delas ser liberada ou até o tempo máximo de espera.
+     * 
+     * @param duel Duelo
+     * @return true se o duelo pode começar agora
+     */
+    private boolean reserveArena(Duel duel) {
+        DuelType type = duel.getType();
+        if (!type.isArena() || !plugin.getArenaManager().hasArenaFor(type)) {
+            // Nenhuma arena para o tipo: o duelo segue sem teleporte, como antes
+            return true;
+        }
+        
+        if (plugin.getArenaManager().leaseArena(duel.getId(), type) != null) {
+            return true;
+        }
+        
+        activeDuels.remove(duel.getId());
+        for (String playerName : getDuelPlayers(duel)) {
+            playersDuels.remove(playerName);
+        }
+        arenaQueue.add(duel);
+        
+        plugin.getLogger().info("Duelo " + duel.getId() + " aguardando arena livre (posição " + arenaQueue.size() + ")");
+        for (String playerName : getDuelPlayers(duel)) {
+            Player player = Bukkit.getPlayerExact(playerName);
+            if (player != null && player.isOnline()) {
+                plugin.getMessageManager().sendMessage(player, "arena.fila-aguardando", 
+                        "%posicao%", String.valueOf(arenaQueue.size()));
+            }
+        }
+        
+        // Tempo máximo na fila
+        int timeout = plugin.getConfigManager().getArenaQueueTimeout();
+        if (timeout > 0) {
+            final Duel queuedDuel = duel;
+            queueTimers.put(duel.getId(), plugin.getDuelScheduler().runTaskLater(new Runnable() {
+                @Override
+                public void run() {
+                    queueTimers.remove(queuedDuel.getId());
+                    if (arenaQueue.remove(queuedDuel)) {
+                        plugin.getLogger().info("Duelo " + queuedDuel.getId() + " removido da fila de arenas por tempo de espera");
+                        notifyQueuedPlayers(queuedDuel, null, "arena.fila-expirada");
+                    }
+                }
+            }, timeout * 20L));
+        }
+        return false;
+    }
+    
+    /**
+     * Libera a arena de um duelo e agenda o início dos duelos da fila
+     * 
+     * @param duel Duelo que terminou
+     */
+    private void releaseArena(Duel duel) {
+        if (plugin.getArenaManager().releaseArena(duel.getId()) == null || arenaQueue.isEmpty()) {
+            return;
+        }
+        
+        // Na próxima tarefa, depois que os jogadores do duelo anterior saírem da arena
+        plugin.getDuelScheduler().runTask(new Runnable() {
+            @Override
+            public void run() {
+                startQueuedDuels();
+            }
+        });
+    }
+    
+    /**
+     * Inicia, em ordem de chegada, os duelos da fila que tenham uma arena livre
+     * Chamado quando uma arena é liberada ou termina de ser restaurada.
+     */
+    public void startQueuedDuels() {
+        Iterator<Duel> iterator = arenaQueue.iterator();
+        while (iterator.hasNext()) {
+            Duel duel = iterator.next();
+            if (plugin.getArenaManager().leaseArena(duel.getId(), duel.getType()) == null) {
+                // Nenhuma arena livre para este tipo; os seguintes podem ser de outro tipo
+                continue;
+            }
+            iterator.remove();
+            cancelQueueTimer(duel);
+            
+            // Todos os jogadores precisam estar online
+            List<Player> players = new ArrayList<>();
+            String offline = null;
+            for (String playerName : getDuelPlayers(duel)) {
+                Player player = Bukkit.getPlayerExact(playerName);
+                if (player != null && player.isOnline()) {
+                    players.add(player);
+                } else if (offline == null) {
+                    offline = playerName;
+                }
+            }
+            
+            if (offline != null) {
+                plugin.getArenaManager().releaseArena(duel.getId());
+                for (Player player : players) {
+                    plugin.getMessageManager().sendMessage(player, "arena.fila-cancelada", "%player%", offline);
+                }
+                continue;
+            }
+            
+            activeDuels.put(duel.getId(), duel);
+            for (Player player : players) {
+                playersDuels.put(player.getName(), duel);
+            }
+            
+            if (duel.isTeamDuel()) {
+                startTeamDuel(duel);
+            } else {
+                startDuel(duel, Bukkit.getPlayerExact(duel.getPlayer1()), Bukkit.getPlayerExact(duel.getPlayer2()));
+            }
+        }
+    }
+    
+    /**
+     * Obtém todos os jogadores de um duelo
+     * 
+     * @param duel Duelo
+     * @return Nomes dos jogadores das duas equipes
+     */
+    private List<String> getDuelPlayers(Duel duel) {
+        List<String> players = new ArrayList<>(duel.getTeam1());
+        players.addAll(duel.getTeam2());
+        return players;
+    }
+    
     /**
      * Finaliza um duelo
      * 
@@ -794,6 +951,7 @@ public class DuelManager {
             activeDuels.remove(duelId);
             playersDuels.remove(duel.getPlayer1());
             playersDuels.remove(duel.getPlayer2());
+            releaseArena(duel);
             
             // Salvar o duelo no histórico
             try {
@@ -838,7 +996,7 @@ public class DuelManager {
                 try {
                     boolean saved = plugin.getDuelLogManager().stopLogging(logId, winnerTeam);
                     if (saved) {
-                        System.out.println("[PrimeLeagueX1] Replay do duelo salvo com sucesso: " + logId);
+                        System.out.println("[PrimeLeagueX1] Replay do duelo enviado para gravação: " + logId);
                     } else {
                         System.out.println("[PrimeLeagueX1] Erro ao salvar replay do duelo: " + logId);
                     }
@@ -869,7 +1027,7 @@ public class DuelManager {
         try {
             // Cancelar o temporizador
             UUID duelId = duel.getId();
-            BukkitTask task = duelTimers.get(duelId);
+            ScheduledTask task = duelTimers.get(duelId);
             if (task != null) {
                 task.cancel();
                 duelTimers.remove(duelId);
@@ -1036,6 +1194,7 @@ public class DuelManager {
             
             // Remover o duelo da lista de duelos ativos
             activeDuels.remove(duelId);
+            releaseArena(duel);
             
             // Remover jogadores do mapa de duelos
             for (String memberName : team1) {
@@ -1077,7 +1236,7 @@ public class DuelManager {
             try {
                 boolean saved = plugin.getDuelLogManager().stopLogging(logId, winnerTeam);
                 if (saved) {
-                    System.out.println("[PrimeLeagueX1] Replay do duelo salvo com sucesso: " + logId);
+                    System.out.println("[PrimeLeagueX1] Replay do duelo enviado para gravação: " + logId);
                 } else {
                     System.out.println("[PrimeLeagueX1] Erro ao salvar replay do duelo: " + logId);
                 }
@@ -1142,6 +1301,111 @@ public class DuelManager {
         return playersDuels.containsKey(playerName);
     }
     
+    /**
+     * Verifica se um jogador está em um duelo aguardando arena livre
+     * 
+     * @param playerName Nome do jogador
+     * @return true se o jogador está na fila de arenas, false caso contrário
+     */
+    public boolean isWaitingForArena(String playerName) {
+        for (Duel duel : arenaQueue) {
+            if (duel.getTeam1().contains(playerName) || duel.getTeam2().contains(playerName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Remove da fila de arenas o duelo de um jogador que saiu
+     * Os demais jogadores do duelo são avisados; o duelo não chegou a começar.
+     * 
+     * @param playerName Nome do jogador
+     */
+    public void leaveArenaQueue(String playerName) {
+        Duel duel = removeFromArenaQueue(playerName);
+        if (duel != null) {
+            notifyQueuedPlayers(duel, playerName, "arena.fila-cancelada", "%player%", playerName);
+        }
+    }
+    
+    /**
+     * Cancela o duelo de um jogador na fila de arenas, a pedido do próprio jogador
+     * Os demais jogadores do duelo são avisados; o duelo não chegou a começar.
+     * 
+     * @param player Jogador
+     * @return true se o jogador estava na fila de arenas, false caso contrário
+     */
+    public boolean cancelQueuedDuel(Player player) {
+        Duel duel = removeFromArenaQueue(player.getName());
+        if (duel == null) {
+            return false;
+        }
+        
+        plugin.getMessageManager().sendMessage(player, "arena.fila-saiu");
+        notifyQueuedPlayers(duel, player.getName(), "arena.fila-cancelada-jogador", "%player%", player.getName());
+        return true;
+    }
+    
+    /**
+     * Remove da fila de arenas o duelo de um jogador
+     * 
+     * @param playerName Nome do jogador
+     * @return Duelo removido ou null se o jogador não estava na fila
+     */
+    private Duel removeFromArenaQueue(String playerName) {
+        Iterator<Duel> iterator = arenaQueue.iterator();
+        while (iterator.hasNext()) {
+            Duel duel = iterator.next();
+            if (duel.getTeam1().contains(playerName) || duel.getTeam2().contains(playerName)) {
+                iterator.remove();
+                cancelQueueTimer(duel);
+                return duel;
+            }
+        }
+        return null;
+    }
+            
+    /**
+     * Esvazia a fila de arenas, avisando os jogadores dos duelos que aguardavam
+     */
+    private void dropArenaQueue() {
+        for (Duel duel : arenaQueue) {
+            cancelQueueTimer(duel);
+            notifyQueuedPlayers(duel, null, "arena.fila-encerrada");
+        }
+        arenaQueue.clear();
+    }
+    
+    /**
+     * Cancela o tempo máximo de espera de um duelo que saiu da fila de arenas
+     * 
+     * @param duel Duelo
+     */
+    private void cancelQueueTimer(Duel duel) {
+        ScheduledTask task = queueTimers.remove(duel.getId());
+        if (task != null) {
+            task.cancel();
+        }
+    }
+    
+    /**
+     * Envia uma mensagem aos jogadores online de um duelo da fila de arenas
+     * 
+     * @param duel Duelo
+     * @param except Jogador que não recebe a mensagem, ou null
+     * @param key Chave da mensagem
+     * @param placeholders Pares de placeholder e valor
+     */
+    private void notifyQueuedPlayers(Duel duel, String except, String key, Object... placeholders) {
+        for (String memberName : getDuelPlayers(duel)) {
+            Player member = Bukkit.getPlayerExact(memberName);
+            if (member != null && member.isOnline() && !memberName.equals(except)) {
+                plugin.getMessageManager().sendMessage(member, key, placeholders);
+            }
+        }
+    }
+    
     /**
      * Verifica se um jogador enviou um desafio
      * 
@@ -1347,11 +1611,20 @@ public class DuelManager {
         final Location loc1 = player1.getLocation().clone();
         final Location loc2 = player2.getLocation().clone();
         
-        // Primeira tentativa após 5 ticks
-        Bukkit.getScheduler().runTaskLater(plugin, new Runnable() {
+        // Tentativas após 5, 10 e 20 ticks, em uma só tarefa
+        plugin.getDuelScheduler().runTaskTimer(new ScheduledTask() {
+            int attempt = 0;
+            
             @Override
             public void run() {
-                if (player1 != null && player2 != null && player1.isOnline() && player2.isOnline()) {
+                attempt++;
+                if (player1 == null || player2 == null || !player1.isOnline() || !player2.isOnline()) {
+                    this.cancel();
+                    return;
+                }
+                
+                if (attempt == 1) {
+                    // Primeira tentativa após 5 ticks
                     // Técnica 1: Teleportar para a mesma localização
                     player1.teleport(loc1);
                     player2.teleport(loc2);
@@ -1367,15 +1640,8 @@ public class DuelManager {
                     // Técnica 4: Recarregar chunks
                     player1.getLocation().getChunk().load(true);
                     player2.getLocation().getChunk().load(true);
-                }
-            }
-        }, 5L);
-        
-        // Segunda tentativa após 10 ticks
-        Bukkit.getScheduler().runTaskLater(plugin, new Runnable() {
-            @Override
-            public void run() {
-                if (player1 != null && player2 != null && player1.isOnline() && player2.isOnline()) {
+                } else if (attempt == 2) {
+                    // Segunda tentativa após 10 ticks
                     player1.showPlayer(player2);
                     player2.showPlayer(player1);
                     
@@ -1393,20 +1659,14 @@ public class DuelManager {
                             player2.showPlayer((Player) entity);
                         }
                     }
-                }
-            }
-        }, 10L);
-        
-        // Terceira tentativa após 20 ticks (1 segundo)
-        Bukkit.getScheduler().runTaskLater(plugin, new Runnable() {
-            @Override
-            public void run() {
-                if (player1 != null && player2 != null && player1.isOnline() && player2.isOnline()) {
+                } else if (attempt == 4) {
+                    // Terceira tentativa após 20 ticks (1 segundo)
                     player1.showPlayer(player2);
                     player2.showPlayer(player1);
+                    this.cancel();
                 }
             }
-        }, 20L);
+        }, 5L, 5L);
     }
     
     /**
@@ -1463,7 +1723,7 @@ public class DuelManager {
     public void clearAll() {
         // Limpa todos os duelos ativos
         for (UUID duelId : activeDuels.keySet()) {
-            BukkitTask task = duelTimers.get(duelId);
+            ScheduledTask task = duelTimers.get(duelId);
             if (task != null) {
                 task.cancel();
             }
@@ -1471,7 +1731,7 @@ public class DuelManager {
         
         // Limpa os desafios
         for (String challenger : challenges.keySet()) {
-            BukkitTask task = challengeTimers.get(challenger);
+            ScheduledTask task = challengeTimers.get(challenger);
             if (task != null) {
                 task.cancel();
             }
@@ -1485,6 +1745,8 @@ public class DuelManager {
         challengeTypes.clear();
         duelTimers.clear();
         challengeTimers.clear();
+        dropArenaQueue();
+        plugin.getArenaManager().releaseAll();
         
         // Cache de jogadores é mantido para restauração de estados
     }
@@ -1493,6 +1755,9 @@ public class DuelManager {
      * Cancela todos os duelos ativos
      */
     public void cancelAllDuels() {
+        // Duelos na fila não chegaram a começar
+        dropArenaQueue();
+        
         // Finaliza todos os duelos como empate
         for (Duel duel : new ArrayList<>(activeDuels.values())) {
             if (duel.getState() != DuelState.ENDED) {
@@ -1510,6 +1775,11 @@ public class DuelManager {
         try {
             plugin.getLogger().info("Iniciando duelo em equipe: " + duel.getId());
             
+            // Reservar uma arena; sem arena livre, o duelo aguarda na fila
+            if (!reserveArena(duel)) {
+                return;
+            }
+            
             // Registrar o duelo como ativo
             UUID duelId = duel.getId();
             activeDuels.put(duelId, duel);
@@ -1570,16 +1840,19 @@ public class DuelManager {
             
             // Teleportar jogadores ou verificar distância
             if (duelType.isArena()) {
-                // Teleportar para a arena
-                Location pos1 = plugin.getArenaManager().getPos1();
-                Location pos2 = plugin.getArenaManager().getPos2();
+                // Teleportar para a arena reservada
+                Arena arena = plugin.getArenaManager().getLeasedArena(duelId);
+                if (arena != null) {
+                    Location pos1 = arena.getPos1();
+                    Location pos2 = arena.getPos2();
                 
-                for (Player player : team1Players) {
-                    player.teleport(pos1);
-                }
+                    for (Player player : team1Players) {
+                        player.teleport(pos1);
+                    }
                 
-                for (Player player : team2Players) {
-                    player.teleport(pos2);
+                    for (Player player : team2Players) {
+                        player.teleport(pos2);
+                    }
                 }
             } else {
                 // Verificar distância entre os jogadores
@@ -1640,7 +1913,7 @@ public class DuelManager {
             duel.setState(DuelState.STARTING);
             
             // Iniciar a contagem regressiva para o duelo
-            BukkitTask duelTimer = new BukkitRunnable() {
+            ScheduledTask duelTimer = plugin.getDuelScheduler().runTaskTimer(new ScheduledTask() {
                 int count = countdown;
                 
                 @Override
@@ -1693,7 +1966,7 @@ public class DuelManager {
                         this.cancel();
                     }
                 }
-            }.runTaskTimer(plugin, 0L, 20L);
+            }, 0L, 20L);
             
             duelTimers.put(duelId, duelTimer);
             
@@ -1724,6 +1997,7 @@ public class DuelManager {
         
         // Remover o duelo das listas
         activeDuels.remove(duel.getId());
+        releaseArena(duel);
         
         List<String> team1 = duel.getTeam1();
         List<String> team2 = duel.getTeam2();
@@ -1780,7 +2054,7 @@ public class DuelManager {
             return; // Sem limite de tempo
         }
         
-        BukkitTask task = Bukkit.getScheduler().runTaskLater(plugin, new Runnable() {
+        ScheduledTask task = plugin.getDuelScheduler().runTaskLater(new Runnable() {
             @Override
             public void run() {
                 if (duel.getState() == DuelState.IN_PROGRESS) {
@@ -1810,6 +2084,12 @@ public class DuelManager {
                 return false;
             }
             
+            // Dados ainda sendo carregados
+            if (plugin.getStartupManager().isWarmingUp()) {
+                plugin.getMessageManager().sendMessage(Bukkit.getPlayerExact(leaderName), "geral.carregando");
+                return false;
+            }
+            
             // Verificar se os jogadores são líderes de equipe
             if (!plugin.getTeamManager().isTeamLeader(leaderName)) {
                 plugin.getLogger().warning("Desafio em equipe inválido: " + leaderName + " não é líder");
@@ -1870,7 +2150,7 @@ public class DuelManager {
             
             // Verificar se algum jogador já está em duelo
             for (String memberName : team1) {
-                if (isInDuel(memberName)) {
+                if (isInDuel(memberName) || isWaitingForArena(memberName)) {
                     plugin.getMessageManager().sendMessage(Bukkit.getPlayerExact(leaderName), "equipes.membro-em-duelo", 
                             "%jogador%", memberName);
                     return false;
@@ -1878,7 +2158,7 @@ public class DuelManager {
             }
             
             for (String memberName : team2) {
-                if (isInDuel(memberName)) {
+                if (isInDuel(memberName) || isWaitingForArena(memberName)) {
                     plugin.getMessageManager().sendMessage(Bukkit.getPlayerExact(leaderName), "equipes.membro-em-duelo", 
                             "%jogador%", memberName);
                     return false;
@@ -1912,6 +2192,9 @@ public class DuelManager {
             challenges.put(leaderName, targetLeaderName);
             challengeTypes.put(leaderName, type);
             
+            // Carregar a arena enquanto o desafio aguarda resposta
+            plugin.getArenaManager().warmUp(type);
+            
             if (betAmount > 0) {
                 betAmounts.put(leaderName, betAmount);
             }
@@ -1989,7 +2272,7 @@ public class DuelManager {
             }
             
             // Agendar expiração do desafio
-            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            plugin.getDuelScheduler().runTaskLater(() -> {
                 if (challenges.containsKey(leaderName) && challenges.get(leaderName).equals(targetLeaderName)) {
                     challenges.remove(leaderName);
                     challengeTypes.remove(leaderName);
@@ -2059,10 +2342,6 @@ public class DuelManager {
             System.out.println("[PrimeLeagueX1] Estatísticas atuais de " + playerName + ": V=" + 
                               stats.getVictories() + ", D=" + stats.getDefeats() + ", E=" + 
                               stats.getDraws() + ", Elo=" + stats.getElo());
-            
-            // Garantir que os dados sejam salvos globalmente
-            System.out.println("[PrimeLeagueX1] Forçando salvamento de dados após atualizar estatísticas");
-            plugin.getFileStorage().saveData();
         } catch (Exception e) {
             // Em caso de erro, apenas logar a falha
             plugin.getLogger().warning("Erro ao processar estatísticas para " + playerName + ": " + e.getMessage());
@@ -2319,7 +2598,7 @@ public class DuelManager {
         }
         
         // Iniciar contagem regressiva
-        new BukkitRunnable() {
+        plugin.getDuelScheduler().runTaskTimer(new ScheduledTask() {
             int count = countdownSeconds;
             
             @Override
@@ -2402,7 +2681,7 @@ public class DuelManager {
                     }
                 }
             }
-        }.runTaskTimer(plugin, 0L, 20L);
+        }, 0L, 20L);
     }
     
     /**
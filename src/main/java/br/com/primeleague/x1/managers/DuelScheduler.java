@@ -0,0 +1,237 @@
+package br.com.primeleague.x1.managers;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import br.com.primeleague.x1.Main;
+
+/**
+ * Agendador único das tarefas de duelo
+ * 
+ * Contagens regressivas, expiração de desafios, tempo máximo dos duelos, atualização das
+ * scoreboards e tarefas das arenas são executadas por uma só tarefa do Bukkit, que roda a cada
+ * tick e executa as tarefas vencidas em ordem. Assim o número de tarefas no agendador do servidor
+ * não cresce com o número de duelos, e o custo de cada tick fica medido em um só lugar. Tarefas
+ * canceladas saem da fila quando chega a sua vez ou, se passarem de metade da fila, todas de uma vez.
+ */
+public class DuelScheduler {
+    
+    private final Main plugin;
+    private final PriorityQueue<ScheduledTask> queue;
+    private BukkitTask driver;
+    private long currentTick;
+    private long nextSequence;
+    private int cancelledTasks; // Tarefas canceladas ainda na fila
+    
+    // Custo por tick, em nanossegundos
+    private long lastTickNanos;
+    private double averageTickNanos;
+    private long peakTickNanos;
+    
+    /**
+     * Construtor
+     * 
+     * @param plugin Instância do plugin
+     */
+    public DuelScheduler(Main plugin) {
+        this.plugin = plugin;
+        this.queue = new PriorityQueue<>(64, new Comparator<ScheduledTask>() {
+            @Override
+            public int compare(ScheduledTask a, ScheduledTask b) {
+                if (a.nextTick != b.nextTick) {
+                    return a.nextTick < b.nextTick ? -1 : 1;
+                }
+                return a.sequence < b.sequence ? -1 : (a.sequence == b.sequence ? 0 : 1);
+            }
+        });
+        
+        this.driver = Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }, 1L, 1L);
+    }
+    
+    /**
+     * Agenda uma tarefa para o próximo tick
+     * 
+     * @param task Tarefa
+     * @return Tarefa agendada, que pode ser cancelada
+     */
+    public ScheduledTask runTask(Runnable task) {
+        return runTaskTimer(task, 0L, 0L);
+    }
+    
+    /**
+     * Agenda uma tarefa para daqui a alguns ticks
+     * 
+     * @param task Tarefa
+     * @param delay Atraso em ticks
+     * @return Tarefa agendada, que pode ser cancelada
+     */
+    public ScheduledTask runTaskLater(Runnable task, long delay) {
+        return runTaskTimer(task, delay, 0L);
+    }
+    
+    /**
+     * Agenda uma tarefa repetida
+     * Um atraso menor que 1 tick vale como 1, como no agendador do Bukkit.
+     * 
+     * @param task Tarefa; se for um {@link ScheduledTask}, é agendada a própria instância
+     * @param delay Atraso da primeira execução em ticks
+     * @param period Intervalo entre execuções em ticks, ou 0 para executar uma vez só
+     * @return Tarefa agendada, que pode ser cancelada
+     */
+    public ScheduledTask runTaskTimer(Runnable task, long delay, long period) {
+        ScheduledTask scheduled = task instanceof ScheduledTask ? (ScheduledTask) task : new RunnableTask(task);
+        if (scheduled.scheduled) {
+            throw new IllegalStateException("Tarefa já agendada");
+        }
+        
+        scheduled.scheduled = true;
+        scheduled.scheduler = this;
+        scheduled.nextTick = currentTick + Math.max(1L, delay);
+        scheduled.period = Math.max(0L, period);
+        scheduled.sequence = nextSequence++;
+        scheduled.queued = true;
+        queue.add(scheduled);
+        return scheduled;
+    }
+    
+    /**
+     * Executa as tarefas vencidas no tick atual
+     * Tarefas agendadas durante o tick ficam para os ticks seguintes.
+     */
+    private void tick() {
+        long start = System.nanoTime();
+        currentTick++;
+        
+        ScheduledTask task;
+        while ((task = queue.peek()) != null && task.nextTick <= currentTick) {
+            queue.poll();
+            task.queued = false;
+            if (task.isCancelled()) {
+                cancelledTasks--;
+                continue;
+            }
+            
+            try {
+                task.run();
+            } catch (Exception e) {
+                plugin.getLogger().severe("Erro em tarefa de duelo: " + e.getMessage());
+                e.printStackTrace();
+            }
+            
+            if (task.period > 0 && !task.isCancelled()) {
+                task.nextTick = currentTick + task.period;
+                task.queued = true;
+                queue.add(task);
+            }
+        }
+        
+        lastTickNanos = System.nanoTime() - start;
+        averageTickNanos += (lastTickNanos - averageTickNanos) * 0.05;
+        peakTickNanos = Math.max(peakTickNanos, lastTickNanos);
+    }
+    
+    /**
+     * Registra o cancelamento de uma tarefa que está na fila
+     * Quando as canceladas passam de metade da fila, todas são descartadas de uma vez.
+     */
+    void taskCancelled() {
+        cancelledTasks++;
+        if (cancelledTasks > queue.size() / 2) {
+            purge();
+        }
+    }
+    
+    /**
+     * Descarta da fila as tarefas canceladas
+     */
+    private void purge() {
+        Iterator<ScheduledTask> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            ScheduledTask task = iterator.next();
+            if (task.isCancelled()) {
+                task.queued = false;
+                iterator.remove();
+            }
+        }
+        cancelledTasks = 0;
+    }
+    
+    /**
+     * Obtém o número de tarefas na fila (sem as canceladas)
+     * 
+     * @return Número de tarefas
+     */
+    public int getPendingTasks() {
+        return queue.size() - cancelledTasks;
+    }
+    
+    /**
+     * Obtém o custo do último tick
+     * 
+     * @return Tempo em nanossegundos
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+    
+    /**
+     * Obtém o custo médio por tick (média móvel dos últimos ticks)
+     * 
+     * @return Tempo em nanossegundos
+     */
+    public long getAverageTickNanos() {
+        return (long) averageTickNanos;
+    }
+    
+    /**
+     * Obtém o maior custo de um tick desde a última leitura e zera o pico
+     * 
+     * @return Tempo em nanossegundos
+     */
+    public long takePeakTickNanos() {
+        long peak = peakTickNanos;
+        peakTickNanos = 0;
+        return peak;
+    }
+    
+    /**
+     * Para o agendador e descarta as tarefas pendentes
+     */
+    public void shutdown() {
+        if (driver != null) {
+            driver.cancel();
+            driver = null;
+        }
+        for (ScheduledTask task : queue) {
+            task.queued = false;
+        }
+        queue.clear();
+        cancelledTasks = 0;
+    }
+    
+    /**
+     * Tarefa que executa um Runnable comum
+     */
+    private static final class RunnableTask extends ScheduledTask {
+        
+        private final Runnable task;
+        
+        RunnableTask(Runnable task) {
+            this.task = task;
+        }
+        
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+} 
\ No newline at end of file
@@ -97,11 +97,13 @@ public class MessageManager {
         // Mensagens de ranking
         defaultMessages.put("ranking.top-header", "&6Top 10 Jogadores");
         defaultMessages.put("ranking.linha", "&e%pos%. &b%jogador% &7- &a%vitórias% vitórias");
+        defaultMessages.put("ranking.tipo-invalido", "&cRanking inválido. Use: &e%tipos%");
         
         // Mensagens de erro genéricas
         defaultMessages.put("erro.geral", "&cOcorreu um erro. Tente novamente.");
         defaultMessages.put("erro.duelo-existente", "&cVocê já está em um duelo.");
         defaultMessages.put("erro.jogador-ocupado", "&cO jogador está ocupado.");
+        defaultMessages.put("geral.carregando", "&eO plugin ainda está carregando os dados. Aguarde alguns segundos para desafiar.");
     }
     
     /**
@@ -0,0 +1,41 @@
+package br.com.primeleague.x1.managers;
+
+/**
+ * Tarefa executada pelo {@link DuelScheduler}
+ * 
+ * Funciona como um BukkitRunnable: a tarefa pode se cancelar de dentro do próprio run(), e o
+ * cancelamento vale a partir da execução seguinte. Uma instância só pode ser agendada uma vez.
+ * Uma tarefa cancelada enquanto aguarda na fila é contada pelo agendador, que a descarta.
+ */
+public abstract class ScheduledTask implements Runnable {
+    
+    long nextTick; // Tick do agendador em que a tarefa será executada
+    long period; // Intervalo entre execuções, ou 0 se for executada uma vez só
+    long sequence; // Ordem de agendamento, para desempate no mesmo tick
+    boolean scheduled;
+    boolean queued; // Aguardando na fila do agendador
+    DuelScheduler scheduler; // Agendador da tarefa, ou null se ainda não agendada
+    private boolean cancelled;
+    
+    /**
+     * Cancela a tarefa
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        if (queued && scheduler != null) {
+            scheduler.taskCancelled();
+        }
+    }
+    
+    /**
+     * Verifica se a tarefa foi cancelada
+     * 
+     * @return true se a tarefa foi cancelada
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,169 @@
+package br.com.primeleague.x1.managers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.bukkit.Bukkit;
+
+import br.com.primeleague.x1.Main;
+
+/**
+ * Gerenciador do carregamento inicial dos dados
+ * 
+ * Os dados do plugin (estatísticas, rivalidades e índices de replays) são lidos em paralelo em um
+ * pool fork/join, fora da thread principal. Cada carregador entrega o resultado na thread principal
+ * e tem o tempo registrado no console. Enquanto houver carregadores pendentes o plugin fica em
+ * aquecimento e novos desafios são recusados.
+ */
+public class StartupManager {
+    
+    private final Main plugin;
+    private final ForkJoinPool pool;
+    private final long startTime;
+    
+    // Acessados apenas pela thread principal
+    private int pendingLoaders;
+    private boolean warmingUp;
+    
+    /**
+     * Construtor
+     * 
+     * @param plugin Instância do plugin
+     */
+    public StartupManager(Main plugin) {
+        this.plugin = plugin;
+        this.pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+            new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+                @Override
+                public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("PrimeLeagueX1-Carregamento-" + thread.getPoolIndex());
+                    return thread;
+                }
+            }, null, false);
+        this.startTime = System.currentTimeMillis();
+        this.warmingUp = true;
+    }
+    
+    /**
+     * Inicia um carregador em segundo plano
+     * O resultado é entregue na thread principal; se o carregador falhar, nada é entregue.
+     * Deve ser chamado na thread principal, durante a inicialização do plugin.
+     * 
+     * @param name Nome do carregador (usado no console)
+     * @param loader Leitura dos dados, executada no pool de carregamento
+     * @param apply Recebe os dados carregados na thread principal
+     * @return Tarefa do carregador, que pode ser aguardada por outras threads
+     */
+    public <T> ForkJoinTask<T> load(String name, Callable<T> loader, Consumer<T> apply) {
+        pendingLoaders++;
+        ForkJoinTask<T> task = new LoaderTask<T>(name, loader, apply);
+        pool.execute(task);
+        return task;
+    }
+    
+    /**
+     * Verifica se os dados ainda estão sendo carregados
+     * 
+     * @return true se algum carregador ainda não terminou
+     */
+    public boolean isWarmingUp() {
+        return warmingUp;
+    }
+    
+    /**
+     * Encerra o pool de carregamento
+     * Carregadores ainda em execução são interrompidos e seus resultados descartados.
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Registra o fim de um carregador e libera os desafios quando todos terminarem
+     * Os carregadores são todos iniciados no onEnable, antes de qualquer resultado chegar à thread principal.
+     * 
+     * @param name Nome do carregador
+     * @param elapsed Tempo de leitura em milissegundos
+     */
+    private void finishLoader(String name, long elapsed) {
+        System.out.println("[PrimeLeagueX1] Carregamento de " + name + " concluído em " + elapsed + " ms.");
+        
+        pendingLoaders--;
+        if (pendingLoaders == 0 && warmingUp) {
+            warmingUp = false;
+            System.out.println("[PrimeLeagueX1] Dados carregados em " + (System.currentTimeMillis() - startTime) + " ms, desafios liberados.");
+        }
+    }
+    
+    /**
+     * Tarefa de um carregador no pool fork/join
+     * Carregadores podem dividir o trabalho em subtarefas (fork/join) dentro do mesmo pool.
+     */
+    private class LoaderTask<T> extends RecursiveTask<T> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final String name;
+        private final Callable<T> loader;
+        private final Consumer<T> apply;
+        
+        /**
+         * Construtor
+         * 
+         * @param name Nome do carregador
+         * @param loader Leitura dos dados
+         * @param apply Recebe os dados carregados na thread principal
+         */
+        LoaderTask(String name, Callable<T> loader, Consumer<T> apply) {
+            this.name = name;
+            this.loader = loader;
+            this.apply = apply;
+        }
+        
+        @Override
+        protected T compute() {
+            long start = System.currentTimeMillis();
+            T result = null;
+            try {
+                result = loader.call();
+            } catch (Exception e) {
+                plugin.getLogger().severe("Erro ao carregar " + name + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+            
+            final T loaded = result;
+            final long elapsed = System.currentTimeMillis() - start;
+            try {
+                Bukkit.getScheduler().runTask(plugin, new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            if (loaded != null) {
+                                apply.accept(loaded);
+                            }
+                        } catch (Exception e) {
+                            plugin.getLogger().severe("Erro ao aplicar os dados de " + name + ": " + e.getMessage());
+                            e.printStackTrace();
+                        } finally {
+                            finishLoader(name, elapsed);
+                        }
+                    }
+                });
+            } catch (Exception e) {
+                // Plugin desativado antes do fim do carregamento
+            }
+            return result;
+        }
+    }
+} 
\ No newline at end of file
@@ -1,12 +1,18 @@
 package br.com.primeleague.x1.managers;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.bukkit.entity.Player;
 
 import br.com.primeleague.x1.Main;
+import br.com.primeleague.x1.enums.RankingType;
 import br.com.primeleague.x1.models.DuelHistory;
 import br.com.primeleague.x1.models.PlayerStats;
+import br.com.primeleague.x1.storage.HistoryArchive;
 
 /**
  * Gerenciador de estatísticas de jogadores
@@ -31,7 +37,35 @@ public class StatsManager {
      * @return Estatísticas do jogador
      */
     public PlayerStats getPlayerStats(String playerName) {
-        return plugin.getFileStorage().getPlayerStats(playerName);
+        return plugin.getStatsRepository().getPlayerStats(playerName);
+    }
+    
+    /**
+     * Procura as estatísticas de um jogador sem criar um registro novo
+     * 
+     * @param playerName Nome do jogador
+     * @return Estatísticas do jogador ou null se o jogador não tiver estatísticas
+     */
+    public PlayerStats findPlayerStats(String playerName) {
+        return plugin.getStatsRepository().findPlayerStats(playerName);
+    }
+    
+    /**
+     * Carrega as estatísticas de um jogador que entrou no servidor
+     * 
+     * @param playerName Nome do jogador
+     */
+    public void loadPlayer(String playerName) {
+        plugin.getStatsRepository().loadPlayer(playerName);
+    }
+    
+    /**
+     * Libera as estatísticas de um jogador que saiu do servidor
+     * 
+     * @param playerName Nome do jogador
+     */
+    public void unloadPlayer(String playerName) {
+        plugin.getStatsRepository().unloadPlayer(playerName);
     }
     
     /**
@@ -42,7 +76,7 @@ public class StatsManager {
      * @return Lista de duelos do jogador
      */
     public List<DuelHistory> getPlayerHistory(String playerName, int limit) {
-        return plugin.getFileStorage().getPlayerHistory(playerName, limit);
+        return plugin.getStatsRepository().getPlayerHistory(playerName, limit);
     }
     
     /**
@@ -52,7 +86,39 @@ public class StatsManager {
      * @return Lista de estatísticas dos jogadores
      */
     public List<PlayerStats> getTopPlayers(int limit) {
-        return plugin.getFileStorage().getTopPlayers(limit);
+        return getTopPlayers(RankingType.VICTORIES, limit);
+    }
+    
+    /**
+     * Obtém o top N jogadores de um ranking
+     * 
+     * @param type Tipo de ranking
+     * @param limit Quantidade de jogadores
+     * @return Lista de estatísticas dos jogadores
+     */
+    public List<PlayerStats> getTopPlayers(RankingType type, int limit) {
+        return plugin.getStatsRepository().getTopPlayers(type, limit);
+    }
+    
+    /**
+     * Obtém a posição de um jogador no ranking de vitórias
+     * 
+     * @param playerName Nome do jogador
+     * @return Posição (começando em 1) ou -1 se o jogador não estiver no ranking
+     */
+    public int getRank(String playerName) {
+        return getRank(RankingType.VICTORIES, playerName);
+    }
+    
+    /**
+     * Obtém a posição de um jogador em um ranking
+     * 
+     * @param type Tipo de ranking
+     * @param playerName Nome do jogador
+     * @return Posição (começando em 1) ou -1 se o jogador não estiver no ranking
+     */
+    public int getRank(RankingType type, String playerName) {
+        return plugin.getStatsRepository().getRank(type, playerName);
     }
     
     /**
@@ -67,10 +133,6 @@ public class StatsManager {
             System.out.println("[PrimeLeagueX1] Estatísticas antes: V=" + stats.getVictories() + ", D=" + stats.getDefeats() + ", E=" + stats.getDraws());
             stats.incrementVictories();
             System.out.println("[PrimeLeagueX1] Estatísticas depois: V=" + stats.getVictories() + ", D=" + stats.getDefeats() + ", E=" + stats.getDraws());
-            // Salvar no arquivo individual do jogador também
-            plugin.getFileStorage().savePlayerStats(playerName, stats);
-            // Garantir que os dados sejam salvos globalmente
-            plugin.getFileStorage().saveData();
             System.out.println("[PrimeLeagueX1] Vitória registrada com sucesso para " + playerName);
         } catch (Exception e) {
             System.out.println("[PrimeLeagueX1] Erro ao registrar vitória: " + e.getMessage());
@@ -90,10 +152,6 @@ public class StatsManager {
             System.out.println("[PrimeLeagueX1] Estatísticas antes: V=" + stats.getVictories() + ", D=" + stats.getDefeats() + ", E=" + stats.getDraws());
             stats.incrementDefeats();
             System.out.println("[PrimeLeagueX1] Estatísticas depois: V=" + stats.getVictories() + ", D=" + stats.getDefeats() + ", E=" + stats.getDraws());
-            // Salvar no arquivo individual do jogador também
-            plugin.getFileStorage().savePlayerStats(playerName, stats);
-            // Garantir que os dados sejam salvos globalmente
-            plugin.getFileStorage().saveData();
             System.out.println("[PrimeLeagueX1] Derrota registrada com sucesso para " + playerName);
         } catch (Exception e) {
             System.out.println("[PrimeLeagueX1] Erro ao registrar derrota: " + e.getMessage());
@@ -113,10 +171,6 @@ public class StatsManager {
             System.out.println("[PrimeLeagueX1] Estatísticas antes: V=" + stats.getVictories() + ", D=" + stats.getDefeats() + ", E=" + stats.getDraws());
             stats.incrementDraws();
             System.out.println("[PrimeLeagueX1] Estatísticas depois: V=" + stats.getVictories() + ", D=" + stats.getDefeats() + ", E=" + stats.getDraws());
-            // Salvar no arquivo individual do jogador também
-            plugin.getFileStorage().savePlayerStats(playerName, stats);
-            // Garantir que os dados sejam salvos globalmente
-            plugin.getFileStorage().saveData();
             System.out.println("[PrimeLeagueX1] Empate registrado com sucesso para " + playerName);
         } catch (Exception e) {
             System.out.println("[PrimeLeagueX1] Erro ao registrar empate: " + e.getMessage());
@@ -191,9 +245,13 @@ public class StatsManager {
      * @return true se o jogador tem estatísticas
      */
     public boolean playerExists(String playerName) {
-        PlayerStats stats = getPlayerStats(playerName);
-        // Se as estatísticas não forem nulas e o jogador já jogou pelo menos uma vez
-        return stats != null && (stats.getVictories() > 0 || stats.getDefeats() > 0 || stats.getDraws() > 0);
+        PlayerStats stats = findPlayerStats(playerName);
+        if (stats == null) {
+            // Fora do cache: o ranking de duelos, em memória, tem todos os jogadores com estatísticas
+            return plugin.getStatsRepository().getRank(RankingType.DUELS, playerName) != -1;
+        }
+        // Se o jogador já jogou pelo menos uma vez
+        return stats.getVictories() > 0 || stats.getDefeats() > 0 || stats.getDraws() > 0;
     }
     
     /**
@@ -249,6 +307,11 @@ public class StatsManager {
         player.sendMessage("§7Taxa de vitórias: §f" + String.format("%.2f%%", stats.getWinRate()));
         player.sendMessage("§7Elo: §b" + stats.getElo());
         
+        int rank = getRank(player.getName());
+        if (rank > 0) {
+            player.sendMessage("§7Posição no ranking: §6#" + rank);
+        }
+        
         List<DuelHistory> history = getPlayerHistory(player.getName(), 5);
         if (!history.isEmpty()) {
             player.sendMessage("§eÚltimos duelos:");
@@ -267,6 +330,64 @@ public class StatsManager {
         }
     }
     
+    /**
+     * Exibe o relatório de duelos dos últimos dias
+     * Apenas o histórico do período é lido, em segundo plano.
+     * 
+     * @param player Jogador que pediu o relatório
+     * @param days Quantidade de dias
+     */
+    public void showReport(final Player player, final int days) {
+        player.sendMessage(plugin.getMessageManager().getPrefix() + "§7Gerando relatório dos últimos " + days + " dias...");
+        
+        plugin.getStatsRepository().queryHistory(HistoryArchive.daysAgo(days), System.currentTimeMillis(), null, null,
+                new Consumer<List<DuelHistory>>() {
+            @Override
+            public void accept(List<DuelHistory> history) {
+                if (!player.isOnline()) {
+                    return;
+                }
+                
+                int draws = 0;
+                double bets = 0;
+                Map<String, Integer> modes = new LinkedHashMap<String, Integer>();
+                Map<String, Integer> winners = new HashMap<String, Integer>();
+                for (DuelHistory duel : history) {
+                    bets += duel.getBet();
+                    Integer modeCount = modes.get(duel.getMode());
+                    modes.put(duel.getMode(), modeCount == null ? 1 : modeCount + 1);
+                    
+                    if (duel.isDraw()) {
+                        draws++;
+                    } else {
+                        Integer wins = winners.get(duel.getWinner());
+                        winners.put(duel.getWinner(), wins == null ? 1 : wins + 1);
+                    }
+                }
+                
+                String bestPlayer = null;
+                int bestWins = 0;
+                for (Map.Entry<String, Integer> entry : winners.entrySet()) {
+                    if (entry.getValue() > bestWins) {
+                        bestPlayer = entry.getKey();
+                        bestWins = entry.getValue();
+                    }
+                }
+                
+                player.sendMessage(plugin.getMessageManager().getPrefix() + "§eRelatório dos últimos " + days + " dias:");
+                player.sendMessage("§7Duelos: §f" + history.size());
+                player.sendMessage("§7Empates: §e" + draws);
+                player.sendMessage("§7Total apostado: §6" + String.format("%.2f", bets));
+                for (Map.Entry<String, Integer> entry : modes.entrySet()) {
+                    player.sendMessage("§7Modo " + entry.getKey() + ": §f" + entry.getValue());
+                }
+                if (bestPlayer != null) {
+                    player.sendMessage("§7Mais vitórias: §a" + bestPlayer + " §7(" + bestWins + ")");
+                }
+            }
+        });
+    }
+    
     /**
      * Adiciona um duelo ao histórico
      * 
@@ -287,6 +408,6 @@ public class StatsManager {
             duel.getEndTime()
         );
         
-        plugin.getFileStorage().addDuelToHistory(history);
+        plugin.getStatsRepository().addDuelHistory(history);
     }
 } 
\ No newline at end of file
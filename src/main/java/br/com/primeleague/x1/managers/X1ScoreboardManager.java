@@ -7,8 +7,6 @@ import java.util.Map;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.scoreboard.Scoreboard;
 
 import br.com.primeleague.x1.Main;
@@ -27,7 +25,7 @@ public class X1ScoreboardManager {
 
     private static Main plugin;
     private static Map<String, X1HUDState> playerHudStates;
-    private static Map<String, BukkitTask> playerTasks;
+    private static Map<String, ScheduledTask> playerTasks;
     private static Map<String, Map<String, Object>> playerStats;
     private static Map<String, Scoreboard> scoreboardsAtivos;
     private static boolean enabled = true;
@@ -44,7 +42,7 @@ public class X1ScoreboardManager {
     public static void initialize(Main mainPlugin) {
         plugin = mainPlugin;
         playerHudStates = new HashMap<String, X1HUDState>();
-        playerTasks = new HashMap<String, BukkitTask>();
+        playerTasks = new HashMap<String, ScheduledTask>();
         playerStats = new HashMap<String, Map<String, Object>>();
         scoreboardsAtivos = new HashMap<String, Scoreboard>();
         
@@ -97,7 +95,7 @@ public class X1ScoreboardManager {
         atualizarScoreboardPreDuel(player, duel);
         
         // Criar tarefa de atualização da scoreboard
-        BukkitTask task = new BukkitRunnable() {
+        ScheduledTask task = plugin.getDuelScheduler().runTaskTimer(new ScheduledTask() {
             @Override
             public void run() {
                 // Verificar se o jogador ainda está online
@@ -124,7 +122,7 @@ public class X1ScoreboardManager {
                 
                 atualizarScoreboardPreDuel(player, duel);
             }
-        }.runTaskTimer(plugin, UPDATE_INTERVAL, UPDATE_INTERVAL); // Atualiza a cada 1 segundo
+        }, UPDATE_INTERVAL, UPDATE_INTERVAL); // Atualiza a cada 1 segundo
         
         // Armazenar a tarefa
         playerTasks.put(player.getName(), task);
@@ -158,7 +156,7 @@ public class X1ScoreboardManager {
         }
         
         // Criar tarefa de atualização da scoreboard
-        BukkitTask task = new BukkitRunnable() {
+        ScheduledTask task = plugin.getDuelScheduler().runTaskTimer(new ScheduledTask() {
             @Override
             public void run() {
                 // Verificar se o jogador ainda está online
@@ -188,7 +186,7 @@ public class X1ScoreboardManager {
                     atualizarScoreboardDuel(player, duel);
                 }
             }
-        }.runTaskTimer(plugin, UPDATE_INTERVAL, UPDATE_INTERVAL); // Atualiza a cada 1 segundo
+        }, UPDATE_INTERVAL, UPDATE_INTERVAL); // Atualiza a cada 1 segundo
         
         // Armazenar a tarefa
         playerTasks.put(player.getName(), task);
@@ -219,7 +217,7 @@ public class X1ScoreboardManager {
         atualizarScoreboardFinalStats(player, duel, venceu);
         
         // Criar tarefa para remover a scoreboard após 3 segundos
-        BukkitTask task = new BukkitRunnable() {
+        ScheduledTask task = plugin.getDuelScheduler().runTaskLater(new ScheduledTask() {
             @Override
             public void run() {
                 // Verificar se o player ainda está online
@@ -242,7 +240,7 @@ public class X1ScoreboardManager {
                     plugin.getLogger().fine("HUDManager.restaurarHUDPadrao não encontrado: " + e.getMessage());
                 }
             }
-        }.runTaskLater(plugin, POST_DUEL_DURATION * 20L); // 3 segundos
+        }, POST_DUEL_DURATION * 20L); // 3 segundos
         
         // Armazenar a tarefa
         playerTasks.put(player.getName(), task);
@@ -603,7 +601,7 @@ public class X1ScoreboardManager {
      */
     private static void cancelarTarefaAtual(String playerName) {
         if (playerTasks.containsKey(playerName)) {
-            BukkitTask task = playerTasks.get(playerName);
+            ScheduledTask task = playerTasks.get(playerName);
             if (task != null) {
                 task.cancel();
             }
@@ -627,7 +625,7 @@ public class X1ScoreboardManager {
      */
     public static void desabilitar() {
         // Cancelar todas as tarefas pendentes
-        for (BukkitTask task : playerTasks.values()) {
+        for (ScheduledTask task : playerTasks.values()) {
             if (task != null) {
                 task.cancel();
             }
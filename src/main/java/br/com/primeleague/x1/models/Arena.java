@@ -0,0 +1,365 @@
+package br.com.primeleague.x1.models;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Location;
+
+import br.com.primeleague.x1.enums.DuelType;
+
+/**
+ * Classe que representa uma arena de duelo
+ * 
+ * Cada arena tem as suas posições (equipe 1, equipe 2 e espectadores), os tipos de duelo aceitos
+ * e o tamanho máximo de equipe. A área da arena é a região configurada ou, sem ela, a caixa entre
+ * as posições 1 e 2. Uma arena recebe um duelo por vez: ao iniciar, o duelo reserva a
+ * arena e a libera ao terminar. Os blocos alterados durante o duelo ficam no {@link ArenaJournal}
+ * da arena e são restaurados antes de ela receber outro duelo.
+ */
+public class Arena {
+    
+    private final String name;
+    private Location pos1;
+    private Location pos2;
+    private Location spectatorLocation;
+    private final Set<DuelType> types; // Vazio aceita todos os tipos em arena
+    private int maxTeamSize;
+    private UUID duelId; // Duelo que está usando a arena, ou null se estiver livre
+    private long lastUsed; // Último uso (reserva, liberação ou preparação)
+    private final ArenaJournal journal; // Blocos alterados no duelo atual
+    private boolean restoring; // Restaurando os blocos do último duelo
+    
+    private int[] region; // Cantos da região em blocos (x1, y1, z1, x2, y2, z2), ou null para usar as posições
+    
+    // Limites da região ou entre as posições 1 e 2, recalculados quando elas mudam
+    private double minX;
+    private double minY;
+    private double minZ;
+    private double maxX;
+    private double maxY;
+    private double maxZ;
+    
+    /**
+     * Construtor
+     * 
+     * @param name Nome da arena
+     */
+    public Arena(String name) {
+        this.name = name;
+        this.types = EnumSet.noneOf(DuelType.class);
+        this.maxTeamSize = 3;
+        this.journal = new ArenaJournal();
+    }
+    
+    /**
+     * Obtém o nome da arena
+     * 
+     * @return Nome da arena
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Obtém a posição 1 da arena
+     * 
+     * @return Posição 1 ou null se não definida
+     */
+    public Location getPos1() {
+        return pos1 != null ? pos1.clone() : null;
+    }
+    
+    /**
+     * Define a posição 1 da arena
+     * 
+     * @param pos1 Posição 1
+     */
+    public void setPos1(Location pos1) {
+        this.pos1 = pos1 != null ? pos1.clone() : null;
+        updateBounds();
+    }
+    
+    /**
+     * Obtém a posição 2 da arena
+     * 
+     * @return Posição 2 ou null se não definida
+     */
+    public Location getPos2() {
+        return pos2 != null ? pos2.clone() : null;
+    }
+    
+    /**
+     * Define a posição 2 da arena
+     * 
+     * @param pos2 Posição 2
+     */
+    public void setPos2(Location pos2) {
+        this.pos2 = pos2 != null ? pos2.clone() : null;
+        updateBounds();
+    }
+    
+    /**
+     * Obtém a posição do local de espectador
+     * 
+     * @return Posição do local de espectador ou null se não definida
+     */
+    public Location getSpectatorLocation() {
+        return spectatorLocation != null ? spectatorLocation.clone() : null;
+    }
+    
+    /**
+     * Define a posição do local de espectador
+     * 
+     * @param spectatorLocation Posição do local de espectador
+     */
+    public void setSpectatorLocation(Location spectatorLocation) {
+        this.spectatorLocation = spectatorLocation != null ? spectatorLocation.clone() : null;
+    }
+    
+    /**
+     * Obtém os tipos de duelo aceitos
+     * 
+     * @return Tipos aceitos (vazio aceita todos os tipos em arena)
+     */
+    public Set<DuelType> getTypes() {
+        return types;
+    }
+    
+    /**
+     * Obtém o tamanho máximo de equipe
+     * 
+     * @return Jogadores por equipe
+     */
+    public int getMaxTeamSize() {
+        return maxTeamSize;
+    }
+    
+    /**
+     * Define o tamanho máximo de equipe
+     * 
+     * @param maxTeamSize Jogadores por equipe
+     */
+    public void setMaxTeamSize(int maxTeamSize) {
+        this.maxTeamSize = maxTeamSize;
+    }
+    
+    /**
+     * Define a região da arena, que passa a ser usada no lugar da caixa entre as posições 1 e 2
+     * Os cantos são blocos e ficam dentro da região.
+     * 
+     * @param x1 X do primeiro canto
+     * @param y1 Y do primeiro canto
+     * @param z1 Z do primeiro canto
+     * @param x2 X do segundo canto
+     * @param y2 Y do segundo canto
+     * @param z2 Z do segundo canto
+     */
+    public void setRegion(int x1, int y1, int z1, int x2, int y2, int z2) {
+        this.region = new int[] { x1, y1, z1, x2, y2, z2 };
+        updateBounds();
+    }
+    
+    /**
+     * Verifica se a arena tem uma região configurada
+     * 
+     * @return true se a área da arena vem da região, false se vem das posições 1 e 2
+     */
+    public boolean hasRegion() {
+        return region != null;
+    }
+    
+    /**
+     * Verifica se a arena está configurada
+     * 
+     * @return true se as duas posições estão definidas
+     */
+    public boolean isConfigured() {
+        return pos1 != null && pos2 != null;
+    }
+    
+    /**
+     * Verifica se a arena aceita um tipo de duelo
+     * 
+     * @param type Tipo de duelo
+     * @return true se a arena está configurada e aceita o tipo e o tamanho de equipe
+     */
+    public boolean supports(DuelType type) {
+        return isConfigured() && type.isArena()
+                && (types.isEmpty() || types.contains(type))
+                && type.getTeamSize() <= maxTeamSize;
+    }
+    
+    /**
+     * Verifica se a arena está livre
+     * 
+     * @return true se nenhum duelo está usando a arena e os blocos já foram restaurados
+     */
+    public boolean isFree() {
+        return duelId == null && !restoring;
+    }
+    
+    /**
+     * Obtém o registro de blocos alterados no duelo atual
+     * 
+     * @return Registro de alterações
+     */
+    public ArenaJournal getJournal() {
+        return journal;
+    }
+    
+    /**
+     * Verifica se a arena está restaurando os blocos do último duelo
+     * 
+     * @return true se a restauração está em andamento
+     */
+    public boolean isRestoring() {
+        return restoring;
+    }
+    
+    /**
+     * Define se a arena está restaurando os blocos do último duelo
+     * 
+     * @param restoring true durante a restauração
+     */
+    public void setRestoring(boolean restoring) {
+        this.restoring = restoring;
+    }
+    
+    /**
+     * Obtém o duelo que está usando a arena
+     * 
+     * @return ID do duelo ou null se a arena estiver livre
+     */
+    public UUID getDuelId() {
+        return duelId;
+    }
+    
+    /**
+     * Define o duelo que está usando a arena
+     * 
+     * @param duelId ID do duelo, ou null para liberar a arena
+     */
+    public void setDuelId(UUID duelId) {
+        this.duelId = duelId;
+    }
+    
+    /**
+     * Obtém o momento do último uso da arena
+     * 
+     * @return Momento em milissegundos
+     */
+    public long getLastUsed() {
+        return lastUsed;
+    }
+    
+    /**
+     * Define o momento do último uso da arena
+     * 
+     * @param lastUsed Momento em milissegundos
+     */
+    public void setLastUsed(long lastUsed) {
+        this.lastUsed = lastUsed;
+    }
+    
+    /**
+     * Obtém o nome do mundo da arena
+     * 
+     * @return Nome do mundo ou null se a arena não estiver configurada
+     */
+    public String getWorldName() {
+        return isConfigured() ? pos1.getWorld().getName() : null;
+    }
+    
+    /**
+     * Obtém o menor X da arena
+     * 
+     * @return Coordenada X mínima
+     */
+    public double getMinX() {
+        return minX;
+    }
+    
+    /**
+     * Obtém o menor Z da arena
+     * 
+     * @return Coordenada Z mínima
+     */
+    public double getMinZ() {
+        return minZ;
+    }
+    
+    /**
+     * Obtém o maior X da arena
+     * 
+     * @return Coordenada X máxima
+     */
+    public double getMaxX() {
+        return maxX;
+    }
+    
+    /**
+     * Obtém o maior Z da arena
+     * 
+     * @return Coordenada Z máxima
+     */
+    public double getMaxZ() {
+        return maxZ;
+    }
+    
+    /**
+     * Verifica se a localização está dentro da arena
+     * 
+     * @param location Localização a verificar
+     * @return true se a localização está na região da arena (ou entre as posições 1 e 2)
+     */
+    public boolean contains(Location location) {
+        if (!isConfigured() || location == null) {
+            return false;
+        }
+        
+        if (!location.getWorld().equals(pos1.getWorld())) {
+            return false;
+        }
+        
+        double x = location.getX();
+        double y = location.getY();
+        double z = location.getZ();
+        if (region != null) {
+            // Limites em blocos: o maior é o início do bloco seguinte ao último canto
+            return x >= minX && x < maxX &&
+                   y >= minY && y < maxY &&
+                   z >= minZ && z < maxZ;
+        }
+        return x >= minX && x <= maxX &&
+               y >= minY && y <= maxY &&
+               z >= minZ && z <= maxZ;
+    }
+    
+    /**
+     * Recalcula os limites da arena a partir da região ou das posições 1 e 2
+     */
+    private void updateBounds() {
+        if (region != null) {
+            minX = Math.min(region[0], region[3]);
+            minY = Math.min(region[1], region[4]);
+            minZ = Math.min(region[2], region[5]);
+            
+            maxX = Math.max(region[0], region[3]) + 1;
+            maxY = Math.max(region[1], region[4]) + 1;
+            maxZ = Math.max(region[2], region[5]) + 1;
+            return;
+        }
+        if (!isConfigured()) {
+            return;
+        }
+        
+        minX = Math.min(pos1.getX(), pos2.getX());
+        minY = Math.min(pos1.getY(), pos2.getY());
+        minZ = Math.min(pos1.getZ(), pos2.getZ());
+        
+        maxX = Math.max(pos1.getX(), pos2.getX());
+        maxY = Math.max(pos1.getY(), pos2.getY());
+        maxZ = Math.max(pos1.getZ(), pos2.getZ());
+    }
+} 
\ No newline at end of file
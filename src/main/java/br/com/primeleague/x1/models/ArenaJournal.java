@@ -0,0 +1,144 @@
+package br.com.primeleague.x1.models;
+
+import java.util.Arrays;
+
+/**
+ * Registro das alterações de blocos de uma arena durante um duelo
+ * 
+ * Cada alteração guarda a posição do bloco compactada em um long e o estado anterior (tipo e dado)
+ * em um int, em vetores que crescem conforme o duelo. Desfazer as alterações da última para a
+ * primeira devolve cada bloco ao estado de antes do duelo, mesmo que ele tenha mudado várias vezes.
+ */
+public class ArenaJournal {
+    
+    private long[] positions;
+    private int[] states;
+    private int size;
+    
+    /**
+     * Construtor
+     */
+    public ArenaJournal() {
+        this.positions = new long[64];
+        this.states = new int[64];
+    }
+    
+    /**
+     * Registra o estado de um bloco antes de uma alteração
+     * 
+     * @param x Coordenada X
+     * @param y Coordenada Y
+     * @param z Coordenada Z
+     * @param typeId Tipo anterior do bloco
+     * @param data Dado anterior do bloco
+     */
+    public void record(int x, int y, int z, int typeId, byte data) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            states = Arrays.copyOf(states, size * 2);
+        }
+        positions[size] = pack(x, y, z);
+        states[size] = (typeId << 8) | (data & 0xFF);
+        size++;
+    }
+    
+    /**
+     * Obtém o número de alterações registradas
+     * 
+     * @return Número de alterações
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Verifica se não há alterações registradas
+     * 
+     * @return true se o registro estiver vazio
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Obtém a posição compactada da última alteração
+     * 
+     * @return Posição compactada (ver {@link #unpackX(long)}, {@link #unpackY(long)} e {@link #unpackZ(long)})
+     */
+    public long lastPosition() {
+        return positions[size - 1];
+    }
+    
+    /**
+     * Obtém o tipo anterior do bloco da última alteração
+     * 
+     * @return Tipo do bloco
+     */
+    public int lastTypeId() {
+        return states[size - 1] >>> 8;
+    }
+    
+    /**
+     * Obtém o dado anterior do bloco da última alteração
+     * 
+     * @return Dado do bloco
+     */
+    public byte lastData() {
+        return (byte) states[size - 1];
+    }
+    
+    /**
+     * Descarta a última alteração, depois de desfeita
+     */
+    public void removeLast() {
+        size--;
+    }
+    
+    /**
+     * Descarta todas as alterações e libera os vetores crescidos
+     */
+    public void clear() {
+        size = 0;
+        if (positions.length > 64) {
+            positions = new long[64];
+            states = new int[64];
+        }
+    }
+    
+    /**
+     * Compacta uma posição em um long (26 bits para X e Z, 12 bits para Y)
+     */
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+    
+    /**
+     * Obtém a coordenada X de uma posição compactada
+     * 
+     * @param packed Posição compactada
+     * @return Coordenada X
+     */
+    public static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+    
+    /**
+     * Obtém a coordenada Y de uma posição compactada
+     * 
+     * @param packed Posição compactada
+     * @return Coordenada Y
+     */
+    public static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+    
+    /**
+     * Obtém a coordenada Z de uma posição compactada
+     * 
+     * @param packed Posição compactada
+     * @return Coordenada Z
+     */
+    public static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+} 
\ No newline at end of file
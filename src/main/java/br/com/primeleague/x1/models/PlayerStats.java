@@ -2,6 +2,7 @@ package br.com.primeleague.x1.models;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Classe que representa as estatísticas de um jogador
@@ -15,6 +16,8 @@ public class PlayerStats {
     private int streak;
     private int elo;
     private final List<Duel> recentDuels;
+    private boolean dirty;
+    private Consumer<PlayerStats> changeListener;
     
     /**
      * Construtor
@@ -31,6 +34,63 @@ public class PlayerStats {
         this.recentDuels = new ArrayList<>();
     }
     
+    /**
+     * Cria uma cópia desvinculada das estatísticas, usada para salvar em segundo plano
+     * 
+     * @return Cópia das estatísticas
+     */
+    public PlayerStats copy() {
+        PlayerStats copy = new PlayerStats(playerName);
+        copy.victories = victories;
+        copy.defeats = defeats;
+        copy.draws = draws;
+        copy.streak = streak;
+        copy.elo = elo;
+        return copy;
+    }
+    
+    /**
+     * Verifica se as estatísticas foram alteradas desde o último salvamento
+     * 
+     * @return true se existem alterações pendentes
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+    
+    /**
+     * Marca as estatísticas como alteradas
+     */
+    public void markDirty() {
+        this.dirty = true;
+    }
+    
+    /**
+     * Marca as estatísticas como salvas
+     */
+    public void clearDirty() {
+        this.dirty = false;
+    }
+    
+    /**
+     * Define o ouvinte notificado a cada alteração das estatísticas (usado pelos rankings)
+     * 
+     * @param changeListener Ouvinte de alterações ou null para remover
+     */
+    public void setChangeListener(Consumer<PlayerStats> changeListener) {
+        this.changeListener = changeListener;
+    }
+    
+    /**
+     * Marca as estatísticas como alteradas e notifica o ouvinte
+     */
+    private void changed() {
+        this.dirty = true;
+        if (changeListener != null) {
+            changeListener.accept(this);
+        }
+    }
+    
     /**
      * Obtém o nome do jogador
      * 
@@ -56,6 +116,7 @@ public class PlayerStats {
      */
     public void setVictories(int victories) {
         this.victories = victories;
+        changed();
     }
     
     /**
@@ -64,6 +125,7 @@ public class PlayerStats {
     public void incrementVictories() {
         this.victories++;
         this.streak = Math.max(0, this.streak + 1);
+        changed();
     }
     
     /**
@@ -82,6 +144,7 @@ public class PlayerStats {
      */
     public void setDefeats(int defeats) {
         this.defeats = defeats;
+        changed();
     }
     
     /**
@@ -90,6 +153,7 @@ public class PlayerStats {
     public void incrementDefeats() {
         this.defeats++;
         this.streak = Math.min(0, this.streak - 1);
+        changed();
     }
     
     /**
@@ -108,6 +172,7 @@ public class PlayerStats {
      */
     public void setDraws(int draws) {
         this.draws = draws;
+        changed();
     }
     
     /**
@@ -115,6 +180,7 @@ public class PlayerStats {
      */
     public void incrementDraws() {
         this.draws++;
+        changed();
     }
     
     /**
@@ -133,6 +199,7 @@ public class PlayerStats {
      */
     public void setStreak(int streak) {
         this.streak = streak;
+        changed();
     }
     
     /**
@@ -151,6 +218,7 @@ public class PlayerStats {
      */
     public void setElo(int elo) {
         this.elo = elo;
+        changed();
     }
     
     /**
@@ -160,6 +228,7 @@ public class PlayerStats {
      */
     public void addElo(int amount) {
         this.elo += amount;
+        changed();
     }
     
     /**
@@ -169,6 +238,7 @@ public class PlayerStats {
      */
     public void removeElo(int amount) {
         this.elo = Math.max(0, this.elo - amount);
+        changed();
     }
     
     /**
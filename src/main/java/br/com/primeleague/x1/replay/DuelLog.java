@@ -1,34 +1,39 @@
 package br.com.primeleague.x1.replay;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.UUID;
 
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
+import br.com.primeleague.x1.enums.ReplayEventType;
 import br.com.primeleague.x1.models.Duel;
 
 /**
  * Classe para registrar eventos de duelo para visualização posterior
+ * 
+ * Os eventos guardam os jogadores como índices na tabela de nomes do duelo e a posição
+ * quantizada; ao final o log é convertido em {@link ReplayData} e gravado em formato binário.
  */
 public class DuelLog {
     
     private UUID duelId;
-    private String duelDate;
-    private String duelType;
+    private boolean teamDuel;
     private List<String> team1;
     private List<String> team2;
-    private List<DuelEvent> events;
+    private List<ReplayEvent> events;
     private long startTime;
     private long endTime;
+    private int winnerTeamNumber; // 0 = empate, 1 = equipe 1, 2 = equipe 2
+    
+    // Tabela de nomes: equipe 1, equipe 2 e jogadores de fora das equipes citados em eventos
+    private List<String> names;
+    private Map<String, Integer> nameIndexes;
     
     // Estatísticas adicionais para métricas
     private Map<String, Integer> playerDamageDealt; // Dano causado por jogador
@@ -44,13 +49,13 @@ public class DuelLog {
      */
     public DuelLog(Duel duel, UUID logId) {
         this.duelId = logId;
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
-        this.duelDate = sdf.format(new Date());
-        this.duelType = duel.isTeamDuel() ? "TEAM" : "SOLO";
+        this.teamDuel = duel.isTeamDuel();
         this.team1 = new ArrayList<>(duel.getTeam1());
         this.team2 = new ArrayList<>(duel.getTeam2());
         this.events = new ArrayList<>();
         this.startTime = System.currentTimeMillis();
+        this.names = new ArrayList<>();
+        this.nameIndexes = new HashMap<>();
         
         // Inicializar mapas de estatísticas
         this.playerDamageDealt = new HashMap<>();
@@ -60,12 +65,14 @@ public class DuelLog {
         
         // Inicializar as contagens de dano para cada jogador
         for (String player : team1) {
+            getPlayerIndex(player);
             playerDamageDealt.put(player, 0);
             playerDamageReceived.put(player, 0);
             playerKills.put(player, 0);
         }
         
         for (String player : team2) {
+            getPlayerIndex(player);
             playerDamageDealt.put(player, 0);
             playerDamageReceived.put(player, 0);
             playerKills.put(player, 0);
@@ -78,7 +85,7 @@ public class DuelLog {
      * Adiciona um evento de início de duelo
      */
     public void logDuelStart() {
-        events.add(new DuelEvent(EventType.DUEL_START, null, null, null, null));
+        addEvent(ReplayEventType.DUEL_START, ReplayEvent.NO_PLAYER, ReplayEvent.NO_PLAYER, 0, null);
     }
     
     /**
@@ -90,8 +97,7 @@ public class DuelLog {
         this.endTime = System.currentTimeMillis();
         
         // Armazenar corretamente o time vencedor para o resultado do duelo
-        int winnerTeamNumber = 0; // 0 = empate, 1 = equipe 1, 2 = equipe 2
-        String winnerPlayerName = null;
+        winnerTeamNumber = 0;
         
         if (winnerTeam != null && !winnerTeam.isEmpty()) {
             // Verificar a qual equipe o vencedor pertence
@@ -99,7 +105,6 @@ public class DuelLog {
             for (String player : winnerTeam) {
                 if (team1.contains(player)) {
                     isTeam1 = true;
-                    winnerPlayerName = player;
                     break;
                 }
             }
@@ -110,10 +115,6 @@ public class DuelLog {
                                    (team1.size() == 1 ? team1.get(0) : "Equipe 1"));
             } else {
                 winnerTeamNumber = 2;
-                // Para duelos 1v1, usar o nome do jogador vencedor
-                if (team2.size() == 1 && winnerTeam.size() == 1) {
-                    winnerPlayerName = team2.get(0);
-                }
                 System.out.println("[PrimeLeagueX1] Registrando vitória para jogador da Equipe 2: " + 
                                    (team2.size() == 1 ? team2.get(0) : "Equipe 2"));
             }
@@ -121,8 +122,8 @@ public class DuelLog {
             System.out.println("[PrimeLeagueX1] Registrando empate no duelo");
         }
         
-        // Registrar o evento com informação clara sobre o vencedor
-        events.add(new DuelEvent(EventType.DUEL_END, null, null, null, winnerTeam, winnerTeamNumber, winnerPlayerName));
+        // O vencedor fica no cabeçalho do replay
+        addEvent(ReplayEventType.DUEL_END, ReplayEvent.NO_PLAYER, ReplayEvent.NO_PLAYER, 0, null);
     }
     
     /**
@@ -143,7 +144,8 @@ public class DuelLog {
             System.out.println("[PrimeLeagueX1] Registrada eliminação para " + killerName + " (Total: " + (kills + 1) + ")");
         }
         
-        events.add(new DuelEvent(EventType.PLAYER_KILL, killedName, killerName, loc, null));
+        addEvent(ReplayEventType.PLAYER_KILL, getPlayerIndex(killedName),
+            killerName != null ? getPlayerIndex(killerName) : ReplayEvent.NO_PLAYER, 0, loc);
     }
     
     /**
@@ -184,296 +186,100 @@ public class DuelLog {
         }
         
         Location loc = damaged.getLocation();
-        events.add(new DuelEvent(EventType.SIGNIFICANT_DAMAGE, damagedName, damagerName, loc, null, 0, damageInt));
+        addEvent(ReplayEventType.SIGNIFICANT_DAMAGE, getPlayerIndex(damagedName), getPlayerIndex(damagerName), damageInt, loc);
     }
     
     /**
-     * Salva o log do duelo em um arquivo
+     * Obtém o UUID do log
      * 
-     * @param folder Pasta para salvar o arquivo
-     * @return true se salvou com sucesso
+     * @return UUID usado como nome do arquivo
      */
-    public boolean saveToFile(File folder) {
-        try {
-            if (!folder.exists()) {
-                boolean created = folder.mkdirs();
-                if (!created) {
-                    System.out.println("[PrimeLeagueX1] Falha ao criar diretório de logs: " + folder.getAbsolutePath());
-                    return false;
-                }
-            }
-            
-            // Verificar se o diretório é gravável
-            if (!folder.canWrite()) {
-                System.out.println("[PrimeLeagueX1] O diretório de logs não é gravável: " + folder.getAbsolutePath());
-                return false;
-            }
-            
-            File logFile = new File(folder, duelId.toString() + ".duellog");
-            System.out.println("[PrimeLeagueX1] Tentando salvar log do duelo em: " + logFile.getAbsolutePath());
-            System.out.println("[PrimeLeagueX1] UUID do duelo usado para salvar arquivo: " + duelId.toString());
-            
-            try (FileWriter writer = new FileWriter(logFile)) {
-                // Cabeçalho
-                writer.write("Duelo: " + duelId.toString() + "\n");
-                writer.write("Data: " + duelDate + "\n");
-                writer.write("Tipo: " + duelType + "\n");
-                writer.write("Duração: " + formatDuration(endTime - startTime) + "\n\n");
-                
-                // Equipes
-                writer.write("Equipe 1:\n");
-                for (String player : team1) {
-                    writer.write("- " + player + "\n");
-                }
-                
-                writer.write("\nEquipe 2:\n");
-                for (String player : team2) {
-                    writer.write("- " + player + "\n");
-                }
-                
-                // Estatísticas
-                writer.write("\nEstatísticas:\n");
-                writer.write("Dano Total: " + totalDamage + "\n");
-                
-                // Estatísticas por jogador
-                writer.write("\nDano Causado:\n");
-                for (Map.Entry<String, Integer> entry : playerDamageDealt.entrySet()) {
-                    writer.write(entry.getKey() + ": " + entry.getValue() + "\n");
-                }
-                
-                writer.write("\nDano Recebido:\n");
-                for (Map.Entry<String, Integer> entry : playerDamageReceived.entrySet()) {
-                    writer.write(entry.getKey() + ": " + entry.getValue() + "\n");
-                }
-                
-                writer.write("\nEliminações:\n");
-                boolean hasKills = false;
-                for (Map.Entry<String, Integer> entry : playerKills.entrySet()) {
-                    if (entry.getValue() > 0) {
-                        writer.write(entry.getKey() + ": " + entry.getValue() + "\n");
-                        hasKills = true;
-                    }
-                }
-                
-                if (!hasKills) {
-                    writer.write("Nenhuma eliminação registrada.\n");
-                }
-                
-                // Calcular eventos significativos
-                int significativeDamages = 0;
-                for (DuelEvent event : events) {
-                    if (event.getType() == EventType.SIGNIFICANT_DAMAGE) {
-                        significativeDamages++;
-                    }
-                }
-                
-                // Informações de métricas extras
-                writer.write("\nMétricas:\n");
-                writer.write("Total de eventos: " + events.size() + "\n");
-                writer.write("Eliminações totais: " + getTotalKills() + "\n");
-                writer.write("Dano total: " + totalDamage + "\n");
-                writer.write("Danos significativos: " + significativeDamages + "\n");
-                
-                // Eventos
-                writer.write("\nEventos:\n");
-                long duelStartTime = events.isEmpty() ? startTime : startTime;
-                
-                for (DuelEvent event : events) {
-                    writer.write(formatEvent(event, duelStartTime) + "\n");
-                }
-                
-                writer.flush();
-                System.out.println("[PrimeLeagueX1] Log do duelo salvo com sucesso: " + logFile.getAbsolutePath());
-                return true;
-            } catch (IOException e) {
-                System.out.println("[PrimeLeagueX1] Erro ao salvar log do duelo: " + e.getMessage());
-                e.printStackTrace();
-                return false;
-            }
-        } catch (Exception e) {
-            System.out.println("[PrimeLeagueX1] Exceção ao salvar log do duelo: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+    public UUID getDuelId() {
+        return duelId;
     }
     
     /**
-     * Formata a duração em formato legível
+     * Obtém o momento de início do duelo
      * 
-     * @param duration Duração em milissegundos
-     * @return String formatada
+     * @return Início do duelo em milissegundos
      */
-    private String formatDuration(long duration) {
-        long seconds = duration / 1000;
-        long minutes = seconds / 60;
-        seconds = seconds % 60;
-        
-        return String.format("%02d:%02d", minutes, seconds);
+    public long getStartTime() {
+        return startTime;
     }
     
     /**
-     * Formata um evento para o arquivo
+     * Converte o log nos dados do replay
      * 
-     * @param event Evento a formatar
-     * @param duelStartTime Timestamp de início do duelo
-     * @return String formatada
-     */
-    private String formatEvent(DuelEvent event, long duelStartTime) {
-        long eventTime = event.getTimestamp() - duelStartTime;
-        long seconds = eventTime / 1000;
-        long minutes = seconds / 60;
-        seconds = seconds % 60;
-        
-        String timeString = String.format("[%02d:%02d]", minutes, seconds);
-        
-        switch (event.getType()) {
-            case DUEL_START:
-                return timeString + " Duelo iniciado";
-                
-            case DUEL_END:
-                int winnerTeam = event.getWinnerTeamNumber();
-                String winnerPlayer = event.getWinnerPlayerName();
-                
-                if (winnerTeam == 0) {
-                    return timeString + " Duelo terminou. Resultado: Empate";
-                } else if (winnerTeam == 1) {
-                    // Se temos o nome do jogador específico e é duelo 1v1, usar o nome
-                    if (winnerPlayer != null && team1.size() == 1) {
-                        return timeString + " Duelo terminou. Vencedor: " + winnerPlayer;
-                    } else {
-                        // Caso contrário, usar nome da equipe
-                        return timeString + " Duelo terminou. Vencedor: " + 
-                               (team1.size() == 1 ? team1.get(0) : "Equipe 1");
-                    }
-                } else {
-                    // Se temos o nome do jogador específico e é duelo 1v1, usar o nome
-                    if (winnerPlayer != null && team2.size() == 1) {
-                        return timeString + " Duelo terminou. Vencedor: " + winnerPlayer;
-                    } else {
-                        // Caso contrário, usar nome da equipe
-                        return timeString + " Duelo terminou. Vencedor: " + 
-                               (team2.size() == 1 ? team2.get(0) : "Equipe 2");
-                    }
-                }
-                
-            case PLAYER_KILL:
-                String killed = event.getPlayer1();
-                String killer = event.getPlayer2();
-                if (killer != null) {
-                    return timeString + " " + killed + " foi eliminado por " + killer;
-                } else {
-                    return timeString + " " + killed + " morreu";
-                }
-                
-            case SIGNIFICANT_DAMAGE:
-                String damaged = event.getPlayer1();
-                String damager = event.getPlayer2();
-                // Mostrar a quantidade de dano, se disponível
-                String damageAmount = event.getDamageAmount() > 0 ? " (" + event.getDamageAmount() + " de dano)" : "";
-                return timeString + " " + damaged + " recebeu dano significativo de " + damager + damageAmount;
-                
-            default:
-                return timeString + " Evento desconhecido";
-        }
-    }
-    
-    /**
-     * Retorna o total de eliminações no duelo
+     * @return Dados do replay
      */
-    private int getTotalKills() {
-        int total = 0;
-        for (Integer kills : playerKills.values()) {
-            total += kills;
-        }
-        return total;
+    public ReplayData toReplayData() {
+        List<String> extraNames = names.subList(team1.size() + team2.size(), names.size());
+        return ReplayData.fromLists(duelId, startTime, endTime - startTime, teamDuel, team1, team2, extraNames,
+            playerDamageDealt, playerDamageReceived, playerKills, totalDamage, winnerTeamNumber, events);
     }
     
     /**
-     * Representa um evento durante o duelo
+     * Salva o log do duelo em um arquivo
+     * Chamado pela thread de gravação de replays, depois que o duelo terminou e o log não é mais alterado.
+     * 
+     * @param folder Pasta para salvar o arquivo
+     * @return true se salvou com sucesso
      */
-    private class DuelEvent {
-        private EventType type;
-        private String player1; // Jogador principal do evento (eliminado, danificado, etc)
-        private String player2; // Jogador secundário do evento (matador, danificador, etc)
-        private Location location; // Local do evento
-        private List<String> team; // Equipe relacionada ao evento (vencedores, etc)
-        private long timestamp;
-        private int winnerTeamNumber; // 0 = empate, 1 = equipe 1, 2 = equipe 2
-        private int damageAmount; // Quantidade de dano para eventos de dano
-        private String winnerPlayerName; // Nome específico do jogador vencedor (para 1v1)
-        
-        public DuelEvent(EventType type, String player1, String player2, Location location, List<String> team) {
-            this(type, player1, player2, location, team, 0, 0, null);
-        }
-        
-        public DuelEvent(EventType type, String player1, String player2, Location location, List<String> team, int winnerTeamNumber) {
-            this(type, player1, player2, location, team, winnerTeamNumber, 0, null);
-        }
-        
-        public DuelEvent(EventType type, String player1, String player2, Location location, List<String> team, int winnerTeamNumber, int damageAmount) {
-            this(type, player1, player2, location, team, winnerTeamNumber, damageAmount, null);
-        }
-        
-        public DuelEvent(EventType type, String player1, String player2, Location location, List<String> team, int winnerTeamNumber, String winnerPlayerName) {
-            this(type, player1, player2, location, team, winnerTeamNumber, 0, winnerPlayerName);
-        }
-        
-        public DuelEvent(EventType type, String player1, String player2, Location location, List<String> team, int winnerTeamNumber, int damageAmount, String winnerPlayerName) {
-            this.type = type;
-            this.player1 = player1;
-            this.player2 = player2;
-            this.location = location;
-            this.team = team;
-            this.timestamp = System.currentTimeMillis();
-            this.winnerTeamNumber = winnerTeamNumber;
-            this.damageAmount = damageAmount;
-            this.winnerPlayerName = winnerPlayerName;
-        }
-        
-        public EventType getType() {
-            return type;
-        }
-        
-        public String getPlayer1() {
-            return player1;
-        }
-        
-        public String getPlayer2() {
-            return player2;
-        }
-        
-        public Location getLocation() {
-            return location;
-        }
-        
-        public List<String> getTeam() {
-            return team;
-        }
-        
-        public long getTimestamp() {
-            return timestamp;
+    public boolean saveToFile(File folder) {
+        if (!folder.exists() && !folder.mkdirs()) {
+            System.out.println("[PrimeLeagueX1] Falha ao criar diretório de logs: " + folder.getAbsolutePath());
+            return false;
         }
         
-        public int getWinnerTeamNumber() {
-            return winnerTeamNumber;
+        // Verificar se o diretório é gravável
+        if (!folder.canWrite()) {
+            System.out.println("[PrimeLeagueX1] O diretório de logs não é gravável: " + folder.getAbsolutePath());
+            return false;
         }
         
-        public int getDamageAmount() {
-            return damageAmount;
+        File logFile = new File(folder, duelId.toString() + ReplayFile.EXTENSION);
+        try {
+            ReplayFile.write(logFile, toReplayData());
+            return true;
+        } catch (IOException e) {
+            System.out.println("[PrimeLeagueX1] Erro ao salvar log do duelo " + logFile.getName() + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
         }
-        
-        public String getWinnerPlayerName() {
-            return winnerPlayerName;
+    }
+    
+    /**
+     * Acrescenta um evento ao log
+     * 
+     * @param type Tipo do evento
+     * @param player1 Jogador principal do evento
+     * @param player2 Jogador secundário do evento
+     * @param damage Quantidade de dano
+     * @param location Local do evento ou null
+     */
+    private void addEvent(ReplayEventType type, int player1, int player2, int damage, Location location) {
+        int tick = (int) ((System.currentTimeMillis() - startTime) / ReplayData.TICK_MILLIS);
+        if (location == null) {
+            events.add(new ReplayEvent(type, tick, player1, player2, damage, false, 0, 0, 0));
+        } else {
+            events.add(new ReplayEvent(type, tick, player1, player2, damage, true,
+                ReplayEvent.quantize(location.getX()), ReplayEvent.quantize(location.getY()), ReplayEvent.quantize(location.getZ())));
         }
     }
     
     /**
-     * Tipos de eventos que podem ocorrer durante um duelo
+     * Obtém o índice de um jogador na tabela de nomes, acrescentando-o se necessário
+     * 
+     * @param playerName Nome do jogador
+     * @return Índice do jogador
      */
-    private enum EventType {
-        DUEL_START,
-        DUEL_END,
-        PLAYER_KILL,
-        SIGNIFICANT_DAMAGE
+    private int getPlayerIndex(String playerName) {
+        Integer index = nameIndexes.get(playerName);
+        if (index == null) {
+            index = names.size();
+            names.add(playerName);
+            nameIndexes.put(playerName, index);
+        }
+        return index;
     }
 } 
\ No newline at end of file
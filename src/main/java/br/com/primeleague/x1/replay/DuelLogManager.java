@@ -2,33 +2,68 @@ package br.com.primeleague.x1.replay;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import br.com.primeleague.x1.Main;
 import br.com.primeleague.x1.models.Duel;
 
 /**
  * Gerenciador de logs de duelo para registro de eventos
+ * 
+ * Os logs finalizados são gravados por uma thread própria, alimentada por uma fila limitada.
+ * Se a fila estiver cheia, os logs excedentes aguardam na thread principal e são reenviados
+ * no próximo duelo finalizado ou gravados no desligamento; o fim de um duelo nunca espera o disco.
+ * Cada log gravado tem o seu resumo acrescentado ao índice de replays, usado pelas listagens,
+ * rankings e limpeza no lugar da leitura dos arquivos.
+ * 
+ * Os logs ficam em uma pasta por dia de início do duelo (duellogs/ano/mês/dia). A limpeza
+ * automática remove dias inteiros, vencidos por idade ou pelo limite de espaço, sem listar
+ * nem consultar os arquivos um a um. Dias mais antigos que o configurado são compactados em um
+ * zip por dia ({@link ReplayArchive}); o caminho dos replays não muda e eles continuam legíveis.
  */
 public class DuelLogManager {
     
     private final Main plugin;
     private final Map<UUID, DuelLog> activeLogs;
     private final File logsFolder;
-    private Map<String, String> idMapping; // Mapeia IDs simples para UUIDs
-    private int nextId = 1; // Próximo ID numérico a ser atribuído
-    private final File idMappingFile;
+    private ReplayIdStore idStore; // IDs simples <-> UUIDs, acessado apenas pela thread principal
+    private boolean idsLoaded; // IDs só são atribuídos depois de carregados
+    private final ReplayIdFile idFile; // Acessado apenas pela thread de gravação
+    private final ThreadPoolExecutor writer;
+    private final List<Runnable> overflow; // Tarefas que não couberam na fila de gravação
+    private final ReplayIndex replayIndex; // Acessado apenas pela thread principal
+    private final ReplayIndexFile indexFile; // Acessado apenas pela thread de gravação
+    private boolean indexLoaded; // A limpeza automática só roda com o índice e os IDs carregados
+    private final BukkitTask sweepTask;
+    
+    private static final long DAY_MILLIS = 24L * 60L * 60L * 1000L;
     
     /**
      * Construtor para o gerenciador de logs
@@ -38,85 +73,262 @@ public class DuelLogManager {
     public DuelLogManager(Main plugin) {
         this.plugin = plugin;
         this.activeLogs = new HashMap<>();
-        this.idMapping = new HashMap<>();
+        this.idStore = new ReplayIdStore();
+        this.overflow = new ArrayList<>();
+        this.replayIndex = new ReplayIndex();
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(Math.max(1, plugin.getConfigManager().getDuelLogQueueSize())),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "PrimeLeagueX1-Replays");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
         
         // Criar pasta para logs
         this.logsFolder = new File(plugin.getDataFolder(), "duellogs");
         if (!logsFolder.exists()) {
             logsFolder.mkdirs();
         }
+        this.indexFile = new ReplayIndexFile(new File(logsFolder, "indice.dat"));
         
         // Arquivo para armazenar o mapeamento de IDs
-        this.idMappingFile = new File(plugin.getDataFolder(), "duellog_ids.properties");
+        this.idFile = new ReplayIdFile(new File(plugin.getDataFolder(), "duellog_ids.dat"));
+        
+        // Carregar mapeamento de IDs existente em segundo plano
+        final ForkJoinTask<ReplayIdStore> idLoading = plugin.getStartupManager().load("IDs de duelos", new Callable<ReplayIdStore>() {
+            @Override
+            public ReplayIdStore call() throws IOException {
+                return loadIdMapping();
+            }
+        }, new Consumer<ReplayIdStore>() {
+            @Override
+            public void accept(ReplayIdStore store) {
+                idStore = store;
+                idsLoaded = true;
+                plugin.getLogger().info("Carregados " + store.size() + " IDs de duelos");
+                sweepLogs();
+            }
+        });
+        
+        // Carregar o índice de replays em segundo plano
+        final ForkJoinTask<Collection<ReplayInfo>> indexLoading = plugin.getStartupManager().load("índice de replays",
+            new Callable<Collection<ReplayInfo>>() {
+                @Override
+                public Collection<ReplayInfo> call() throws IOException {
+                    return loadReplayIndex();
+                }
+            }, new Consumer<Collection<ReplayInfo>>() {
+                @Override
+                public void accept(Collection<ReplayInfo> infos) {
+                    replayIndex.putAbsent(infos);
+                    indexLoaded = true;
+                    plugin.getLogger().info("Carregados " + infos.size() + " replays no índice");
+                    sweepLogs();
+                }
+            });
         
-        // Carregar mapeamento de IDs existente
-        loadIdMapping();
+        // A thread de gravação só altera os arquivos de IDs e do índice depois do carregamento
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    idLoading.join();
+                    indexLoading.join();
+                } catch (Exception e) {
+                    plugin.getLogger().severe("Carregamento dos replays interrompido: " + e.getMessage());
+                }
+            }
+        });
+        
+        // Limpeza automática dos replays vencidos
+        long sweepInterval = Math.max(1, plugin.getConfigManager().getDuelLogSweepInterval()) * 60L * 20L;
+        this.sweepTask = Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+            @Override
+            public void run() {
+                sweepLogs();
+            }
+        }, sweepInterval, sweepInterval);
     }
     
     /**
-     * Carrega o mapeamento de IDs do arquivo
+     * Lê o índice de replays (executado no pool de carregamento)
+     * O índice é conferido com os nomes dos arquivos das pastas: replays sem resumo (gravados com o
+     * índice ausente ou antes de uma queda) são lidos e incluídos, e resumos sem arquivo são descartados.
+     * Com o índice em dia, só as pastas a partir do dia mais recente do índice são listadas e nenhum
+     * arquivo de log é lido. Logs antigos, gravados na raiz da pasta, são movidos para a pasta do seu dia.
+     * 
+     * @return Resumos dos replays
+     * @throws IOException Se houver erro ao ler ou regravar o índice
      */
-    private void loadIdMapping() {
-        if (idMappingFile.exists()) {
-            Properties props = new Properties();
-            try (FileInputStream fis = new FileInputStream(idMappingFile)) {
-                props.load(fis);
-                
-                // Encontrar o maior ID para definir o próximo
-                for (Object key : props.keySet()) {
-                    String idStr = (String) key;
-                    try {
-                        int id = Integer.parseInt(idStr);
-                        if (id >= nextId) {
-                            nextId = id + 1;
+    private Collection<ReplayInfo> loadReplayIndex() throws IOException {
+        Map<UUID, ReplayInfo> entries = indexFile.read();
+        boolean rebuild = entries == null;
+        boolean rewrite = rebuild;
+        if (entries == null) {
+            entries = new LinkedHashMap<>();
+        }
+        
+        int newestDay = 0;
+        for (ReplayInfo info : entries.values()) {
+            newestDay = Math.max(newestDay, info.getDayKey());
+        }
+        
+        // Conferir as pastas dos dias: todas ao reconstruir, senão só as mais recentes
+        Set<Integer> checkedDays = new HashSet<>();
+        Set<UUID> existing = new HashSet<>();
+        for (Map.Entry<Integer, File> bucket : listBuckets().tailMap(rebuild ? 0 : newestDay, true).entrySet()) {
+            // Replays soltos e arquivados do dia, com o tamanho ocupado por cada um
+            Map<File, Long> files = new LinkedHashMap<>();
+            for (File file : listLogFiles(bucket.getValue())) {
+                files.put(file, file.length());
+            }
+            File archive = ReplayArchive.getDayArchive(bucket.getValue());
+            if (archive.exists()) {
+                try {
+                    for (Map.Entry<String, Long> entry : ReplayArchive.list(archive).entrySet()) {
+                        File file = new File(bucket.getValue(), entry.getKey());
+                        if (!files.containsKey(file)) {
+                            files.put(file, entry.getValue());
                         }
-                    } catch (NumberFormatException e) {
-                        // Ignorar entrada inválida
                     }
+                } catch (IOException e) {
+                    // Sem a lista do zip não há como saber quais resumos do dia estão sem arquivo
+                    plugin.getLogger().warning("Arquivo de replays inválido: " + archive.getName() + " (" + e.getMessage() + ")");
+                    continue;
+                }
+            }
+            
+            checkedDays.add(bucket.getKey());
+            for (Map.Entry<File, Long> entry : files.entrySet()) {
+                File file = entry.getKey();
+                UUID id = ReplayFile.getUUID(file);
+                if (id == null) {
+                    continue;
+                }
+                existing.add(id);
+                if (!entries.containsKey(id)) {
+                    try {
+                        entries.put(id, ReplayInfo.of(ReplayFile.read(file), entry.getValue()));
+                        rewrite = true;
+                    } catch (IOException e) {
+                        plugin.getLogger().warning("Replay inválido fora do índice: " + file.getName() + " (" + e.getMessage() + ")");
+                    }
+                }
+            }
+        }
+        
+        // Mover os logs antigos da raiz para a pasta do seu dia
+        for (File file : listLogFiles(logsFolder)) {
+            UUID id = ReplayFile.getUUID(file);
+            if (id == null) {
+                continue;
+            }
+            ReplayInfo info = entries.get(id);
+            try {
+                if (info == null) {
+                    info = ReplayInfo.of(ReplayFile.read(file), file.length());
                 }
-                
-                // Carregar todos os mapeamentos
-                for (Object key : props.keySet()) {
-                    String idStr = (String) key;
-                    String uuidStr = props.getProperty(idStr);
-                    idMapping.put(idStr, uuidStr);
+                File folder = getBucketFolder(info.getDayKey());
+                if (!folder.exists() && !folder.mkdirs()) {
+                    throw new IOException("não foi possível criar " + folder.getPath());
                 }
-                
-                plugin.getLogger().info("Carregados " + idMapping.size() + " IDs de duelos");
+                Files.move(file.toPath(), new File(folder, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
             } catch (IOException e) {
-                plugin.getLogger().warning("Erro ao carregar mapeamento de IDs: " + e.getMessage());
+                plugin.getLogger().warning("Não foi possível mover o replay " + file.getName() + ": " + e.getMessage());
+                continue;
             }
+            entries.put(id, info);
+            existing.add(id);
+            rewrite = true;
         }
+        
+        // Descartar resumos de dias conferidos cujo arquivo não existe mais
+        Iterator<ReplayInfo> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            ReplayInfo info = iterator.next();
+            if (checkedDays.contains(info.getDayKey()) && !existing.contains(info.getId())) {
+                iterator.remove();
+                rewrite = true;
+            }
+        }
+        
+        // Regravar se o índice foi reconstruído ou acumulou muitos registros substituídos/removidos
+        if (rewrite || indexFile.getRecords() > entries.size() * 2) {
+            indexFile.rewrite(entries.values());
+        }
+        return entries.values();
     }
     
     /**
-     * Salva o mapeamento de IDs para o arquivo
+     * Lê o mapeamento de IDs do arquivo (executado no pool de carregamento)
+     * Na primeira execução o mapeamento antigo (duellog_ids.properties) é convertido.
+     * 
+     * @return Mapeamento lido (vazio se não houver arquivo)
+     * @throws IOException Se houver erro ao ler ou converter o arquivo
      */
-    private void saveIdMapping() {
-        Properties props = new Properties();
+    private ReplayIdStore loadIdMapping() throws IOException {
+        ReplayIdStore store = idFile.read();
+        if (store != null) {
+            return store;
+        }
         
-        for (Map.Entry<String, String> entry : idMapping.entrySet()) {
-            props.setProperty(entry.getKey(), entry.getValue());
+        store = new ReplayIdStore();
+        File legacyFile = new File(plugin.getDataFolder(), "duellog_ids.properties");
+        if (legacyFile.exists()) {
+            Properties props = new Properties();
+            try (FileInputStream fis = new FileInputStream(legacyFile)) {
+                props.load(fis);
+            }
+            for (String key : props.stringPropertyNames()) {
+                try {
+                    long id = Long.parseLong(key);
+                    UUID uuid = UUID.fromString(props.getProperty(key));
+                    if (id > 0) {
+                        store.put(id, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Ignorar entrada inválida
+                }
+            }
         }
         
-        try (FileOutputStream fos = new FileOutputStream(idMappingFile)) {
-            props.store(fos, "Mapeamento de IDs simples para UUIDs de duelos");
-        } catch (IOException e) {
-            plugin.getLogger().warning("Erro ao salvar mapeamento de IDs: " + e.getMessage());
+        idFile.rewrite(store);
+        if (legacyFile.exists() && !legacyFile.renameTo(new File(plugin.getDataFolder(), "duellog_ids.properties.migrado"))) {
+            plugin.getLogger().warning("Não foi possível renomear duellog_ids.properties após a conversão");
         }
+        return store;
     }
     
     /**
      * Gera um novo ID simplificado para um UUID
+     * O mapeamento é atualizado na hora; o registro é acrescentado ao arquivo na thread de gravação.
      * 
      * @param uuid UUID para mapear
-     * @return ID simplificado
+     * @return ID simplificado, ou null se os IDs ainda não foram carregados
      */
     private String generateSimpleId(UUID uuid) {
-        String simpleId = String.valueOf(nextId++);
-        idMapping.put(simpleId, uuid.toString());
-        saveIdMapping();
-        return simpleId;
+        if (!idsLoaded) {
+            // O ID é atribuído ao finalizar o log (desafios são recusados durante o carregamento)
+            return null;
+        }
+        
+        final long id = idStore.assign(uuid);
+        final long most = uuid.getMostSignificantBits();
+        final long least = uuid.getLeastSignificantBits();
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    idFile.appendAssign(id, most, least);
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Erro ao salvar mapeamento de IDs: " + e.getMessage());
+                }
+            }
+        });
+        return String.valueOf(id);
     }
     
     /**
@@ -126,15 +338,11 @@ public class DuelLogManager {
      * @return UUID correspondente ou null se não encontrado
      */
     public UUID getUUIDFromSimpleId(String simpleId) {
-        String uuidStr = idMapping.get(simpleId);
-        if (uuidStr != null) {
-            try {
-                return UUID.fromString(uuidStr);
-            } catch (IllegalArgumentException e) {
-                plugin.getLogger().warning("UUID inválido no mapeamento: " + uuidStr);
-            }
+        try {
+            return idStore.getUUID(Long.parseLong(simpleId.trim()));
+        } catch (NumberFormatException e) {
+            return null;
         }
-        return null;
     }
     
     /**
@@ -144,13 +352,8 @@ public class DuelLogManager {
      * @return ID simplificado ou null se não encontrado
      */
     public String getSimpleIdFromUUID(UUID uuid) {
-        String uuidStr = uuid.toString();
-        for (Map.Entry<String, String> entry : idMapping.entrySet()) {
-            if (entry.getValue().equals(uuidStr)) {
-                return entry.getKey();
-            }
-        }
-        return null;
+        long id = idStore.getId(uuid);
+        return id == ReplayIdStore.NO_ID ? null : String.valueOf(id);
     }
     
     /**
@@ -195,9 +398,7 @@ public class DuelLogManager {
      */
     public boolean stopLogging(UUID logId, List<String> winnerTeam) {
         try {
-            System.out.println("[PrimeLeagueX1] Tentando finalizar o log de duelo: " + logId);
-            
-            DuelLog log = activeLogs.get(logId);
+            DuelLog log = activeLogs.remove(logId);
             if (log == null) {
                 plugin.getLogger().warning("Tentativa de finalizar um log inexistente: " + logId);
                 return false;
@@ -212,26 +413,300 @@ public class DuelLogManager {
                 simpleId = generateSimpleId(logId);
             }
             
-            System.out.println("[PrimeLeagueX1] Salvando arquivo de replay para o duelo ID: " + simpleId);
-            System.out.println("[PrimeLeagueX1] UUID do logId: " + logId.toString());
+            // Gravar o arquivo de log em segundo plano (usando o UUID como nome do arquivo)
+            submit(new LogWriteTask(log));
+            return true;
+        } catch (Exception e) {
+            plugin.getLogger().warning("Erro ao finalizar registro de duelo: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Envia uma tarefa para a thread de gravação
+     * Tarefas que não couberam na fila antes são reenviadas primeiro, mantendo a ordem.
+     * 
+     * @param task Gravação de um log ou remoção de logs
+     */
+    private void submit(Runnable task) {
+        overflow.add(task);
+        while (!overflow.isEmpty()) {
+            try {
+                writer.execute(overflow.get(0));
+            } catch (RejectedExecutionException e) {
+                plugin.getLogger().warning("Fila de gravação de replays cheia, " + overflow.size() + " tarefas aguardando.");
+                return;
+            }
+            overflow.remove(0);
+        }
+    }
+    
+    /**
+     * Gravação de um log finalizado na thread de replays
+     */
+    private class LogWriteTask implements Runnable {
+        
+        private final DuelLog log;
+        
+        /**
+         * Construtor
+         * 
+         * @param log Log finalizado
+         */
+        LogWriteTask(DuelLog log) {
+            this.log = log;
+        }
+        
+        @Override
+        public void run() {
+            File folder = getBucketFolder(ReplayInfo.getDayKey(log.getStartTime()));
+            if (!log.saveToFile(folder)) {
+                plugin.getLogger().warning("Falha ao salvar o arquivo de registro do duelo. UUID: " + log.getDuelId());
+                return;
+            }
             
-            // Salvar arquivo de log (usando o UUID como nome do arquivo)
-            boolean success = log.saveToFile(logsFolder);
+            File file = new File(folder, log.getDuelId().toString() + ReplayFile.EXTENSION);
+            final ReplayInfo info = ReplayInfo.of(log.toReplayData(), file.length());
+            try {
+                indexFile.append(info);
+            } catch (IOException e) {
+                // O replay é incluído de novo ao conferir o índice na próxima inicialização
+                plugin.getLogger().warning("Erro ao atualizar o índice de replays: " + e.getMessage());
+            }
             
-            if (success) {
-                plugin.getLogger().info("Registro de duelo salvo com sucesso. ID: " + simpleId + " (UUID: " + logId + ")");
-            } else {
-                plugin.getLogger().warning("Falha ao salvar o arquivo de registro do duelo. ID: " + simpleId + " (UUID: " + logId + ")");
+            try {
+                Bukkit.getScheduler().runTask(plugin, new Runnable() {
+                    @Override
+                    public void run() {
+                        replayIndex.put(info);
+                    }
+                });
+            } catch (Exception e) {
+                // Plugin desativado, o índice em memória não é mais consultado
+            }
+        }
+    }
+    
+    /**
+     * Remoção de logs na thread de replays
+     */
+    private class LogDeleteTask implements Runnable {
+        
+        private final List<File> files;
+        private final List<UUID> ids;
+        private final long[] simpleIds;
+        
+        /**
+         * Construtor
+         * 
+         * @param files Arquivos dos logs
+         * @param ids UUIDs dos logs já removidos do índice em memória
+         * @param simpleIds IDs simples já removidos do mapeamento em memória
+         */
+        LogDeleteTask(List<File> files, List<UUID> ids, long[] simpleIds) {
+            this.files = files;
+            this.ids = ids;
+            this.simpleIds = simpleIds;
+        }
+        
+        @Override
+        public void run() {
+            // Replays já arquivados são removidos do zip do dia, uma regravação por zip
+            Map<File, Set<String>> archived = new HashMap<>();
+            for (File file : files) {
+                if (file.exists()) {
+                    if (!file.delete()) {
+                        plugin.getLogger().warning("Não foi possível remover o replay " + file.getName());
+                    }
+                    continue;
+                }
+                File archive = ReplayArchive.getArchive(file);
+                Set<String> names = archived.get(archive);
+                if (names == null) {
+                    names = new HashSet<>();
+                    archived.put(archive, names);
+                }
+                names.add(file.getName());
+            }
+            for (Map.Entry<File, Set<String>> entry : archived.entrySet()) {
+                try {
+                    ReplayArchive.remove(entry.getKey(), entry.getValue());
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Não foi possível remover replays de " + entry.getKey().getName() + ": " + e.getMessage());
+                }
+            }
+            appendRemovals(ids, simpleIds);
+        }
+    }
+            
+    /**
+     * Remoção de pastas de dias inteiras na thread de replays
+     */
+    private class SweepTask implements Runnable {
+        
+        private final Set<Integer> days;
+        private final int cutoff;
+        private final List<UUID> ids;
+        private final long[] simpleIds;
+        
+        /**
+         * Construtor
+         * 
+         * @param days Dias removidos do índice em memória (yyyyMMdd)
+         * @param cutoff Dias anteriores a este são removidos mesmo fora do índice (0 para nenhum)
+         * @param ids UUIDs dos logs desses dias
+         * @param simpleIds IDs simples já removidos do mapeamento em memória
+         */
+        SweepTask(Set<Integer> days, int cutoff, List<UUID> ids, long[] simpleIds) {
+            this.days = days;
+            this.cutoff = cutoff;
+            this.ids = ids;
+            this.simpleIds = simpleIds;
+        }
+        
+        @Override
+        public void run() {
+            for (Map.Entry<Integer, File> bucket : listBuckets().entrySet()) {
+                if (bucket.getKey() < cutoff || days.contains(bucket.getKey())) {
+                    deleteBucket(bucket.getValue());
+                }
             }
+            appendRemovals(ids, simpleIds);
+        }
+    }
+    
+    /**
+     * Compactação das pastas de dias antigos na thread de replays
+     */
+    private class ArchiveTask implements Runnable {
+        
+        private final int cutoff;
+        
+        /**
+         * Construtor
+         * 
+         * @param cutoff Dias anteriores a este são compactados (yyyyMMdd)
+         */
+        ArchiveTask(int cutoff) {
+            this.cutoff = cutoff;
+        }
+        
+        @Override
+        public void run() {
+            final Map<UUID, Long> sizes = new HashMap<>();
+            int days = 0;
+            for (Map.Entry<Integer, File> bucket : listBuckets().headMap(cutoff, false).entrySet()) {
+                File folder = bucket.getValue();
+                if (!folder.isDirectory()) {
+                    continue; // Dia já compactado
+                }
+                try {
+                    for (Map.Entry<String, Long> entry : ReplayArchive.pack(folder).entrySet()) {
+                        UUID id = ReplayFile.getUUID(new File(folder, entry.getKey()));
+                        if (id != null) {
+                            sizes.put(id, entry.getValue());
+                        }
+                    }
+                    days++;
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Não foi possível compactar os replays do dia " + bucket.getKey() + ": " + e.getMessage());
+                }
+            }
+            if (sizes.isEmpty()) {
+                return;
+            }
+            plugin.getLogger().info("Compactação de replays: " + sizes.size() + " replays de " + days + " dias compactados");
             
-            // Remover dos logs ativos
-            activeLogs.remove(logId);
+            // O espaço ocupado no índice passa a ser o tamanho comprimido
+            try {
+                Bukkit.getScheduler().runTask(plugin, new Runnable() {
+                    @Override
+                    public void run() {
+                        final List<ReplayInfo> updated = new ArrayList<>();
+                        for (Map.Entry<UUID, Long> entry : sizes.entrySet()) {
+                            ReplayInfo info = replayIndex.get(entry.getKey());
+                            if (info != null) {
+                                info = info.withFileSize(entry.getValue());
+                                replayIndex.put(info);
+                                updated.add(info);
+                            }
+                        }
+                        if (!updated.isEmpty()) {
+                            submit(new Runnable() {
+                                @Override
+                                public void run() {
+                                    try {
+                                        for (ReplayInfo info : updated) {
+                                            indexFile.append(info);
+                                        }
+                                    } catch (IOException e) {
+                                        plugin.getLogger().warning("Erro ao atualizar o índice de replays: " + e.getMessage());
+                                    }
+                                }
+                            });
+                        }
+                    }
+                });
+            } catch (Exception e) {
+                // Plugin desativado, o índice em memória não é mais consultado
+            }
+        }
+    }
+    
+    /**
+     * Registra a remoção de logs nos arquivos do índice e dos IDs (executado na thread de gravação)
+     * 
+     * @param ids UUIDs dos logs removidos
+     * @param simpleIds IDs simples removidos
+     */
+    private void appendRemovals(List<UUID> ids, long[] simpleIds) {
+        if (!ids.isEmpty()) {
+            try {
+                indexFile.appendRemovals(ids);
+            } catch (IOException e) {
+                // Resumos sem arquivo são descartados ao conferir o índice na próxima inicialização
+                plugin.getLogger().warning("Erro ao atualizar o índice de replays: " + e.getMessage());
+            }
+        }
             
-            return success;
-        } catch (Exception e) {
-            plugin.getLogger().warning("Erro ao finalizar registro de duelo: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+        if (simpleIds.length > 0) {
+            try {
+                idFile.appendRemovals(simpleIds);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Erro ao salvar mapeamento de IDs: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Apaga a pasta e o zip de um dia e as pastas de mês e ano que ficarem vazias (executado na thread de gravação)
+     * 
+     * @param folder Pasta do dia
+     */
+    private void deleteBucket(File folder) {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    plugin.getLogger().warning("Não foi possível remover o replay " + file.getName());
+                }
+            }
+        }
+        folder.delete();
+        File archive = ReplayArchive.getDayArchive(folder);
+        if (archive.exists() && !archive.delete()) {
+            plugin.getLogger().warning("Não foi possível remover o arquivo de replays " + archive.getName());
+        }
+        
+        File month = folder.getParentFile();
+        File year = month.getParentFile();
+        String[] monthContents = month.list();
+        if (monthContents != null && monthContents.length == 0 && month.delete()) {
+            String[] yearContents = year.list();
+            if (yearContents != null && yearContents.length == 0) {
+                year.delete();
+            }
         }
     }
     
@@ -283,87 +758,221 @@ public class DuelLogManager {
     }
     
     /**
-     * Lista os arquivos de log disponíveis
+     * Lista os arquivos de log de uma pasta
+     * 
+     * @param folder Pasta de logs
+     * @return Arquivos de log (vazio se a pasta não existir)
+     */
+    private File[] listLogFiles(File folder) {
+        File[] files = folder.listFiles(file -> file.isFile() && file.getName().endsWith(ReplayFile.EXTENSION));
+        return files == null ? new File[0] : files;
+    }
+    
+    /**
+     * Lista os dias com replays, em pasta (duellogs/ano/mês/dia) ou compactados (duellogs/ano/mês/dia.zip)
+     * 
+     * @return Pastas por dia (yyyyMMdd), do mais antigo ao mais recente (a pasta de um dia só compactado não existe)
+     */
+    private TreeMap<Integer, File> listBuckets() {
+        TreeMap<Integer, File> buckets = new TreeMap<>();
+        File[] years = logsFolder.listFiles();
+        if (years == null) {
+            return buckets;
+        }
+        
+        for (File year : years) {
+            if (!year.isDirectory() || !year.getName().matches("\\d{4}")) {
+                continue;
+            }
+            File[] months = year.listFiles();
+            for (File month : months == null ? new File[0] : months) {
+                if (!month.isDirectory() || !month.getName().matches("\\d{2}")) {
+                    continue;
+                }
+                File[] days = month.listFiles();
+                for (File day : days == null ? new File[0] : days) {
+                    String name = day.getName();
+                    if (day.isFile() && name.matches("\\d{2}\\.zip")) {
+                        name = name.substring(0, 2);
+                        day = new File(month, name);
+                    } else if (!day.isDirectory() || !name.matches("\\d{2}")) {
+                        continue;
+                    }
+                    buckets.put(Integer.parseInt(year.getName() + month.getName() + name), day);
+                }
+            }
+        }
+        return buckets;
+    }
+    
+    /**
+     * Obtém a pasta dos logs de um dia
      * 
-     * @return Array de arquivos de log
+     * @param day Dia no formato yyyyMMdd
+     * @return Pasta do dia (pode não existir)
      */
-    public File[] getLogFiles() {
-        return logsFolder.listFiles(file -> file.isFile() && file.getName().endsWith(".duellog"));
+    private File getBucketFolder(int day) {
+        File year = new File(logsFolder, String.format("%04d", day / 10000));
+        File month = new File(year, String.format("%02d", day / 100 % 100));
+        return new File(month, String.format("%02d", day % 100));
+    }
+    
+    /**
+     * Obtém o arquivo de log de um UUID
+     * Deve ser usado apenas na thread principal (a pasta do dia vem do índice).
+     * 
+     * @param uuid UUID do log
+     * @return Arquivo de log (pode não existir)
+     */
+    public File getLogFile(UUID uuid) {
+        ReplayInfo info = replayIndex.get(uuid);
+        if (info == null) {
+            // Log fora do índice: ainda na raiz da pasta (formato antigo)
+            return new File(logsFolder, uuid.toString() + ReplayFile.EXTENSION);
+        }
+        return new File(getBucketFolder(info.getDayKey()), uuid.toString() + ReplayFile.EXTENSION);
+    }
+    
+    /**
+     * Obtém o índice de replays gravados
+     * Deve ser usado apenas na thread principal.
+     * 
+     * @return Índice de replays
+     */
+    public ReplayIndex getReplayIndex() {
+        return replayIndex;
     }
     
     /**
      * Obtém o arquivo de log para um ID simplificado
+     * A existência é conferida pelo índice de replays, sem abrir o zip do dia; o zip só é consultado
+     * enquanto o índice não terminou de carregar.
      * 
      * @param simpleId ID simplificado
      * @return Arquivo de log ou null se não encontrado
      */
     public File getLogFileFromSimpleId(String simpleId) {
         UUID uuid = getUUIDFromSimpleId(simpleId);
-        if (uuid != null) {
-            File logFile = new File(logsFolder, uuid.toString() + ".duellog");
-            if (logFile.exists()) {
-                return logFile;
-            }
+        if (uuid == null) {
+            return null;
+        }
+        
+        File logFile = getLogFile(uuid);
+        if (replayIndex.get(uuid) != null || logFile.exists()) {
+            return logFile;
+        }
+        if (!indexLoaded && ReplayArchive.exists(logFile)) {
+            return logFile;
         }
         return null;
     }
     
     /**
-     * Limpa logs antigos (mais de 30 dias)
+     * Remove logs gravados
+     * Os logs saem do índice e do mapeamento de IDs na hora; os arquivos são apagados na thread de gravação.
      * 
-     * @return Número de logs removidos
+     * @param ids UUIDs dos logs
+     * @return Número de logs removidos do índice
      */
-    public int cleanupOldLogs() {
-        int count = 0;
-        long thirtyDaysAgo = System.currentTimeMillis() - (30L * 24L * 60L * 60L * 1000L);
-        
-        File[] logFiles = logsFolder.listFiles();
-        if (logFiles != null) {
-            for (File file : logFiles) {
-                if (file.lastModified() < thirtyDaysAgo) {
-                    // Remover do mapeamento de IDs
-                    String uuidStr = file.getName().replace(".duellog", "");
-                    String simpleId = null;
-                    
-                    for (Map.Entry<String, String> entry : idMapping.entrySet()) {
-                        if (entry.getValue().equals(uuidStr)) {
-                            simpleId = entry.getKey();
-                            break;
-                        }
-                    }
-                    
-                    if (simpleId != null) {
-                        idMapping.remove(simpleId);
-                    }
-                    
-                    if (file.delete()) {
-                        count++;
-                    }
+    public int deleteLogs(Collection<UUID> ids) {
+        List<File> files = new ArrayList<>();
+        List<UUID> removed = new ArrayList<>();
+        long[] simpleIds = new long[ids.size()];
+        int simpleIdCount = 0;
+        for (UUID id : ids) {
+            File file = getLogFile(id);
+            if (replayIndex.remove(id) != null) {
+                files.add(file);
+                removed.add(id);
+                long simpleId = idStore.remove(id);
+                if (simpleId != ReplayIdStore.NO_ID) {
+                    simpleIds[simpleIdCount++] = simpleId;
                 }
             }
-            
-            // Salvar mapeamento atualizado
-            if (count > 0) {
-                saveIdMapping();
+        }
+        if (removed.isEmpty()) {
+            return 0;
+        }
+        
+        submit(new LogDeleteTask(files, removed, Arrays.copyOf(simpleIds, simpleIdCount)));
+        return removed.size();
+    }
+    
+    /**
+     * Remove os replays vencidos por idade e, se houver limite de espaço, os dias mais antigos até caber
+     * Os dias saem do índice e do mapeamento de IDs na hora; as pastas são apagadas inteiras na thread
+     * de gravação, junto com pastas de dias vencidos que não estejam no índice. O dia atual nunca é
+     * removido pelo limite de espaço. Em seguida os dias antigos restantes são compactados. Só roda
+     * depois de carregados o índice e os IDs; a primeira limpeza é feita pelo último a terminar.
+     * 
+     * @return Número de replays removidos do índice
+     */
+    public int sweepLogs() {
+        if (!indexLoaded || !idsLoaded) {
+            return 0;
+        }
+        
+        int retentionDays = plugin.getConfigManager().getDuelLogRetentionDays();
+        long budget = plugin.getConfigManager().getDuelLogDiskBudget() * 1024L * 1024L;
+        long now = System.currentTimeMillis();
+        int today = ReplayInfo.getDayKey(now);
+        int cutoff = retentionDays > 0 ? ReplayInfo.getDayKey(now - retentionDays * DAY_MILLIS) : 0;
+        
+        // Dias vencidos e, depois deles, os mais antigos até caber no limite de espaço
+        Set<Integer> days = new HashSet<>();
+        long bytes = replayIndex.getTotalBytes();
+        for (int day : replayIndex.getDays()) {
+            if (day < cutoff || (budget > 0 && bytes > budget && day != today)) {
+                days.add(day);
+                bytes -= replayIndex.getDayBytes(day);
+            } else {
+                break;
+            }
+        }
+        List<UUID> removed = new ArrayList<>();
+        long[] simpleIds = new long[16];
+        int simpleIdCount = 0;
+        for (int day : days) {
+            for (ReplayInfo info : replayIndex.removeDay(day)) {
+                removed.add(info.getId());
+                long simpleId = idStore.remove(info.getId());
+                if (simpleId != ReplayIdStore.NO_ID) {
+                    if (simpleIdCount == simpleIds.length) {
+                        simpleIds = Arrays.copyOf(simpleIds, simpleIds.length * 2);
+                    }
+                    simpleIds[simpleIdCount++] = simpleId;
+                }
             }
         }
         
-        return count;
+        if (!days.isEmpty() || cutoff != 0) {
+            submit(new SweepTask(days, cutoff, removed, Arrays.copyOf(simpleIds, simpleIdCount)));
+        }
+        if (!removed.isEmpty()) {
+            plugin.getLogger().info("Limpeza de replays: " + removed.size() + " replays de " + days.size() + " dias removidos");
+        }
+        
+        // Compactar os dias antigos que sobraram (nunca o dia atual)
+        int archiveDays = plugin.getConfigManager().getDuelLogArchiveDays();
+        if (archiveDays > 0) {
+            submit(new ArchiveTask(ReplayInfo.getDayKey(now - archiveDays * DAY_MILLIS)));
+        }
+        return removed.size();
     }
     
     /**
      * Finaliza todos os logs ativos
-     * Chamado quando o plugin é desativado para garantir que todos os logs sejam salvos
+     * Chamado quando o plugin é desativado: finaliza os logs, grava os que aguardavam vaga na fila
+     * e espera a thread de gravação terminar
      */
     public void finishAllLogs() {
+        sweepTask.cancel();
+        
         for (UUID logId : new ArrayList<>(activeLogs.keySet())) {
             try {
                 plugin.getLogger().info("Finalizando log não concluído: " + logId);
                 // Finalizar como empate (sem vencedor)
-                boolean saved = stopLogging(logId, null);
-                if (saved) {
-                    plugin.getLogger().info("Log finalizado com sucesso: " + logId);
-                } else {
+                if (!stopLogging(logId, null)) {
                     plugin.getLogger().warning("Falha ao finalizar log: " + logId);
                 }
             } catch (Exception e) {
@@ -371,6 +980,24 @@ public class DuelLogManager {
                 e.printStackTrace();
             }
         }
+        
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Tempo esgotado aguardando a gravação dos replays!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            plugin.getLogger().severe("Gravação dos replays interrompida!");
+        }
+        
+        // No desligamento não há mais ticks a proteger: gravar aqui o que não coube na fila
+        for (Runnable task : overflow) {
+            task.run();
+        }
+        overflow.clear();
+        indexFile.close();
+        idFile.close();
     }
     
     /**
@@ -0,0 +1,257 @@
+package br.com.primeleague.x1.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Arquivos compactados dos replays de um dia
+ * 
+ * Os replays de um dia encerrado (duellogs/ano/mês/dia/) são reunidos em um único zip ao lado da
+ * pasta (duellogs/ano/mês/dia.zip), cada replay como uma entrada comprimida separadamente. O
+ * diretório central do zip é a tabela de deslocamentos: ler um replay arquivado posiciona direto
+ * na sua entrada e descomprime só ela. O caminho de um replay não muda ao ser arquivado; a leitura
+ * procura o arquivo solto e, se ele não existir, a entrada no zip do dia.
+ */
+public class ReplayArchive {
+    
+    /**
+     * Extensão dos arquivos compactados
+     */
+    public static final String EXTENSION = ".zip";
+    
+    private ReplayArchive() {
+    }
+    
+    /**
+     * Obtém o zip do dia de um replay
+     * 
+     * @param logFile Caminho do replay na pasta do dia
+     * @return Zip do dia (pode não existir)
+     */
+    public static File getArchive(File logFile) {
+        return getDayArchive(logFile.getParentFile());
+    }
+    
+    /**
+     * Obtém o zip de uma pasta de dia
+     * 
+     * @param dayFolder Pasta do dia
+     * @return Zip do dia (pode não existir)
+     */
+    public static File getDayArchive(File dayFolder) {
+        return new File(dayFolder.getParentFile(), dayFolder.getName() + EXTENSION);
+    }
+    
+    /**
+     * Verifica se um replay existe, solto ou arquivado
+     * 
+     * @param logFile Caminho do replay na pasta do dia
+     * @return true se o replay existir
+     */
+    public static boolean exists(File logFile) {
+        if (logFile.exists()) {
+            return true;
+        }
+        File archive = getArchive(logFile);
+        if (!archive.exists()) {
+            return false;
+        }
+        try (ZipFile zip = new ZipFile(archive)) {
+            return zip.getEntry(logFile.getName()) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Abre um replay arquivado, descomprimindo apenas a sua entrada conforme é lida
+     * 
+     * @param logFile Caminho do replay na pasta do dia
+     * @return Conteúdo do replay (fechar a entrada fecha o zip), ou null se não estiver arquivado
+     * @throws IOException Se o zip não puder ser lido
+     */
+    static InputStream open(File logFile) throws IOException {
+        File archive = getArchive(logFile);
+        if (!archive.exists()) {
+            return null;
+        }
+        final ZipFile zip = new ZipFile(archive);
+        ZipEntry entry = zip.getEntry(logFile.getName());
+        if (entry == null) {
+            zip.close();
+            return null;
+        }
+        return new FilterInputStream(zip.getInputStream(entry)) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    zip.close();
+                }
+            }
+        };
+    }
+    
+    /**
+     * Lista os replays de um zip, lendo apenas o diretório central
+     * 
+     * @param archive Zip do dia
+     * @return Tamanho comprimido de cada replay arquivado, por nome do arquivo
+     * @throws IOException Se o zip não puder ser lido
+     */
+    public static Map<String, Long> list(File archive) throws IOException {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        try (ZipFile zip = new ZipFile(archive)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                sizes.put(entry.getName(), entry.getCompressedSize());
+            }
+        }
+        return sizes;
+    }
+    
+    /**
+     * Arquiva os replays soltos de uma pasta de dia
+     * Replays já arquivados no zip do dia são mantidos (um replay solto substitui o arquivado de
+     * mesmo nome). Os arquivos soltos só são apagados depois que o zip novo está no lugar, então
+     * um replay está sempre em um dos dois.
+     * 
+     * @param dayFolder Pasta do dia
+     * @return Tamanho comprimido de cada replay arquivado nesta execução, por nome do arquivo
+     * @throws IOException Se houver erro de leitura ou gravação
+     */
+    public static Map<String, Long> pack(File dayFolder) throws IOException {
+        File[] logFiles = dayFolder.listFiles(file -> file.isFile() && file.getName().endsWith(ReplayFile.EXTENSION));
+        if (logFiles == null || logFiles.length == 0) {
+            return new LinkedHashMap<>();
+        }
+        
+        Set<String> looseNames = new HashSet<>();
+        for (File file : logFiles) {
+            looseNames.add(file.getName());
+        }
+        Map<String, Long> sizes = rewrite(getDayArchive(dayFolder), logFiles, looseNames);
+        
+        for (File file : logFiles) {
+            file.delete();
+        }
+        String[] remaining = dayFolder.list();
+        if (remaining != null && remaining.length == 0) {
+            dayFolder.delete();
+        }
+        return sizes;
+    }
+    
+    /**
+     * Remove replays de um zip
+     * O zip é regravado sem eles, ou apagado se não sobrar nenhum replay.
+     * 
+     * @param archive Zip do dia
+     * @param names Nomes dos arquivos de replay a remover
+     * @throws IOException Se houver erro de leitura ou gravação
+     */
+    public static void remove(File archive, Set<String> names) throws IOException {
+        if (!archive.exists()) {
+            return;
+        }
+        Map<String, Long> remaining = list(archive);
+        if (!remaining.keySet().removeAll(names)) {
+            return;
+        }
+        if (remaining.isEmpty()) {
+            Files.delete(archive.toPath());
+        } else {
+            rewrite(archive, new File[0], names);
+        }
+    }
+    
+    /**
+     * Regrava um zip com os replays informados e os já arquivados que não forem descartados
+     * Deve sobrar ao menos um replay. O zip novo é gravado em um temporário e só substitui o atual
+     * quando completo; em caso de erro o temporário é apagado.
+     * 
+     * @param archive Zip do dia
+     * @param logFiles Replays soltos a incluir
+     * @param skipped Nomes de replays arquivados que não são copiados
+     * @return Tamanho comprimido dos replays incluídos, por nome do arquivo
+     */
+    private static Map<String, Long> rewrite(File archive, File[] logFiles, Set<String> skipped) throws IOException {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        File temp = new File(archive.getParentFile(), archive.getName() + ".tmp");
+        try {
+            writeArchive(archive, temp, logFiles, skipped, sizes);
+            Files.move(temp.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            temp.delete();
+        }
+        return sizes;
+    }
+        
+    /**
+     * Grava o zip novo no temporário
+     */
+    private static void writeArchive(File archive, File temp, File[] logFiles, Set<String> skipped,
+                                     Map<String, Long> sizes) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            // Replays já arquivados
+            if (archive.exists()) {
+                try (ZipFile previous = new ZipFile(archive)) {
+                    Enumeration<? extends ZipEntry> entries = previous.entries();
+                    while (entries.hasMoreElements()) {
+                        ZipEntry entry = entries.nextElement();
+                        if (skipped.contains(entry.getName())) {
+                            continue;
+                        }
+                        try (InputStream in = previous.getInputStream(entry)) {
+                            ZipEntry copy = new ZipEntry(entry.getName());
+                            copy.setTime(entry.getTime());
+                            out.putNextEntry(copy);
+                            out.write(readFully(in, entry.getSize()));
+                            out.closeEntry();
+                        }
+                    }
+                }
+            }
+            
+            // Replays soltos
+            for (File file : logFiles) {
+                ZipEntry entry = new ZipEntry(file.getName());
+                entry.setTime(file.lastModified());
+                out.putNextEntry(entry);
+                out.write(Files.readAllBytes(file.toPath()));
+                out.closeEntry();
+                sizes.put(file.getName(), entry.getCompressedSize());
+            }
+        }
+    }
+    
+    /**
+     * Lê uma entrada inteira
+     */
+    private static byte[] readFully(InputStream in, long size) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(size > 0 && size < Integer.MAX_VALUE ? (int) size : 4096);
+        byte[] chunk = new byte[4096];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        return buffer.toByteArray();
+    }
+} 
\ No newline at end of file
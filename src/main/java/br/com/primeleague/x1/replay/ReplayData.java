@@ -0,0 +1,490 @@
+package br.com.primeleague.x1.replay;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import br.com.primeleague.x1.enums.ReplayEventType;
+
+/**
+ * Dados completos do replay de um duelo
+ * 
+ * Os nomes dos jogadores ficam em uma tabela: primeiro a equipe 1, depois a equipe 2 e por fim
+ * jogadores de fora das equipes que aparecem em eventos. As estatísticas por jogador são
+ * guardadas apenas para os jogadores das equipes, no mesmo índice da tabela de nomes.
+ */
+public class ReplayData {
+    
+    /**
+     * Duração de um tick em milissegundos
+     */
+    public static final int TICK_MILLIS = 50;
+    
+    private final UUID id;
+    private final long startTime;
+    private final long duration;
+    private final boolean teamDuel;
+    private final String[] names;
+    private final int team1Size;
+    private final int team2Size;
+    private final int[] damageDealt;
+    private final int[] damageReceived;
+    private final int[] kills;
+    private final int totalDamage;
+    private final List<ReplayEvent> events;
+    private final boolean ended;
+    private final int winnerTeam;
+    
+    /**
+     * Construtor
+     * 
+     * @param id UUID do replay
+     * @param startTime Momento de início do duelo
+     * @param duration Duração do duelo em milissegundos
+     * @param teamDuel Se o duelo foi em equipe
+     * @param names Tabela de nomes (equipe 1, equipe 2 e demais jogadores)
+     * @param team1Size Jogadores da equipe 1
+     * @param team2Size Jogadores da equipe 2
+     * @param damageDealt Dano causado por jogador das equipes
+     * @param damageReceived Dano recebido por jogador das equipes
+     * @param kills Eliminações por jogador das equipes
+     * @param totalDamage Dano total do duelo
+     * @param winnerTeam Equipe vencedora registrada no fim do duelo (0 = empate)
+     * @param events Eventos do duelo
+     */
+    ReplayData(UUID id, long startTime, long duration, boolean teamDuel, String[] names, int team1Size, int team2Size,
+               int[] damageDealt, int[] damageReceived, int[] kills, int totalDamage, int winnerTeam, List<ReplayEvent> events) {
+        this.id = id;
+        this.startTime = startTime;
+        this.duration = duration;
+        this.teamDuel = teamDuel;
+        this.names = names;
+        this.team1Size = team1Size;
+        this.team2Size = team2Size;
+        this.damageDealt = damageDealt;
+        this.damageReceived = damageReceived;
+        this.kills = kills;
+        this.totalDamage = totalDamage;
+        this.events = Collections.unmodifiableList(events);
+        
+        boolean hasEnd = false;
+        for (ReplayEvent event : events) {
+            if (event.getType() == ReplayEventType.DUEL_END) {
+                hasEnd = true;
+                break;
+            }
+        }
+        this.ended = hasEnd;
+        this.winnerTeam = hasEnd ? winnerTeam : inferWinnerTeam();
+    }
+    
+    /**
+     * Construtor dos dados sem eventos (cabeçalho lido por {@link ReplayReader})
+     * Sem os eventos, o vencedor de um duelo sem fim registrado é inferido pelas eliminações
+     * das estatísticas.
+     * 
+     * @param id UUID do replay
+     * @param startTime Momento de início do duelo
+     * @param duration Duração do duelo em milissegundos
+     * @param teamDuel Se o duelo foi em equipe
+     * @param names Tabela de nomes (equipe 1, equipe 2 e demais jogadores)
+     * @param team1Size Jogadores da equipe 1
+     * @param team2Size Jogadores da equipe 2
+     * @param damageDealt Dano causado por jogador das equipes
+     * @param damageReceived Dano recebido por jogador das equipes
+     * @param kills Eliminações por jogador das equipes
+     * @param totalDamage Dano total do duelo
+     * @param winnerTeam Equipe vencedora registrada no fim do duelo (0 = empate, -1 = fim não registrado)
+     */
+    ReplayData(UUID id, long startTime, long duration, boolean teamDuel, String[] names, int team1Size, int team2Size,
+               int[] damageDealt, int[] damageReceived, int[] kills, int totalDamage, int winnerTeam) {
+        this.id = id;
+        this.startTime = startTime;
+        this.duration = duration;
+        this.teamDuel = teamDuel;
+        this.names = names;
+        this.team1Size = team1Size;
+        this.team2Size = team2Size;
+        this.damageDealt = damageDealt;
+        this.damageReceived = damageReceived;
+        this.kills = kills;
+        this.totalDamage = totalDamage;
+        this.events = Collections.emptyList();
+        this.ended = winnerTeam >= 0;
+        
+        if (ended) {
+            this.winnerTeam = winnerTeam;
+        } else {
+            int team1Kills = 0;
+            int team2Kills = 0;
+            for (int i = 0; i < kills.length; i++) {
+                if (i < team1Size) {
+                    team1Kills += kills[i];
+                } else {
+                    team2Kills += kills[i];
+                }
+            }
+            this.winnerTeam = team1Kills > team2Kills ? 1 : team2Kills > team1Kills ? 2 : 0;
+        }
+    }
+    
+    /**
+     * Obtém os dados completos a partir do cabeçalho e dos eventos lidos
+     * 
+     * @param events Eventos do duelo
+     * @return Dados do replay com os eventos
+     */
+    ReplayData withEvents(List<ReplayEvent> events) {
+        return new ReplayData(id, startTime, duration, teamDuel, names, team1Size, team2Size,
+            damageDealt, damageReceived, kills, totalDamage, ended ? winnerTeam : 0, events);
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public long getStartTime() {
+        return startTime;
+    }
+    
+    /**
+     * Obtém a duração do duelo
+     * 
+     * @return Duração em milissegundos
+     */
+    public long getDuration() {
+        return duration;
+    }
+    
+    public boolean isTeamDuel() {
+        return teamDuel;
+    }
+    
+    /**
+     * Obtém o tipo do duelo como gravado nos logs em texto
+     * 
+     * @return "TEAM" ou "SOLO"
+     */
+    public String getType() {
+        return teamDuel ? "TEAM" : "SOLO";
+    }
+    
+    /**
+     * Obtém a data do duelo no formato dos logs (yyyy-MM-dd_HH-mm-ss)
+     * 
+     * @return Data formatada
+     */
+    public String getDate() {
+        return new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date(startTime));
+    }
+    
+    /**
+     * Obtém a duração formatada (MM:SS)
+     * 
+     * @return Duração formatada
+     */
+    public String getFormattedDuration() {
+        return formatTime(duration);
+    }
+    
+    /**
+     * Obtém a tabela de nomes
+     * 
+     * @return Nomes dos jogadores (não deve ser alterada)
+     */
+    String[] getNames() {
+        return names;
+    }
+    
+    /**
+     * Obtém o nome de um jogador pelo índice na tabela de nomes
+     * 
+     * @param index Índice do jogador
+     * @return Nome do jogador ou null para NO_PLAYER
+     */
+    public String getPlayerName(int index) {
+        return index >= 0 && index < names.length ? names[index] : null;
+    }
+    
+    public List<String> getTeam1() {
+        return Arrays.asList(names).subList(0, team1Size);
+    }
+    
+    public List<String> getTeam2() {
+        return Arrays.asList(names).subList(team1Size, team1Size + team2Size);
+    }
+    
+    /**
+     * Obtém a equipe de um jogador
+     * 
+     * @param index Índice do jogador
+     * @return 1, 2 ou 0 se o jogador não pertence a nenhuma equipe
+     */
+    public int getTeamOf(int index) {
+        if (index < 0) {
+            return 0;
+        }
+        return index < team1Size ? 1 : index < team1Size + team2Size ? 2 : 0;
+    }
+    
+    /**
+     * Obtém a quantidade de jogadores das duas equipes
+     * 
+     * @return Jogadores com estatísticas
+     */
+    public int getTeamPlayerCount() {
+        return team1Size + team2Size;
+    }
+    
+    /**
+     * Obtém o dano causado por jogador, na ordem das equipes
+     * 
+     * @return Mapa de nome para dano causado
+     */
+    public Map<String, Integer> getDamageDealt() {
+        return toMap(damageDealt);
+    }
+    
+    /**
+     * Obtém o dano recebido por jogador, na ordem das equipes
+     * 
+     * @return Mapa de nome para dano recebido
+     */
+    public Map<String, Integer> getDamageReceived() {
+        return toMap(damageReceived);
+    }
+    
+    /**
+     * Obtém as eliminações por jogador, na ordem das equipes
+     * 
+     * @return Mapa de nome para eliminações
+     */
+    public Map<String, Integer> getKills() {
+        return toMap(kills);
+    }
+    
+    int getDamageDealt(int index) {
+        return damageDealt[index];
+    }
+    
+    int getDamageReceived(int index) {
+        return damageReceived[index];
+    }
+    
+    int getKills(int index) {
+        return kills[index];
+    }
+    
+    public int getTotalDamage() {
+        return totalDamage;
+    }
+    
+    /**
+     * Obtém o total de eliminações no duelo
+     * 
+     * @return Soma das eliminações dos jogadores
+     */
+    public int getTotalKills() {
+        int total = 0;
+        for (int playerKills : kills) {
+            total += playerKills;
+        }
+        return total;
+    }
+    
+    /**
+     * Obtém a quantidade de eventos de dano significativo
+     * 
+     * @return Danos significativos
+     */
+    public int getSignificantDamages() {
+        int total = 0;
+        for (ReplayEvent event : events) {
+            if (event.getType() == ReplayEventType.SIGNIFICANT_DAMAGE) {
+                total++;
+            }
+        }
+        return total;
+    }
+    
+    public List<ReplayEvent> getEvents() {
+        return events;
+    }
+    
+    /**
+     * Verifica se o fim do duelo foi registrado
+     * 
+     * @return true se existe o evento de fim
+     */
+    public boolean hasEnded() {
+        return ended;
+    }
+    
+    /**
+     * Obtém a equipe vencedora
+     * Se o fim do duelo não foi registrado, a equipe com mais eliminações é considerada vencedora.
+     * 
+     * @return 1 para equipe 1, 2 para equipe 2, 0 para empate
+     */
+    public int getWinnerTeam() {
+        return winnerTeam;
+    }
+    
+    /**
+     * Obtém o nome do vencedor
+     * Em duelos 1v1 é o nome do jogador; em equipe, o nome da equipe (ou do jogador com mais
+     * eliminações quando o fim do duelo não foi registrado).
+     * 
+     * @return Nome do vencedor ou "Empate"
+     */
+    public String getWinnerName() {
+        if (winnerTeam == 0) {
+            return "Empate";
+        }
+        
+        int first = winnerTeam == 1 ? 0 : team1Size;
+        int size = winnerTeam == 1 ? team1Size : team2Size;
+        if (!ended) {
+            int best = -1;
+            for (int i = first; i < first + size; i++) {
+                if (kills[i] > 0 && (best < 0 || kills[i] > kills[best])) {
+                    best = i;
+                }
+            }
+            if (best >= 0) {
+                return names[best];
+            }
+        }
+        return size == 1 ? names[first] : "Equipe " + winnerTeam;
+    }
+    
+    /**
+     * Formata um evento como uma linha do log em texto
+     * 
+     * @param event Evento a formatar
+     * @return Linha formatada, com o tempo desde o início do duelo
+     */
+    public String formatEvent(ReplayEvent event) {
+        String timeString = "[" + formatTime((long) event.getTick() * TICK_MILLIS) + "]";
+        
+        switch (event.getType()) {
+            case DUEL_START:
+                return timeString + " Duelo iniciado";
+            
+            case DUEL_END:
+                if (winnerTeam == 0) {
+                    return timeString + " Duelo terminou. Resultado: Empate";
+                }
+                return timeString + " Duelo terminou. Vencedor: " + getWinnerName();
+            
+            case PLAYER_KILL:
+                String killed = getPlayerName(event.getPlayer1());
+                String killer = getPlayerName(event.getPlayer2());
+                if (killer != null) {
+                    return timeString + " " + killed + " foi eliminado por " + killer;
+                } else {
+                    return timeString + " " + killed + " morreu";
+                }
+            
+            case SIGNIFICANT_DAMAGE:
+                String damaged = getPlayerName(event.getPlayer1());
+                String damager = getPlayerName(event.getPlayer2());
+                // Mostrar a quantidade de dano, se disponível
+                String damageAmount = event.getDamage() > 0 ? " (" + event.getDamage() + " de dano)" : "";
+                return timeString + " " + damaged + " recebeu dano significativo de " + damager + damageAmount;
+            
+            default:
+                return timeString + " Evento desconhecido";
+        }
+    }
+    
+    /**
+     * Formata um tempo em milissegundos como MM:SS
+     * 
+     * @param millis Tempo em milissegundos
+     * @return Tempo formatado
+     */
+    static String formatTime(long millis) {
+        long seconds = millis / 1000;
+        long minutes = seconds / 60;
+        seconds = seconds % 60;
+        
+        return String.format("%02d:%02d", minutes, seconds);
+    }
+    
+    /**
+     * Monta um mapa de nome para valor com os jogadores das equipes
+     */
+    private Map<String, Integer> toMap(int[] values) {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        for (int i = 0; i < team1Size + team2Size; i++) {
+            map.put(names[i], values[i]);
+        }
+        return map;
+    }
+    
+    /**
+     * Considera vencedora a equipe com mais eliminações (logs sem o evento de fim)
+     */
+    private int inferWinnerTeam() {
+        int team1Kills = 0;
+        int team2Kills = 0;
+        for (ReplayEvent event : events) {
+            if (event.getType() == ReplayEventType.PLAYER_KILL) {
+                int team = getTeamOf(event.getPlayer2());
+                if (team == 1) {
+                    team1Kills++;
+                } else if (team == 2) {
+                    team2Kills++;
+                }
+            }
+        }
+        return team1Kills > team2Kills ? 1 : team2Kills > team1Kills ? 2 : 0;
+    }
+    
+    /**
+     * Monta os dados de um replay a partir de listas (usado na conversão de logs antigos)
+     * 
+     * @param id UUID do replay
+     * @param startTime Momento de início
+     * @param duration Duração em milissegundos
+     * @param teamDuel Se o duelo foi em equipe
+     * @param team1 Jogadores da equipe 1
+     * @param team2 Jogadores da equipe 2
+     * @param extraNames Demais jogadores citados nos eventos
+     * @param damageDealt Dano causado por nome
+     * @param damageReceived Dano recebido por nome
+     * @param kills Eliminações por nome
+     * @param totalDamage Dano total
+     * @param winnerTeam Equipe vencedora (0 = empate)
+     * @param events Eventos, com índices na ordem equipe 1, equipe 2, demais jogadores
+     * @return Dados do replay
+     */
+    static ReplayData fromLists(UUID id, long startTime, long duration, boolean teamDuel, List<String> team1, List<String> team2,
+                                List<String> extraNames, Map<String, Integer> damageDealt, Map<String, Integer> damageReceived,
+                                Map<String, Integer> kills, int totalDamage, int winnerTeam, List<ReplayEvent> events) {
+        List<String> allNames = new ArrayList<>(team1);
+        allNames.addAll(team2);
+        int teamPlayers = allNames.size();
+        allNames.addAll(extraNames);
+        
+        int[] dealt = new int[teamPlayers];
+        int[] received = new int[teamPlayers];
+        int[] playerKills = new int[teamPlayers];
+        for (int i = 0; i < teamPlayers; i++) {
+            String name = allNames.get(i);
+            dealt[i] = damageDealt.containsKey(name) ? damageDealt.get(name) : 0;
+            received[i] = damageReceived.containsKey(name) ? damageReceived.get(name) : 0;
+            playerKills[i] = kills.containsKey(name) ? kills.get(name) : 0;
+        }
+        
+        return new ReplayData(id, startTime, duration, teamDuel, allNames.toArray(new String[0]), team1.size(), team2.size(),
+            dealt, received, playerKills, totalDamage, winnerTeam, events);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,104 @@
+package br.com.primeleague.x1.replay;
+
+import br.com.primeleague.x1.enums.ReplayEventType;
+
+/**
+ * Evento registrado no replay de um duelo
+ * 
+ * Os jogadores são referenciados pelo índice na tabela de nomes do replay e a posição
+ * é guardada em frações de 1/8 de bloco, sem manter objetos Location.
+ */
+public class ReplayEvent {
+    
+    /**
+     * Índice usado quando o evento não tem o jogador (morte sem matador, início e fim)
+     */
+    public static final int NO_PLAYER = -1;
+    
+    /**
+     * Frações de bloco da posição quantizada
+     */
+    public static final int POSITION_SCALE = 8;
+    
+    private final ReplayEventType type;
+    private final int tick;
+    private final int player1;
+    private final int player2;
+    private final int damage;
+    private final boolean hasPosition;
+    private final int x;
+    private final int y;
+    private final int z;
+    
+    /**
+     * Construtor
+     * 
+     * @param type Tipo do evento
+     * @param tick Ticks desde o início do duelo
+     * @param player1 Jogador principal do evento (eliminado, danificado) ou NO_PLAYER
+     * @param player2 Jogador secundário do evento (matador, danificador) ou NO_PLAYER
+     * @param damage Quantidade de dano (eventos de dano)
+     * @param hasPosition Se o evento tem posição
+     * @param x Coordenada X quantizada
+     * @param y Coordenada Y quantizada
+     * @param z Coordenada Z quantizada
+     */
+    public ReplayEvent(ReplayEventType type, int tick, int player1, int player2, int damage,
+                       boolean hasPosition, int x, int y, int z) {
+        this.type = type;
+        this.tick = tick;
+        this.player1 = player1;
+        this.player2 = player2;
+        this.damage = damage;
+        this.hasPosition = hasPosition;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+    
+    /**
+     * Quantiza uma coordenada em frações de bloco
+     * 
+     * @param coordinate Coordenada do mundo
+     * @return Coordenada quantizada
+     */
+    public static int quantize(double coordinate) {
+        return (int) Math.round(coordinate * POSITION_SCALE);
+    }
+    
+    public ReplayEventType getType() {
+        return type;
+    }
+    
+    public int getTick() {
+        return tick;
+    }
+    
+    public int getPlayer1() {
+        return player1;
+    }
+    
+    public int getPlayer2() {
+        return player2;
+    }
+    
+    public int getDamage() {
+        return damage;
+    }
+    
+    public boolean hasPosition() {
+        return hasPosition;
+    }
+    
+    public int getX() {
+        return x;
+    }
+    
+    public int getY() {
+        return y;
+    }
+    
+    public int getZ() {
+        return z;
+    }
+} 
\ No newline at end of file
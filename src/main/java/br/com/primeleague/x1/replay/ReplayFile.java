@@ -0,0 +1,155 @@
+package br.com.primeleague.x1.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Leitura e gravação dos arquivos de replay (.duellog)
+ * 
+ * Formato binário versionado: identificador, versão, cabeçalho do duelo, tabela de nomes,
+ * estatísticas por jogador e eventos em registros de tamanho fixo (tipo, tick, jogadores,
+ * dano e posição quantizada relativa a uma origem gravada no cabeçalho), então o evento N
+ * fica em um deslocamento conhecido do arquivo. Arquivos antigos, em texto, continuam sendo
+ * lidos; o texto pode ser gerado a partir de qualquer replay com {@link ReplayTextFormat}.
+ */
+public class ReplayFile {
+    
+    /**
+     * Extensão dos arquivos de replay
+     */
+    public static final String EXTENSION = ".duellog";
+    
+    static final int MAGIC = 0x58315250; // "X1RP"
+    static final int VERSION = 1;
+    static final int FLAG_TEAM_DUEL = 1;
+    static final int FLAG_POSITION = 0x80;
+    static final int NO_PLAYER = 0xFF;
+    private static final int MAX_TICK = 0xFFFFFF;
+    
+    /**
+     * Tamanho de cada evento em bytes: tipo e flags (1), tick (3), jogador principal (1),
+     * jogador secundário (1), dano (1) e posição relativa à origem (3 x 2)
+     */
+    static final int EVENT_SIZE = 13;
+    
+    private ReplayFile() {
+    }
+    
+    /**
+     * Grava um replay no formato binário
+     * 
+     * @param file Arquivo de destino
+     * @param data Dados do replay
+     * @throws IOException Se houver erro de gravação
+     */
+    public static void write(File file, ReplayData data) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 8192))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(data.getId().getMostSignificantBits());
+            out.writeLong(data.getId().getLeastSignificantBits());
+            out.writeLong(data.getStartTime());
+            out.writeInt((int) Math.min(Integer.MAX_VALUE, data.getDuration()));
+            out.writeByte(data.isTeamDuel() ? FLAG_TEAM_DUEL : 0);
+            
+            // Tabela de nomes
+            String[] names = data.getNames();
+            if (names.length >= NO_PLAYER) {
+                throw new IOException("jogadores demais no replay (" + names.length + ")");
+            }
+            out.writeShort(names.length);
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+            out.writeByte(data.getTeam1().size());
+            out.writeByte(data.getTeam2().size());
+            
+            // Estatísticas dos jogadores das equipes
+            for (int i = 0; i < data.getTeamPlayerCount(); i++) {
+                out.writeInt(data.getDamageDealt(i));
+                out.writeInt(data.getDamageReceived(i));
+                out.writeShort(data.getKills(i));
+            }
+            out.writeInt(data.getTotalDamage());
+            out.writeByte(data.hasEnded() ? data.getWinnerTeam() : -1);
+            
+            // Origem das posições: primeiro evento com posição
+            int originX = 0;
+            int originY = 0;
+            int originZ = 0;
+            for (ReplayEvent event : data.getEvents()) {
+                if (event.hasPosition()) {
+                    originX = event.getX();
+                    originY = event.getY();
+                    originZ = event.getZ();
+                    break;
+                }
+            }
+            out.writeInt(originX);
+            out.writeInt(originY);
+            out.writeInt(originZ);
+            
+            // Eventos
+            out.writeInt(data.getEvents().size());
+            for (ReplayEvent event : data.getEvents()) {
+                int tick = Math.max(0, Math.min(MAX_TICK, event.getTick()));
+                out.writeByte(event.getType().getCode() | (event.hasPosition() ? FLAG_POSITION : 0));
+                out.writeByte(tick >>> 16);
+                out.writeShort(tick);
+                out.writeByte(event.getPlayer1() < 0 ? NO_PLAYER : event.getPlayer1());
+                out.writeByte(event.getPlayer2() < 0 ? NO_PLAYER : event.getPlayer2());
+                out.writeByte(Math.max(0, Math.min(0xFF, event.getDamage())));
+                out.writeShort(event.hasPosition() ? clamp(event.getX() - originX) : 0);
+                out.writeShort(event.hasPosition() ? clamp(event.getY() - originY) : 0);
+                out.writeShort(event.hasPosition() ? clamp(event.getZ() - originZ) : 0);
+            }
+        }
+    }
+    
+    /**
+     * Lê um replay inteiro, no formato binário ou no formato antigo em texto
+     * Se o arquivo não existir solto na pasta do dia, é lido do zip do dia ({@link ReplayArchive}).
+     * Para percorrer os eventos sem montar a lista, use {@link ReplayReader}.
+     * 
+     * @param file Arquivo do replay
+     * @return Dados do replay
+     * @throws IOException Se o arquivo não puder ser lido ou estiver inválido
+     */
+    public static ReplayData read(File file) throws IOException {
+        try (ReplayReader reader = ReplayReader.open(file)) {
+            return reader.readAll();
+        } catch (EOFException e) {
+            throw new IOException("replay incompleto");
+        }
+    }
+    
+    /**
+     * Obtém o UUID de um replay pelo nome do arquivo
+     * 
+     * @param file Arquivo do replay
+     * @return UUID ou null se o nome não for um UUID
+     */
+    public static UUID getUUID(File file) {
+        String name = file.getName();
+        if (name.endsWith(EXTENSION)) {
+            name = name.substring(0, name.length() - EXTENSION.length());
+        }
+        try {
+            return UUID.fromString(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Limita um valor ao intervalo de um short
+     */
+    private static int clamp(int value) {
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+    }
+} 
\ No newline at end of file
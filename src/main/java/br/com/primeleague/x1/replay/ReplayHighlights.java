@@ -0,0 +1,208 @@
+package br.com.primeleague.x1.replay;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import br.com.primeleague.x1.enums.ReplayEventType;
+
+/**
+ * Melhores momentos de um replay
+ * 
+ * Calculados em uma única passada pelos eventos de um {@link ReplayReader}: início e fim do duelo,
+ * eliminações, danos significativos e os momentos do MVP (jogador das equipes com mais eliminações
+ * nas estatísticas do cabeçalho). Cada lista guarda no máximo o limite informado e conta o restante,
+ * então a memória não depende do tamanho do replay.
+ */
+public class ReplayHighlights {
+    
+    private final ReplayData header;
+    private final int limit;
+    private final int mvp; // Índice do MVP na tabela de nomes, ou ReplayEvent.NO_PLAYER
+    private String start;
+    private String end;
+    private final List<String> kills;
+    private int killCount;
+    private final List<String> damages;
+    private int damageCount;
+    private final List<String> mvpMoments;
+    private int mvpMomentCount;
+    
+    /**
+     * Construtor
+     * 
+     * @param header Dados do cabeçalho do replay
+     * @param limit Máximo de linhas guardadas por lista
+     */
+    private ReplayHighlights(ReplayData header, int limit) {
+        this.header = header;
+        this.limit = limit;
+        this.kills = new ArrayList<>();
+        this.damages = new ArrayList<>();
+        this.mvpMoments = new ArrayList<>();
+        
+        int best = ReplayEvent.NO_PLAYER;
+        int bestKills = 0;
+        for (int i = 0; i < header.getTeamPlayerCount(); i++) {
+            if (header.getKills(i) > bestKills) {
+                bestKills = header.getKills(i);
+                best = i;
+            }
+        }
+        this.mvp = best;
+    }
+    
+    /**
+     * Calcula os melhores momentos lendo os eventos restantes do replay
+     * 
+     * @param reader Leitor do replay
+     * @param limit Máximo de linhas guardadas por lista
+     * @return Melhores momentos
+     * @throws IOException Se o arquivo não puder ser lido
+     */
+    public static ReplayHighlights collect(ReplayReader reader, int limit) throws IOException {
+        ReplayHighlights highlights = new ReplayHighlights(reader.getHeader(), limit);
+        while (reader.hasNext()) {
+            ReplayEvent event = reader.next();
+            if (event != null) {
+                highlights.accept(event);
+            }
+        }
+        return highlights;
+    }
+    
+    /**
+     * Processa um evento
+     */
+    private void accept(ReplayEvent event) {
+        ReplayEventType type = event.getType();
+        if (type == ReplayEventType.DUEL_START) {
+            if (start == null) {
+                start = header.formatEvent(event);
+            }
+        } else if (type == ReplayEventType.DUEL_END) {
+            end = header.formatEvent(event);
+        } else if (type == ReplayEventType.PLAYER_KILL && event.getPlayer2() != ReplayEvent.NO_PLAYER) {
+            String line = header.formatEvent(event);
+            killCount++;
+            add(kills, line);
+            if (event.getPlayer2() == mvp) {
+                mvpMomentCount++;
+                add(mvpMoments, line);
+            }
+        } else if (type == ReplayEventType.SIGNIFICANT_DAMAGE) {
+            String line = null;
+            damageCount++;
+            if (damages.size() < limit) {
+                line = header.formatEvent(event);
+                damages.add(line);
+            }
+            if (event.getPlayer1() == mvp) {
+                mvpMomentCount++;
+                if (mvpMoments.size() < limit) {
+                    mvpMoments.add(line != null ? line : header.formatEvent(event));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Adiciona uma linha se a lista não estiver cheia
+     */
+    private void add(List<String> list, String line) {
+        if (list.size() < limit) {
+            list.add(line);
+        }
+    }
+    
+    /**
+     * Obtém a linha de início do duelo
+     * 
+     * @return Linha formatada ou null se o evento não foi registrado
+     */
+    public String getStart() {
+        return start;
+    }
+    
+    /**
+     * Obtém a linha de fim do duelo
+     * 
+     * @return Linha formatada ou null se o evento não foi registrado
+     */
+    public String getEnd() {
+        return end;
+    }
+    
+    /**
+     * Obtém as primeiras eliminações
+     * 
+     * @return Linhas formatadas, até o limite
+     */
+    public List<String> getKills() {
+        return Collections.unmodifiableList(kills);
+    }
+    
+    /**
+     * Obtém o total de eliminações com matador
+     * 
+     * @return Número de eliminações
+     */
+    public int getKillCount() {
+        return killCount;
+    }
+    
+    /**
+     * Obtém os primeiros danos significativos
+     * 
+     * @return Linhas formatadas, até o limite
+     */
+    public List<String> getDamages() {
+        return Collections.unmodifiableList(damages);
+    }
+    
+    /**
+     * Obtém o total de danos significativos
+     * 
+     * @return Número de danos significativos
+     */
+    public int getDamageCount() {
+        return damageCount;
+    }
+    
+    /**
+     * Obtém o nome do MVP (jogador com mais eliminações)
+     * 
+     * @return Nome do jogador ou null se ninguém eliminou
+     */
+    public String getMvp() {
+        return mvp == ReplayEvent.NO_PLAYER ? null : header.getPlayerName(mvp);
+    }
+    
+    /**
+     * Obtém as eliminações do MVP
+     * 
+     * @return Eliminações nas estatísticas do duelo
+     */
+    public int getMvpKills() {
+        return mvp == ReplayEvent.NO_PLAYER ? 0 : header.getKills(mvp);
+    }
+    
+    /**
+     * Obtém os primeiros momentos do MVP (eliminações feitas e danos significativos recebidos)
+     * 
+     * @return Linhas formatadas, até o limite
+     */
+    public List<String> getMvpMoments() {
+        return Collections.unmodifiableList(mvpMoments);
+    }
+    
+    /**
+     * Obtém o total de momentos do MVP
+     * 
+     * @return Número de momentos
+     */
+    public int getMvpMomentCount() {
+        return mvpMomentCount;
+    }
+} 
\ No newline at end of file
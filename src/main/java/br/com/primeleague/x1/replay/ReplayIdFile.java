@@ -0,0 +1,230 @@
+package br.com.primeleague.x1.replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Arquivo dos IDs simples de replays, gravado apenas por acréscimo
+ * 
+ * Cada ID atribuído acrescenta um registro (ID e UUID como dois longs) e cada replay removido
+ * acrescenta um registro de remoção, então um novo duelo não regrava o arquivo inteiro. Quando os
+ * registros de remoção passam a ocupar a maior parte do arquivo, ele é compactado na própria
+ * thread de gravação, a partir do próprio arquivo. Cada lote de remoções grava também o próximo
+ * ID, então um ID removido nunca volta a ser atribuído, mesmo que o seu registro de atribuição
+ * seja descartado. Um registro incompleto no final (queda durante a gravação) é cortado na
+ * leitura, para que os próximos registros não fiquem depois dele. Usado apenas pela thread de
+ * gravação de replays (e pelo carregamento, antes dela).
+ */
+public class ReplayIdFile {
+    
+    private static final int MAGIC = 0x58314944; // "X1ID"
+    private static final int VERSION = 1;
+    private static final byte RECORD_ASSIGN = 'A';
+    private static final byte RECORD_REMOVAL = 'D';
+    private static final byte RECORD_NEXT_ID = 'N';
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+    private static final int HEADER_SIZE = 6;
+    private static final int ASSIGN_SIZE = 25; // Tipo, ID e UUID
+    private static final int LONG_RECORD_SIZE = 9; // Tipo e um long (remoção e próximo ID)
+    
+    private final File file;
+    private DataOutputStream out;
+    private int records; // Registros no arquivo
+    private int live; // IDs ainda mapeados
+    private long nextId = 1; // Maior ID já atribuído mais um
+    
+    /**
+     * Construtor
+     * 
+     * @param file Arquivo dos IDs
+     */
+    public ReplayIdFile(File file) {
+        this.file = file;
+    }
+    
+    /**
+     * Lê os IDs do arquivo e corta o arquivo após o último registro completo
+     * 
+     * @return Mapeamento lido, ou null se o arquivo não existir ou for inválido
+     * @throws IOException Se houver erro de leitura
+     */
+    public ReplayIdStore read() throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        
+        ReplayIdStore store = new ReplayIdStore();
+        int count = 0;
+        long valid = HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            try {
+                if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                    return null;
+                }
+            } catch (EOFException e) {
+                return null;
+            }
+            
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                
+                try {
+                    if (type == RECORD_ASSIGN) {
+                        long id = in.readLong();
+                        store.put(id, in.readLong(), in.readLong());
+                        valid += ASSIGN_SIZE;
+                    } else if (type == RECORD_REMOVAL) {
+                        store.removeId(in.readLong());
+                        valid += LONG_RECORD_SIZE;
+                    } else if (type == RECORD_NEXT_ID) {
+                        store.reserve(in.readLong());
+                        valid += LONG_RECORD_SIZE;
+                    } else {
+                        // Registro corrompido, ignorar o restante do arquivo
+                        break;
+                    }
+                } catch (EOFException e) {
+                    // Último registro incompleto (queda durante a gravação)
+                    break;
+                }
+                count++;
+            }
+        }
+        
+        if (valid < file.length()) {
+            System.out.println("[PrimeLeagueX1] Registro incompleto removido do final de " + file.getName() + ".");
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(valid);
+            }
+        }
+        
+        records = count;
+        live = store.size();
+        nextId = store.getNextId();
+        return store;
+    }
+    
+    /**
+     * Acrescenta a atribuição de um ID
+     * 
+     * @param id ID simples
+     * @param most Bits mais significativos do UUID
+     * @param least Bits menos significativos do UUID
+     * @throws IOException Se houver erro de gravação
+     */
+    public void appendAssign(long id, long most, long least) throws IOException {
+        open();
+        out.writeByte(RECORD_ASSIGN);
+        out.writeLong(id);
+        out.writeLong(most);
+        out.writeLong(least);
+        out.flush();
+        records++;
+        live++;
+        nextId = Math.max(nextId, id + 1);
+    }
+    
+    /**
+     * Acrescenta registros de remoção e compacta o arquivo se necessário
+     * 
+     * @param ids IDs removidos
+     * @throws IOException Se houver erro de gravação
+     */
+    public void appendRemovals(long[] ids) throws IOException {
+        open();
+        out.writeByte(RECORD_NEXT_ID);
+        out.writeLong(nextId);
+        for (long id : ids) {
+            out.writeByte(RECORD_REMOVAL);
+            out.writeLong(id);
+        }
+        out.flush();
+        records += ids.length + 1;
+        live = Math.max(0, live - ids.length);
+        
+        if (records > MIN_COMPACTION_RECORDS && records > live * 2) {
+            compact();
+        }
+    }
+    
+    /**
+     * Regrava o arquivo apenas com os IDs informados
+     * O arquivo é gravado em um temporário e só substitui o atual quando completo. O próximo ID
+     * também é gravado, então IDs de replays removidos não são reutilizados.
+     * 
+     * @param store IDs atuais
+     * @throws IOException Se houver erro de gravação
+     */
+    public void rewrite(ReplayIdStore store) throws IOException {
+        close();
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream tempOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            tempOut.writeInt(MAGIC);
+            tempOut.writeShort(VERSION);
+            tempOut.writeByte(RECORD_NEXT_ID);
+            tempOut.writeLong(store.getNextId());
+            store.writeTo(tempOut, RECORD_ASSIGN);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        records = store.size() + 1;
+        live = store.size();
+        nextId = store.getNextId();
+    }
+    
+    /**
+     * Compacta o arquivo, descartando os IDs removidos
+     * 
+     * @throws IOException Se houver erro de leitura ou gravação
+     */
+    public void compact() throws IOException {
+        close();
+        ReplayIdStore store = read();
+        if (store != null) {
+            rewrite(store);
+        }
+    }
+    
+    /**
+     * Fecha o arquivo
+     */
+    public void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // Nada a fazer no fechamento
+            }
+            out = null;
+        }
+    }
+    
+    /**
+     * Abre o arquivo para acréscimo, criando o cabeçalho se necessário
+     */
+    private void open() throws IOException {
+        if (out != null) {
+            return;
+        }
+        boolean empty = !file.exists() || file.length() == 0;
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        if (empty) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,321 @@
+package br.com.primeleague.x1.replay;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Mapeamento bidirecional entre IDs simples de replays e UUIDs
+ * 
+ * Duas tabelas de endereçamento aberto com chaves e valores primitivos: ID simples para UUID
+ * (guardado como dois longs) e UUID para ID simples. Atribuir, consultar e remover custam O(1)
+ * e nenhuma das operações monta objetos além do UUID devolvido. O arquivo correspondente é
+ * mantido por {@link ReplayIdFile}. Acessado apenas pela thread principal depois de carregado.
+ */
+public class ReplayIdStore {
+    
+    /**
+     * Valor retornado quando o UUID não tem ID simples
+     */
+    public static final long NO_ID = 0L;
+    
+    // ID simples -> UUID (slot vazio quando o ID é NO_ID)
+    private long[] ids;
+    private long[] mostBits;
+    private long[] leastBits;
+    
+    // UUID -> ID simples (slot vazio quando o ID é NO_ID)
+    private long[] keyMostBits;
+    private long[] keyLeastBits;
+    private long[] keyIds;
+    
+    private int size;
+    private long nextId;
+    
+    /**
+     * Construtor
+     */
+    public ReplayIdStore() {
+        this.ids = new long[16];
+        this.mostBits = new long[16];
+        this.leastBits = new long[16];
+        this.keyMostBits = new long[16];
+        this.keyLeastBits = new long[16];
+        this.keyIds = new long[16];
+        this.nextId = 1;
+    }
+    
+    /**
+     * Atribui o próximo ID simples a um UUID
+     * 
+     * @param uuid UUID do replay
+     * @return ID atribuído, ou o ID existente se o UUID já tiver um
+     */
+    public long assign(UUID uuid) {
+        long existing = getId(uuid);
+        if (existing != NO_ID) {
+            return existing;
+        }
+        long id = nextId;
+        put(id, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        return id;
+    }
+    
+    /**
+     * Obtém o UUID de um ID simples
+     * 
+     * @param id ID simples
+     * @return UUID ou null se o ID não existir
+     */
+    public UUID getUUID(long id) {
+        if (id == NO_ID) {
+            return null;
+        }
+        int mask = ids.length - 1;
+        for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+            if (ids[i] == id) {
+                return new UUID(mostBits[i], leastBits[i]);
+            }
+            if (ids[i] == NO_ID) {
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * Obtém o ID simples de um UUID
+     * 
+     * @param uuid UUID do replay
+     * @return ID simples ou NO_ID se não houver
+     */
+    public long getId(UUID uuid) {
+        int slot = findUUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        return slot < 0 ? NO_ID : keyIds[slot];
+    }
+    
+    /**
+     * Remove o ID simples de um UUID
+     * 
+     * @param uuid UUID do replay
+     * @return ID removido ou NO_ID se não havia
+     */
+    public long remove(UUID uuid) {
+        int slot = findUUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (slot < 0) {
+            return NO_ID;
+        }
+        long id = keyIds[slot];
+        removeUUIDAt(slot);
+        removeIdAt(findId(id));
+        size--;
+        return id;
+    }
+    
+    /**
+     * Remove um ID simples, se existir
+     * 
+     * @param id ID simples
+     */
+    void removeId(long id) {
+        int slot = findId(id);
+        if (slot < 0) {
+            return;
+        }
+        removeUUIDAt(findUUID(mostBits[slot], leastBits[slot]));
+        removeIdAt(slot);
+        size--;
+    }
+    
+    /**
+     * Define o UUID de um ID simples (usado ao carregar o arquivo)
+     * Um mapeamento anterior do mesmo ID ou do mesmo UUID é substituído.
+     * 
+     * @param id ID simples
+     * @param most Bits mais significativos do UUID
+     * @param least Bits menos significativos do UUID
+     */
+    void put(long id, long most, long least) {
+        removeId(id);
+        int previous = findUUID(most, least);
+        if (previous >= 0) {
+            removeId(keyIds[previous]);
+        }
+        if ((size + 1) * 4 > ids.length * 3) {
+            grow();
+        }
+        
+        int mask = ids.length - 1;
+        int i = hash(id) & mask;
+        while (ids[i] != NO_ID) {
+            i = (i + 1) & mask;
+        }
+        ids[i] = id;
+        mostBits[i] = most;
+        leastBits[i] = least;
+        
+        i = hash(most ^ least) & mask;
+        while (keyIds[i] != NO_ID) {
+            i = (i + 1) & mask;
+        }
+        keyMostBits[i] = most;
+        keyLeastBits[i] = least;
+        keyIds[i] = id;
+        
+        size++;
+        if (id >= nextId) {
+            nextId = id + 1;
+        }
+    }
+    
+    /**
+     * Obtém o número de IDs mapeados
+     * 
+     * @return Número de IDs
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Obtém o próximo ID simples a ser atribuído
+     * 
+     * @return Próximo ID
+     */
+    public long getNextId() {
+        return nextId;
+    }
+    
+    /**
+     * Garante que os próximos IDs atribuídos não sejam menores que o informado
+     * 
+     * @param next Menor próximo ID aceito
+     */
+    void reserve(long next) {
+        if (next > nextId) {
+            nextId = next;
+        }
+    }
+    
+    /**
+     * Grava todos os mapeamentos como registros de atribuição
+     * 
+     * @param out Saída do arquivo
+     * @param record Tipo do registro de atribuição
+     * @throws IOException Se houver erro de gravação
+     */
+    void writeTo(DataOutputStream out, byte record) throws IOException {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != NO_ID) {
+                out.writeByte(record);
+                out.writeLong(ids[i]);
+                out.writeLong(mostBits[i]);
+                out.writeLong(leastBits[i]);
+            }
+        }
+    }
+    
+    /**
+     * Procura o slot de um ID simples
+     */
+    private int findId(long id) {
+        int mask = ids.length - 1;
+        for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+            if (ids[i] == id) {
+                return i;
+            }
+            if (ids[i] == NO_ID) {
+                return -1;
+            }
+        }
+    }
+    
+    /**
+     * Procura o slot de um UUID
+     */
+    private int findUUID(long most, long least) {
+        int mask = keyIds.length - 1;
+        for (int i = hash(most ^ least) & mask; ; i = (i + 1) & mask) {
+            if (keyIds[i] == NO_ID) {
+                return -1;
+            }
+            if (keyMostBits[i] == most && keyLeastBits[i] == least) {
+                return i;
+            }
+        }
+    }
+    
+    /**
+     * Esvazia um slot da tabela de IDs, recuando os slots seguintes da mesma sequência
+     */
+    private void removeIdAt(int slot) {
+        int mask = ids.length - 1;
+        int i = slot;
+        for (int j = (i + 1) & mask; ids[j] != NO_ID; j = (j + 1) & mask) {
+            int home = hash(ids[j]) & mask;
+            if (shouldStay(i, j, home)) {
+                continue;
+            }
+            ids[i] = ids[j];
+            mostBits[i] = mostBits[j];
+            leastBits[i] = leastBits[j];
+            i = j;
+        }
+        ids[i] = NO_ID;
+    }
+    
+    /**
+     * Esvazia um slot da tabela de UUIDs, recuando os slots seguintes da mesma sequência
+     */
+    private void removeUUIDAt(int slot) {
+        int mask = keyIds.length - 1;
+        int i = slot;
+        for (int j = (i + 1) & mask; keyIds[j] != NO_ID; j = (j + 1) & mask) {
+            int home = hash(keyMostBits[j] ^ keyLeastBits[j]) & mask;
+            if (shouldStay(i, j, home)) {
+                continue;
+            }
+            keyMostBits[i] = keyMostBits[j];
+            keyLeastBits[i] = keyLeastBits[j];
+            keyIds[i] = keyIds[j];
+            i = j;
+        }
+        keyIds[i] = NO_ID;
+    }
+    
+    /**
+     * Verifica se o slot j, com posição ideal home, continua alcançável com o slot i vazio
+     */
+    private static boolean shouldStay(int i, int j, int home) {
+        return i <= j ? (i < home && home <= j) : (i < home || home <= j);
+    }
+    
+    /**
+     * Dobra o tamanho das tabelas
+     */
+    private void grow() {
+        long[] oldIds = ids;
+        long[] oldMost = mostBits;
+        long[] oldLeast = leastBits;
+        int capacity = oldIds.length * 2;
+        ids = new long[capacity];
+        mostBits = new long[capacity];
+        leastBits = new long[capacity];
+        keyMostBits = new long[capacity];
+        keyLeastBits = new long[capacity];
+        keyIds = new long[capacity];
+        size = 0;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != NO_ID) {
+                put(oldIds[i], oldMost[i], oldLeast[i]);
+            }
+        }
+    }
+    
+    /**
+     * Espalha as chaves pela tabela
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,375 @@
+package br.com.primeleague.x1.replay;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import br.com.primeleague.x1.enums.ReplaySortType;
+
+/**
+ * Índice em memória dos replays gravados
+ * 
+ * Guarda um resumo por replay, então listagens, rankings e limpeza não abrem os arquivos de log.
+ * Também mantém um índice invertido de jogador para replays, em ordem de início, atualizado a
+ * cada inclusão ou remoção; a página N dos replays de um jogador é obtida sem percorrer o índice.
+ * Os replays também são agrupados por dia, com o espaço ocupado em disco, para a limpeza por
+ * idade e por limite de espaço remover dias inteiros sem percorrer os demais.
+ * Acessado apenas pela thread principal; o arquivo do índice é mantido por {@link ReplayIndexFile}
+ * na thread de gravação de replays.
+ */
+public class ReplayIndex {
+    
+    private final Map<UUID, ReplayInfo> entries;
+    private final Map<ReplaySortType, List<ReplayInfo>> sorted; // Ordenações já calculadas
+    private final Map<String, List<ReplayInfo>> byPlayer; // Nome em minúsculas -> replays do mais antigo ao mais recente
+    private final TreeMap<Integer, List<ReplayInfo>> byDay; // Dia (yyyyMMdd) -> replays do dia
+    private long totalBytes;
+    
+    /**
+     * Construtor
+     */
+    public ReplayIndex() {
+        this.entries = new LinkedHashMap<>();
+        this.sorted = new EnumMap<>(ReplaySortType.class);
+        this.byPlayer = new HashMap<>();
+        this.byDay = new TreeMap<>();
+    }
+    
+    /**
+     * Adiciona ou substitui o resumo de um replay
+     * 
+     * @param info Resumo do replay
+     */
+    public void put(ReplayInfo info) {
+        ReplayInfo previous = entries.put(info.getId(), info);
+        if (previous != null) {
+            unlink(previous);
+        }
+        link(info);
+        sorted.clear();
+    }
+    
+    /**
+     * Adiciona resumos que ainda não estão no índice
+     * 
+     * @param infos Resumos carregados
+     * @return Número de resumos adicionados
+     */
+    public int putAbsent(Collection<ReplayInfo> infos) {
+        int added = 0;
+        for (ReplayInfo info : infos) {
+            if (!entries.containsKey(info.getId())) {
+                entries.put(info.getId(), info);
+                link(info);
+                added++;
+            }
+        }
+        if (added > 0) {
+            sorted.clear();
+        }
+        return added;
+    }
+    
+    /**
+     * Remove o resumo de um replay
+     * 
+     * @param id UUID do replay
+     * @return Resumo removido ou null se não estava no índice
+     */
+    public ReplayInfo remove(UUID id) {
+        ReplayInfo removed = entries.remove(id);
+        if (removed != null) {
+            unlink(removed);
+            sorted.clear();
+        }
+        return removed;
+    }
+    
+    /**
+     * Obtém o resumo de um replay
+     * 
+     * @param id UUID do replay
+     * @return Resumo ou null se não estiver no índice
+     */
+    public ReplayInfo get(UUID id) {
+        return entries.get(id);
+    }
+    
+    /**
+     * Obtém o número de replays no índice
+     * 
+     * @return Número de replays
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Obtém todos os resumos, na ordem de inclusão
+     * 
+     * @return Resumos do índice (somente leitura)
+     */
+    public Collection<ReplayInfo> getAll() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+    
+    /**
+     * Obtém os replays ordenados por um critério
+     * A ordenação é calculada uma vez e reutilizada até o índice mudar.
+     * 
+     * @param type Critério de ordenação
+     * @return Replays ordenados, do maior para o menor valor (somente leitura)
+     */
+    public List<ReplayInfo> getSorted(final ReplaySortType type) {
+        List<ReplayInfo> list = sorted.get(type);
+        if (list == null) {
+            list = new ArrayList<>(entries.values());
+            Collections.sort(list, new Comparator<ReplayInfo>() {
+                @Override
+                public int compare(ReplayInfo a, ReplayInfo b) {
+                    return type.compare(a, b);
+                }
+            });
+            list = Collections.unmodifiableList(list);
+            sorted.put(type, list);
+        }
+        return list;
+    }
+    
+    /**
+     * Obtém os N melhores replays por um critério sem ordenar o índice inteiro
+     * Usa a ordenação em cache quando existir; senão, percorre o índice uma vez com um heap de N posições.
+     * 
+     * @param type Critério de ordenação
+     * @param limit Número de replays
+     * @return Melhores replays, do maior para o menor valor
+     */
+    public List<ReplayInfo> top(final ReplaySortType type, int limit) {
+        List<ReplayInfo> cached = sorted.get(type);
+        if (cached != null) {
+            return new ArrayList<>(cached.subList(0, Math.min(limit, cached.size())));
+        }
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        
+        // Heap com o pior dos N melhores no topo
+        PriorityQueue<ReplayInfo> heap = new PriorityQueue<>(limit, new Comparator<ReplayInfo>() {
+            @Override
+            public int compare(ReplayInfo a, ReplayInfo b) {
+                return type.compare(b, a);
+            }
+        });
+        for (ReplayInfo info : entries.values()) {
+            if (heap.size() < limit) {
+                heap.add(info);
+            } else if (type.compare(info, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(info);
+            }
+        }
+        
+        List<ReplayInfo> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+    
+    /**
+     * Obtém os replays iniciados antes de um momento
+     * 
+     * @param time Momento limite
+     * @return Replays mais antigos que o limite
+     */
+    public List<ReplayInfo> getOlderThan(long time) {
+        List<ReplayInfo> result = new ArrayList<>();
+        for (ReplayInfo info : entries.values()) {
+            if (info.getStartTime() < time) {
+                result.add(info);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Obtém o número de replays de um jogador
+     * 
+     * @param player Nome do jogador (sem diferenciar maiúsculas)
+     * @return Número de replays em que o jogador participou
+     */
+    public int countByPlayer(String player) {
+        List<ReplayInfo> replays = byPlayer.get(player.toLowerCase());
+        return replays == null ? 0 : replays.size();
+    }
+    
+    /**
+     * Obtém uma página dos replays de um jogador, dos mais recentes para os mais antigos
+     * 
+     * @param player Nome do jogador (sem diferenciar maiúsculas)
+     * @param page Página, começando em 1
+     * @param pageSize Replays por página
+     * @return Replays da página (vazia se a página não existir)
+     */
+    public List<ReplayInfo> getByPlayer(String player, int page, int pageSize) {
+        List<ReplayInfo> result = new ArrayList<>();
+        List<ReplayInfo> replays = byPlayer.get(player.toLowerCase());
+        if (replays == null || page < 1) {
+            return result;
+        }
+        
+        // A lista está do mais antigo ao mais recente: a página 1 é o final da lista
+        int end = replays.size() - (page - 1) * pageSize;
+        for (int i = end - 1; i >= Math.max(0, end - pageSize); i--) {
+            result.add(replays.get(i));
+        }
+        return result;
+    }
+    
+    /**
+     * Obtém os dias com replays, do mais antigo ao mais recente
+     * 
+     * @return Dias no formato yyyyMMdd (somente leitura)
+     */
+    public NavigableSet<Integer> getDays() {
+        return Collections.unmodifiableNavigableSet(byDay.navigableKeySet());
+    }
+    
+    /**
+     * Obtém os replays de um dia
+     * 
+     * @param day Dia no formato yyyyMMdd
+     * @return Replays do dia (vazia se não houver)
+     */
+    public List<ReplayInfo> getDay(int day) {
+        List<ReplayInfo> replays = byDay.get(day);
+        return replays == null ? Collections.<ReplayInfo>emptyList() : Collections.unmodifiableList(replays);
+    }
+    
+    /**
+     * Obtém o espaço ocupado pelos replays de um dia
+     * 
+     * @param day Dia no formato yyyyMMdd
+     * @return Tamanho em bytes
+     */
+    public long getDayBytes(int day) {
+        long bytes = 0;
+        for (ReplayInfo info : getDay(day)) {
+            bytes += info.getFileSize();
+        }
+        return bytes;
+    }
+    
+    /**
+     * Obtém o espaço ocupado por todos os replays do índice
+     * 
+     * @return Tamanho em bytes
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    /**
+     * Remove todos os replays de um dia
+     * 
+     * @param day Dia no formato yyyyMMdd
+     * @return Replays removidos
+     */
+    public List<ReplayInfo> removeDay(int day) {
+        List<ReplayInfo> removed = byDay.remove(day);
+        if (removed == null) {
+            return new ArrayList<>();
+        }
+        for (ReplayInfo info : removed) {
+            entries.remove(info.getId());
+            removePlayers(info);
+            totalBytes -= info.getFileSize();
+        }
+        sorted.clear();
+        return removed;
+    }
+    
+    /**
+     * Inclui um replay nas listas por jogador e por dia
+     */
+    private void link(ReplayInfo info) {
+        addPlayers(info);
+        List<ReplayInfo> day = byDay.get(info.getDayKey());
+        if (day == null) {
+            day = new ArrayList<>();
+            byDay.put(info.getDayKey(), day);
+        }
+        day.add(info);
+        totalBytes += info.getFileSize();
+    }
+    
+    /**
+     * Retira um replay das listas por jogador e por dia
+     */
+    private void unlink(ReplayInfo info) {
+        removePlayers(info);
+        List<ReplayInfo> day = byDay.get(info.getDayKey());
+        if (day != null && day.remove(info) && day.isEmpty()) {
+            byDay.remove(info.getDayKey());
+        }
+        totalBytes -= info.getFileSize();
+    }
+    
+    /**
+     * Inclui um replay nas listas dos seus jogadores, mantendo a ordem de início
+     */
+    private void addPlayers(ReplayInfo info) {
+        for (String player : info.getPlayers()) {
+            String key = player.toLowerCase();
+            List<ReplayInfo> replays = byPlayer.get(key);
+            if (replays == null) {
+                replays = new ArrayList<>();
+                byPlayer.put(key, replays);
+            }
+            
+            // Replays novos chegam quase sempre em ordem; senão, busca binária pela posição
+            int position = replays.size();
+            if (position > 0 && replays.get(position - 1).getStartTime() > info.getStartTime()) {
+                int low = 0;
+                int high = position - 1;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (replays.get(mid).getStartTime() > info.getStartTime()) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+                position = low;
+            }
+            if (position > 0 && replays.get(position - 1) == info) {
+                continue; // Nome repetido no mesmo replay
+            }
+            replays.add(position, info);
+        }
+    }
+    
+    /**
+     * Remove um replay das listas dos seus jogadores
+     */
+    private void removePlayers(ReplayInfo info) {
+        for (String player : info.getPlayers()) {
+            String key = player.toLowerCase();
+            List<ReplayInfo> replays = byPlayer.get(key);
+            if (replays != null && replays.remove(info) && replays.isEmpty()) {
+                byPlayer.remove(key);
+            }
+        }
+    }
+} 
\ No newline at end of file
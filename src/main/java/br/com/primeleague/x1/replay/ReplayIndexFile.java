@@ -0,0 +1,245 @@
+package br.com.primeleague.x1.replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Arquivo do índice de replays, gravado apenas por acréscimo
+ * 
+ * Cada replay gravado acrescenta um registro com o seu resumo e cada replay removido acrescenta
+ * um registro de remoção. Na leitura os registros são reaplicados em ordem e um registro
+ * incompleto no final (queda durante a gravação) é cortado, para que os próximos registros não
+ * fiquem depois dele; o arquivo só é regravado por inteiro quando está ausente, inválido ou com
+ * muitos registros de remoção.
+ * Usado apenas pela thread de gravação de replays (e pelo carregamento, antes dela).
+ */
+public class ReplayIndexFile {
+    
+    private static final int MAGIC = 0x58315249; // "X1RI"
+    private static final int VERSION = 4; // Versões anteriores não tinham jogadores, tamanhos ou danos significativos e são reconstruídas
+    private static final byte RECORD_ENTRY = 'E';
+    private static final byte RECORD_REMOVAL = 'D';
+    
+    private final File file;
+    private DataOutputStream out;
+    private int records; // Registros no arquivo, incluindo os substituídos e removidos
+    
+    /**
+     * Construtor
+     * 
+     * @param file Arquivo do índice
+     */
+    public ReplayIndexFile(File file) {
+        this.file = file;
+    }
+    
+    /**
+     * Lê o índice e corta o arquivo após o último registro completo
+     * 
+     * @return Resumos por UUID, na ordem em que foram gravados, ou null se o arquivo não existir ou for inválido
+     * @throws IOException Se houver erro de leitura
+     */
+    public Map<UUID, ReplayInfo> read() throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        
+        Map<UUID, ReplayInfo> entries = new LinkedHashMap<>();
+        records = 0;
+        long valid;
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try (DataInputStream in = new DataInputStream(counter)) {
+            try {
+                if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                    return null;
+                }
+            } catch (EOFException e) {
+                return null;
+            }
+            valid = counter.count;
+            
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                
+                try {
+                    if (type == RECORD_ENTRY) {
+                        ReplayInfo info = ReplayInfo.read(in);
+                        entries.put(info.getId(), info);
+                    } else if (type == RECORD_REMOVAL) {
+                        entries.remove(new UUID(in.readLong(), in.readLong()));
+                    } else {
+                        // Registro corrompido, ignorar o restante do arquivo
+                        break;
+                    }
+                } catch (EOFException e) {
+                    // Último registro incompleto (queda durante a gravação)
+                    break;
+                }
+                valid = counter.count;
+                records++;
+            }
+        }
+        
+        if (valid < file.length()) {
+            System.out.println("[PrimeLeagueX1] Registro incompleto removido do final de " + file.getName() + ".");
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(valid);
+            }
+        }
+        return entries;
+    }
+    
+    /**
+     * Acrescenta o resumo de um replay gravado
+     * 
+     * @param info Resumo do replay
+     * @throws IOException Se houver erro de gravação
+     */
+    public void append(ReplayInfo info) throws IOException {
+        open();
+        out.writeByte(RECORD_ENTRY);
+        info.write(out);
+        out.flush();
+        records++;
+    }
+    
+    /**
+     * Acrescenta registros de remoção
+     * 
+     * @param ids UUIDs dos replays removidos
+     * @throws IOException Se houver erro de gravação
+     */
+    public void appendRemovals(Collection<UUID> ids) throws IOException {
+        open();
+        for (UUID id : ids) {
+            out.writeByte(RECORD_REMOVAL);
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        }
+        out.flush();
+        records += ids.size();
+    }
+    
+    /**
+     * Obtém o número de registros no arquivo
+     * 
+     * @return Registros gravados, incluindo os que já foram substituídos ou removidos
+     */
+    public int getRecords() {
+        return records;
+    }
+    
+    /**
+     * Regrava o índice apenas com os resumos informados
+     * O arquivo é gravado em um temporário e só substitui o atual quando completo.
+     * 
+     * @param entries Resumos atuais
+     * @throws IOException Se houver erro de gravação
+     */
+    public void rewrite(Collection<ReplayInfo> entries) throws IOException {
+        close();
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream tempOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            tempOut.writeInt(MAGIC);
+            tempOut.writeShort(VERSION);
+            for (ReplayInfo info : entries) {
+                tempOut.writeByte(RECORD_ENTRY);
+                info.write(tempOut);
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        records = entries.size();
+    }
+    
+    /**
+     * Fecha o arquivo
+     */
+    public void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // Nada a fazer no fechamento
+            }
+            out = null;
+        }
+    }
+    
+    /**
+     * Abre o arquivo para acréscimo, criando o cabeçalho se necessário
+     */
+    private void open() throws IOException {
+        if (out != null) {
+            return;
+        }
+        boolean empty = !file.exists() || file.length() == 0;
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        if (empty) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+        }
+    }
+    
+    /**
+     * Entrada que conta os bytes lidos
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        
+        private long count;
+        
+        /**
+         * Construtor
+         * 
+         * @param in Entrada original
+         */
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+            return value;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,280 @@
+package br.com.primeleague.x1.replay;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumo de um replay guardado no índice de replays
+ * 
+ * Contém o necessário para listar, ordenar e limpar replays sem abrir os arquivos de log.
+ */
+public class ReplayInfo {
+    
+    private final UUID id;
+    private final long startTime;
+    private final long duration;
+    private final boolean teamDuel;
+    private final String[] players; // Equipe 1 seguida da equipe 2
+    private final int team1Size;
+    private final int totalDamage;
+    private final int kills;
+    private final int significantDamages;
+    private final long fileSize;
+    private final int dayKey;
+    
+    /**
+     * Construtor
+     * 
+     * @param id UUID do replay
+     * @param startTime Momento de início do duelo
+     * @param duration Duração em milissegundos
+     * @param teamDuel Se o duelo foi em equipe
+     * @param players Jogadores da equipe 1 seguidos dos jogadores da equipe 2
+     * @param team1Size Jogadores da equipe 1
+     * @param totalDamage Dano total do duelo
+     * @param kills Eliminações do duelo
+     * @param significantDamages Eventos de dano significativo do duelo
+     * @param fileSize Tamanho do arquivo do replay em bytes
+     */
+    public ReplayInfo(UUID id, long startTime, long duration, boolean teamDuel, String[] players, int team1Size,
+                      int totalDamage, int kills, int significantDamages, long fileSize) {
+        this.id = id;
+        this.startTime = startTime;
+        this.duration = duration;
+        this.teamDuel = teamDuel;
+        this.players = players;
+        this.team1Size = team1Size;
+        this.totalDamage = totalDamage;
+        this.kills = kills;
+        this.significantDamages = significantDamages;
+        this.fileSize = fileSize;
+        this.dayKey = getDayKey(startTime);
+    }
+    
+    /**
+     * Monta o resumo de um replay
+     * 
+     * @param data Dados completos do replay
+     * @param fileSize Tamanho do arquivo do replay em bytes
+     * @return Resumo do replay
+     */
+    public static ReplayInfo of(ReplayData data, long fileSize) {
+        String[] players = new String[data.getTeam1().size() + data.getTeam2().size()];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = data.getPlayerName(i);
+        }
+        return new ReplayInfo(data.getId(), data.getStartTime(), data.getDuration(), data.isTeamDuel(),
+            players, data.getTeam1().size(), data.getTotalDamage(), data.getTotalKills(),
+            data.getSignificantDamages(), fileSize);
+    }
+    
+    /**
+     * Obtém uma cópia do resumo com outro tamanho de arquivo (replay arquivado)
+     * 
+     * @param fileSize Novo tamanho em bytes
+     * @return Resumo com o tamanho informado
+     */
+    public ReplayInfo withFileSize(long fileSize) {
+        return new ReplayInfo(id, startTime, duration, teamDuel, players, team1Size, totalDamage, kills, significantDamages, fileSize);
+    }
+    
+    /**
+     * Grava o resumo no índice
+     * 
+     * @param out Saída do índice
+     * @throws IOException Se houver erro de gravação
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+        out.writeLong(startTime);
+        out.writeInt((int) Math.min(Integer.MAX_VALUE, duration));
+        out.writeBoolean(teamDuel);
+        out.writeByte(team1Size);
+        out.writeByte(players.length - team1Size);
+        for (String player : players) {
+            out.writeUTF(player);
+        }
+        out.writeInt(totalDamage);
+        out.writeShort(Math.min(Short.MAX_VALUE, kills));
+        out.writeInt(significantDamages);
+        out.writeLong(fileSize);
+    }
+    
+    /**
+     * Lê um resumo gravado por write
+     * 
+     * @param in Entrada do índice
+     * @return Resumo lido
+     * @throws IOException Se houver erro de leitura
+     */
+    static ReplayInfo read(DataInputStream in) throws IOException {
+        UUID id = new UUID(in.readLong(), in.readLong());
+        long startTime = in.readLong();
+        long duration = in.readInt();
+        boolean teamDuel = in.readBoolean();
+        int team1Size = in.readUnsignedByte();
+        String[] players = new String[team1Size + in.readUnsignedByte()];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = in.readUTF();
+        }
+        int totalDamage = in.readInt();
+        int kills = in.readShort();
+        int significantDamages = in.readInt();
+        long fileSize = in.readLong();
+        return new ReplayInfo(id, startTime, duration, teamDuel, players, team1Size, totalDamage, kills, significantDamages, fileSize);
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public long getStartTime() {
+        return startTime;
+    }
+    
+    /**
+     * Obtém a duração do duelo
+     * 
+     * @return Duração em milissegundos
+     */
+    public long getDuration() {
+        return duration;
+    }
+    
+    public boolean isTeamDuel() {
+        return teamDuel;
+    }
+    
+    public int getTeam1Size() {
+        return team1Size;
+    }
+    
+    public int getTeam2Size() {
+        return players.length - team1Size;
+    }
+    
+    public int getTotalDamage() {
+        return totalDamage;
+    }
+    
+    public int getKills() {
+        return kills;
+    }
+    
+    /**
+     * Obtém a quantidade de eventos de dano significativo, contada ao gravar o replay
+     * 
+     * @return Danos significativos
+     */
+    public int getSignificantDamages() {
+        return significantDamages;
+    }
+    
+    /**
+     * Obtém o tamanho do arquivo do replay
+     * 
+     * @return Tamanho em bytes
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+    
+    /**
+     * Obtém o dia do duelo, usado nas pastas de replays
+     * 
+     * @return Dia no formato yyyyMMdd
+     */
+    public int getDayKey() {
+        return dayKey;
+    }
+    
+    /**
+     * Calcula o dia de um momento no fuso do servidor
+     * 
+     * @param time Momento em milissegundos
+     * @return Dia no formato yyyyMMdd
+     */
+    public static int getDayKey(long time) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        return calendar.get(Calendar.YEAR) * 10000 + (calendar.get(Calendar.MONTH) + 1) * 100 + calendar.get(Calendar.DAY_OF_MONTH);
+    }
+    
+    /**
+     * Obtém a data do duelo no formato dos logs (yyyy-MM-dd_HH-mm-ss)
+     * 
+     * @return Data formatada
+     */
+    public String getDate() {
+        return new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date(startTime));
+    }
+    
+    /**
+     * Obtém a duração formatada (MM:SS)
+     * 
+     * @return Duração formatada
+     */
+    public String getFormattedDuration() {
+        return ReplayData.formatTime(duration);
+    }
+    
+    /**
+     * Verifica se o duelo foi 1v1 com os dois jogadores registrados
+     * 
+     * @return true se cada equipe tem exatamente um jogador
+     */
+    public boolean isSingles() {
+        return team1Size == 1 && players.length == 2;
+    }
+    
+    /**
+     * Obtém o primeiro jogador da equipe 1
+     * 
+     * @return Nome do primeiro jogador da equipe 1
+     */
+    public String getTeam1First() {
+        return team1Size > 0 ? players[0] : "";
+    }
+    
+    /**
+     * Obtém o primeiro jogador da equipe 2
+     * 
+     * @return Nome do primeiro jogador da equipe 2
+     */
+    public String getTeam2First() {
+        return players.length > team1Size ? players[team1Size] : "";
+    }
+    
+    /**
+     * Obtém os jogadores das duas equipes
+     * 
+     * @return Jogadores da equipe 1 seguidos dos jogadores da equipe 2 (somente leitura)
+     */
+    public List<String> getPlayers() {
+        return Collections.unmodifiableList(Arrays.asList(players));
+    }
+    
+    /**
+     * Obtém a equipe de um jogador neste replay
+     * 
+     * @param player Nome do jogador (sem diferenciar maiúsculas)
+     * @return 1 ou 2, ou 0 se o jogador não participou
+     */
+    public int getTeamOf(String player) {
+        for (int i = 0; i < players.length; i++) {
+            if (players[i].equalsIgnoreCase(player)) {
+                return i < team1Size ? 1 : 2;
+            }
+        }
+        return 0;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,279 @@
+package br.com.primeleague.x1.replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import br.com.primeleague.x1.enums.ReplayEventType;
+
+/**
+ * Leitura sequencial de um replay
+ * 
+ * Lê o cabeçalho do replay (duelo, nomes e estatísticas) e entrega os eventos um a um, direto do
+ * arquivo, sem montar a lista de eventos. Como os eventos têm tamanho fixo, pular para o evento N
+ * avança o arquivo sem ler os anteriores. A memória usada não depende do tamanho do replay.
+ * Replays arquivados são lidos da entrada do zip do dia; replays antigos em texto são convertidos
+ * por inteiro ao abrir.
+ */
+public class ReplayReader implements Closeable {
+    
+    private final ReplayData header;
+    private final DataInputStream in; // null para replays em texto
+    private final List<ReplayEvent> textEvents; // Eventos dos replays em texto
+    private final int eventCount;
+    private final int originX;
+    private final int originY;
+    private final int originZ;
+    private int position; // Índice do próximo evento
+    
+    /**
+     * Construtor
+     */
+    private ReplayReader(ReplayData header, DataInputStream in, List<ReplayEvent> textEvents, int eventCount,
+                         int originX, int originY, int originZ) {
+        this.header = header;
+        this.in = in;
+        this.textEvents = textEvents;
+        this.eventCount = eventCount;
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+    }
+    
+    /**
+     * Abre um replay para leitura sequencial
+     * Se o arquivo não existir solto na pasta do dia, é lido do zip do dia ({@link ReplayArchive}).
+     * 
+     * @param file Arquivo do replay
+     * @return Leitor posicionado no primeiro evento
+     * @throws IOException Se o arquivo não puder ser lido ou estiver inválido
+     */
+    public static ReplayReader open(File file) throws IOException {
+        InputStream source = null;
+        if (file.exists()) {
+            try {
+                source = new FileInputStream(file);
+            } catch (FileNotFoundException e) {
+                // Arquivado entre a verificação e a abertura
+            }
+        }
+        if (source == null) {
+            source = ReplayArchive.open(file);
+            if (source == null) {
+                throw new FileNotFoundException(file.getName());
+            }
+        }
+        
+        BufferedInputStream buffered = new BufferedInputStream(source, 8192);
+        try {
+            DataInputStream in = new DataInputStream(buffered);
+            buffered.mark(4);
+            int magic;
+            try {
+                magic = in.readInt();
+            } catch (EOFException e) {
+                magic = 0;
+            }
+            
+            if (magic != ReplayFile.MAGIC) {
+                // Formato antigo em texto
+                buffered.reset();
+                ReplayData data;
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(buffered))) {
+                    data = ReplayTextFormat.parse(reader, ReplayFile.getUUID(file), file.lastModified());
+                }
+                return new ReplayReader(data, null, data.getEvents(), data.getEvents().size(), 0, 0, 0);
+            }
+            
+            return readHeader(in);
+        } catch (EOFException e) {
+            buffered.close();
+            throw new IOException("replay incompleto");
+        } catch (IOException | RuntimeException e) {
+            buffered.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Lê o cabeçalho do formato binário, logo após o identificador
+     */
+    private static ReplayReader readHeader(DataInputStream in) throws IOException {
+        int version = in.readShort();
+        if (version != ReplayFile.VERSION) {
+            throw new IOException("versão " + version + " não suportada");
+        }
+        
+        UUID id = new UUID(in.readLong(), in.readLong());
+        long startTime = in.readLong();
+        long duration = in.readInt();
+        boolean teamDuel = (in.readByte() & ReplayFile.FLAG_TEAM_DUEL) != 0;
+        
+        String[] names = new String[in.readUnsignedShort()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+        int team1Size = in.readUnsignedByte();
+        int team2Size = in.readUnsignedByte();
+        if (team1Size + team2Size > names.length) {
+            throw new IOException("equipes inválidas");
+        }
+        
+        int teamPlayers = team1Size + team2Size;
+        int[] damageDealt = new int[teamPlayers];
+        int[] damageReceived = new int[teamPlayers];
+        int[] kills = new int[teamPlayers];
+        for (int i = 0; i < teamPlayers; i++) {
+            damageDealt[i] = in.readInt();
+            damageReceived[i] = in.readInt();
+            kills[i] = in.readShort();
+        }
+        int totalDamage = in.readInt();
+        int winnerTeam = in.readByte();
+        
+        int originX = in.readInt();
+        int originY = in.readInt();
+        int originZ = in.readInt();
+        
+        int eventCount = in.readInt();
+        if (eventCount < 0) {
+            throw new IOException("quantidade de eventos inválida");
+        }
+        
+        ReplayData header = new ReplayData(id, startTime, duration, teamDuel, names, team1Size, team2Size,
+            damageDealt, damageReceived, kills, totalDamage, winnerTeam);
+        return new ReplayReader(header, in, null, eventCount, originX, originY, originZ);
+    }
+    
+    /**
+     * Obtém os dados do duelo, sem os eventos
+     * Duração, jogadores, estatísticas, vencedor e formatação de eventos estão disponíveis;
+     * os eventos são lidos com {@link #next()}.
+     * 
+     * @return Dados do cabeçalho do replay
+     */
+    public ReplayData getHeader() {
+        return header;
+    }
+    
+    /**
+     * Obtém o número de eventos do replay
+     * 
+     * @return Número de eventos
+     */
+    public int getEventCount() {
+        return eventCount;
+    }
+    
+    /**
+     * Verifica se ainda há eventos a ler
+     * 
+     * @return true se houver um próximo evento
+     */
+    public boolean hasNext() {
+        return position < eventCount;
+    }
+    
+    /**
+     * Lê o próximo evento
+     * 
+     * @return Evento lido, ou null se o tipo do evento for desconhecido
+     * @throws IOException Se o arquivo terminar antes do evento ou não puder ser lido
+     */
+    public ReplayEvent next() throws IOException {
+        if (!hasNext()) {
+            throw new EOFException("fim dos eventos");
+        }
+        position++;
+        if (in == null) {
+            return textEvents.get(position - 1);
+        }
+        
+        int flags = in.readUnsignedByte();
+        ReplayEventType type = ReplayEventType.fromCode(flags & ~ReplayFile.FLAG_POSITION);
+        boolean hasPosition = (flags & ReplayFile.FLAG_POSITION) != 0;
+        int tick = (in.readUnsignedByte() << 16) | in.readUnsignedShort();
+        int player1 = readPlayer();
+        int player2 = readPlayer();
+        int damage = in.readUnsignedByte();
+        int x = originX + in.readShort();
+        int y = originY + in.readShort();
+        int z = originZ + in.readShort();
+        return type == null ? null : new ReplayEvent(type, tick, player1, player2, damage, hasPosition, x, y, z);
+    }
+    
+    /**
+     * Avança para um evento sem ler os anteriores
+     * 
+     * @param index Índice do evento (a partir do atual; não volta)
+     * @throws IOException Se o arquivo terminar antes do evento
+     */
+    public void seek(int index) throws IOException {
+        int target = Math.min(index, eventCount);
+        if (target <= position) {
+            return;
+        }
+        if (in != null) {
+            long bytes = (long) (target - position) * ReplayFile.EVENT_SIZE;
+            while (bytes > 0) {
+                long skipped = in.skip(bytes);
+                if (skipped <= 0) {
+                    // skip pode parar antes do fim; um byte lido confirma que o arquivo continua
+                    in.readByte();
+                    skipped = 1;
+                }
+                bytes -= skipped;
+            }
+        }
+        position = target;
+    }
+    
+    /**
+     * Lê os eventos restantes e monta os dados completos do replay
+     * 
+     * @return Dados do replay com os eventos
+     * @throws IOException Se o arquivo terminar antes dos eventos
+     */
+    public ReplayData readAll() throws IOException {
+        if (in == null) {
+            return header;
+        }
+        List<ReplayEvent> events = new ArrayList<>(Math.min(eventCount - position, 4096));
+        while (hasNext()) {
+            ReplayEvent event = next();
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return header.withEvents(events);
+    }
+    
+    /**
+     * Fecha o arquivo
+     */
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+    
+    /**
+     * Lê o índice de um jogador em um evento
+     */
+    private int readPlayer() throws IOException {
+        int index = in.readUnsignedByte();
+        return index == ReplayFile.NO_PLAYER ? ReplayEvent.NO_PLAYER : index;
+    }
+} 
\ No newline at end of file
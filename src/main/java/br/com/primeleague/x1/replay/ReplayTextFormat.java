@@ -0,0 +1,284 @@
+package br.com.primeleague.x1.replay;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import br.com.primeleague.x1.enums.ReplayEventType;
+
+/**
+ * Formato em texto dos replays
+ * 
+ * Era o formato gravado nos arquivos .duellog antes do formato binário. Continua sendo
+ * usado para ler replays antigos e para exportar um replay em texto legível sob demanda.
+ */
+public class ReplayTextFormat {
+    
+    private ReplayTextFormat() {
+    }
+    
+    /**
+     * Escreve um replay no formato em texto
+     * 
+     * @param writer Saída do texto
+     * @param data Dados do replay
+     * @throws IOException Se houver erro de gravação
+     */
+    public static void write(Writer writer, ReplayData data) throws IOException {
+        // Cabeçalho
+        writeLine(writer, "Duelo: ", data.getId().toString());
+        writeLine(writer, "Data: ", data.getDate());
+        writeLine(writer, "Tipo: ", data.getType());
+        writeLine(writer, "Duração: ", data.getFormattedDuration());
+        writer.write('\n');
+        
+        // Equipes
+        writer.write("Equipe 1:\n");
+        for (String player : data.getTeam1()) {
+            writeLine(writer, "- ", player);
+        }
+        
+        writer.write("\nEquipe 2:\n");
+        for (String player : data.getTeam2()) {
+            writeLine(writer, "- ", player);
+        }
+        
+        // Estatísticas
+        writer.write("\nEstatísticas:\n");
+        writeLine(writer, "Dano Total", data.getTotalDamage());
+        
+        // Estatísticas por jogador
+        writer.write("\nDano Causado:\n");
+        for (Map.Entry<String, Integer> entry : data.getDamageDealt().entrySet()) {
+            writeLine(writer, entry.getKey(), entry.getValue());
+        }
+        
+        writer.write("\nDano Recebido:\n");
+        for (Map.Entry<String, Integer> entry : data.getDamageReceived().entrySet()) {
+            writeLine(writer, entry.getKey(), entry.getValue());
+        }
+        
+        writer.write("\nEliminações:\n");
+        boolean hasKills = false;
+        for (Map.Entry<String, Integer> entry : data.getKills().entrySet()) {
+            if (entry.getValue() > 0) {
+                writeLine(writer, entry.getKey(), entry.getValue());
+                hasKills = true;
+            }
+        }
+        
+        if (!hasKills) {
+            writer.write("Nenhuma eliminação registrada.\n");
+        }
+        
+        // Informações de métricas extras
+        writer.write("\nMétricas:\n");
+        writeLine(writer, "Total de eventos", data.getEvents().size());
+        writeLine(writer, "Eliminações totais", data.getTotalKills());
+        writeLine(writer, "Dano total", data.getTotalDamage());
+        writeLine(writer, "Danos significativos", data.getSignificantDamages());
+        
+        // Eventos
+        writer.write("\nEventos:\n");
+        for (ReplayEvent event : data.getEvents()) {
+            writer.write(data.formatEvent(event));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+    
+    /**
+     * Lê um replay no formato em texto
+     * 
+     * @param reader Entrada do texto
+     * @param fileId UUID obtido do nome do arquivo (usado se o cabeçalho não tiver o UUID)
+     * @param fallbackTime Momento usado se a data do cabeçalho não puder ser lida
+     * @return Dados do replay
+     * @throws IOException Se houver erro de leitura
+     */
+    public static ReplayData parse(BufferedReader reader, UUID fileId, long fallbackTime) throws IOException {
+        UUID id = fileId;
+        long startTime = fallbackTime;
+        long duration = 0;
+        boolean teamDuel = false;
+        int totalDamage = 0;
+        int winnerTeam = 0;
+        List<String> team1 = new ArrayList<>();
+        List<String> team2 = new ArrayList<>();
+        List<String> eventLines = new ArrayList<>();
+        Map<String, Integer> damageDealt = new HashMap<>();
+        Map<String, Integer> damageReceived = new HashMap<>();
+        Map<String, Integer> kills = new HashMap<>();
+        
+        Map<String, Integer> section = null;
+        List<String> teamSection = null;
+        boolean readingEvents = false;
+        
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (readingEvents) {
+                if (line.startsWith("[")) {
+                    eventLines.add(line);
+                }
+            } else if (line.startsWith("Duelo:")) {
+                try {
+                    id = UUID.fromString(line.substring(6).trim());
+                } catch (IllegalArgumentException e) {
+                    // Manter o UUID do nome do arquivo
+                }
+            } else if (line.startsWith("Data:")) {
+                try {
+                    startTime = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").parse(line.substring(5).trim()).getTime();
+                } catch (ParseException e) {
+                    // Manter a data do arquivo
+                }
+            } else if (line.startsWith("Tipo:")) {
+                teamDuel = "TEAM".equals(line.substring(5).trim());
+            } else if (line.startsWith("Duração:")) {
+                duration = parseTime(line.substring(9).trim());
+            } else if (line.equals("Equipe 1:")) {
+                teamSection = team1;
+                section = null;
+            } else if (line.equals("Equipe 2:")) {
+                teamSection = team2;
+                section = null;
+            } else if (line.equals("Dano Causado:")) {
+                teamSection = null;
+                section = damageDealt;
+            } else if (line.equals("Dano Recebido:")) {
+                teamSection = null;
+                section = damageReceived;
+            } else if (line.equals("Eliminações:")) {
+                teamSection = null;
+                section = kills;
+            } else if (line.equals("Estatísticas:") || line.equals("Métricas:")) {
+                teamSection = null;
+                section = null;
+            } else if (line.equals("Eventos:")) {
+                readingEvents = true;
+            } else if (line.startsWith("Dano Total:")) {
+                totalDamage = parseInt(line.substring(11).trim());
+            } else if (teamSection != null && line.startsWith("- ")) {
+                teamSection.add(line.substring(2));
+            } else if (section != null && line.contains(": ")) {
+                int separator = line.lastIndexOf(": ");
+                section.put(line.substring(0, separator).trim(), parseInt(line.substring(separator + 2).trim()));
+            }
+        }
+        
+        // Eventos, com os jogadores como índices na tabela de nomes
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> extraNames = new ArrayList<>();
+        for (String player : team1) {
+            indexes.put(player, indexes.size());
+        }
+        for (String player : team2) {
+            indexes.put(player, indexes.size());
+        }
+        
+        List<ReplayEvent> events = new ArrayList<>();
+        for (String eventLine : eventLines) {
+            int close = eventLine.indexOf("] ");
+            if (close < 0) {
+                continue;
+            }
+            int tick = (int) (parseTime(eventLine.substring(1, close)) / ReplayData.TICK_MILLIS);
+            String text = eventLine.substring(close + 2);
+            
+            if (text.startsWith("Duelo iniciado")) {
+                events.add(new ReplayEvent(ReplayEventType.DUEL_START, tick, ReplayEvent.NO_PLAYER, ReplayEvent.NO_PLAYER, 0, false, 0, 0, 0));
+            } else if (text.startsWith("Duelo terminou")) {
+                int winnerIndex = text.indexOf("Vencedor: ");
+                if (winnerIndex >= 0) {
+                    String winner = text.substring(winnerIndex + 10).trim();
+                    winnerTeam = team1.contains(winner) || winner.equals("Equipe 1") ? 1 : 2;
+                }
+                events.add(new ReplayEvent(ReplayEventType.DUEL_END, tick, ReplayEvent.NO_PLAYER, ReplayEvent.NO_PLAYER, 0, false, 0, 0, 0));
+            } else if (text.contains(" foi eliminado por ")) {
+                int separator = text.indexOf(" foi eliminado por ");
+                int killed = getIndex(indexes, extraNames, text.substring(0, separator));
+                int killer = getIndex(indexes, extraNames, text.substring(separator + 19));
+                events.add(new ReplayEvent(ReplayEventType.PLAYER_KILL, tick, killed, killer, 0, false, 0, 0, 0));
+            } else if (text.endsWith(" morreu")) {
+                int killed = getIndex(indexes, extraNames, text.substring(0, text.length() - 7));
+                events.add(new ReplayEvent(ReplayEventType.PLAYER_KILL, tick, killed, ReplayEvent.NO_PLAYER, 0, false, 0, 0, 0));
+            } else if (text.contains(" recebeu dano significativo de ")) {
+                int separator = text.indexOf(" recebeu dano significativo de ");
+                String damager = text.substring(separator + 31);
+                int damage = 0;
+                int amount = damager.lastIndexOf(" (");
+                if (amount >= 0 && damager.endsWith(" de dano)")) {
+                    damage = parseInt(damager.substring(amount + 2, damager.length() - 9));
+                    damager = damager.substring(0, amount);
+                }
+                int damaged = getIndex(indexes, extraNames, text.substring(0, separator));
+                events.add(new ReplayEvent(ReplayEventType.SIGNIFICANT_DAMAGE, tick, damaged,
+                    getIndex(indexes, extraNames, damager), damage, false, 0, 0, 0));
+            }
+        }
+        
+        return ReplayData.fromLists(id, startTime, duration, teamDuel, team1, team2, extraNames,
+            damageDealt, damageReceived, kills, totalDamage, winnerTeam, events);
+    }
+    
+    /**
+     * Obtém o índice de um jogador, acrescentando-o à tabela se não pertencer às equipes
+     */
+    private static int getIndex(Map<String, Integer> indexes, List<String> extraNames, String player) {
+        Integer index = indexes.get(player);
+        if (index == null) {
+            index = indexes.size();
+            indexes.put(player, index);
+            extraNames.add(player);
+        }
+        return index;
+    }
+    
+    /**
+     * Converte um tempo MM:SS em milissegundos
+     */
+    private static long parseTime(String time) {
+        String[] parts = time.split(":");
+        if (parts.length != 2) {
+            return 0;
+        }
+        return (parseInt(parts[0]) * 60L + parseInt(parts[1])) * 1000L;
+    }
+    
+    /**
+     * Converte um número, retornando 0 se for inválido
+     */
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Grava uma linha "rótulo valor"
+     */
+    private static void writeLine(Writer writer, String label, String value) throws IOException {
+        writer.write(label);
+        writer.write(value);
+        writer.write('\n');
+    }
+    
+    /**
+     * Grava uma linha "rótulo: valor" numérica
+     */
+    private static void writeLine(Writer writer, String label, int value) throws IOException {
+        writer.write(label);
+        writer.write(": ");
+        writer.write(Integer.toString(value));
+        writer.write('\n');
+    }
+} 
\ No newline at end of file
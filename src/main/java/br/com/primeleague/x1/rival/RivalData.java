@@ -28,6 +28,23 @@ public class RivalData {
         this.lastDuels = new ArrayList<String>();
     }
     
+    /**
+     * Construtor para restaurar um registro de rivalidade salvo
+     *
+     * @param player1 Nome do primeiro jogador
+     * @param player2 Nome do segundo jogador
+     * @param player1Victories Vitórias do primeiro jogador
+     * @param player2Victories Vitórias do segundo jogador
+     * @param lastDuels Vencedores dos últimos duelos, do mais antigo para o mais recente
+     */
+    public RivalData(String player1, String player2, int player1Victories, int player2Victories, List<String> lastDuels) {
+        this.player1 = player1;
+        this.player2 = player2;
+        this.player1Victories = player1Victories;
+        this.player2Victories = player2Victories;
+        this.lastDuels = new ArrayList<String>(lastDuels);
+    }
+    
     /**
      * Obtém o nome do primeiro jogador
      *
@@ -0,0 +1,445 @@
+package br.com.primeleague.x1.rival;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice de confrontos entre jogadores
+ * 
+ * Cada jogador recebe um número e tem uma tabela de adjacência (número do oponente para o
+ * placar do confronto). O placar fica compactado em um único long: vitórias de cada jogador
+ * e os vencedores dos últimos duelos. Cada jogador também tem a lista dos oponentes com quem
+ * já atingiu o mínimo de duelos para uma rivalidade, então listar os rivais de um jogador custa
+ * O(rivais do jogador) e consultar um par não monta chaves de texto. Usado apenas pela thread principal.
+ * 
+ * O primeiro jogador de um confronto é sempre o de nome menor, como na chave "jogador1_jogador2".
+ * Confrontos alterados por duelos ficam marcados até serem gravados no registro de rivalidades.
+ */
+public class RivalIndex {
+    
+    private static final int VICTORY_BITS = 24;
+    private static final long MAX_VICTORIES = (1L << VICTORY_BITS) - 1;
+    private static final int LAST_DUELS_SHIFT = 48;
+    private static final int LAST_DUELS_SIZE = 10;
+    private static final long LAST_DUELS_MASK = (1L << LAST_DUELS_SIZE) - 1;
+    private static final int LAST_DUELS_COUNT_SHIFT = 58;
+    
+    private final Map<String, Integer> playerIds;
+    private final List<String> names;
+    private final List<Adjacency> adjacency;
+    private final Set<Long> dirtyPairs;
+    private int minDuels;
+    private int pairs;
+    
+    /**
+     * Construtor
+     * 
+     * @param minDuels Número mínimo de duelos para considerar uma rivalidade
+     */
+    public RivalIndex(int minDuels) {
+        this.playerIds = new HashMap<String, Integer>();
+        this.names = new ArrayList<String>();
+        this.adjacency = new ArrayList<Adjacency>();
+        this.dirtyPairs = new LinkedHashSet<Long>();
+        this.minDuels = minDuels;
+    }
+    
+    /**
+     * Atualiza o número mínimo de duelos, refazendo as listas de rivais se ele mudou
+     * 
+     * @param minDuels Número mínimo de duelos para considerar uma rivalidade
+     */
+    public void setMinDuels(int minDuels) {
+        if (minDuels == this.minDuels) {
+            return;
+        }
+        
+        this.minDuels = minDuels;
+        for (Adjacency table : adjacency) {
+            table.rivalCount = 0;
+            for (int i = 0; i < table.opponents.length; i++) {
+                if (table.opponents[i] != Adjacency.EMPTY && getTotalDuels(table.records[i]) >= minDuels) {
+                    table.addRival(table.opponents[i]);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Registra a vitória de um jogador em um confronto, criando o confronto se necessário
+     * 
+     * @param player1 Nome de um dos jogadores
+     * @param player2 Nome do outro jogador
+     * @param winner Nome do vencedor
+     * @return true se o confronto acabou de atingir o mínimo de duelos para uma rivalidade
+     */
+    public boolean addVictory(String player1, String player2, String winner) {
+        boolean swap = player1.compareTo(player2) > 0;
+        String first = swap ? player2 : player1;
+        String second = swap ? player1 : player2;
+        if (!winner.equals(first) && !winner.equals(second)) {
+            return false;
+        }
+        
+        int firstId = getId(first);
+        int secondId = getId(second);
+        long record = adjacency.get(firstId).get(secondId);
+        if (record == Adjacency.NO_RECORD) {
+            record = 0;
+            pairs++;
+        }
+        
+        boolean secondWon = winner.equals(second);
+        int firstVictories = getFirstVictories(record) + (secondWon ? 0 : 1);
+        int secondVictories = getSecondVictories(record) + (secondWon ? 1 : 0);
+        long lastDuels = ((getLastDuelBits(record) << 1) | (secondWon ? 1 : 0)) & LAST_DUELS_MASK;
+        int lastDuelCount = Math.min(getLastDuelCount(record) + 1, LAST_DUELS_SIZE);
+        
+        boolean wasRivalry = getTotalDuels(record) >= minDuels;
+        store(firstId, secondId, pack(firstVictories, secondVictories, lastDuels, lastDuelCount));
+        dirtyPairs.add(((long) firstId << 32) | secondId);
+        if (!wasRivalry && firstVictories + secondVictories >= minDuels) {
+            adjacency.get(firstId).addRival(secondId);
+            adjacency.get(secondId).addRival(firstId);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Adiciona um confronto carregado do disco, substituindo o existente
+     * 
+     * @param rival Dados do confronto
+     */
+    public void put(RivalData rival) {
+        boolean swap = rival.getPlayer1().compareTo(rival.getPlayer2()) > 0;
+        String first = swap ? rival.getPlayer2() : rival.getPlayer1();
+        String second = swap ? rival.getPlayer1() : rival.getPlayer2();
+        
+        long lastDuels = 0;
+        int lastDuelCount = 0;
+        for (String winner : rival.getLastDuels()) {
+            lastDuels = ((lastDuels << 1) | (second.equals(winner) ? 1 : 0)) & LAST_DUELS_MASK;
+            lastDuelCount = Math.min(lastDuelCount + 1, LAST_DUELS_SIZE);
+        }
+        
+        int firstId = getId(first);
+        int secondId = getId(second);
+        long previous = adjacency.get(firstId).get(secondId);
+        if (previous == Adjacency.NO_RECORD) {
+            pairs++;
+        }
+        
+        long record = pack(rival.getVictories(first), rival.getVictories(second), lastDuels, lastDuelCount);
+        store(firstId, secondId, record);
+        if (getTotalDuels(previous) < minDuels && getTotalDuels(record) >= minDuels) {
+            adjacency.get(firstId).addRival(secondId);
+            adjacency.get(secondId).addRival(firstId);
+        }
+    }
+    
+    /**
+     * Obtém o confronto entre dois jogadores
+     * 
+     * @param player1 Nome de um dos jogadores
+     * @param player2 Nome do outro jogador
+     * @return Cópia dos dados do confronto ou null se os jogadores nunca se enfrentaram
+     */
+    public RivalData get(String player1, String player2) {
+        long record = getRecord(player1, player2);
+        if (record == Adjacency.NO_RECORD) {
+            return null;
+        }
+        return player1.compareTo(player2) <= 0 ? toRivalData(player1, player2, record) : toRivalData(player2, player1, record);
+    }
+    
+    /**
+     * Verifica se dois jogadores atingiram o mínimo de duelos para uma rivalidade
+     * 
+     * @param player1 Nome de um dos jogadores
+     * @param player2 Nome do outro jogador
+     * @return true se existe uma rivalidade
+     */
+    public boolean isRivalry(String player1, String player2) {
+        long record = getRecord(player1, player2);
+        return record != Adjacency.NO_RECORD && getTotalDuels(record) >= minDuels;
+    }
+    
+    /**
+     * Obtém as rivalidades de um jogador
+     * 
+     * @param playerName Nome do jogador
+     * @return Cópias dos dados de cada rivalidade
+     */
+    public List<RivalData> getRivals(String playerName) {
+        Integer id = playerIds.get(playerName);
+        if (id == null) {
+            return new ArrayList<RivalData>();
+        }
+        
+        Adjacency table = adjacency.get(id);
+        List<RivalData> rivals = new ArrayList<RivalData>(table.rivalCount);
+        for (int i = 0; i < table.rivalCount; i++) {
+            int opponent = table.rivals[i];
+            String opponentName = names.get(opponent);
+            long record = table.get(opponent);
+            if (getTotalDuels(record) < minDuels) {
+                continue;
+            }
+            if (playerName.compareTo(opponentName) <= 0) {
+                rivals.add(toRivalData(playerName, opponentName, record));
+            } else {
+                rivals.add(toRivalData(opponentName, playerName, record));
+            }
+        }
+        return rivals;
+    }
+    
+    /**
+     * Obtém todos os confrontos (usado na gravação)
+     * 
+     * @return Cópias dos dados de todos os confrontos
+     */
+    public List<RivalData> values() {
+        List<RivalData> values = new ArrayList<RivalData>(pairs);
+        for (int id = 0; id < adjacency.size(); id++) {
+            Adjacency table = adjacency.get(id);
+            String name = names.get(id);
+            for (int i = 0; i < table.opponents.length; i++) {
+                int opponent = table.opponents[i];
+                // Cada confronto aparece nas duas tabelas; só a do primeiro jogador é usada
+                if (opponent != Adjacency.EMPTY && name.compareTo(names.get(opponent)) <= 0) {
+                    values.add(toRivalData(name, names.get(opponent), table.records[i]));
+                }
+            }
+        }
+        return values;
+    }
+    
+    /**
+     * Obtém os confrontos alterados por duelos desde a última chamada e limpa as marcações
+     * 
+     * @return Cópias dos dados dos confrontos alterados
+     */
+    public List<RivalData> drainDirty() {
+        List<RivalData> dirty = new ArrayList<RivalData>(dirtyPairs.size());
+        for (long pair : dirtyPairs) {
+            int firstId = (int) (pair >>> 32);
+            int secondId = (int) pair;
+            dirty.add(toRivalData(names.get(firstId), names.get(secondId), adjacency.get(firstId).get(secondId)));
+        }
+        dirtyPairs.clear();
+        return dirty;
+    }
+    
+    /**
+     * Obtém a quantidade de confrontos
+     * 
+     * @return Quantidade de pares de jogadores que já se enfrentaram
+     */
+    public int size() {
+        return pairs;
+    }
+    
+    /**
+     * Obtém o placar compactado de um confronto
+     */
+    private long getRecord(String player1, String player2) {
+        Integer id1 = playerIds.get(player1);
+        Integer id2 = playerIds.get(player2);
+        if (id1 == null || id2 == null) {
+            return Adjacency.NO_RECORD;
+        }
+        return adjacency.get(id1).get(id2);
+    }
+    
+    /**
+     * Grava o placar de um confronto nas tabelas dos dois jogadores
+     */
+    private void store(int firstId, int secondId, long record) {
+        adjacency.get(firstId).put(secondId, record);
+        adjacency.get(secondId).put(firstId, record);
+    }
+    
+    /**
+     * Obtém o número de um jogador, registrando-o se necessário
+     */
+    private int getId(String playerName) {
+        Integer id = playerIds.get(playerName);
+        if (id == null) {
+            id = names.size();
+            names.add(playerName);
+            adjacency.add(new Adjacency());
+            playerIds.put(playerName, id);
+        }
+        return id;
+    }
+    
+    /**
+     * Converte um placar compactado nos dados do confronto
+     */
+    private static RivalData toRivalData(String first, String second, long record) {
+        int count = getLastDuelCount(record);
+        long bits = getLastDuelBits(record);
+        List<String> lastDuels = new ArrayList<String>(count);
+        // O duelo mais recente está no bit 0
+        for (int i = count - 1; i >= 0; i--) {
+            lastDuels.add(((bits >>> i) & 1) == 1 ? second : first);
+        }
+        return new RivalData(first, second, getFirstVictories(record), getSecondVictories(record), lastDuels);
+    }
+    
+    /**
+     * Compacta o placar de um confronto em um long
+     */
+    private static long pack(long firstVictories, long secondVictories, long lastDuels, long lastDuelCount) {
+        return Math.min(firstVictories, MAX_VICTORIES)
+            | (Math.min(secondVictories, MAX_VICTORIES) << VICTORY_BITS)
+            | (lastDuels << LAST_DUELS_SHIFT)
+            | (lastDuelCount << LAST_DUELS_COUNT_SHIFT);
+    }
+    
+    /**
+     * Obtém as vitórias do primeiro jogador
+     */
+    private static int getFirstVictories(long record) {
+        return (int) (record & MAX_VICTORIES);
+    }
+    
+    /**
+     * Obtém as vitórias do segundo jogador
+     */
+    private static int getSecondVictories(long record) {
+        return (int) ((record >>> VICTORY_BITS) & MAX_VICTORIES);
+    }
+    
+    /**
+     * Obtém os vencedores dos últimos duelos (bit 1 quando o segundo jogador venceu)
+     */
+    private static long getLastDuelBits(long record) {
+        return (record >>> LAST_DUELS_SHIFT) & LAST_DUELS_MASK;
+    }
+    
+    /**
+     * Obtém a quantidade de últimos duelos guardados
+     */
+    private static int getLastDuelCount(long record) {
+        return (int) ((record >>> LAST_DUELS_COUNT_SHIFT) & 0xF);
+    }
+    
+    /**
+     * Obtém o total de duelos de um confronto
+     */
+    private static int getTotalDuels(long record) {
+        return record == Adjacency.NO_RECORD ? 0 : getFirstVictories(record) + getSecondVictories(record);
+    }
+    
+    /**
+     * Tabela de adjacência de um jogador: número do oponente para o placar compactado
+     * Tabela hash de endereçamento aberto com vetores de tipos primitivos.
+     */
+    private static class Adjacency {
+        
+        private static final int EMPTY = -1;
+        private static final long NO_RECORD = -1L;
+        
+        private int[] opponents;
+        private long[] records;
+        private int size;
+        private int[] rivals;
+        private int rivalCount;
+        
+        /**
+         * Construtor
+         */
+        Adjacency() {
+            this.opponents = new int[4];
+            this.records = new long[4];
+            this.rivals = new int[0];
+            Arrays.fill(opponents, EMPTY);
+        }
+        
+        /**
+         * Obtém o placar contra um oponente
+         * 
+         * @param opponent Número do oponente
+         * @return Placar compactado ou NO_RECORD
+         */
+        long get(int opponent) {
+            int mask = opponents.length - 1;
+            for (int i = hash(opponent) & mask; ; i = (i + 1) & mask) {
+                if (opponents[i] == opponent) {
+                    return records[i];
+                }
+                if (opponents[i] == EMPTY) {
+                    return NO_RECORD;
+                }
+            }
+        }
+        
+        /**
+         * Define o placar contra um oponente
+         * 
+         * @param opponent Número do oponente
+         * @param record Placar compactado
+         */
+        void put(int opponent, long record) {
+            if ((size + 1) * 4 > opponents.length * 3) {
+                grow();
+            }
+            
+            int mask = opponents.length - 1;
+            int i = hash(opponent) & mask;
+            while (opponents[i] != EMPTY && opponents[i] != opponent) {
+                i = (i + 1) & mask;
+            }
+            if (opponents[i] == EMPTY) {
+                opponents[i] = opponent;
+                size++;
+            }
+            records[i] = record;
+        }
+        
+        /**
+         * Acrescenta um oponente à lista de rivais
+         * 
+         * @param opponent Número do oponente
+         */
+        void addRival(int opponent) {
+            if (rivalCount == rivals.length) {
+                rivals = Arrays.copyOf(rivals, Math.max(2, rivals.length * 2));
+            }
+            rivals[rivalCount++] = opponent;
+        }
+        
+        /**
+         * Dobra o tamanho da tabela
+         */
+        private void grow() {
+            int[] oldOpponents = opponents;
+            long[] oldRecords = records;
+            opponents = new int[oldOpponents.length * 2];
+            records = new long[oldRecords.length * 2];
+            Arrays.fill(opponents, EMPTY);
+            size = 0;
+            for (int i = 0; i < oldOpponents.length; i++) {
+                if (oldOpponents[i] != EMPTY) {
+                    put(oldOpponents[i], oldRecords[i]);
+                }
+            }
+        }
+        
+        /**
+         * Espalha os números dos oponentes pela tabela
+         */
+        private static int hash(int opponent) {
+            int h = opponent * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+} 
\ No newline at end of file
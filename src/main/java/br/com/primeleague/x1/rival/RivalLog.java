@@ -0,0 +1,137 @@
+package br.com.primeleague.x1.rival;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.primeleague.x1.storage.AppendLog;
+
+/**
+ * Registro de alterações de rivalidades, gravado apenas por acréscimo
+ * 
+ * Cada registro contém o estado atual de um confronto alterado desde o último lote, então
+ * um duelo custa algumas dezenas de bytes em vez de regravar o arquivo de rivalidades inteiro.
+ * Na inicialização o registro é reaplicado sobre o snapshot (ou o YAML); reaplicar o mesmo
+ * registro duas vezes não muda o resultado. O enquadramento dos registros e o corte de um final
+ * incompleto ficam no {@link AppendLog}.
+ */
+public class RivalLog {
+    
+    private static final byte RECORD_RIVALRY = 'R';
+    
+    private final AppendLog log;
+    
+    /**
+     * Construtor
+     * 
+     * @param file Arquivo do registro
+     */
+    public RivalLog(File file) {
+        this.log = new AppendLog(file);
+    }
+    
+    /**
+     * Reaplica o registro sobre as rivalidades carregadas
+     * 
+     * @param rivalries Índice de confrontos a atualizar
+     * @return Número de registros reaplicados
+     * @throws IOException Se houver erro de leitura
+     */
+    public int replay(final RivalIndex rivalries) throws IOException {
+        return log.replay(new AppendLog.RecordReader() {
+            @Override
+            public void read(DataInputStream in) throws IOException {
+                byte type = in.readByte();
+                if (type != RECORD_RIVALRY) {
+                    throw new IOException("Tipo de registro desconhecido: " + type);
+                }
+                rivalries.put(readRival(in));
+            }
+        });
+    }
+    
+    /**
+     * Acrescenta os confrontos alterados ao registro e força a gravação em disco
+     * 
+     * @param rivals Cópias dos confrontos alterados
+     * @throws IOException Se houver erro de gravação
+     */
+    public void append(List<RivalData> rivals) throws IOException {
+        for (RivalData rival : rivals) {
+            DataOutputStream out = log.beginRecord();
+            out.writeByte(RECORD_RIVALRY);
+            writeRival(out, rival);
+            log.endRecord();
+        }
+        log.sync();
+    }
+    
+    /**
+     * Obtém o tamanho atual do registro em bytes
+     * 
+     * @return Tamanho do registro
+     */
+    public long size() {
+        return log.size();
+    }
+    
+    /**
+     * Esvazia o registro após a compactação
+     * 
+     * @throws IOException Se houver erro ao recriar o arquivo
+     */
+    public void truncate() throws IOException {
+        log.truncate();
+    }
+    
+    /**
+     * Fecha o arquivo do registro
+     */
+    public void close() {
+        log.close();
+    }
+    
+    /**
+     * Grava os dados de um confronto (mesmo formato usado no snapshot de rivalidades)
+     * 
+     * @param out Saída
+     * @param rival Dados do confronto
+     * @throws IOException Se houver erro de gravação
+     */
+    public static void writeRival(DataOutputStream out, RivalData rival) throws IOException {
+        out.writeUTF(rival.getPlayer1());
+        out.writeUTF(rival.getPlayer2());
+        out.writeInt(rival.getPlayer1Victories());
+        out.writeInt(rival.getPlayer2Victories());
+        
+        List<String> lastDuels = rival.getLastDuels();
+        out.writeByte(lastDuels.size());
+        for (String winner : lastDuels) {
+            out.writeUTF(winner);
+        }
+    }
+    
+    /**
+     * Lê os dados de um confronto gravados por writeRival
+     * 
+     * @param in Entrada
+     * @return Dados do confronto
+     * @throws IOException Se houver erro de leitura
+     */
+    private static RivalData readRival(DataInputStream in) throws IOException {
+        String player1 = in.readUTF();
+        String player2 = in.readUTF();
+        int player1Victories = in.readInt();
+        int player2Victories = in.readInt();
+        
+        int duels = in.readUnsignedByte();
+        List<String> lastDuels = new ArrayList<String>(duels);
+        for (int i = 0; i < duels; i++) {
+            lastDuels.add(in.readUTF());
+        }
+        return new RivalData(player1, player2, player1Victories, player2Victories, lastDuels);
+    }
+} 
\ No newline at end of file
@@ -1,11 +1,20 @@
 package br.com.primeleague.x1.rival;
 
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 import org.bukkit.Bukkit;
@@ -14,20 +23,37 @@ import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import br.com.primeleague.x1.Main;
+import br.com.primeleague.x1.storage.BinarySnapshot;
+import br.com.primeleague.x1.storage.SQLiteStorage;
 import br.com.primeleague.x1.utils.ColorUtils;
 import br.com.primeleague.x1.utils.EffectsUtils;
 
 /**
  * Gerenciador de rivalidades entre jogadores
+ * 
+ * Com o armazenamento SQLite, as rivalidades ficam na tabela rivalidades do banco; caso contrário,
+ * em rivalidades.yml, com snapshot binário e registro de alterações.
  */
 public class RivalManager {
     
+    // Identificador do snapshot binário de rivalidades ("X1RV")
+    private static final int SNAPSHOT_MAGIC = 0x58315256;
+    
     private final Main plugin;
-    private final Map<String, RivalData> rivalries;
+    private RivalIndex rivalries;
+    private final BinarySnapshot snapshot;
+    private final RivalLog log;
+    private final long logLimit;
+    private final ExecutorService writer;
+    private BukkitTask flushTask;
     private File rivalFile;
-    private FileConfiguration rivalConfig;
+    private final SQLiteStorage database; // null quando as rivalidades ficam em arquivo
+    
+    // Alterações só são gravadas depois que o arquivo foi lido por completo
+    private boolean loaded;
     
     /**
      * Construtor da classe
@@ -36,132 +62,446 @@ public class RivalManager {
      */
     public RivalManager(Main plugin) {
         this.plugin = plugin;
-        this.rivalries = new HashMap<String, RivalData>();
-        loadData();
+        this.rivalries = new RivalIndex(getMinDuelsForRivalry());
+        this.rivalFile = new File(plugin.getDataFolder(), "rivalidades.yml");
+        this.database = plugin.getStatsRepository() instanceof SQLiteStorage ? (SQLiteStorage) plugin.getStatsRepository() : null;
+        this.snapshot = new BinarySnapshot(new File(plugin.getDataFolder(), "rivalidades.snapshot"), SNAPSHOT_MAGIC, 1);
+        this.log = new RivalLog(new File(plugin.getDataFolder(), "rivalidades.log"));
+        this.logLimit = Math.max(1, plugin.getConfigManager().getRivalLogCompactionSize()) * 1024L;
+        this.writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "PrimeLeagueX1-Rivalidades");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        
+        // Carregar as rivalidades em segundo plano
+        final int minDuels = getMinDuelsForRivalry();
+        plugin.getStartupManager().load("rivalidades", new Callable<RivalIndex>() {
+            @Override
+            public RivalIndex call() {
+                return loadData(minDuels);
+            }
+        }, new Consumer<RivalIndex>() {
+            @Override
+            public void accept(RivalIndex loadedRivalries) {
+                applyLoadedData(loadedRivalries);
+            }
+        });
+        startFlushTask();
     }
     
     /**
-     * Carrega os dados de rivalidades do arquivo
+     * Carrega os dados de rivalidades (executado no pool de carregamento)
+     * Na primeira inicialização com o banco de dados, as rivalidades dos arquivos são importadas para ele.
+     * 
+     * @param minDuels Número mínimo de duelos para considerar uma rivalidade
+     * @return Rivalidades carregadas, ou null se o banco não puder ser lido
      */
-    private void loadData() {
+    private RivalIndex loadData(int minDuels) {
+        if (database == null) {
+            return loadFiles(minDuels);
+        }
+        
         try {
-            // Criar pasta do plugin se não existir
-            if (!plugin.getDataFolder().exists()) {
-                plugin.getDataFolder().mkdirs();
+            RivalIndex stored = database.readRivalries(minDuels);
+            if (stored.size() > 0 || !hasFileData()) {
+                plugin.getLogger().info("Rivalidades carregadas do banco de dados. Total: " + stored.size());
+                return stored;
+            }
+        } catch (SQLException e) {
+            // Sem os dados do banco, gravar alterações sobrescreveria confrontos existentes
+            plugin.getLogger().severe("Erro ao carregar rivalidades do banco de dados, alterações não serão salvas: " + e.getMessage());
+            return null;
+        }
+        
+        RivalIndex imported = loadFiles(minDuels);
+        database.saveRivalries(imported.values());
+        plugin.getLogger().info("Rivalidades importadas dos arquivos para o banco de dados. Total: " + imported.size());
+        return imported;
+    }
+    
+    /**
+     * Verifica se existem rivalidades salvas em arquivo
+     * 
+     * @return true se o YAML, o snapshot ou o registro de alterações têm dados
+     */
+    private boolean hasFileData() {
+        return rivalFile.length() > 0 || snapshot.exists() || log.size() > 0;
+    }
+    
+    /**
+     * Carrega os dados de rivalidades dos arquivos
+     * 
+     * @param minDuels Número mínimo de duelos para considerar uma rivalidade
+     * @return Rivalidades carregadas
+     */
+    private RivalIndex loadFiles(int minDuels) {
+        RivalIndex rivalries = new RivalIndex(minDuels);
+        try {
+            // O snapshot binário é usado enquanto o YAML não for editado depois dele
+            boolean fromSnapshot = false;
+            if (snapshot.isNewerThan(rivalFile)) {
+                try {
+                    rivalries = readSnapshot(minDuels);
+                    fromSnapshot = true;
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Snapshot de rivalidades inválido, lendo rivalidades.yml: " + e.getMessage());
+                }
             }
             
-            // Criar arquivo de rivalidades
-            rivalFile = new File(plugin.getDataFolder(), "rivalidades.yml");
-            if (!rivalFile.exists()) {
-                rivalFile.createNewFile();
+            if (!fromSnapshot) {
+                rivalries = readYaml(minDuels);
+                writeSnapshot(rivalries);
             }
             
-            // Carregar configuração
-            rivalConfig = YamlConfiguration.loadConfiguration(rivalFile);
+            // Alterações ainda não compactadas
+            int replayed = log.replay(rivalries);
+            if (replayed > 0) {
+                plugin.getLogger().info("Registro de rivalidades reaplicado: " + replayed + " alterações recuperadas.");
+            }
             
-            // Carregar rivalidades
-            ConfigurationSection rivalsSection = rivalConfig.getConfigurationSection("rivalidades");
-            if (rivalsSection != null) {
-                for (String key : rivalsSection.getKeys(false)) {
-                    try {
-                        ConfigurationSection rivalSection = rivalsSection.getConfigurationSection(key);
-                        if (rivalSection != null) {
-                            String[] players = key.split("_");
-                            if (players.length == 2) {
-                                RivalData rival = new RivalData(players[0], players[1]);
+            plugin.getLogger().info("Rivalidades carregadas" + (fromSnapshot ? " do snapshot" : " com sucesso") + ". Total: " + rivalries.size());
+        } catch (Exception e) {
+            plugin.getLogger().severe("Erro ao carregar arquivo de rivalidades: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return rivalries;
+    }
                                 
-                                // Carregar vitórias
-                                rival.addVictory(rivalSection.getString("vitorias_" + players[0], "0"));
-                                rival.addVictory(rivalSection.getString("vitorias_" + players[1], "0"));
+    /**
+     * Lê as rivalidades do arquivo YAML
+     * 
+     * @param minDuels Número mínimo de duelos para considerar uma rivalidade
+     * @return Rivalidades salvas
+     * @throws IOException Se o arquivo não puder ser criado
+     */
+    private RivalIndex readYaml(int minDuels) throws IOException {
+        RivalIndex rivalries = new RivalIndex(minDuels);
                                 
-                                // Carregar últimos duelos
-                                List<String> ultimosDuelos = rivalSection.getStringList("ultimos_duelos");
-                                for (String duelo : ultimosDuelos) {
-                                    if (duelo.startsWith("vencedor: ")) {
-                                        rival.addVictory(duelo.substring(10));
-                                    }
+        // Criar pasta do plugin se não existir
+        if (!plugin.getDataFolder().exists()) {
+            plugin.getDataFolder().mkdirs();
+        }
+        
+        // Criar arquivo de rivalidades
+        if (!rivalFile.exists()) {
+            rivalFile.createNewFile();
+        }
+        
+        // Carregar configuração
+        FileConfiguration rivalConfig = YamlConfiguration.loadConfiguration(rivalFile);
+        
+        // Carregar rivalidades
+        ConfigurationSection rivalsSection = rivalConfig.getConfigurationSection("rivalidades");
+        if (rivalsSection != null) {
+            for (String key : rivalsSection.getKeys(false)) {
+                try {
+                    ConfigurationSection rivalSection = rivalsSection.getConfigurationSection(key);
+                    if (rivalSection != null) {
+                        String[] players = key.split("_");
+                        if (players.length == 2) {
+                            // Carregar vitórias
+                            int vitorias1 = rivalSection.getInt("vitorias_" + players[0], 0);
+                            int vitorias2 = rivalSection.getInt("vitorias_" + players[1], 0);
+                            
+                            // Carregar últimos duelos (já contados nas vitórias)
+                            List<String> vencedores = new ArrayList<String>();
+                            for (String duelo : rivalSection.getStringList("ultimos_duelos")) {
+                                if (duelo.startsWith("vencedor: ")) {
+                                    vencedores.add(duelo.substring(10));
                                 }
-                                
-                                rivalries.put(key, rival);
                             }
+                            
+                            rivalries.put(new RivalData(players[0], players[1], vitorias1, vitorias2, vencedores));
                         }
-                    } catch (Exception e) {
-                        plugin.getLogger().warning("Erro ao carregar rivalidade " + key + ": " + e.getMessage());
                     }
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Erro ao carregar rivalidade " + key + ": " + e.getMessage());
                 }
             }
-            
-            plugin.getLogger().info("Rivalidades carregadas com sucesso. Total: " + rivalries.size());
-            
-        } catch (Exception e) {
-            plugin.getLogger().severe("Erro ao carregar arquivo de rivalidades: " + e.getMessage());
-            e.printStackTrace();
         }
+        return rivalries;
+    }
+    
+    /**
+     * Lê as rivalidades do snapshot binário
+     * 
+     * @param minDuels Número mínimo de duelos para considerar uma rivalidade
+     * @return Rivalidades salvas
+     * @throws IOException Se o snapshot não puder ser lido
+     */
+    private RivalIndex readSnapshot(int minDuels) throws IOException {
+        final RivalIndex rivalries = new RivalIndex(minDuels);
+        snapshot.read(new BinarySnapshot.RecordReader() {
+            @Override
+            public void read(ByteBuffer buffer) throws IOException {
+                try {
+                    while (buffer.hasRemaining()) {
+                        BinarySnapshot.readString(buffer); // Chave "jogador1_jogador2", igual à do YAML
+                        String player1 = BinarySnapshot.readString(buffer);
+                        String player2 = BinarySnapshot.readString(buffer);
+                        int player1Victories = buffer.getInt();
+                        int player2Victories = buffer.getInt();
+                
+                        int duels = buffer.get() & 0xFF;
+                        List<String> lastDuels = new ArrayList<String>(duels);
+                        for (int i = 0; i < duels; i++) {
+                            lastDuels.add(BinarySnapshot.readString(buffer));
+                        }
+                        
+                        rivalries.put(new RivalData(player1, player2, player1Victories, player2Victories, lastDuels));
+                    }
+                } catch (BufferUnderflowException e) {
+                    throw new IOException("registro incompleto");
+                }
+            }
+        });
+        return rivalries;
+    }
+    
+    /**
+     * Grava o snapshot binário das rivalidades
+     * Se não puder ser gravado, o snapshot é apagado e a próxima inicialização lê o YAML.
+     * 
+     * @param rivalries Rivalidades a gravar
+     */
+    private void writeSnapshot(final RivalIndex rivalries) {
+        try {
+            snapshot.write(new BinarySnapshot.RecordWriter() {
+                @Override
+                public void write(DataOutputStream out) throws IOException {
+                    for (RivalData rival : rivalries.values()) {
+                        out.writeUTF(rival.getKey());
+                        RivalLog.writeRival(out, rival);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            plugin.getLogger().warning("Não foi possível gravar o snapshot de rivalidades: " + e.getMessage());
+            snapshot.delete();
+        }
+    }
+    
+    /**
+     * Aplica as rivalidades carregadas (executado na thread principal)
+     * Os duelos feitos durante o carregamento são somados aos confrontos carregados e gravados no registro.
+     * 
+     * @param loadedRivalries Rivalidades carregadas do arquivo
+     */
+    private void applyLoadedData(RivalIndex loadedRivalries) {
+        // O índice usado durante o carregamento só tem os duelos feitos nesse período
+        List<RivalData> changedDuringLoad = new ArrayList<RivalData>();
+        for (RivalData delta : rivalries.values()) {
+            RivalData merged = merge(loadedRivalries.get(delta.getPlayer1(), delta.getPlayer2()), delta);
+            loadedRivalries.put(merged);
+            changedDuringLoad.add(merged);
+        }
+        rivalries = loadedRivalries;
+        loaded = true;
+        
+        if (!changedDuringLoad.isEmpty()) {
+            submitChanges(changedDuringLoad);
+        }
+    }
+    
+    /**
+     * Soma a um confronto carregado os duelos feitos durante o carregamento
+     * 
+     * @param stored Confronto carregado, ou null se os jogadores ainda não tinham se enfrentado
+     * @param delta Confronto com apenas os duelos feitos durante o carregamento
+     * @return Confronto com os dois períodos
+     */
+    private RivalData merge(RivalData stored, RivalData delta) {
+        if (stored == null) {
+            return delta;
+        }
+        
+        String player1 = stored.getPlayer1();
+        String player2 = stored.getPlayer2();
+        List<String> lastDuels = new ArrayList<String>(stored.getLastDuels());
+        lastDuels.addAll(delta.getLastDuels());
+        if (lastDuels.size() > 10) {
+            lastDuels = lastDuels.subList(lastDuels.size() - 10, lastDuels.size());
+        }
+        return new RivalData(player1, player2,
+            stored.getPlayer1Victories() + delta.getVictories(player1),
+            stored.getPlayer2Victories() + delta.getVictories(player2),
+            lastDuels);
+    }
+    
+    /**
+     * Inicia a tarefa periódica que envia os confrontos alterados para a gravação em segundo plano
+     */
+    private void startFlushTask() {
+        long interval = Math.max(1, plugin.getConfigManager().getStorageFlushInterval()) * 20L;
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+            @Override
+            public void run() {
+                saveData();
+            }
+        }, interval, interval);
     }
     
     /**
-     * Salva os dados de rivalidades no arquivo
+     * Salva os dados de rivalidades
+     * Apenas os confrontos alterados desde o último salvamento são acrescentados ao registro,
+     * na thread de gravação de rivalidades.
      */
     public void saveData() {
+        if (!loaded) {
+            // As alterações continuam marcadas no índice e são mantidas ao aplicar o carregamento
+            return;
+        }
+        
+        List<RivalData> dirty = rivalries.drainDirty();
+        if (!dirty.isEmpty()) {
+            submitChanges(dirty);
+        }
+    }
+    
+    /**
+     * Salva todos os dados de rivalidades
+     * Chamado no desligamento: grava as alterações pendentes, compacta o registro e aguarda o término da gravação.
+     * Com o banco de dados, deve ser chamado antes de encerrar o armazenamento de estatísticas.
+     */
+    public void saveAll() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        
+        saveData();
+        if (loaded && database == null) {
+            try {
+                final int minDuels = getMinDuelsForRivalry();
+                writer.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        compact(minDuels);
+                        log.close();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                plugin.getLogger().warning("Thread de gravação de rivalidades já encerrada, registro não foi compactado.");
+            }
+        }
+        writer.shutdown();
+        
         try {
-            // Limpar configuração anterior
-            rivalConfig = new YamlConfiguration();
-            
-            // Criar seção de rivalidades
-            ConfigurationSection rivalsSection = rivalConfig.createSection("rivalidades");
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Tempo esgotado aguardando o salvamento das rivalidades!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            plugin.getLogger().severe("Salvamento das rivalidades interrompido!");
+        }
+    }
             
-            // Flag para verificar se houve mudanças
-            boolean hasChanges = false;
+    /**
+     * Envia confrontos alterados para a thread de gravação, ou para a thread do banco de dados
+     * 
+     * @param changes Cópias dos confrontos alterados
+     */
+    private void submitChanges(final List<RivalData> changes) {
+        if (database != null) {
+            database.saveRivalries(changes);
+            return;
+        }
+        
+        final int minDuels = getMinDuelsForRivalry();
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        log.append(changes);
+                    } catch (IOException e) {
+                        plugin.getLogger().log(Level.SEVERE, "Erro ao gravar o registro de rivalidades", e);
+                        return;
+                    }
             
-            // Salvar cada rivalidade
-            for (Map.Entry<String, RivalData> entry : rivalries.entrySet()) {
-                String key = entry.getKey();
-                RivalData rival = entry.getValue();
-                
-                ConfigurationSection rivalSection = rivalsSection.createSection(key);
-                
-                // Salvar vitórias
-                String vitorias1 = rivalSection.getString("vitorias_" + rival.getPlayer1(), "0");
-                String vitorias2 = rivalSection.getString("vitorias_" + rival.getPlayer2(), "0");
-                
-                if (!vitorias1.equals(String.valueOf(rival.getPlayer1Victories()))) {
-                    rivalSection.set("vitorias_" + rival.getPlayer1(), rival.getPlayer1Victories());
-                    hasChanges = true;
-                }
-                
-                if (!vitorias2.equals(String.valueOf(rival.getPlayer2Victories()))) {
-                    rivalSection.set("vitorias_" + rival.getPlayer2(), rival.getPlayer2Victories());
-                    hasChanges = true;
-                }
-                
-                // Salvar últimos duelos
-                List<String> ultimosDuelos = rivalSection.getStringList("ultimos_duelos");
-                List<String> novosDuelos = new ArrayList<>();
-                for (String vencedor : rival.getLastDuels()) {
-                    novosDuelos.add("vencedor: " + vencedor);
+                    if (log.size() >= logLimit) {
+                        compact(minDuels);
+                    }
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Thread de gravação de rivalidades já encerrada, " + changes.size() + " confrontos não foram salvos.");
+        }
+    }
                 
-                if (!ultimosDuelos.equals(novosDuelos)) {
-                    rivalSection.set("ultimos_duelos", novosDuelos);
-                    hasChanges = true;
+    /**
+     * Incorpora o registro ao arquivo de rivalidades e ao snapshot e esvazia o registro
+     * Executado na thread de gravação: o estado completo é lido do disco, sem acessar o índice da thread principal.
+     * 
+     * @param minDuels Número mínimo de duelos para considerar uma rivalidade
+     */
+    private void compact(int minDuels) {
+        if (log.size() == 0 && snapshot.isNewerThan(rivalFile)) {
+            return;
+        }
+        
+        try {
+            RivalIndex merged = null;
+            if (snapshot.isNewerThan(rivalFile)) {
+                try {
+                    merged = readSnapshot(minDuels);
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Snapshot de rivalidades inválido, compactando a partir de rivalidades.yml: " + e.getMessage());
                 }
             }
-            
-            // Salvar apenas se houver mudanças
-            if (hasChanges) {
-                rivalConfig.save(rivalFile);
-                plugin.getLogger().info("Dados de rivalidades salvos com sucesso. Total: " + rivalries.size());
+            if (merged == null) {
+                merged = readYaml(minDuels);
             }
+            log.replay(merged);
             
+            // O YAML é gravado antes do snapshot, para que o snapshot seja o arquivo mais novo
+            writeYaml(merged);
+            writeSnapshot(merged);
+            log.truncate();
+            plugin.getLogger().info("Dados de rivalidades salvos com sucesso. Total: " + merged.size());
         } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Erro ao salvar arquivo de rivalidades", e);
+            plugin.getLogger().log(Level.SEVERE, "Erro ao compactar o registro de rivalidades", e);
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Erro desconhecido ao salvar rivalidades", e);
         }
     }
     
+    /**
+     * Exporta as rivalidades para o arquivo YAML
+     * 
+     * @param rivalries Rivalidades a gravar
+     * @throws IOException Se houver erro de gravação
+     */
+    private void writeYaml(RivalIndex rivalries) throws IOException {
+        FileConfiguration rivalConfig = new YamlConfiguration();
+        ConfigurationSection rivalsSection = rivalConfig.createSection("rivalidades");
+        
+        // Salvar cada rivalidade
+        for (RivalData rival : rivalries.values()) {
+            ConfigurationSection rivalSection = rivalsSection.createSection(rival.getKey());
+            
+            // Salvar vitórias
+            rivalSection.set("vitorias_" + rival.getPlayer1(), rival.getPlayer1Victories());
+            rivalSection.set("vitorias_" + rival.getPlayer2(), rival.getPlayer2Victories());
+            
+            // Salvar últimos duelos
+            List<String> ultimosDuelos = new ArrayList<>();
+            for (String vencedor : rival.getLastDuels()) {
+                ultimosDuelos.add("vencedor: " + vencedor);
+            }
+            rivalSection.set("ultimos_duelos", ultimosDuelos);
+        }
+        
+        rivalConfig.save(rivalFile);
+    }
+    
     /**
      * Atualiza a relação entre dois jogadores após um duelo
+     * O confronto fica marcado e é gravado no registro pela próxima tarefa de salvamento.
      *
      * @param player1 Nome do primeiro jogador
      * @param player2 Nome do segundo jogador
@@ -169,35 +509,8 @@ public class RivalManager {
      * @return true se a atualização ativou uma rivalidade
      */
     public boolean updateRivalry(String player1, String player2, String winner) {
-        // Garantir que a ordem dos jogadores seja consistente
-        String key;
-        if (player1.compareTo(player2) <= 0) {
-            key = player1 + "_" + player2;
-        } else {
-            key = player2 + "_" + player1;
-        }
-        
-        // Obter ou criar rivalidade
-        RivalData rival = rivalries.get(key);
-        if (rival == null) {
-            rival = new RivalData(player1, player2);
-            rivalries.put(key, rival);
-        }
-        
-        // Verificar se havia rivalidade antes da atualização
-        boolean hadRivalry = isRivalry(player1, player2);
-        
-        // Atualizar vitórias
-        rival.addVictory(winner);
-        
-        // Salvar dados
-        saveData();
-        
-        // Verificar se agora existe uma rivalidade
-        boolean hasRivalry = isRivalry(player1, player2);
-        
-        // Retornar true se a rivalidade foi ativada agora
-        return !hadRivalry && hasRivalry;
+        // Atualizar vitórias (true se a rivalidade foi ativada agora)
+        return getIndex().addVictory(player1, player2, winner);
     }
     
     /**
@@ -208,21 +521,7 @@ public class RivalManager {
      * @return true se existe uma rivalidade
      */
     public boolean isRivalry(String player1, String player2) {
-        // Garantir que a ordem dos jogadores seja consistente
-        String key;
-        if (player1.compareTo(player2) <= 0) {
-            key = player1 + "_" + player2;
-        } else {
-            key = player2 + "_" + player1;
-        }
-        
-        // Verificar se existe rivalidade
-        RivalData rival = rivalries.get(key);
-        if (rival != null) {
-            return rival.isRivalry(getMinDuelsForRivalry());
-        }
-        
-        return false;
+        return getIndex().isRivalry(player1, player2);
     }
     
     /**
@@ -230,18 +529,10 @@ public class RivalManager {
      *
      * @param player1 Nome do primeiro jogador
      * @param player2 Nome do segundo jogador
-     * @return Dados da rivalidade ou null se não existir
+     * @return Cópia dos dados da rivalidade ou null se não existir
      */
     public RivalData getRivalData(String player1, String player2) {
-        // Garantir que a ordem dos jogadores seja consistente
-        String key;
-        if (player1.compareTo(player2) <= 0) {
-            key = player1 + "_" + player2;
-        } else {
-            key = player2 + "_" + player1;
-        }
-        
-        return rivalries.get(key);
+        return rivalries.get(player1, player2);
     }
     
     /**
@@ -251,15 +542,17 @@ public class RivalManager {
      * @return Lista de dados de rivalidade
      */
     public List<RivalData> getPlayerRivalries(String playerName) {
-        List<RivalData> result = new ArrayList<RivalData>();
-        
-        for (RivalData rival : rivalries.values()) {
-            if (rival.hasPlayer(playerName) && rival.isRivalry(getMinDuelsForRivalry())) {
-                result.add(rival);
-            }
-        }
+        return getIndex().getRivals(playerName);
+    }
         
-        return result;
+    /**
+     * Obtém o índice de confrontos, atualizado com o mínimo de duelos configurado
+     *
+     * @return Índice de confrontos
+     */
+    private RivalIndex getIndex() {
+        rivalries.setMinDuels(getMinDuelsForRivalry());
+        return rivalries;
     }
     
     /**
@@ -0,0 +1,284 @@
+package br.com.primeleague.x1.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.zip.CRC32;
+
+/**
+ * Arquivo de registros gravado apenas por acréscimo
+ * 
+ * Base do diário de duelos e do registro de rivalidades. Cada registro é gravado com o tamanho
+ * e o CRC32 do conteúdo; na leitura, o primeiro registro incompleto ou com CRC diferente marca o
+ * fim dos dados válidos, e o arquivo é cortado nesse ponto antes de receber novos registros. Assim
+ * uma queda durante a gravação nunca deixa lixo no meio do arquivo.
+ */
+public class AppendLog {
+    
+    private static final int MAGIC = 0x58314C47; // "X1LG"
+    private static final int HEADER_SIZE = 4;
+    private static final int FRAME_SIZE = 8; // Tamanho e CRC32 de cada registro
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    
+    /**
+     * Leitor do conteúdo de um registro
+     */
+    public interface RecordReader {
+        
+        /**
+         * Lê um registro
+         * 
+         * @param in Conteúdo do registro
+         * @throws IOException Se o conteúdo for inválido
+         */
+        void read(DataInputStream in) throws IOException;
+    }
+    
+    private final File file;
+    private final ByteArrayOutputStream buffer;
+    private final DataOutputStream record;
+    private final CRC32 crc;
+    private FileOutputStream fileStream;
+    private DataOutputStream out;
+    private long syncedLength = -1; // Tamanho após o último sync, ou -1 se ainda não aberto
+    
+    /**
+     * Construtor
+     * 
+     * @param file Arquivo do registro
+     */
+    public AppendLog(File file) {
+        this.file = file;
+        this.buffer = new ByteArrayOutputStream(256);
+        this.record = new DataOutputStream(buffer);
+        this.crc = new CRC32();
+    }
+    
+    /**
+     * Lê todos os registros válidos e corta o arquivo após o último deles
+     * Um arquivo sem o cabeçalho esperado é renomeado para .invalido e um novo é iniciado.
+     * 
+     * @param reader Recebe o conteúdo de cada registro
+     * @return Número de registros lidos
+     * @throws IOException Se houver erro de leitura
+     */
+    public int replay(RecordReader reader) throws IOException {
+        if (out != null) {
+            throw new IllegalStateException("Registro já aberto para gravação");
+        }
+        if (!file.exists() || file.length() == 0) {
+            return 0;
+        }
+        
+        int records = 0;
+        long valid = 0;
+        boolean invalidHeader = false;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            int magic;
+            try {
+                magic = in.readInt();
+            } catch (EOFException e) {
+                magic = MAGIC; // Cabeçalho incompleto, o arquivo é esvaziado abaixo
+            }
+            
+            if (magic != MAGIC) {
+                invalidHeader = true;
+            } else if (file.length() >= HEADER_SIZE) {
+                valid = HEADER_SIZE;
+                byte[] payload = new byte[256];
+                while (true) {
+                    int length;
+                    int checksum;
+                    try {
+                        length = in.readInt();
+                        checksum = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (length < 0 || length > MAX_RECORD_SIZE) {
+                        break;
+                    }
+                    
+                    if (payload.length < length) {
+                        payload = new byte[length];
+                    }
+                    try {
+                        in.readFully(payload, 0, length);
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                    
+                    try {
+                        reader.read(new DataInputStream(new ByteArrayInputStream(payload, 0, length)));
+                    } catch (IOException e) {
+                        break;
+                    }
+                    valid += FRAME_SIZE + length;
+                    records++;
+                }
+            }
+        } finally {
+            in.close();
+        }
+        
+        if (invalidHeader) {
+            File invalid = new File(file.getPath() + ".invalido");
+            invalid.delete();
+            System.out.println("[PrimeLeagueX1] " + file.getName() + " não reconhecido, renomeado para " + invalid.getName() + ".");
+            if (!file.renameTo(invalid)) {
+                throw new IOException("Não foi possível renomear " + file.getName());
+            }
+        } else if (valid < file.length()) {
+            System.out.println("[PrimeLeagueX1] Registro incompleto removido do final de " + file.getName() + ".");
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(valid);
+            } finally {
+                raf.close();
+            }
+        }
+        return records;
+    }
+    
+    /**
+     * Inicia um novo registro
+     * 
+     * @return Saída para o conteúdo do registro, válida até {@link #endRecord()}
+     */
+    public DataOutputStream beginRecord() {
+        buffer.reset();
+        return record;
+    }
+    
+    /**
+     * Grava o registro iniciado por {@link #beginRecord()}
+     * A gravação só é garantida em disco após {@link #sync()}.
+     * 
+     * @throws IOException Se houver erro de gravação
+     */
+    public void endRecord() throws IOException {
+        try {
+            if (out == null) {
+                syncedLength = file.exists() ? file.length() : 0;
+                fileStream = new FileOutputStream(file, true);
+                out = new DataOutputStream(new BufferedOutputStream(fileStream));
+                if (syncedLength == 0) {
+                    out.writeInt(MAGIC);
+                }
+            }
+            
+            record.flush();
+            crc.reset();
+            crc.update(buffer.toByteArray());
+            out.writeInt(buffer.size());
+            out.writeInt((int) crc.getValue());
+            buffer.writeTo(out);
+        } catch (IOException e) {
+            discardUnsynced();
+            throw e;
+        }
+    }
+    
+    /**
+     * Força a gravação em disco dos registros já gravados
+     * 
+     * @throws IOException Se houver erro de gravação
+     */
+    public void sync() throws IOException {
+        if (out == null) {
+            return;
+        }
+        
+        try {
+            out.flush();
+            fileStream.getFD().sync();
+            syncedLength = fileStream.getChannel().size();
+        } catch (IOException e) {
+            discardUnsynced();
+            throw e;
+        }
+    }
+    
+    /**
+     * Fecha o arquivo e remove o que foi gravado após o último sync
+     * Depois de uma falha de gravação, o próximo lote começa após o último registro completo.
+     */
+    private void discardUnsynced() {
+        long length = syncedLength;
+        close();
+        if (length < 0 || !file.exists() || file.length() <= length) {
+            return;
+        }
+        
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(length);
+            } finally {
+                raf.close();
+            }
+        } catch (IOException e) {
+            // O próximo replay corta o final inválido
+        }
+    }
+    
+    /**
+     * Obtém o tamanho atual do arquivo em bytes
+     * 
+     * @return Tamanho do arquivo
+     */
+    public long size() {
+        return file.length();
+    }
+    
+    /**
+     * Obtém a data da última gravação no arquivo
+     * 
+     * @return Data em milissegundos, ou 0 se o arquivo não existir
+     */
+    public long lastModified() {
+        return file.lastModified();
+    }
+    
+    /**
+     * Esvazia o arquivo após a compactação (o estado completo já foi gravado em outro lugar)
+     * 
+     * @throws IOException Se houver erro ao recriar o arquivo
+     */
+    public void truncate() throws IOException {
+        close();
+        new FileOutputStream(file, false).close();
+    }
+    
+    /**
+     * Fecha o arquivo
+     */
+    public void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // Ignorar erro ao fechar
+            }
+            out = null;
+            fileStream = null;
+            syncedLength = -1;
+        }
+    }
+} 
\ No newline at end of file
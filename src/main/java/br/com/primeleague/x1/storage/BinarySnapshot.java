@@ -0,0 +1,271 @@
+package br.com.primeleague.x1.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot binário versionado de dados do plugin
+ * 
+ * Guarda uma cópia compacta de dados mantidos em YAML para que a inicialização não precise
+ * interpretar milhares de arquivos. Na leitura o arquivo é mapeado em memória e os registros
+ * são lidos direto do buffer; o mapeamento é liberado ao fim da leitura, porque um arquivo
+ * mapeado não pode ser substituído no Windows. O YAML continua sendo o formato de importação e exportação:
+ * o snapshot só é usado quando é mais novo que os arquivos YAML de origem.
+ * 
+ * Formato: identificador (int), versão (int), registros, marcador de fim (int) e CRC32 (long)
+ * de tudo que vem antes do marcador. O arquivo é gravado em um temporário e movido no lugar
+ * do anterior apenas quando completo.
+ */
+public class BinarySnapshot {
+    
+    private static final int END_MARKER = 0x58314649; // "X1FI"
+    private static final int HEADER_SIZE = 8;
+    private static final int TRAILER_SIZE = 12;
+    
+    private final File file;
+    private final int magic;
+    private final int version;
+    
+    /**
+     * Construtor
+     * 
+     * @param file Arquivo do snapshot
+     * @param magic Identificador do tipo de snapshot
+     * @param version Versão do formato dos registros
+     */
+    public BinarySnapshot(File file, int magic, int version) {
+        this.file = file;
+        this.magic = magic;
+        this.version = version;
+    }
+    
+    /**
+     * Verifica se o snapshot existe e é mais novo que os arquivos de origem
+     * Arquivos de origem inexistentes são ignorados.
+     * 
+     * @param sources Arquivos ou pastas YAML de onde os dados vieram
+     * @return true se o snapshot pode ser usado no lugar dos arquivos de origem
+     */
+    public boolean isNewerThan(File... sources) {
+        return isNewerThan(0, sources);
+    }
+    
+    /**
+     * Verifica se o snapshot existe e se ele, junto com as atualizações gravadas depois dele,
+     * é mais novo que os arquivos de origem
+     * Para pastas é usada a data do arquivo mais novo dentro delas: editar um arquivo
+     * não altera a data da pasta.
+     * 
+     * @param updated Data da última atualização gravada fora do snapshot, ou 0 se não houver
+     * @param sources Arquivos ou pastas YAML de onde os dados vieram
+     * @return true se o snapshot pode ser usado no lugar dos arquivos de origem
+     */
+    public boolean isNewerThan(long updated, File... sources) {
+        if (!file.isFile()) {
+            return false;
+        }
+        
+        long modified = Math.max(file.lastModified(), updated);
+        for (File source : sources) {
+            if (source.exists() && source.lastModified() > modified) {
+                return false;
+            }
+            
+            File[] children = source.isDirectory() ? source.listFiles() : null;
+            if (children != null) {
+                for (File child : children) {
+                    if (child.lastModified() > modified) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Verifica se o snapshot existe
+     * 
+     * @return true se o arquivo existe
+     */
+    public boolean exists() {
+        return file.isFile();
+    }
+    
+    /**
+     * Mapeia o snapshot em memória, valida cabeçalho, versão e CRC e lê os registros
+     * O buffer só é válido durante a leitura: o mapeamento é liberado em seguida.
+     * 
+     * @param reader Lê os registros do buffer
+     * @throws IOException Se o arquivo não puder ser lido ou estiver inválido
+     */
+    public void read(RecordReader reader) throws IOException {
+        MappedByteBuffer mapped;
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_SIZE + TRAILER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("tamanho inválido (" + channel.size() + " bytes)");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            channel.close();
+        }
+        
+        try {
+            int end = mapped.limit() - TRAILER_SIZE;
+            if (mapped.getInt(0) != magic) {
+                throw new IOException("identificador inválido");
+            }
+            if (mapped.getInt(4) != version) {
+                throw new IOException("versão " + mapped.getInt(4) + " não suportada");
+            }
+            if (mapped.getInt(end) != END_MARKER) {
+                throw new IOException("arquivo incompleto");
+            }
+            
+            ByteBuffer content = mapped.duplicate();
+            content.limit(end);
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            if (crc.getValue() != mapped.getLong(end + 4)) {
+                throw new IOException("CRC inválido");
+            }
+            
+            ByteBuffer records = mapped.duplicate();
+            records.position(HEADER_SIZE);
+            records.limit(end);
+            reader.read(records);
+        } finally {
+            unmap(mapped);
+        }
+    }
+        
+    /**
+     * Libera o mapeamento de um buffer sem esperar pelo coletor de lixo
+     * 
+     * @param buffer Buffer mapeado, que não pode mais ser usado depois da chamada
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException e) {
+                // Java 8: cleaner do próprio buffer
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    Method clean = cleaner.getClass().getMethod("clean");
+                    clean.setAccessible(true);
+                    clean.invoke(cleaner);
+                }
+                return;
+            }
+            
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (Exception e) {
+            // JVM sem acesso ao cleaner: o mapeamento é liberado pelo coletor de lixo
+        }
+    }
+    
+    /**
+     * Grava um novo snapshot, substituindo o anterior apenas se a gravação for concluída
+     * 
+     * @param writer Grava os registros
+     * @throws IOException Se houver erro de gravação
+     */
+    public void write(RecordWriter writer) throws IOException {
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        FileOutputStream fileOut = new FileOutputStream(tempFile);
+        try {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileOut, 65536), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(magic);
+            out.writeInt(version);
+            writer.write(out);
+            
+            long checksum = checked.getChecksum().getValue();
+            out.writeInt(END_MARKER);
+            out.writeLong(checksum);
+            out.flush();
+            fileOut.getFD().sync();
+        } finally {
+            fileOut.close();
+        }
+        
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * Apaga o snapshot, fazendo a próxima inicialização ler os arquivos YAML
+     */
+    public void delete() {
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+    
+    /**
+     * Lê um texto gravado com DataOutputStream.writeUTF
+     * Nomes de jogadores não têm caracteres especiais, então o conteúdo é o mesmo do UTF-8 padrão.
+     * 
+     * @param buffer Buffer posicionado no texto
+     * @return Texto lido
+     */
+    public static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Leitura dos registros de um snapshot
+     */
+    public interface RecordReader {
+        
+        /**
+         * Lê os registros
+         * 
+         * @param records Buffer posicionado no primeiro registro, com limite no fim dos registros
+         * @throws IOException Se os registros forem inválidos
+         */
+        void read(ByteBuffer records) throws IOException;
+    }
+    
+    /**
+     * Gravação dos registros de um snapshot
+     */
+    public interface RecordWriter {
+        
+        /**
+         * Grava os registros
+         * 
+         * @param out Saída do snapshot
+         * @throws IOException Se houver erro de gravação
+         */
+        void write(DataOutputStream out) throws IOException;
+    }
+} 
\ No newline at end of file
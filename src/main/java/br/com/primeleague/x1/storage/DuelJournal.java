@@ -0,0 +1,128 @@
+package br.com.primeleague.x1.storage;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import br.com.primeleague.x1.models.DuelHistory;
+import br.com.primeleague.x1.models.PlayerStats;
+
+/**
+ * Diário (journal) de resultados de duelos, gravado apenas por acréscimo
+ * 
+ * Cada lote gravado contém o estado atual das estatísticas alteradas e os novos
+ * duelos do histórico. Na inicialização o diário é reaplicado sobre os arquivos
+ * de estatísticas e histórico, recuperando resultados que ainda não foram compactados.
+ * O enquadramento dos registros e o corte de um final incompleto ficam no {@link AppendLog}.
+ */
+public class DuelJournal {
+    
+    private static final byte RECORD_STATS = 'S';
+    private static final byte RECORD_HISTORY = 'H';
+    
+    private final AppendLog log;
+    
+    /**
+     * Construtor
+     * 
+     * @param file Arquivo do diário
+     */
+    public DuelJournal(File file) {
+        this.log = new AppendLog(file);
+    }
+    
+    /**
+     * Reaplica o diário sobre os dados carregados
+     * Os duelos são entregues com a sua sequência; os que já estão no histórico compactado
+     * devem ser descartados por quem conhece a primeira sequência ainda não compactada.
+     * 
+     * @param stats Mapa de estatísticas a atualizar
+     * @param history Mapa que receberá os duelos recuperados, por sequência
+     * @return Número de registros reaplicados
+     * @throws IOException Se houver erro de leitura
+     */
+    public int replay(final Map<String, PlayerStats> stats, final SortedMap<Integer, DuelHistory> history) throws IOException {
+        return log.replay(new AppendLog.RecordReader() {
+            @Override
+            public void read(DataInputStream in) throws IOException {
+                byte type = in.readByte();
+                if (type == RECORD_STATS) {
+                    PlayerStats record = new PlayerStats(in.readUTF());
+                    record.setVictories(in.readInt());
+                    record.setDefeats(in.readInt());
+                    record.setDraws(in.readInt());
+                    record.setStreak(in.readInt());
+                    record.setElo(in.readInt());
+                    stats.put(record.getPlayerName(), record);
+                } else if (type == RECORD_HISTORY) {
+                    int sequence = in.readInt();
+                    history.put(sequence, HistoryArchive.readDuel(in));
+                } else {
+                    throw new IOException("Tipo de registro desconhecido: " + type);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Acrescenta um lote de alterações ao diário e força a gravação em disco
+     * 
+     * @param stats Cópias das estatísticas alteradas
+     * @param history Novos duelos do histórico
+     * @param firstSequence Sequência do primeiro duelo do lote
+     * @throws IOException Se houver erro de gravação
+     */
+    public void append(List<PlayerStats> stats, List<DuelHistory> history, int firstSequence) throws IOException {
+        for (PlayerStats record : stats) {
+            DataOutputStream out = log.beginRecord();
+            out.writeByte(RECORD_STATS);
+            out.writeUTF(record.getPlayerName());
+            out.writeInt(record.getVictories());
+            out.writeInt(record.getDefeats());
+            out.writeInt(record.getDraws());
+            out.writeInt(record.getStreak());
+            out.writeInt(record.getElo());
+            log.endRecord();
+        }
+        
+        int sequence = firstSequence;
+        for (DuelHistory duel : history) {
+            DataOutputStream out = log.beginRecord();
+            out.writeByte(RECORD_HISTORY);
+            out.writeInt(sequence++);
+            HistoryArchive.writeDuel(out, duel);
+            log.endRecord();
+        }
+        
+        log.sync();
+    }
+    
+    /**
+     * Obtém o tamanho atual do diário em bytes
+     * 
+     * @return Tamanho do diário
+     */
+    public long size() {
+        return log.size();
+    }
+    
+    /**
+     * Esvazia o diário após a compactação
+     * 
+     * @throws IOException Se houver erro ao recriar o arquivo
+     */
+    public void truncate() throws IOException {
+        log.truncate();
+    }
+    
+    /**
+     * Fecha o arquivo do diário
+     */
+    public void close() {
+        log.close();
+    }
+} 
\ No newline at end of file
@@ -1,33 +1,87 @@
 package br.com.primeleague.x1.storage;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
 
 import br.com.primeleague.x1.Main;
+import br.com.primeleague.x1.enums.RankingType;
+import br.com.primeleague.x1.leaderboard.Leaderboards;
 import br.com.primeleague.x1.models.DuelHistory;
 import br.com.primeleague.x1.models.PlayerStats;
 
 /**
  * Gerenciador de armazenamento em arquivos
  */
-public class FileStorage {
+public class FileStorage implements StatsRepository {
 
+    // Quantidade de arquivos de jogadores lidos por subtarefa no carregamento
+    private static final int PLAYER_FILES_PER_TASK = 128;
+    
+    // Identificador do snapshot binário de estatísticas ("X1ES")
+    private static final int STATS_SNAPSHOT_MAGIC = 0x58314553;
+    
     private final Main plugin;
     private File statsFile;
     private FileConfiguration statsConfig;
-    private File historyFile;
-    private FileConfiguration historyConfig;
+    private final HistoryArchive historyArchive;
+    private final BinarySnapshot statsSnapshot;
+    private final AppendLog statsDelta; // Estatísticas gravadas depois do último snapshot completo
+    
+    private final StatsCache playerStats;
+    private Leaderboards rankings;
+    private final Consumer<PlayerStats> rankingListener;
+    private final Map<String, PlayerStats> pendingStats;
+    private final Set<String> loadingStats; // Leituras em segundo plano ainda não aplicadas
+    private PlayerHistoryIndex recentHistory;
+    private final Set<String> olderHistoryLoaded; // Jogadores já completados com os meses compactados
+    
+    // Alterações feitas enquanto os dados são carregados (null após o carregamento)
+    private Map<String, PlayerStats> warmupStats;
+    private List<DuelHistory> warmupHistory;
     
-    private Map<String, PlayerStats> playerStats;
-    private List<DuelHistory> duelHistory;
+    // Salvamento em segundo plano
+    private final List<DuelHistory> pendingHistory;
+    private final ExecutorService writer;
+    private final boolean useElo;
+    private int historyIndex;
+    private BukkitTask flushTask;
+    
+    // Diário de resultados (acessado apenas pela thread de salvamento após o carregamento)
+    private final DuelJournal journal;
+    private final long journalLimit;
+    private final Map<String, PlayerStats> journaledStats;
+    private final List<DuelHistory> journaledHistory;
+    private int journalSequence;
     
     /**
      * Construtor
@@ -36,9 +90,47 @@ public class FileStorage {
      */
     public FileStorage(Main plugin) {
         this.plugin = plugin;
-        this.playerStats = new HashMap<String, PlayerStats>();
-        this.duelHistory = new ArrayList<DuelHistory>();
+        this.playerStats = new StatsCache(plugin.getConfigManager().getOfflineStatsCacheSize(), new Consumer<PlayerStats>() {
+            @Override
+            public void accept(PlayerStats stats) {
+                writeBack(stats);
+            }
+        });
+        this.rankings = new Leaderboards(plugin.getConfigManager().getWinRateMinDuels(), plugin.getConfigManager().getTopPlayersAmount());
+        this.rankingListener = new Consumer<PlayerStats>() {
+            @Override
+            public void accept(PlayerStats stats) {
+                rankings.update(stats);
+                if (warmupStats != null) {
+                    warmupStats.put(stats.getPlayerName(), stats);
+                }
+            }
+        };
+        this.pendingStats = new ConcurrentHashMap<String, PlayerStats>();
+        this.loadingStats = new HashSet<String>();
+        this.recentHistory = new PlayerHistoryIndex(plugin.getConfigManager().getPlayerHistorySize());
+        this.olderHistoryLoaded = new HashSet<String>();
+        this.warmupStats = new HashMap<String, PlayerStats>();
+        this.warmupHistory = new ArrayList<DuelHistory>();
+        this.pendingHistory = new ArrayList<DuelHistory>();
+        this.useElo = plugin.getConfigManager().useElo();
+        this.historyArchive = new HistoryArchive(new File(plugin.getDataFolder(), "historico"));
+        this.statsSnapshot = new BinarySnapshot(new File(plugin.getDataFolder(), "estatisticas.snapshot"), STATS_SNAPSHOT_MAGIC, 1);
+        this.statsDelta = new AppendLog(new File(plugin.getDataFolder(), "estatisticas.snapshot.delta"));
+        this.journal = new DuelJournal(new File(plugin.getDataFolder(), "duelos.journal"));
+        this.journalLimit = Math.max(1, plugin.getConfigManager().getJournalCompactionSize()) * 1024L;
+        this.journaledStats = new ConcurrentHashMap<String, PlayerStats>();
+        this.journaledHistory = new ArrayList<DuelHistory>();
+        this.writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "PrimeLeagueX1-Salvamento");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
         loadFiles();
+        startFlushTask();
     }
     
     /**
@@ -57,170 +149,493 @@ public class FileStorage {
         }
         statsConfig = YamlConfiguration.loadConfiguration(statsFile);
         
-        // Arquivo de histórico
-        historyFile = new File(plugin.getDataFolder(), "history.yml");
-        if (!historyFile.exists()) {
+        // O diário é pequeno e é lido antes de qualquer consulta às estatísticas
+        final SortedMap<Integer, DuelHistory> journalHistory = replayJournal();
+        
+        // Rankings e histórico recente são carregados em segundo plano
+        final ForkJoinTask<LoadedData> loading = plugin.getStartupManager().load("estatísticas", new Callable<LoadedData>() {
+            @Override
+            public LoadedData call() {
+                return loadData(journalHistory);
+            }
+        }, new Consumer<LoadedData>() {
+            @Override
+            public void accept(LoadedData data) {
+                applyLoadedData(data);
+            }
+        });
+        
+        // A thread de salvamento só grava depois do carregamento (sequência do histórico e diário)
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    loading.join();
+                } catch (Exception e) {
+                    plugin.getLogger().severe("Carregamento das estatísticas interrompido: " + e.getMessage());
+                }
+            }
+        });
+    }
+    
+    /**
+     * Converte o histórico antigo (history.yml, regravado por inteiro a cada salvamento)
+     * para o arquivo dividido por mês
+     * A conversão é feita em uma pasta temporária e só substitui o arquivo antigo quando completa.
+     */
+    private void migrateHistoryFile() {
+        File legacyFile = new File(plugin.getDataFolder(), "history.yml");
+        if (!legacyFile.exists()) {
+            return;
+        }
+        
+        if (historyArchive.isEmpty()) {
+            List<DuelHistory> legacyHistory = new ArrayList<DuelHistory>();
+            FileConfiguration legacyConfig = YamlConfiguration.loadConfiguration(legacyFile);
+            ConfigurationSection historySection = legacyConfig.getConfigurationSection("historico");
+            if (historySection != null) {
+                for (String key : historySection.getKeys(false)) {
+                    ConfigurationSection duelSection = historySection.getConfigurationSection(key);
+                    if (duelSection != null && duelSection.getString("jogador1") != null && duelSection.getString("jogador2") != null) {
+                        legacyHistory.add(new DuelHistory(
+                            duelSection.getString("jogador1"),
+                            duelSection.getString("jogador2"),
+                            duelSection.getString("vencedor"),
+                            "X1", // Modo padrão
+                            "Desconhecido", // Local padrão
+                            duelSection.getLong("data"),
+                            duelSection.getInt("duracao", 0),
+                            duelSection.getDouble("aposta", 0.0)
+                        ));
+                    }
+                }
+            }
+            
+            if (!legacyHistory.isEmpty()) {
+                File tempFolder = new File(plugin.getDataFolder(), "historico.migracao");
+                File[] leftovers = tempFolder.listFiles();
+                if (leftovers != null) {
+                    // Restos de uma conversão interrompida
+                    for (File leftover : leftovers) {
+                        leftover.delete();
+                    }
+                }
+                if (new HistoryArchive(tempFolder).append(legacyHistory) < legacyHistory.size()) {
+                    plugin.getLogger().severe("Erro ao converter history.yml, o arquivo antigo foi mantido.");
+                    return;
+                }
+                
+                File archiveFolder = new File(plugin.getDataFolder(), "historico");
+                archiveFolder.delete(); // Pasta vazia, se existir
+                if (!tempFolder.renameTo(archiveFolder)) {
+                    plugin.getLogger().severe("Não foi possível mover o histórico convertido para a pasta historico!");
+                    return;
+                }
+            }
+            System.out.println("[PrimeLeagueX1] " + legacyHistory.size() + " duelos de history.yml convertidos para o histórico mensal.");
+        }
+        
+        if (!legacyFile.renameTo(new File(plugin.getDataFolder(), "history.yml.migrado"))) {
+            plugin.getLogger().warning("Não foi possível renomear history.yml após a conversão.");
+        }
+    }
+    
+    /**
+     * Carrega os dados dos arquivos (executado no pool de carregamento)
+     * O histórico é lido em paralelo com os arquivos dos jogadores, que são divididos em subtarefas.
+     * 
+     * @param journalHistory Duelos recuperados do diário, por sequência
+     * @return Rankings e histórico recente carregados
+     */
+    private LoadedData loadData(SortedMap<Integer, DuelHistory> journalHistory) {
+        // Histórico antigo em um único arquivo
+        migrateHistoryFile();
+        
+        // Carregar o histórico recente de cada jogador dos meses não compactados (os meses compactados
+        // são lidos por jogador, sob demanda, e o histórico completo fica apenas em disco)
+        final PlayerHistoryIndex history = new PlayerHistoryIndex(plugin.getConfigManager().getPlayerHistorySize());
+        ForkJoinTask<Integer> historyScan = ForkJoinTask.adapt(new Callable<Integer>() {
+            @Override
+            public Integer call() throws IOException {
+                return historyArchive.scan(new Consumer<DuelHistory>() {
+                    @Override
+                    public void accept(DuelHistory duel) {
+                        history.add(duel);
+                    }
+                });
+            }
+        }).fork();
+        
+        // Estatísticas de todos os jogadores para os rankings (os registros completos são carregados sob demanda)
+        Map<String, PlayerStats> allStats = null;
+        if (statsSnapshot.isNewerThan(statsDelta.lastModified(), statsFile, new File(plugin.getDataFolder(), "players"))) {
             try {
-                historyFile.createNewFile();
+                allStats = readStatsSnapshot();
+                System.out.println("[PrimeLeagueX1] " + allStats.size() + " jogadores carregados do snapshot de estatísticas.");
             } catch (IOException e) {
-                plugin.getLogger().severe("Não foi possível criar o arquivo history.yml!");
-                e.printStackTrace();
+                plugin.getLogger().warning("Snapshot de estatísticas inválido, lendo os arquivos YAML: " + e.getMessage());
             }
         }
-        historyConfig = YamlConfiguration.loadConfiguration(historyFile);
+        if (allStats == null) {
+            allStats = readYamlStats();
+            try {
+                // As atualizações antigas não podem ser reaplicadas sobre o snapshot novo
+                statsDelta.truncate();
+                writeStatsSnapshot(allStats.values());
+            } catch (IOException e) {
+                plugin.getLogger().warning("Não foi possível gravar o snapshot de estatísticas: " + e.getMessage());
+                statsSnapshot.delete();
+            }
+        }
+        
+        try {
+            historyIndex = historyScan.join();
+        } catch (Exception e) {
+            plugin.getLogger().severe("Erro ao carregar o histórico de duelos: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        // Reaplicar resultados do diário que ainda não foram compactados
+        for (DuelHistory duel : journalHistory.tailMap(historyIndex).values()) {
+            history.add(duel);
+            journaledHistory.add(duel);
+        }
+        journalSequence = historyIndex + journaledHistory.size();
+        if (!journaledHistory.isEmpty()) {
+            System.out.println("[PrimeLeagueX1] " + journaledHistory.size() + " duelos recuperados do diário.");
+        }
+        for (PlayerStats stats : journaledStats.values()) {
+            allStats.put(stats.getPlayerName(), stats);
+        }
         
-        // Carrega os dados
-        loadData();
+        Leaderboards loaded = new Leaderboards(plugin.getConfigManager().getWinRateMinDuels(), plugin.getConfigManager().getTopPlayersAmount());
+        loaded.build(allStats.values());
+        return new LoadedData(loaded, history);
     }
     
     /**
-     * Carrega os dados dos arquivos
+     * Lê as estatísticas de todos os jogadores dos arquivos YAML
+     * Os arquivos individuais têm prioridade sobre as estatísticas antigas de stats.yml.
+     * 
+     * @return Estatísticas por jogador
      */
-    private void loadData() {
-        // Carregar estatísticas
+    private Map<String, PlayerStats> readYamlStats() {
+        Map<String, PlayerStats> allStats = new HashMap<String, PlayerStats>();
         ConfigurationSection statsSection = statsConfig.getConfigurationSection("estatisticas");
         if (statsSection != null) {
             for (String playerName : statsSection.getKeys(false)) {
                 ConfigurationSection playerSection = statsSection.getConfigurationSection(playerName);
                 if (playerSection != null) {
-                    PlayerStats stats = new PlayerStats(playerName);
-                    stats.setVictories(playerSection.getInt("vitórias", 0));
-                    stats.setDefeats(playerSection.getInt("derrotas", 0));
-                    stats.setDraws(playerSection.getInt("empates", 0));
-                    
-                    if (plugin.getConfigManager().useElo()) {
-                        stats.setElo(playerSection.getInt("elo", 1000));
-                    }
-                    
-                    playerStats.put(playerName, stats);
+                    allStats.put(playerName, parseStats(playerName, playerSection, ""));
                 }
             }
         }
         
-        // Carregar histórico
-        ConfigurationSection historySection = historyConfig.getConfigurationSection("historico");
-        if (historySection != null) {
-            for (String key : historySection.getKeys(false)) {
-                ConfigurationSection duelSection = historySection.getConfigurationSection(key);
-                if (duelSection != null) {
-                    DuelHistory duel = new DuelHistory(
-                        duelSection.getString("jogador1"),
-                        duelSection.getString("jogador2"),
-                        duelSection.getString("vencedor"),
-                        "X1", // Modo padrão
-                        "Desconhecido", // Local padrão
-                        duelSection.getLong("data"),
-                        duelSection.getInt("duracao", 0),
-                        duelSection.getDouble("aposta", 0.0)
-                    );
-                    duelHistory.add(duel);
-                }
+        File[] playerFiles = new File(plugin.getDataFolder(), "players").listFiles();
+        if (playerFiles != null) {
+            List<PlayerStats> individualStats = new PlayerFileParser(playerFiles, 0, playerFiles.length).invoke();
+            for (PlayerStats stats : individualStats) {
+                allStats.put(stats.getPlayerName(), stats);
+            }
+            
+            if (!individualStats.isEmpty()) {
+                System.out.println("[PrimeLeagueX1] " + individualStats.size() + " jogadores indexados para os rankings.");
             }
         }
+        return allStats;
+    }
         
-        // Carregar estatísticas individuais
-        File playersFolder = new File(plugin.getDataFolder(), "players");
-        if (playersFolder.exists() && playersFolder.isDirectory()) {
-            int individualStats = 0;
-            
-            for (File playerFile : playersFolder.listFiles()) {
-                if (playerFile.isFile() && playerFile.getName().endsWith(".yml")) {
-                    try {
-                        String playerName = playerFile.getName().replace(".yml", "");
-                        YamlConfiguration config = YamlConfiguration.loadConfiguration(playerFile);
-                        
-                        if (!playerStats.containsKey(playerName)) {
-                            PlayerStats stats = new PlayerStats(playerName);
-                            stats.setVictories(config.getInt("stats.vitórias", 0));
-                            stats.setDefeats(config.getInt("stats.derrotas", 0));
-                            stats.setDraws(config.getInt("stats.empates", 0));
-                            
-                            if (plugin.getConfigManager().useElo()) {
-                                stats.setElo(config.getInt("stats.elo", 1000));
-                            }
-                            
-                            playerStats.put(playerName, stats);
-                            individualStats++;
-                        }
-                    } catch (Exception e) {
-                        System.out.println("[PrimeLeagueX1] Erro ao carregar arquivo individual: " + playerFile.getName() + ": " + e.getMessage());
+    /**
+     * Lê as estatísticas de todos os jogadores do snapshot binário e das atualizações gravadas depois dele
+     * 
+     * @return Estatísticas por jogador
+     * @throws IOException Se o snapshot não puder ser lido
+     */
+    private Map<String, PlayerStats> readStatsSnapshot() throws IOException {
+        final Map<String, PlayerStats> allStats = new HashMap<String, PlayerStats>();
+        statsSnapshot.read(new BinarySnapshot.RecordReader() {
+            @Override
+            public void read(ByteBuffer buffer) throws IOException {
+                try {
+                    while (buffer.hasRemaining()) {
+                        PlayerStats stats = new PlayerStats(BinarySnapshot.readString(buffer));
+                        stats.setVictories(buffer.getInt());
+                        stats.setDefeats(buffer.getInt());
+                        stats.setDraws(buffer.getInt());
+                        stats.setStreak(buffer.getInt());
+                        stats.setElo(buffer.getInt());
+                        stats.clearDirty();
+                        allStats.put(stats.getPlayerName(), stats);
                     }
+                } catch (BufferUnderflowException e) {
+                    throw new IOException("registro incompleto");
                 }
             }
-            
-            if (individualStats > 0) {
-                System.out.println("[PrimeLeagueX1] " + individualStats + " estatísticas individuais adicionais carregadas.");
+        });
+        
+        statsDelta.replay(new AppendLog.RecordReader() {
+            @Override
+            public void read(DataInputStream in) throws IOException {
+                PlayerStats stats = new PlayerStats(in.readUTF());
+                stats.setVictories(in.readInt());
+                stats.setDefeats(in.readInt());
+                stats.setDraws(in.readInt());
+                stats.setStreak(in.readInt());
+                stats.setElo(in.readInt());
+                stats.clearDirty();
+                allStats.put(stats.getPlayerName(), stats);
             }
+        });
+        return allStats;
+    }
+        
+    /**
+     * Grava um registro de estatísticas no formato do snapshot
+     * 
+     * @param out Saída de dados
+     * @param stats Estatísticas do jogador
+     * @throws IOException Se houver erro de gravação
+     */
+    private static void writeStatsRecord(DataOutputStream out, PlayerStats stats) throws IOException {
+        out.writeUTF(stats.getPlayerName());
+        out.writeInt(stats.getVictories());
+        out.writeInt(stats.getDefeats());
+        out.writeInt(stats.getDraws());
+        out.writeInt(stats.getStreak());
+        out.writeInt(stats.getElo());
+    }
+    
+    /**
+     * Grava o snapshot binário com as estatísticas de todos os jogadores
+     * O snapshot sempre reflete o conteúdo dos arquivos YAML; se não puder ser gravado, é apagado.
+     * 
+     * @param allStats Estatísticas de todos os jogadores
+     */
+    private void writeStatsSnapshot(final Collection<PlayerStats> allStats) {
+        try {
+            statsSnapshot.write(new BinarySnapshot.RecordWriter() {
+                @Override
+                public void write(DataOutputStream out) throws IOException {
+                    for (PlayerStats stats : allStats) {
+                        writeStatsRecord(out, stats);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            plugin.getLogger().warning("Não foi possível gravar o snapshot de estatísticas: " + e.getMessage());
+            statsSnapshot.delete();
         }
     }
     
     /**
-     * Salva os dados nos arquivos
+     * Atualiza o snapshot binário com as estatísticas gravadas na compactação do diário
+     * As estatísticas alteradas são acrescentadas ao arquivo de atualizações do snapshot; o snapshot
+     * completo só é regravado quando as atualizações passam do tamanho de compactação do diário.
+     * 
+     * @param changedStats Estatísticas gravadas nos arquivos individuais
      */
-    public void saveData() {
+    private void updateStatsSnapshot(Collection<PlayerStats> changedStats) {
+        if (!statsSnapshot.exists()) {
+            // Recriado a partir dos arquivos YAML na próxima inicialização
+            return;
+        }
+        
         try {
-            System.out.println("[PrimeLeagueX1] Salvando dados de estatísticas e histórico...");
-            
-            // Salva as estatísticas dos jogadores
-            ConfigurationSection statsSection = statsConfig.createSection("players");
-            for (Map.Entry<String, PlayerStats> entry : playerStats.entrySet()) {
-                String playerName = entry.getKey();
-                PlayerStats stats = entry.getValue();
-                
-                // Verificar se as estatísticas estão corretas antes de salvar
-                System.out.println("[PrimeLeagueX1] Salvando estatísticas para " + playerName + ": V=" + 
-                    stats.getVictories() + ", D=" + stats.getDefeats() + ", E=" + stats.getDraws());
-                
-                ConfigurationSection playerSection = statsSection.createSection(playerName);
-                playerSection.set("victories", stats.getVictories());
-                playerSection.set("defeats", stats.getDefeats());
-                playerSection.set("draws", stats.getDraws());
-                playerSection.set("streak", stats.getStreak());
-                playerSection.set("elo", stats.getElo());
-                
-                // Também salvar no arquivo individual do jogador para garantir
-                savePlayerStats(playerName, stats);
+            for (PlayerStats stats : changedStats) {
+                writeStatsRecord(statsDelta.beginRecord(), stats);
+                statsDelta.endRecord();
             }
+            statsDelta.sync();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Não foi possível atualizar o snapshot de estatísticas, será recriado na próxima inicialização: " + e.getMessage());
+            statsSnapshot.delete();
+            return;
+        }
+        
+        if (statsDelta.size() < journalLimit) {
+            return;
+        }
+        
+        Map<String, PlayerStats> allStats;
+        try {
+            statsDelta.close();
+            allStats = readStatsSnapshot();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Snapshot de estatísticas inválido, será recriado na próxima inicialização: " + e.getMessage());
+            statsSnapshot.delete();
+            return;
+        }
+        
+        // Se parar entre as duas gravações, as atualizações reaplicadas já estão no snapshot
+        writeStatsSnapshot(allStats.values());
+        try {
+            statsDelta.truncate();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Não foi possível esvaziar as atualizações do snapshot de estatísticas: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Substitui os rankings e o histórico recente pelos dados carregados (executado na thread principal)
+     * Alterações feitas durante o carregamento são reaplicadas sobre os dados carregados.
+     * 
+     * @param data Dados carregados
+     */
+    private void applyLoadedData(LoadedData data) {
+        for (PlayerStats stats : warmupStats.values()) {
+            data.rankings.update(stats);
+        }
+        for (DuelHistory duel : warmupHistory) {
+            data.history.add(duel);
+        }
+        
+        rankings = data.rankings;
+        recentHistory = data.history;
+        warmupStats = null;
+        warmupHistory = null;
+    }
+    
+    /**
+     * Obtém uma cópia das alterações de um jogador ainda não gravadas nos arquivos
+     *  
+     * @param playerName Nome do jogador
+     * @return Cópia das estatísticas ou null se não houver alterações pendentes
+     */
+    private PlayerStats readUnsavedStats(String playerName) {
+        PlayerStats unsaved = pendingStats.get(playerName);
+        if (unsaved == null) {
+            unsaved = journaledStats.get(playerName);
+        }
+        return unsaved != null ? unsaved.copy() : null;
+    }
+    
+    /**
+     * Lê as estatísticas de um jogador do disco (pode ser chamado de qualquer thread)
+     * Alterações ainda não gravadas nos arquivos têm prioridade sobre o conteúdo dos arquivos.
+     *  
+     * @param playerName Nome do jogador
+     * @return Estatísticas do jogador ou null se o jogador não tiver estatísticas
+     */
+    private PlayerStats readPlayerStats(String playerName) {
+        PlayerStats unsaved = readUnsavedStats(playerName);
+        if (unsaved != null) {
+            return unsaved;
+        }
+        
+        File playerFile = getPlayerFile(playerName);
+        ConfigurationSection section = null;
+        String prefix = "stats.";
+        if (playerFile.exists()) {
+            section = YamlConfiguration.loadConfiguration(playerFile);
+        } else {
+            // Estatísticas antigas de stats.yml
+            section = statsConfig.getConfigurationSection("estatisticas." + playerName);
+            prefix = "";
+        }
+        
+        if (section == null) {
+            return null;
+        }
+        
+        return parseStats(playerName, section, prefix);
+    }
+    
+    /**
+     * Converte uma seção de configuração em estatísticas de jogador
+     *  
+     * @param playerName Nome do jogador
+     * @param section Seção com as estatísticas
+     * @param prefix Prefixo das chaves dentro da seção
+     * @return Estatísticas do jogador
+     */
+    private PlayerStats parseStats(String playerName, ConfigurationSection section, String prefix) {
+        PlayerStats stats = new PlayerStats(playerName);
+        stats.setVictories(section.getInt(prefix + "vitórias", 0));
+        stats.setDefeats(section.getInt(prefix + "derrotas", 0));
+        stats.setDraws(section.getInt(prefix + "empates", 0));
+        stats.setStreak(section.getInt(prefix + "sequencia", 0));
+        if (useElo) {
+            stats.setElo(section.getInt(prefix + "elo", 1000));
+        }
+        stats.clearDirty();
+        return stats;
+    }
+    
+    /**
+     * Verifica se um jogador está online
+     *  
+     * @param playerName Nome do jogador
+     * @return true se o jogador está online
+     */
+    private boolean isOnline(String playerName) {
+        return Bukkit.getPlayerExact(playerName) != null;
+    }
+    
+    /**
+     * Envia para gravação as alterações de um registro removido do cache
+     *  
+     * @param stats Estatísticas removidas do cache
+     */
+    private void writeBack(PlayerStats stats) {
+        if (!stats.isDirty()) {
+            return;
+        }
+        
+        List<PlayerStats> dirtyStats = new ArrayList<PlayerStats>();
+        dirtyStats.add(snapshot(stats));
+        try {
+            submitBatch(dirtyStats, new ArrayList<DuelHistory>());
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Thread de salvamento já encerrada, estatísticas de " + stats.getPlayerName() + " não foram gravadas.");
+        }
+    }
+    
+    /**
+     * Reaplica as estatísticas do diário de resultados
+     * Os duelos do diário são devolvidos para serem filtrados quando o histórico compactado for lido.
+     * 
+     * @return Duelos do diário, por sequência
+     */
+    private SortedMap<Integer, DuelHistory> replayJournal() {
+        SortedMap<Integer, DuelHistory> recoveredHistory = new TreeMap<Integer, DuelHistory>();
+        try {
+            Map<String, PlayerStats> recoveredStats = new HashMap<String, PlayerStats>();
+            int records = journal.replay(recoveredStats, recoveredHistory);
+            journaledStats.putAll(recoveredStats);
             
-            // Salva o histórico de duelos
-            ConfigurationSection historySection = historyConfig.createSection("duels");
-            for (int i = 0; i < duelHistory.size(); i++) {
-                DuelHistory history = duelHistory.get(i);
-                
-                ConfigurationSection duelSection = historySection.createSection(String.valueOf(i));
-                duelSection.set("player1", history.getPlayer1());
-                duelSection.set("player2", history.getPlayer2());
-                duelSection.set("winner", history.getWinner());
-                duelSection.set("mode", history.getMode());
-                duelSection.set("location", history.getLocation());
-                duelSection.set("date", history.getDate());
-                duelSection.set("duration", history.getDuration());
-                duelSection.set("bet", history.getBet());
+            if (records > 0) {
+                System.out.println("[PrimeLeagueX1] Diário de duelos reaplicado: " + recoveredStats.size() + " estatísticas recuperadas.");
             }
-            
-            // Salva os arquivos
-            try {
-                statsConfig.save(statsFile);
-                historyConfig.save(historyFile);
-                
-                // Verificar se os arquivos foram salvos
-                if (statsFile.exists() && statsFile.length() > 0) {
-                    System.out.println("[PrimeLeagueX1] Arquivo de estatísticas salvo com sucesso: " + statsFile.length() + " bytes");
-                } else {
-                    System.out.println("[PrimeLeagueX1] ERRO: Arquivo de estatísticas vazio ou inexistente após salvamento!");
-                }
-                
-                if (historyFile.exists() && historyFile.length() > 0) {
-                    System.out.println("[PrimeLeagueX1] Arquivo de histórico salvo com sucesso: " + historyFile.length() + " bytes");
-                } else {
-                    System.out.println("[PrimeLeagueX1] ERRO: Arquivo de histórico vazio ou inexistente após salvamento!");
-                }
-                
-                System.out.println("[PrimeLeagueX1] Todos os dados salvos com sucesso!");
-            } catch (IOException e) {
-                System.out.println("[PrimeLeagueX1] Erro ao salvar arquivos: " + e.getMessage());
-                e.printStackTrace();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao ler o diário de duelos: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return recoveredHistory;
+    }
+    
+    /**
+     * Inicia a tarefa periódica que envia as alterações pendentes para o salvamento em segundo plano
+     */
+    private void startFlushTask() {
+        long interval = Math.max(1, plugin.getConfigManager().getStorageFlushInterval()) * 20L;
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+            @Override
+            public void run() {
+                saveData();
             }
+        }, interval, interval);
+    }
+    
+    /**
+     * Salva os dados nos arquivos
+     * Apenas os jogadores alterados e os novos duelos do histórico são acrescentados ao diário.
+     * A gravação acontece na thread de salvamento, fora da thread principal.
+     */
+    public void saveData() {
+        try {
+            submitBatch(collectDirtyStats(), collectPendingHistory());
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Thread de salvamento já encerrada, alterações serão gravadas no desligamento.");
         } catch (Exception e) {
             plugin.getLogger().severe("Erro durante o processo de salvamento de dados: " + e.getMessage());
             e.printStackTrace();
@@ -229,13 +644,202 @@ public class FileStorage {
     
     /**
      * Salva todos os dados
+     * Chamado no desligamento: grava as alterações pendentes e aguarda o término da thread de salvamento.
      */
     public void saveAll() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        
         saveData();
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    compactJournal();
+                    journal.close();
+                    statsDelta.close();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Thread de salvamento já encerrada, diário não foi compactado.");
+        }
+        writer.shutdown();
+        
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Tempo esgotado aguardando o salvamento das estatísticas!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            plugin.getLogger().severe("Salvamento das estatísticas interrompido!");
+        }
+    }
+    
+    /**
+     * Envia um lote de alterações para a thread de salvamento
+     * 
+     * @param dirtyStats Cópias das estatísticas alteradas
+     * @param newHistory Novos duelos do histórico
+     */
+    private void submitBatch(final List<PlayerStats> dirtyStats, final List<DuelHistory> newHistory) {
+        if (dirtyStats.isEmpty() && newHistory.isEmpty()) {
+            return;
+        }
+        
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                writeBatch(dirtyStats, newHistory);
+            }
+        });
+    }
+    
+    /**
+     * Coleta cópias das estatísticas alteradas desde o último salvamento
+     * 
+     * @return Lista de cópias das estatísticas alteradas
+     */
+    private List<PlayerStats> collectDirtyStats() {
+        List<PlayerStats> dirtyStats = new ArrayList<PlayerStats>();
+        for (PlayerStats stats : playerStats.values()) {
+            if (stats.isDirty()) {
+                dirtyStats.add(snapshot(stats));
+            }
+        }
+        return dirtyStats;
+    }
+    
+    /**
+     * Cria a cópia de um registro alterado para gravação
+     * A cópia fica disponível para leituras até ser acrescentada ao diário.
+     *  
+     * @param stats Estatísticas alteradas
+     * @return Cópia das estatísticas
+     */
+    private PlayerStats snapshot(PlayerStats stats) {
+        PlayerStats copy = stats.copy();
+        stats.clearDirty();
+        pendingStats.put(copy.getPlayerName(), copy);
+        return copy;
+    }
+    
+    /**
+     * Coleta os duelos adicionados ao histórico desde o último salvamento
+     * 
+     * @return Lista de novos duelos
+     */
+    private List<DuelHistory> collectPendingHistory() {
+        if (pendingHistory.isEmpty()) {
+            return new ArrayList<DuelHistory>();
+        }
+        List<DuelHistory> newHistory = new ArrayList<DuelHistory>(pendingHistory);
+        pendingHistory.clear();
+        return newHistory;
+    }
+    
+    /**
+     * Acrescenta um lote de alterações ao diário (executado na thread de salvamento)
+     * O diário é compactado nos arquivos de estatísticas e histórico quando passa do limite configurado.
+     * 
+     * @param dirtyStats Estatísticas alteradas
+     * @param newHistory Novos duelos do histórico
+     */
+    private void writeBatch(List<PlayerStats> dirtyStats, List<DuelHistory> newHistory) {
+        for (PlayerStats stats : dirtyStats) {
+            journaledStats.put(stats.getPlayerName(), stats);
+            pendingStats.remove(stats.getPlayerName(), stats);
+        }
+        journaledHistory.addAll(newHistory);
+        
+        try {
+            journal.append(dirtyStats, newHistory, journalSequence);
+            journalSequence += newHistory.size();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao gravar no diário de duelos, salvando diretamente: " + e.getMessage());
+            compactJournal();
+            return;
+        }
+        
+        if (journal.size() >= journalLimit) {
+            compactJournal();
+        }
+    }
+    
+    /**
+     * Compacta o diário, gravando as alterações acumuladas nos arquivos de estatísticas e histórico
+     * O diário só é esvaziado se todos os arquivos forem gravados com sucesso.
+     */
+    private void compactJournal() {
+        if (journaledStats.isEmpty() && journaledHistory.isEmpty()) {
+            return;
+        }
+        
+        boolean success = true;
+        for (PlayerStats stats : journaledStats.values()) {
+            success &= writePlayerFile(stats);
+        }
+        
+        if (!journaledHistory.isEmpty()) {
+            // Duelos já gravados saem da lista mesmo se a gravação parar no meio
+            int written = historyArchive.append(journaledHistory);
+            historyIndex += written;
+            journaledHistory.subList(0, written).clear();
+            success &= journaledHistory.isEmpty();
+        }
+        
+        if (!success) {
+            return;
+        }
+        
+        // Antes de esvaziar o diário: se a gravação parar aqui, o diário é reaplicado sobre o snapshot
+        updateStatsSnapshot(journaledStats.values());
+        
+        try {
+            journal.truncate();
+            journaledStats.clear();
+            journaledHistory.clear();
+            journalSequence = historyIndex;
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao esvaziar o diário de duelos: " + e.getMessage());
+        }
+        
+        historyArchive.compressOldPartitions();
+    }
+    
+    /**
+     * Grava o arquivo individual de um jogador
+     * 
+     * @param stats Cópia das estatísticas do jogador
+     * @return true se o arquivo foi gravado
+     */
+    private boolean writePlayerFile(PlayerStats stats) {
+        try {
+            File playerFile = getPlayerFile(stats.getPlayerName());
+            YamlConfiguration config = new YamlConfiguration();
+            
+            config.set("stats.vitórias", stats.getVictories());
+            config.set("stats.derrotas", stats.getDefeats());
+            config.set("stats.empates", stats.getDraws());
+            config.set("stats.sequencia", stats.getStreak());
+            if (useElo) {
+                config.set("stats.elo", stats.getElo());
+            }
+            
+            config.save(playerFile);
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao salvar estatísticas do jogador " + stats.getPlayerName() + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
     }
     
     /**
      * Obtém as estatísticas de um jogador
+     * Jogadores online já estão em cache desde a entrada; o arquivo só é lido aqui se a leitura feita
+     * na entrada ainda não terminou, porque o registro devolvido pode ser alterado e precisa estar completo.
      * 
      * @param playerName Nome do jogador
      * @return Estatísticas do jogador
@@ -243,33 +847,216 @@ public class FileStorage {
     public PlayerStats getPlayerStats(String playerName) {
         PlayerStats stats = playerStats.get(playerName);
         if (stats == null) {
-            stats = new PlayerStats(playerName);
-            playerStats.put(playerName, stats);
+            stats = readPlayerStats(playerName);
+            if (stats == null) {
+                stats = new PlayerStats(playerName);
+            }
+            cache(stats, isOnline(playerName));
+        }
+        return stats;
+    }
+    
+    /**
+     * Procura as estatísticas de um jogador sem criar um registro novo
+     * Se o jogador não estiver em cache, o arquivo é lido em segundo plano e null é devolvido
+     * até a leitura terminar; a thread principal nunca lê arquivos de jogadores aqui.
+     *  
+     * @param playerName Nome do jogador
+     * @return Estatísticas do jogador ou null se o jogador não tiver estatísticas ou ainda não foi lido
+     */
+    public PlayerStats findPlayerStats(String playerName) {
+        PlayerStats stats = playerStats.get(playerName);
+        if (stats == null) {
+            stats = readUnsavedStats(playerName);
+            if (stats != null) {
+                cache(stats, isOnline(playerName));
+            } else {
+                loadAsync(playerName, false);
+            }
         }
         return stats;
     }
     
     /**
-     * Obtém o histórico de duelos de um jogador
+     * Carrega em segundo plano as estatísticas de um jogador que entrou no servidor
+     *  
+     * @param playerName Nome do jogador
+     */
+    public void loadPlayer(final String playerName) {
+        loadOlderHistory(playerName);
+        if (playerStats.pin(playerName)) {
+            return;
+        }
+        loadAsync(playerName, true);
+    }
+    
+    /**
+     * Lê as estatísticas de um jogador na thread de salvamento e as coloca em cache na thread principal
+     *  
+     * @param playerName Nome do jogador
+     * @param join true se o jogador acabou de entrar e o registro deve ficar fixo no cache
+     */
+    private void loadAsync(final String playerName, final boolean join) {
+        if (!loadingStats.add(playerName) && !join) {
+            return;
+        }
+        
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final PlayerStats loaded = readPlayerStats(playerName);
+                    Bukkit.getScheduler().runTask(plugin, new Runnable() {
+                        @Override
+                        public void run() {
+                            loadingStats.remove(playerName);
+                            if (join) {
+                                // Pode ter sido carregado enquanto isso por uma consulta direta
+                                if (playerStats.pin(playerName) || !isOnline(playerName)) {
+                                    return;
+                                }
+                                cache(loaded != null ? loaded : new PlayerStats(playerName), true);
+                            } else if (loaded != null && playerStats.get(playerName) == null) {
+                                cache(loaded, isOnline(playerName));
+                            }
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Plugin sendo desativado
+            loadingStats.remove(playerName);
+        }
+    }
+    
+    /**
+     * Adiciona as estatísticas de um jogador ao cache, ligadas aos rankings
+     * 
+     * @param stats Estatísticas do jogador
+     * @param online true se o jogador está online
+     */
+    private void cache(PlayerStats stats, boolean online) {
+        stats.setChangeListener(rankingListener);
+        playerStats.put(stats, online);
+    }
+    
+    /**
+     * Libera as estatísticas de um jogador que saiu do servidor
+     * O registro continua em memória até sair da lista de jogadores offline.
+     *  
+     * @param playerName Nome do jogador
+     */
+    public void unloadPlayer(String playerName) {
+        playerStats.unpin(playerName);
+    }
+    
+    /**
+     * Obtém o histórico de duelos de um jogador, do mais recente para o mais antigo
      * 
      * @param playerName Nome do jogador
-     * @param limit Limite de duelos (0 para todos)
+     * @param limit Limite de duelos (0 para todos os duelos em memória)
      * @return Lista de duelos do jogador
      */
     public List<DuelHistory> getPlayerHistory(String playerName, int limit) {
-        List<DuelHistory> playerHistory = new ArrayList<DuelHistory>();
+        loadOlderHistory(playerName);
+        return recentHistory.get(playerName, limit);
+    }
+    
+    /**
+     * Completa em segundo plano o histórico recente de um jogador com os duelos dos meses compactados
+     * Feito uma vez por jogador, na entrada ou na primeira consulta ao histórico dele.
+     *  
+     * @param playerName Nome do jogador
+     */
+    private void loadOlderHistory(final String playerName) {
+        if (!olderHistoryLoaded.add(playerName)) {
+            return;
+        }
         
-        for (DuelHistory history : duelHistory) {
-            if (history.getPlayer1().equals(playerName) || history.getPlayer2().equals(playerName)) {
-                playerHistory.add(history);
-                
-                if (limit > 0 && playerHistory.size() >= limit) {
-                    break;
+        final int missing = plugin.getConfigManager().getPlayerHistorySize() - recentHistory.size(playerName);
+        if (missing <= 0) {
+            return;
+        }
+        
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final List<DuelHistory> older;
+                    try {
+                        older = historyArchive.readClosedHistory(playerName, missing);
+                    } catch (IOException e) {
+                        plugin.getLogger().warning("Erro ao ler o histórico antigo de " + playerName + ": " + e.getMessage());
+                        return;
+                    }
+                    
+                    if (!older.isEmpty()) {
+                        Bukkit.getScheduler().runTask(plugin, new Runnable() {
+                            @Override
+                            public void run() {
+                                recentHistory.addOlder(playerName, older);
+                            }
+                        });
+                    }
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            // Plugin sendo desativado
+        }
+    }
+    
+    /**
+     * Consulta em segundo plano os duelos de um período
+     * Apenas os arquivos mensais do período são lidos; o resultado é entregue na thread principal.
+     *  
+     * @param from Início do período (milissegundos, inclusivo)
+     * @param to Fim do período (milissegundos, inclusivo)
+     * @param playerName Nome do jogador ou null para todos
+     * @param mode Modo do duelo ou null para todos
+     * @param callback Recebe os duelos encontrados, em ordem de gravação
+     */
+    public void queryHistory(final long from, final long to, final String playerName, final String mode,
+            final Consumer<List<DuelHistory>> callback) {
+        // Duelos ainda não enviados para a thread de salvamento
+        final List<DuelHistory> pending = new ArrayList<DuelHistory>();
+        for (DuelHistory duel : pendingHistory) {
+            if (HistoryArchive.matches(duel, from, to, playerName, mode)) {
+                pending.add(duel);
             }
         }
         
-        return playerHistory;
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final List<DuelHistory> history = new ArrayList<DuelHistory>();
+                    try {
+                        history.addAll(historyArchive.query(from, to, playerName, mode));
+                    } catch (IOException e) {
+                        plugin.getLogger().severe("Erro ao consultar o histórico de duelos: " + e.getMessage());
+                    }
+                    
+                    // Duelos no diário que ainda não foram para os arquivos mensais
+                    for (DuelHistory duel : journaledHistory) {
+                        if (HistoryArchive.matches(duel, from, to, playerName, mode)) {
+                            history.add(duel);
+                        }
+                    }
+                    
+                    // Só chegam ao diário depois desta tarefa (a thread de salvamento executa em ordem)
+                    history.addAll(pending);
+                    
+                    Bukkit.getScheduler().runTask(plugin, new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.accept(history);
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Plugin sendo desativado
+        }
     }
     
     /**
@@ -278,8 +1065,35 @@ public class FileStorage {
      * @param history Histórico de duelo
      */
     public void addDuelHistory(DuelHistory history) {
-        duelHistory.add(history);
-        saveData();
+        recentHistory.add(history);
+        if (warmupHistory != null) {
+            warmupHistory.add(history);
+        }
+        pendingHistory.add(history);
+        
+        // Gravar o resultado no diário imediatamente, junto com as estatísticas dos participantes
+        List<PlayerStats> dirtyStats = new ArrayList<PlayerStats>();
+        collectDirty(history.getPlayer1(), dirtyStats);
+        collectDirty(history.getPlayer2(), dirtyStats);
+        
+        try {
+            submitBatch(dirtyStats, collectPendingHistory());
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Thread de salvamento já encerrada, duelo não registrado no diário.");
+        }
+    }
+    
+    /**
+     * Adiciona uma cópia das estatísticas de um jogador à lista se houver alterações pendentes
+     * 
+     * @param playerName Nome do jogador
+     * @param dirtyStats Lista de estatísticas alteradas
+     */
+    private void collectDirty(String playerName, List<PlayerStats> dirtyStats) {
+        PlayerStats stats = playerName != null ? playerStats.get(playerName) : null;
+        if (stats != null && stats.isDirty()) {
+            dirtyStats.add(snapshot(stats));
+        }
     }
     
     /**
@@ -292,28 +1106,31 @@ public class FileStorage {
     }
     
     /**
-     * Obtém os N jogadores com mais vitórias
+     * Obtém os N primeiros jogadores de um ranking
      * 
+     * @param type Tipo de ranking
      * @param limit Quantidade máxima de jogadores
      * @return Lista de estatísticas dos jogadores
      */
-    public List<PlayerStats> getTopPlayers(int limit) {
-        List<PlayerStats> topPlayers = new ArrayList<PlayerStats>(playerStats.values());
-        
-        // Ordena pela quantidade de vitórias
-        java.util.Collections.sort(topPlayers, new java.util.Comparator<PlayerStats>() {
+    public List<PlayerStats> getTopPlayers(RankingType type, int limit) {
+        // Cópias mantidas pelos rankings, sem ler o registro de cada jogador
+        return rankings.getTopStats(type, limit, new Function<String, PlayerStats>() {
             @Override
-            public int compare(PlayerStats stats1, PlayerStats stats2) {
-                return stats2.getVictories() - stats1.getVictories();
+            public PlayerStats apply(String playerName) {
+                return findPlayerStats(playerName);
             }
         });
-        
-        // Limita a quantidade de jogadores
-        if (limit > 0 && topPlayers.size() > limit) {
-            return topPlayers.subList(0, limit);
-        }
-        
-        return topPlayers;
+    }
+    
+    /**
+     * Obtém a posição de um jogador em um ranking
+     * 
+     * @param type Tipo de ranking
+     * @param playerName Nome do jogador
+     * @return Posição (começando em 1) ou -1 se o jogador não estiver no ranking
+     */
+    public int getRank(RankingType type, String playerName) {
+        return rankings.getRank(type, playerName);
     }
     
     /**
@@ -332,7 +1149,8 @@ public class FileStorage {
     }
     
     /**
-     * Salva as estatísticas de um jogador
+     * Agenda o salvamento das estatísticas de um jogador
+     * A gravação acontece no próximo salvamento periódico.
      * 
      * @param playerName Nome do jogador
      * @param stats Estatísticas do jogador
@@ -342,74 +1160,78 @@ public class FileStorage {
             return;
         }
         
-        try {
-            File playerFile = getPlayerFile(playerName);
-            YamlConfiguration config = YamlConfiguration.loadConfiguration(playerFile);
-            
-            // Verificar se houve mudanças
-            boolean hasChanges = false;
-            
-            if (config.getInt("stats.vitórias") != stats.getVictories()) {
-                config.set("stats.vitórias", stats.getVictories());
-                hasChanges = true;
-            }
-            
-            if (config.getInt("stats.derrotas") != stats.getDefeats()) {
-                config.set("stats.derrotas", stats.getDefeats());
-                hasChanges = true;
-            }
-            
-            if (config.getInt("stats.empates") != stats.getDraws()) {
-                config.set("stats.empates", stats.getDraws());
-                hasChanges = true;
-            }
-            
-            if (plugin.getConfigManager().useElo() && config.getInt("stats.elo") != stats.getElo()) {
-                config.set("stats.elo", stats.getElo());
-                hasChanges = true;
-            }
-            
-            // Salvar apenas se houver mudanças
-            if (hasChanges) {
-                config.save(playerFile);
-                System.out.println("[PrimeLeagueX1] Estatísticas do jogador " + playerName + " atualizadas.");
-            }
-        } catch (IOException e) {
-            plugin.getLogger().severe("Erro ao salvar estatísticas do jogador " + playerName + ": " + e.getMessage());
-            e.printStackTrace();
+        stats.markDirty();
+    }
+    
+    /**
+     * Dados carregados em segundo plano na inicialização
+     */
+    private static class LoadedData {
+        
+        private final Leaderboards rankings;
+        private final PlayerHistoryIndex history;
+        
+        /**
+         * Construtor
+         * 
+         * @param rankings Rankings carregados
+         * @param history Histórico recente carregado
+         */
+        LoadedData(Leaderboards rankings, PlayerHistoryIndex history) {
+            this.rankings = rankings;
+            this.history = history;
         }
     }
     
     /**
-     * Salva o histórico de duelos
+     * Leitura dos arquivos individuais dos jogadores, dividida em subtarefas fork/join
      */
-    public void saveHistory() {
-        try {
-            // Limpar configuração anterior
-            historyConfig = new YamlConfiguration();
-            
-            // Criar seção de histórico
-            ConfigurationSection historySection = historyConfig.createSection("historico");
-            
-            // Salvar cada duelo
-            for (int i = 0; i < duelHistory.size(); i++) {
-                DuelHistory duel = duelHistory.get(i);
-                ConfigurationSection duelSection = historySection.createSection(String.valueOf(i));
-                
-                duelSection.set("jogador1", duel.getPlayer1());
-                duelSection.set("jogador2", duel.getPlayer2());
-                duelSection.set("vencedor", duel.getWinner());
-                duelSection.set("data", duel.getDate());
-                duelSection.set("aposta", duel.getBet());
+    private class PlayerFileParser extends RecursiveTask<List<PlayerStats>> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final File[] files;
+        private final int from;
+        private final int to;
+        
+        /**
+         * Construtor
+         * 
+         * @param files Arquivos da pasta players
+         * @param from Primeiro arquivo desta tarefa (inclusivo)
+         * @param to Último arquivo desta tarefa (exclusivo)
+         */
+        PlayerFileParser(File[] files, int from, int to) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected List<PlayerStats> compute() {
+            if (to - from > PLAYER_FILES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                PlayerFileParser first = new PlayerFileParser(files, from, middle);
+                first.fork();
+                List<PlayerStats> second = new PlayerFileParser(files, middle, to).compute();
+                List<PlayerStats> result = first.join();
+                result.addAll(second);
+                return result;
             }
             
-            // Salvar arquivo
-            historyConfig.save(historyFile);
-            System.out.println("[PrimeLeagueX1] Histórico de duelos salvo com sucesso. Total: " + duelHistory.size());
-            
-        } catch (IOException e) {
-            plugin.getLogger().severe("Erro ao salvar histórico de duelos: " + e.getMessage());
-            e.printStackTrace();
+            List<PlayerStats> result = new ArrayList<PlayerStats>(to - from);
+            for (int i = from; i < to; i++) {
+                File playerFile = files[i];
+                if (playerFile.isFile() && playerFile.getName().endsWith(".yml")) {
+                    try {
+                        String playerName = playerFile.getName().replace(".yml", "");
+                        result.add(parseStats(playerName, YamlConfiguration.loadConfiguration(playerFile), "stats."));
+                    } catch (Exception e) {
+                        System.out.println("[PrimeLeagueX1] Erro ao carregar arquivo individual: " + playerFile.getName() + ": " + e.getMessage());
+                    }
+                }
+            }
+            return result;
         }
     }
 } 
\ No newline at end of file
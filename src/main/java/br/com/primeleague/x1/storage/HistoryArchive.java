@@ -0,0 +1,783 @@
+package br.com.primeleague.x1.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import br.com.primeleague.x1.models.DuelHistory;
+
+/**
+ * Arquivo do histórico de duelos dividido por mês
+ * 
+ * Cada mês tem seu próprio arquivo binário (historico/AAAA-MM.dat) e novos duelos são apenas
+ * acrescentados ao arquivo do mês. Meses encerrados não são mais alterados e são compactados
+ * em gzip. Consultas por período abrem apenas os arquivos dos meses consultados.
+ * Cada mês compactado tem um índice (AAAA-MM.idx) com a quantidade de duelos e a posição dos
+ * duelos de cada jogador, assim a inicialização não abre os meses compactados e o histórico
+ * de um jogador é lido direto das posições dele.
+ * Não é seguro para uso simultâneo por várias threads.
+ */
+public class HistoryArchive {
+    
+    private static final String EXTENSION = ".dat";
+    private static final String COMPRESSED_EXTENSION = ".dat.gz";
+    private static final String INDEX_EXTENSION = ".idx";
+    private static final int INDEX_MAGIC = 0x58314849; // "X1HI"
+    
+    private final File folder;
+    private final SimpleDateFormat partitionFormat;
+    
+    // Tamanho descompactado de cada mês compactado na leitura inicial (duelos lidos depois por readClosedHistory)
+    private final TreeMap<String, Long> closedLengths;
+    
+    /**
+     * Construtor
+     * 
+     * @param folder Pasta dos arquivos do histórico
+     */
+    public HistoryArchive(File folder) {
+        this.folder = folder;
+        this.partitionFormat = new SimpleDateFormat("yyyy-MM");
+        this.partitionFormat.setLenient(false);
+        this.closedLengths = new TreeMap<String, Long>();
+    }
+    
+    /**
+     * Verifica se o arquivo ainda não tem nenhum duelo gravado
+     * 
+     * @return true se não existir nenhum arquivo mensal
+     */
+    public boolean isEmpty() {
+        return getPartitions().isEmpty();
+    }
+    
+    /**
+     * Lê os duelos dos meses ainda não compactados e conta os dos meses compactados
+     * Os meses compactados são contados pelo índice, sem abrir o arquivo; seus duelos são lidos
+     * sob demanda por {@link #readClosedHistory(String, int)}.
+     * Um registro incompleto no final do arquivo de um mês (queda durante a gravação) é removido
+     * do arquivo, para que os próximos duelos sejam acrescentados após o último registro válido.
+     * 
+     * @param consumer Recebe cada duelo lido
+     * @return Quantidade total de duelos no arquivo
+     * @throws IOException Se houver erro de leitura
+     */
+    public int scan(final Consumer<DuelHistory> consumer) throws IOException {
+        final int[] count = new int[1];
+        Consumer<DuelHistory> counter = new Consumer<DuelHistory>() {
+            @Override
+            public void accept(DuelHistory duel) {
+                consumer.accept(duel);
+                count[0]++;
+            }
+        };
+        
+        closedLengths.clear();
+        for (String partition : getPartitions()) {
+            File compressed = new File(folder, partition + COMPRESSED_EXTENSION);
+            if (compressed.exists()) {
+                MonthIndex index = readIndex(partition, false);
+                closedLengths.put(partition, index.length);
+                count[0] += index.count;
+            }
+            
+            File plain = new File(folder, partition + EXTENSION);
+            if (plain.exists()) {
+                long valid = readDuels(new FileInputStream(plain), counter);
+                if (valid < plain.length()) {
+                    System.out.println("[PrimeLeagueX1] Registro incompleto removido do histórico de " + partition + ".");
+                    RandomAccessFile file = new RandomAccessFile(plain, "rw");
+                    try {
+                        file.setLength(valid);
+                    } finally {
+                        file.close();
+                    }
+                }
+            }
+        }
+        return count[0];
+    }
+    
+    /**
+     * Lê os duelos mais recentes de um jogador nos meses que estavam compactados na leitura inicial
+     * Os meses são abertos do mais novo para o mais antigo, e de cada um só são lidas as posições
+     * do jogador registradas no índice.
+     * 
+     * @param playerName Nome do jogador
+     * @param limit Quantidade máxima de duelos
+     * @return Duelos do jogador, do mais antigo para o mais novo
+     * @throws IOException Se houver erro de leitura
+     */
+    public List<DuelHistory> readClosedHistory(String playerName, int limit) throws IOException {
+        List<DuelHistory> history = new ArrayList<DuelHistory>();
+        for (Map.Entry<String, Long> entry : closedLengths.descendingMap().entrySet()) {
+            if (history.size() >= limit) {
+                break;
+            }
+            
+            long[] offsets = readIndex(entry.getKey(), true).offsets.get(playerName);
+            if (offsets == null) {
+                continue;
+            }
+            
+            // Duelos compactados depois da leitura inicial já foram lidos por scan
+            int end = 0;
+            while (end < offsets.length && offsets[end] < entry.getValue()) {
+                end++;
+            }
+            int start = Math.max(0, end - (limit - history.size()));
+            history.addAll(0, readAt(new File(folder, entry.getKey() + COMPRESSED_EXTENSION), Arrays.copyOfRange(offsets, start, end)));
+        }
+        return history;
+    }
+    
+    /**
+     * Consulta os duelos de um período, abrindo apenas os arquivos dos meses envolvidos
+     * 
+     * @param from Início do período (milissegundos, inclusivo)
+     * @param to Fim do período (milissegundos, inclusivo)
+     * @param playerName Nome do jogador ou null para todos
+     * @param mode Modo do duelo ou null para todos
+     * @return Duelos encontrados, em ordem de gravação
+     * @throws IOException Se houver erro de leitura
+     */
+    public List<DuelHistory> query(final long from, final long to, final String playerName, final String mode) throws IOException {
+        final List<DuelHistory> result = new ArrayList<DuelHistory>();
+        for (String partition : getPartitions()) {
+            if (!overlaps(partition, from, to)) {
+                continue;
+            }
+            
+            Consumer<DuelHistory> filter = new Consumer<DuelHistory>() {
+                @Override
+                public void accept(DuelHistory duel) {
+                    if (matches(duel, from, to, playerName, mode)) {
+                        result.add(duel);
+                    }
+                }
+            };
+            
+            File compressed = new File(folder, partition + COMPRESSED_EXTENSION);
+            if (playerName != null && compressed.exists()) {
+                // Consulta de um jogador: da parte compactada, só as posições dele no índice
+                long[] offsets = readIndex(partition, true).offsets.get(playerName);
+                if (offsets != null) {
+                    for (DuelHistory duel : readAt(compressed, offsets)) {
+                        filter.accept(duel);
+                    }
+                }
+                File plain = new File(folder, partition + EXTENSION);
+                if (plain.exists()) {
+                    readDuels(new FileInputStream(plain), filter);
+                }
+            } else {
+                readPartition(partition, filter);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Verifica se um duelo atende aos filtros de uma consulta
+     * 
+     * @param duel Duelo
+     * @param from Início do período
+     * @param to Fim do período
+     * @param playerName Nome do jogador ou null para todos
+     * @param mode Modo do duelo ou null para todos
+     * @return true se o duelo atende aos filtros
+     */
+    public static boolean matches(DuelHistory duel, long from, long to, String playerName, String mode) {
+        if (duel.getDate() < from || duel.getDate() > to) {
+            return false;
+        }
+        if (playerName != null && !duel.hasPlayer(playerName)) {
+            return false;
+        }
+        return mode == null || mode.equalsIgnoreCase(duel.getMode());
+    }
+    
+    /**
+     * Acrescenta duelos aos arquivos dos seus meses
+     * Os duelos de cada mês são gravados de uma vez e forçados para o disco; se a gravação de
+     * um mês falhar, os meses seguintes não são gravados.
+     * 
+     * @param duels Duelos a gravar, em ordem
+     * @return Quantidade de duelos gravados (do início da lista)
+     */
+    public int append(List<DuelHistory> duels) {
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+        
+        int written = 0;
+        while (written < duels.size()) {
+            // Agrupar os duelos consecutivos do mesmo mês
+            String partition = getPartition(duels.get(written).getDate());
+            int end = written + 1;
+            while (end < duels.size() && partition.equals(getPartition(duels.get(end).getDate()))) {
+                end++;
+            }
+            
+            try {
+                writePartition(partition, duels.subList(written, end));
+            } catch (IOException e) {
+                System.out.println("[PrimeLeagueX1] Erro ao gravar o histórico de " + partition + ": " + e.getMessage());
+                break;
+            }
+            written = end;
+        }
+        return written;
+    }
+    
+    /**
+     * Compacta em gzip os arquivos de meses já encerrados
+     * O índice do mês é atualizado junto, com as posições dos duelos acrescentados.
+     */
+    public void compressOldPartitions() {
+        String current = getPartition(System.currentTimeMillis());
+        for (String partition : getPartitions()) {
+            File plain = new File(folder, partition + EXTENSION);
+            if (partition.compareTo(current) >= 0 || !plain.exists()) {
+                continue;
+            }
+            
+            File compressed = new File(folder, partition + COMPRESSED_EXTENSION);
+            File temp = new File(folder, partition + COMPRESSED_EXTENSION + ".tmp");
+            try {
+                // Mês com duelos acrescentados depois da compactação: o gzip aceita blocos concatenados
+                MonthIndex index = new MonthIndex();
+                if (compressed.exists()) {
+                    index = readIndex(partition, true);
+                    copy(compressed, temp, false);
+                }
+                appendToIndex(index, new FileInputStream(plain));
+                InputStream in = new FileInputStream(plain);
+                try {
+                    OutputStream out = new GZIPOutputStream(new FileOutputStream(temp, true));
+                    try {
+                        byte[] buffer = new byte[8192];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, read);
+                        }
+                    } finally {
+                        out.close();
+                    }
+                } finally {
+                    in.close();
+                }
+                
+                Files.move(temp.toPath(), compressed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                plain.delete();
+                writeIndex(partition, compressed, index);
+            } catch (IOException e) {
+                temp.delete();
+                System.out.println("[PrimeLeagueX1] Erro ao compactar o histórico de " + partition + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Grava os duelos de um mês no final do arquivo do mês
+     * 
+     * @param partition Mês (AAAA-MM)
+     * @param duels Duelos do mês
+     * @throws IOException Se houver erro de gravação
+     */
+    private void writePartition(String partition, List<DuelHistory> duels) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        for (DuelHistory duel : duels) {
+            writeDuel(data, duel);
+        }
+        data.flush();
+        
+        File file = new File(folder, partition + EXTENSION);
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            long length = out.length();
+            try {
+                out.seek(length);
+                out.write(bytes.toByteArray());
+                out.getFD().sync();
+            } catch (IOException e) {
+                // Desfazer a gravação parcial para não deixar um registro incompleto no meio do arquivo
+                out.setLength(length);
+                throw e;
+            }
+        } finally {
+            out.close();
+        }
+    }
+    
+    /**
+     * Lê os duelos de um mês
+     * 
+     * @param partition Mês (AAAA-MM)
+     * @param consumer Recebe cada duelo lido
+     * @throws IOException Se houver erro de leitura
+     */
+    private void readPartition(String partition, Consumer<DuelHistory> consumer) throws IOException {
+        // Primeiro a parte compactada, depois os duelos acrescentados após a compactação
+        File compressed = new File(folder, partition + COMPRESSED_EXTENSION);
+        if (compressed.exists()) {
+            readDuels(new GZIPInputStream(new FileInputStream(compressed)), consumer);
+        }
+        File plain = new File(folder, partition + EXTENSION);
+        if (plain.exists()) {
+            readDuels(new FileInputStream(plain), consumer);
+        }
+    }
+    
+    /**
+     * Lê os duelos de um arquivo compactado nas posições informadas
+     * 
+     * @param compressed Arquivo compactado do mês
+     * @param offsets Posições dos duelos no conteúdo descompactado, em ordem
+     * @return Duelos lidos, na ordem das posições
+     * @throws IOException Se houver erro de leitura ou o índice não corresponder ao arquivo
+     */
+    private List<DuelHistory> readAt(File compressed, long[] offsets) throws IOException {
+        List<DuelHistory> duels = new ArrayList<DuelHistory>(offsets.length);
+        if (offsets.length == 0) {
+            return duels;
+        }
+        
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(compressed))));
+        DataInputStream in = new DataInputStream(counter);
+        try {
+            for (long offset : offsets) {
+                while (counter.count < offset) {
+                    if (in.skip(offset - counter.count) <= 0) {
+                        throw new EOFException("índice de " + compressed.getName() + " não corresponde ao arquivo");
+                    }
+                }
+                duels.add(readDuel(in));
+            }
+        } finally {
+            in.close();
+        }
+        return duels;
+    }
+    
+    /**
+     * Lê o índice de um mês compactado, recriando-o se não existir ou não corresponder ao arquivo
+     * 
+     * @param partition Mês (AAAA-MM)
+     * @param withOffsets true para ler também as posições dos duelos de cada jogador
+     * @return Índice do mês
+     * @throws IOException Se houver erro de leitura do arquivo compactado
+     */
+    private MonthIndex readIndex(String partition, boolean withOffsets) throws IOException {
+        File compressed = new File(folder, partition + COMPRESSED_EXTENSION);
+        File indexFile = new File(folder, partition + INDEX_EXTENSION);
+        if (indexFile.exists()) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+            try {
+                if (in.readInt() == INDEX_MAGIC && in.readLong() == compressed.length()) {
+                    MonthIndex index = new MonthIndex();
+                    index.count = in.readInt();
+                    index.length = in.readLong();
+                    if (withOffsets) {
+                        int players = in.readInt();
+                        for (int i = 0; i < players; i++) {
+                            String playerName = in.readUTF();
+                            long[] offsets = new long[in.readInt()];
+                            for (int j = 0; j < offsets.length; j++) {
+                                offsets[j] = in.readLong();
+                            }
+                            index.offsets.put(playerName, offsets);
+                        }
+                    }
+                    return index;
+                }
+            } catch (IOException e) {
+                // Índice incompleto, recriado abaixo
+            } finally {
+                in.close();
+            }
+        }
+        
+        System.out.println("[PrimeLeagueX1] Criando o índice do histórico de " + partition + "...");
+        MonthIndex index = buildIndex(compressed);
+        writeIndex(partition, compressed, index);
+        return index;
+    }
+    
+    /**
+     * Monta o índice de um mês compactado lendo o arquivo inteiro
+     * 
+     * @param compressed Arquivo compactado do mês
+     * @return Índice do mês
+     * @throws IOException Se houver erro de leitura
+     */
+    private MonthIndex buildIndex(File compressed) throws IOException {
+        MonthIndex index = new MonthIndex();
+        appendToIndex(index, new GZIPInputStream(new FileInputStream(compressed)));
+        return index;
+    }
+    
+    /**
+     * Acrescenta ao índice de um mês os duelos de um arquivo, que ficam após o conteúdo já indexado
+     * 
+     * @param index Índice do mês
+     * @param stream Arquivo aberto com os duelos a acrescentar
+     * @throws IOException Se houver erro de leitura
+     */
+    private void appendToIndex(MonthIndex index, InputStream stream) throws IOException {
+        Map<String, List<Long>> positions = new HashMap<String, List<Long>>();
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(stream));
+        DataInputStream in = new DataInputStream(counter);
+        long base = index.length;
+        try {
+            while (true) {
+                long offset = base + counter.count;
+                DuelHistory duel;
+                try {
+                    duel = readDuel(in);
+                } catch (EOFException e) {
+                    break;
+                }
+                addPosition(positions, duel.getPlayer1(), offset);
+                addPosition(positions, duel.getPlayer2(), offset);
+                index.count++;
+                index.length = base + counter.count;
+            }
+        } finally {
+            in.close();
+        }
+        
+        for (Map.Entry<String, List<Long>> entry : positions.entrySet()) {
+            long[] previous = index.offsets.get(entry.getKey());
+            int start = previous != null ? previous.length : 0;
+            long[] offsets = previous != null ? Arrays.copyOf(previous, start + entry.getValue().size()) : new long[entry.getValue().size()];
+            for (int i = 0; i < entry.getValue().size(); i++) {
+                offsets[start + i] = entry.getValue().get(i);
+            }
+            index.offsets.put(entry.getKey(), offsets);
+        }
+    }
+    
+    /**
+     * Registra a posição de um duelo na lista de um jogador
+     * 
+     * @param positions Posições por jogador
+     * @param playerName Nome do jogador
+     * @param offset Posição do duelo
+     */
+    private static void addPosition(Map<String, List<Long>> positions, String playerName, long offset) {
+        List<Long> offsets = positions.get(playerName);
+        if (offsets == null) {
+            offsets = new ArrayList<Long>();
+            positions.put(playerName, offsets);
+        }
+        offsets.add(offset);
+    }
+    
+    /**
+     * Grava o índice de um mês compactado
+     * Se não puder ser gravado, o índice é recriado na próxima leitura.
+     * 
+     * @param partition Mês (AAAA-MM)
+     * @param compressed Arquivo compactado do mês
+     * @param index Índice do mês
+     */
+    private void writeIndex(String partition, File compressed, MonthIndex index) {
+        File indexFile = new File(folder, partition + INDEX_EXTENSION);
+        File temp = new File(folder, partition + INDEX_EXTENSION + ".tmp");
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            try {
+                out.writeInt(INDEX_MAGIC);
+                out.writeLong(compressed.length());
+                out.writeInt(index.count);
+                out.writeLong(index.length);
+                out.writeInt(index.offsets.size());
+                for (Map.Entry<String, long[]> entry : index.offsets.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    for (long offset : entry.getValue()) {
+                        out.writeLong(offset);
+                    }
+                }
+            } finally {
+                out.close();
+            }
+            Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("[PrimeLeagueX1] Erro ao gravar o índice do histórico de " + partition + ": " + e.getMessage());
+        } finally {
+            temp.delete();
+        }
+    }
+    
+    /**
+     * Lê duelos de um arquivo até o final
+     * 
+     * @param stream Arquivo aberto
+     * @param consumer Recebe cada duelo lido
+     * @return Quantidade de bytes ocupados pelos registros completos
+     * @throws IOException Se houver erro de leitura
+     */
+    private long readDuels(InputStream stream, Consumer<DuelHistory> consumer) throws IOException {
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(stream));
+        DataInputStream in = new DataInputStream(counter);
+        long valid = 0;
+        try {
+            while (true) {
+                DuelHistory duel;
+                try {
+                    duel = readDuel(in);
+                } catch (EOFException e) {
+                    break;
+                }
+                consumer.accept(duel);
+                valid = counter.count;
+            }
+        } finally {
+            in.close();
+        }
+        return valid;
+    }
+    
+    /**
+     * Obtém os meses existentes no arquivo, em ordem
+     * 
+     * @return Lista de meses (AAAA-MM)
+     */
+    private List<String> getPartitions() {
+        List<String> partitions = new ArrayList<String>();
+        String[] files = folder.list();
+        if (files == null) {
+            return partitions;
+        }
+        
+        Arrays.sort(files);
+        for (String name : files) {
+            String partition;
+            if (name.endsWith(COMPRESSED_EXTENSION)) {
+                partition = name.substring(0, name.length() - COMPRESSED_EXTENSION.length());
+            } else if (name.endsWith(EXTENSION)) {
+                partition = name.substring(0, name.length() - EXTENSION.length());
+            } else {
+                continue;
+            }
+            
+            if (isPartitionName(partition) && !partitions.contains(partition)) {
+                partitions.add(partition);
+            }
+        }
+        return partitions;
+    }
+    
+    /**
+     * Verifica se um nome é um mês válido (AAAA-MM)
+     * 
+     * @param name Nome sem extensão
+     * @return true se for um mês válido
+     */
+    private boolean isPartitionName(String name) {
+        if (name.length() != 7) {
+            return false;
+        }
+        try {
+            partitionFormat.parse(name);
+            return true;
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Verifica se um mês tem alguma parte dentro de um período
+     * 
+     * @param partition Mês (AAAA-MM)
+     * @param from Início do período
+     * @param to Fim do período
+     * @return true se o mês e o período se sobrepõem
+     */
+    private boolean overlaps(String partition, long from, long to) {
+        Calendar calendar = Calendar.getInstance();
+        try {
+            calendar.setTime(partitionFormat.parse(partition));
+        } catch (ParseException e) {
+            return false;
+        }
+        long start = calendar.getTimeInMillis();
+        calendar.add(Calendar.MONTH, 1);
+        long end = calendar.getTimeInMillis() - 1;
+        return start <= to && end >= from;
+    }
+    
+    /**
+     * Obtém o mês de uma data
+     * 
+     * @param time Data em milissegundos
+     * @return Mês (AAAA-MM)
+     */
+    private String getPartition(long time) {
+        return partitionFormat.format(new Date(time));
+    }
+    
+    /**
+     * Copia um arquivo
+     * 
+     * @param source Origem
+     * @param target Destino
+     * @param append true para acrescentar ao destino
+     * @throws IOException Se houver erro na cópia
+     */
+    private static void copy(File source, File target, boolean append) throws IOException {
+        InputStream in = new FileInputStream(source);
+        try {
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(target, append));
+            try {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+    
+    /**
+     * Obtém o início do dia de N dias atrás
+     * 
+     * @param days Quantidade de dias
+     * @return Data em milissegundos
+     */
+    public static long daysAgo(int days) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.DAY_OF_MONTH, -days);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+    
+    /**
+     * Grava um duelo no formato binário do histórico
+     * 
+     * @param out Saída de dados
+     * @param duel Duelo
+     * @throws IOException Se houver erro de gravação
+     */
+    static void writeDuel(DataOutputStream out, DuelHistory duel) throws IOException {
+        out.writeUTF(duel.getPlayer1());
+        out.writeUTF(duel.getPlayer2());
+        out.writeUTF(duel.getWinner() == null ? "" : duel.getWinner());
+        out.writeUTF(duel.getMode() == null ? "" : duel.getMode());
+        out.writeUTF(duel.getLocation() == null ? "" : duel.getLocation());
+        out.writeLong(duel.getDate());
+        out.writeInt(duel.getDuration());
+        out.writeDouble(duel.getBet());
+    }
+    
+    /**
+     * Lê um duelo no formato binário do histórico
+     * 
+     * @param in Entrada de dados
+     * @return Duelo lido
+     * @throws IOException Se houver erro de leitura ou o registro estiver incompleto
+     */
+    static DuelHistory readDuel(DataInputStream in) throws IOException {
+        String player1 = in.readUTF();
+        String player2 = in.readUTF();
+        String winner = in.readUTF();
+        return new DuelHistory(
+            player1,
+            player2,
+            winner.isEmpty() ? null : winner,
+            in.readUTF(),
+            in.readUTF(),
+            in.readLong(),
+            in.readInt(),
+            in.readDouble()
+        );
+    }
+    
+    /**
+     * Índice de um mês compactado
+     */
+    private static class MonthIndex {
+        
+        private int count; // Quantidade de duelos
+        private long length; // Tamanho do conteúdo descompactado
+        private final Map<String, long[]> offsets = new HashMap<String, long[]>(); // Posições dos duelos de cada jogador, em ordem
+    }
+    
+    /**
+     * Entrada que conta os bytes lidos
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        
+        private long count;
+        
+        /**
+         * Construtor
+         * 
+         * @param in Entrada original
+         */
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+            return value;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+} 
\ No newline at end of file
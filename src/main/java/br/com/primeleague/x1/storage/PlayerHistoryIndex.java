@@ -0,0 +1,276 @@
+package br.com.primeleague.x1.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.primeleague.x1.models.DuelHistory;
+
+/**
+ * Índice do histórico recente de duelos por jogador
+ * 
+ * Cada jogador tem um buffer circular limitado com os últimos duelos, guardados em vetores
+ * de tipos primitivos (oponente, resultado, modo, data, duração e aposta). Nomes de jogadores
+ * e modos são guardados uma única vez e referenciados por número. O histórico completo fica
+ * apenas em disco. Usado apenas pela thread principal.
+ */
+public class PlayerHistoryIndex {
+    
+    private static final byte RESULT_VICTORY = 1;
+    private static final byte RESULT_DEFEAT = 2;
+    private static final byte RESULT_DRAW = 3;
+    
+    private static final int INITIAL_CAPACITY = 4;
+    
+    private final int capacity;
+    private final Map<String, Integer> nameIds;
+    private final List<String> names;
+    private final Map<String, Ring> buffers;
+    
+    /**
+     * Construtor
+     * 
+     * @param capacity Quantidade máxima de duelos mantidos por jogador
+     */
+    public PlayerHistoryIndex(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.nameIds = new HashMap<String, Integer>();
+        this.names = new ArrayList<String>();
+        this.buffers = new HashMap<String, Ring>();
+    }
+    
+    /**
+     * Adiciona um duelo ao histórico dos dois participantes
+     * 
+     * @param duel Duelo finalizado
+     */
+    public void add(DuelHistory duel) {
+        if (duel.getPlayer1() == null || duel.getPlayer2() == null) {
+            return;
+        }
+        
+        addTo(duel.getPlayer1(), duel);
+        addTo(duel.getPlayer2(), duel);
+    }
+    
+    /**
+     * Acrescenta duelos mais antigos que os já mantidos ao histórico de um jogador
+     * Usado quando os duelos dos meses compactados são lidos depois da inicialização.
+     * 
+     * @param playerName Nome do jogador
+     * @param older Duelos do jogador, do mais antigo para o mais novo
+     */
+    public void addOlder(String playerName, List<DuelHistory> older) {
+        if (older.isEmpty()) {
+            return;
+        }
+        
+        List<DuelHistory> newer = get(playerName, 0);
+        buffers.remove(playerName);
+        for (DuelHistory duel : older) {
+            addTo(playerName, duel);
+        }
+        for (int i = newer.size() - 1; i >= 0; i--) {
+            addTo(playerName, newer.get(i));
+        }
+    }
+    
+    /**
+     * Obtém a quantidade de duelos mantidos para um jogador
+     * 
+     * @param playerName Nome do jogador
+     * @return Quantidade de duelos em memória
+     */
+    public int size(String playerName) {
+        Ring ring = buffers.get(playerName);
+        return ring != null ? ring.size : 0;
+    }
+    
+    /**
+     * Adiciona um duelo ao histórico de um dos participantes
+     * 
+     * @param playerName Nome do participante
+     * @param duel Duelo finalizado
+     */
+    private void addTo(String playerName, DuelHistory duel) {
+        String opponent = playerName.equals(duel.getPlayer1()) ? duel.getPlayer2() : duel.getPlayer1();
+        byte result;
+        if (duel.getWinner() == null) {
+            result = RESULT_DRAW;
+        } else if (duel.getWinner().equals(playerName)) {
+            result = RESULT_VICTORY;
+        } else {
+            result = RESULT_DEFEAT;
+        }
+        
+        int mode = getId(duel.getMode() == null ? "X1" : duel.getMode());
+        getRing(playerName).add(getId(opponent), result, mode, duel.getDate(), duel.getDuration(), duel.getBet());
+    }
+    
+    /**
+     * Obtém os duelos mais recentes de um jogador, do mais novo para o mais antigo
+     * 
+     * @param playerName Nome do jogador
+     * @param limit Limite de duelos (0 para todos os duelos em memória)
+     * @return Lista de duelos do jogador
+     */
+    public List<DuelHistory> get(String playerName, int limit) {
+        Ring ring = buffers.get(playerName);
+        if (ring == null) {
+            return new ArrayList<DuelHistory>();
+        }
+        
+        int count = limit > 0 ? Math.min(limit, ring.size) : ring.size;
+        List<DuelHistory> history = new ArrayList<DuelHistory>(count);
+        for (int i = 0; i < count; i++) {
+            // Posição do i-ésimo duelo mais recente
+            int index = (ring.head - 1 - i + ring.dates.length) % ring.dates.length;
+            String opponent = names.get(ring.opponents[index]);
+            
+            String winner;
+            if (ring.results[index] == RESULT_VICTORY) {
+                winner = playerName;
+            } else if (ring.results[index] == RESULT_DEFEAT) {
+                winner = opponent;
+            } else {
+                winner = null;
+            }
+            
+            history.add(new DuelHistory(
+                playerName,
+                opponent,
+                winner,
+                names.get(ring.modes[index]),
+                "Desconhecido",
+                ring.dates[index],
+                ring.durations[index],
+                ring.bets[index]
+            ));
+        }
+        return history;
+    }
+    
+    /**
+     * Obtém o número de um nome, registrando-o se necessário
+     * 
+     * @param name Nome do jogador ou modo
+     * @return Número do nome
+     */
+    private int getId(String name) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+    
+    /**
+     * Obtém o buffer de um jogador, criando-o se necessário
+     * 
+     * @param playerName Nome do jogador
+     * @return Buffer do jogador
+     */
+    private Ring getRing(String playerName) {
+        Ring ring = buffers.get(playerName);
+        if (ring == null) {
+            ring = new Ring(Math.min(INITIAL_CAPACITY, capacity));
+            buffers.put(playerName, ring);
+        }
+        return ring;
+    }
+    
+    /**
+     * Buffer circular de duelos de um jogador
+     * Começa pequeno e cresce até a capacidade máxima; a partir daí sobrescreve o duelo mais antigo.
+     */
+    private class Ring {
+        
+        private int[] opponents;
+        private byte[] results;
+        private int[] modes;
+        private long[] dates;
+        private int[] durations;
+        private double[] bets;
+        private int head;
+        private int size;
+        
+        /**
+         * Construtor
+         * 
+         * @param length Tamanho inicial dos vetores
+         */
+        Ring(int length) {
+            allocate(length);
+        }
+        
+        /**
+         * Acrescenta um duelo ao buffer
+         * 
+         * @param opponent Número do oponente
+         * @param result Resultado do duelo para o dono do buffer
+         * @param mode Número do modo
+         * @param date Data do duelo
+         * @param duration Duração do duelo em segundos
+         * @param bet Valor da aposta
+         */
+        void add(int opponent, byte result, int mode, long date, int duration, double bet) {
+            if (size == dates.length && size < capacity) {
+                grow();
+            }
+            
+            opponents[head] = opponent;
+            results[head] = result;
+            modes[head] = mode;
+            dates[head] = date;
+            durations[head] = duration;
+            bets[head] = bet;
+            
+            head = (head + 1) % dates.length;
+            if (size < dates.length) {
+                size++;
+            }
+        }
+        
+        /**
+         * Aumenta os vetores, mantendo os duelos em ordem a partir da posição 0
+         */
+        private void grow() {
+            int[] oldOpponents = opponents;
+            byte[] oldResults = results;
+            int[] oldModes = modes;
+            long[] oldDates = dates;
+            int[] oldDurations = durations;
+            double[] oldBets = bets;
+            
+            allocate(Math.min(oldDates.length * 2, capacity));
+            // Buffer cheio: o mais antigo está em head
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % oldDates.length;
+                opponents[i] = oldOpponents[index];
+                results[i] = oldResults[index];
+                modes[i] = oldModes[index];
+                dates[i] = oldDates[index];
+                durations[i] = oldDurations[index];
+                bets[i] = oldBets[index];
+            }
+            head = size;
+        }
+        
+        /**
+         * Cria os vetores com o tamanho informado
+         * 
+         * @param length Tamanho dos vetores
+         */
+        private void allocate(int length) {
+            opponents = new int[length];
+            results = new byte[length];
+            modes = new int[length];
+            dates = new long[length];
+            durations = new int[length];
+            bets = new double[length];
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,921 @@
+package br.com.primeleague.x1.storage;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import br.com.primeleague.x1.Main;
+import br.com.primeleague.x1.enums.RankingType;
+import br.com.primeleague.x1.leaderboard.Leaderboards;
+import br.com.primeleague.x1.models.DuelHistory;
+import br.com.primeleague.x1.models.PlayerStats;
+import br.com.primeleague.x1.rival.RivalData;
+import br.com.primeleague.x1.rival.RivalIndex;
+
+/**
+ * Armazenamento de estatísticas e histórico em banco de dados SQLite
+ * 
+ * As estatísticas são carregadas quando o jogador entra e mantidas em cache enquanto são usadas.
+ * Consultas por jogador usam os índices do banco, os rankings são mantidos em memória, e as gravações são feitas
+ * em lotes de comandos preparados na thread do banco de dados. O banco usa WAL, e as consultas feitas na thread
+ * principal usam uma conexão própria de leitura, que não espera pelas gravações em andamento.
+ */
+public class SQLiteStorage implements StatsRepository {
+    
+    private final Main plugin;
+    private final File databaseFile;
+    private Connection connection;
+    private Connection readConnection; // Consultas da thread principal
+    
+    private final StatsCache playerStats;
+    private final Map<String, PlayerStats> pendingStats;
+    private final Set<String> loadingStats; // Leituras em segundo plano ainda não aplicadas
+    private Leaderboards rankings;
+    private final Consumer<PlayerStats> rankingListener;
+    
+    // Alterações feitas enquanto os rankings são carregados (null após o carregamento)
+    private Map<String, PlayerStats> warmupStats;
+    private final List<DuelHistory> pendingHistory;
+    private final List<DuelHistory> unsavedHistory;
+    private final ExecutorService executor;
+    private BukkitTask flushTask;
+    
+    // Alterações de lotes que falharam, gravadas junto com o próximo lote (acessadas só na thread do banco)
+    private final Map<String, PlayerStats> failedStats;
+    private final List<DuelHistory> failedHistory;
+    private final Map<String, RivalData> failedRivals;
+    private volatile boolean retryPending;
+    
+    /**
+     * Construtor
+     * 
+     * @param plugin Instância do plugin
+     * @throws SQLException Se não for possível abrir o banco de dados
+     */
+    public SQLiteStorage(Main plugin) throws SQLException {
+        this.plugin = plugin;
+        this.databaseFile = new File(plugin.getDataFolder(), "estatisticas.db");
+        this.playerStats = new StatsCache(plugin.getConfigManager().getOfflineStatsCacheSize(), new Consumer<PlayerStats>() {
+            @Override
+            public void accept(PlayerStats stats) {
+                writeBack(stats);
+            }
+        });
+        this.pendingStats = new ConcurrentHashMap<String, PlayerStats>();
+        this.loadingStats = new HashSet<String>();
+        this.rankings = new Leaderboards(plugin.getConfigManager().getWinRateMinDuels(), plugin.getConfigManager().getTopPlayersAmount());
+        this.rankingListener = new Consumer<PlayerStats>() {
+            @Override
+            public void accept(PlayerStats stats) {
+                rankings.update(stats);
+                if (warmupStats != null) {
+                    warmupStats.put(stats.getPlayerName(), stats);
+                }
+            }
+        };
+        this.warmupStats = new HashMap<String, PlayerStats>();
+        this.pendingHistory = new ArrayList<DuelHistory>();
+        this.unsavedHistory = Collections.synchronizedList(new ArrayList<DuelHistory>());
+        this.failedStats = new LinkedHashMap<String, PlayerStats>();
+        this.failedHistory = new ArrayList<DuelHistory>();
+        this.failedRivals = new LinkedHashMap<String, RivalData>();
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "PrimeLeagueX1-SQLite");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        
+        openConnection();
+        createTables();
+        loadRanking();
+        startFlushTask();
+    }
+    
+    /**
+     * Abre as conexões de gravação e de leitura com o banco de dados
+     * Com WAL, a conexão de leitura vê o último commit sem esperar pela transação em andamento.
+     * 
+     * @throws SQLException Se o driver não estiver disponível ou o arquivo não puder ser aberto
+     */
+    private void openConnection() throws SQLException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("Driver SQLite não encontrado no servidor");
+        }
+        
+        connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        Statement statement = connection.createStatement();
+        try {
+            statement.execute("PRAGMA journal_mode=WAL");
+        } finally {
+            statement.close();
+        }
+        readConnection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+    }
+    
+    /**
+     * Cria as tabelas e índices se ainda não existirem
+     * 
+     * @throws SQLException Se houver erro ao criar as tabelas
+     */
+    private void createTables() throws SQLException {
+        synchronized (connection) {
+            Statement statement = connection.createStatement();
+            try {
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS jogadores ("
+                    + "nome VARCHAR(16) PRIMARY KEY, "
+                    + "vitorias INTEGER NOT NULL DEFAULT 0, "
+                    + "derrotas INTEGER NOT NULL DEFAULT 0, "
+                    + "empates INTEGER NOT NULL DEFAULT 0, "
+                    + "sequencia INTEGER NOT NULL DEFAULT 0, "
+                    + "elo INTEGER NOT NULL DEFAULT 1000)");
+                statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_jogadores_vitorias ON jogadores (vitorias)");
+                statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_jogadores_elo ON jogadores (elo)");
+                
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS historico ("
+                    + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "jogador1 VARCHAR(16) NOT NULL, "
+                    + "jogador2 VARCHAR(16) NOT NULL, "
+                    + "vencedor VARCHAR(16), "
+                    + "modo VARCHAR(32), "
+                    + "local VARCHAR(64), "
+                    + "data BIGINT NOT NULL, "
+                    + "duracao INTEGER NOT NULL DEFAULT 0, "
+                    + "aposta DOUBLE NOT NULL DEFAULT 0)");
+                statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_historico_jogador1 ON historico (jogador1, id)");
+                statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_historico_jogador2 ON historico (jogador2, id)");
+                statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_historico_data ON historico (data)");
+                
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS rivalidades ("
+                    + "jogador1 VARCHAR(16) NOT NULL, "
+                    + "jogador2 VARCHAR(16) NOT NULL, "
+                    + "vitorias1 INTEGER NOT NULL DEFAULT 0, "
+                    + "vitorias2 INTEGER NOT NULL DEFAULT 0, "
+                    + "ultimos TEXT, "
+                    + "PRIMARY KEY (jogador1, jogador2))");
+                statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_rivalidades_jogador2 ON rivalidades (jogador2)");
+            } finally {
+                statement.close();
+            }
+        }
+    }
+    
+    /**
+     * Carrega em segundo plano a pontuação de todos os jogadores nos rankings
+     * Apenas as pontuações são mantidas em memória, não os registros completos.
+     * A thread do banco de dados só grava depois da leitura dos rankings.
+     */
+    private void loadRanking() {
+        final ForkJoinTask<Leaderboards> loading = plugin.getStartupManager().load("rankings", new Callable<Leaderboards>() {
+            @Override
+            public Leaderboards call() throws SQLException {
+                return readRanking();
+            }
+        }, new Consumer<Leaderboards>() {
+            @Override
+            public void accept(Leaderboards loaded) {
+                // Reaplicar alterações feitas durante o carregamento
+                for (PlayerStats stats : warmupStats.values()) {
+                    loaded.update(stats);
+                }
+                rankings = loaded;
+                warmupStats = null;
+            }
+        });
+        
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    loading.join();
+                } catch (Exception e) {
+                    plugin.getLogger().severe("Carregamento dos rankings interrompido: " + e.getMessage());
+                }
+            }
+        });
+    }
+    
+    /**
+     * Lê a pontuação de todos os jogadores (executado no pool de carregamento)
+     * 
+     * @return Rankings carregados
+     * @throws SQLException Se houver erro na consulta
+     */
+    private Leaderboards readRanking() throws SQLException {
+        Leaderboards loaded = new Leaderboards(plugin.getConfigManager().getWinRateMinDuels(), plugin.getConfigManager().getTopPlayersAmount());
+        synchronized (connection) {
+            Statement statement = connection.createStatement();
+            try {
+                ResultSet result = statement.executeQuery("SELECT nome, vitorias, derrotas, empates, sequencia, elo FROM jogadores");
+                while (result.next()) {
+                    loaded.update(readStats(result.getString("nome"), result));
+                }
+            } finally {
+                statement.close();
+            }
+        }
+        return loaded;
+    }
+    
+    /**
+     * Inicia a tarefa periódica que envia as alterações pendentes para o banco de dados
+     */
+    private void startFlushTask() {
+        long interval = Math.max(1, plugin.getConfigManager().getStorageFlushInterval()) * 20L;
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+            @Override
+            public void run() {
+                saveData();
+            }
+        }, interval, interval);
+    }
+    
+    @Override
+    public PlayerStats getPlayerStats(String playerName) {
+        PlayerStats stats = playerStats.get(playerName);
+        if (stats == null) {
+            // O registro devolvido pode ser alterado, então é lido agora para não sobrescrever o do banco
+            stats = loadPlayerStats(readConnection, playerName);
+            if (stats == null) {
+                stats = new PlayerStats(playerName);
+            }
+            cache(stats, isOnline(playerName));
+        }
+        return stats;
+    }
+    
+    /**
+     * Procura as estatísticas de um jogador sem criar um registro novo
+     * Se o jogador não estiver em cache, o banco é consultado em segundo plano e null é devolvido
+     * até a consulta terminar; a thread principal nunca consulta o banco aqui.
+     *  
+     * @param playerName Nome do jogador
+     * @return Estatísticas do jogador ou null se o jogador não tiver estatísticas ou ainda não foi lido
+     */
+    @Override
+    public PlayerStats findPlayerStats(String playerName) {
+        PlayerStats stats = playerStats.get(playerName);
+        if (stats == null) {
+            PlayerStats unsaved = pendingStats.get(playerName);
+            if (unsaved != null) {
+                stats = unsaved.copy();
+                cache(stats, isOnline(playerName));
+            } else {
+                loadAsync(playerName, false);
+            }
+        }
+        return stats;
+    }
+    
+    @Override
+    public void loadPlayer(final String playerName) {
+        if (playerStats.pin(playerName)) {
+            return;
+        }
+        loadAsync(playerName, true);
+    }
+    
+    /**
+     * Lê as estatísticas de um jogador na thread do banco e as coloca em cache na thread principal
+     *  
+     * @param playerName Nome do jogador
+     * @param join true se o jogador acabou de entrar e o registro deve ficar fixo no cache
+     */
+    private void loadAsync(final String playerName, final boolean join) {
+        if (!loadingStats.add(playerName) && !join) {
+            return;
+        }
+        
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final PlayerStats loaded = loadPlayerStats(connection, playerName);
+                    Bukkit.getScheduler().runTask(plugin, new Runnable() {
+                        @Override
+                        public void run() {
+                            loadingStats.remove(playerName);
+                            if (join) {
+                                // Pode ter sido carregado enquanto isso por uma consulta direta
+                                if (playerStats.pin(playerName) || !isOnline(playerName)) {
+                                    return;
+                                }
+                                cache(loaded != null ? loaded : new PlayerStats(playerName), true);
+                            } else if (loaded != null && playerStats.get(playerName) == null) {
+                                cache(loaded, isOnline(playerName));
+                            }
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Plugin sendo desativado
+            loadingStats.remove(playerName);
+        }
+    }
+    
+    /**
+     * Adiciona as estatísticas de um jogador ao cache, ligadas aos rankings
+     * 
+     * @param stats Estatísticas do jogador
+     * @param online true se o jogador está online
+     */
+    private void cache(PlayerStats stats, boolean online) {
+        stats.setChangeListener(rankingListener);
+        playerStats.put(stats, online);
+    }
+    
+    @Override
+    public void unloadPlayer(String playerName) {
+        playerStats.unpin(playerName);
+    }
+    
+    /**
+     * Verifica se um jogador está online
+     * 
+     * @param playerName Nome do jogador
+     * @return true se o jogador está online
+     */
+    private boolean isOnline(String playerName) {
+        return Bukkit.getPlayerExact(playerName) != null;
+    }
+    
+    /**
+     * Envia para gravação as alterações de um registro removido do cache
+     *  
+     * @param stats Estatísticas removidas do cache
+     */
+    private void writeBack(PlayerStats stats) {
+        if (!stats.isDirty()) {
+            return;
+        }
+        
+        final List<PlayerStats> dirtyStats = new ArrayList<PlayerStats>();
+        dirtyStats.add(snapshot(stats));
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    writeBatch(dirtyStats, new ArrayList<DuelHistory>(), new ArrayList<RivalData>());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Thread do banco de dados já encerrada, estatísticas de " + stats.getPlayerName() + " não foram gravadas.");
+        }
+    }
+    
+    /**
+     * Cria a cópia de um registro alterado para gravação
+     * A cópia fica disponível para leituras até ser gravada no banco de dados.
+     *  
+     * @param stats Estatísticas alteradas
+     * @return Cópia das estatísticas
+     */
+    private PlayerStats snapshot(PlayerStats stats) {
+        PlayerStats copy = stats.copy();
+        stats.clearDirty();
+        pendingStats.put(copy.getPlayerName(), copy);
+        return copy;
+    }
+    
+    /**
+     * Carrega as estatísticas de um jogador do banco de dados
+     * A thread principal usa a conexão de leitura e a thread do banco usa a conexão de gravação.
+     *  
+     * @param db Conexão usada na consulta
+     * @param playerName Nome do jogador
+     * @return Estatísticas do jogador ou null se não existir
+     */
+    private PlayerStats loadPlayerStats(Connection db, String playerName) {
+        PlayerStats unsaved = pendingStats.get(playerName);
+        if (unsaved != null) {
+            return unsaved.copy();
+        }
+        
+        synchronized (db) {
+            try {
+                PreparedStatement statement = db.prepareStatement(
+                    "SELECT vitorias, derrotas, empates, sequencia, elo FROM jogadores WHERE nome = ?");
+                try {
+                    statement.setString(1, playerName);
+                    ResultSet result = statement.executeQuery();
+                    if (!result.next()) {
+                        return null;
+                    }
+                    
+                    PlayerStats stats = readStats(playerName, result);
+                    stats.clearDirty();
+                    return stats;
+                } finally {
+                    statement.close();
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Erro ao carregar estatísticas de " + playerName + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * Lê as estatísticas da linha atual de uma consulta
+     * 
+     * @param playerName Nome do jogador
+     * @param result Resultado posicionado na linha do jogador
+     * @return Estatísticas lidas
+     * @throws SQLException Se houver erro de leitura
+     */
+    private PlayerStats readStats(String playerName, ResultSet result) throws SQLException {
+        PlayerStats stats = new PlayerStats(playerName);
+        stats.setVictories(result.getInt("vitorias"));
+        stats.setDefeats(result.getInt("derrotas"));
+        stats.setDraws(result.getInt("empates"));
+        stats.setStreak(result.getInt("sequencia"));
+        stats.setElo(result.getInt("elo"));
+        return stats;
+    }
+    
+    @Override
+    public List<DuelHistory> getPlayerHistory(String playerName, int limit) {
+        List<DuelHistory> history = new ArrayList<DuelHistory>();
+        
+        // Copiado antes da consulta: um duelo gravado enquanto isso aparece nos dois lados e é descartado abaixo
+        List<DuelHistory> unsaved = new ArrayList<DuelHistory>(unsavedHistory);
+        synchronized (readConnection) {
+            try {
+                // Cada lado usa seu próprio índice (jogadorN, id)
+                String sql = "SELECT * FROM ("
+                    + "SELECT * FROM historico WHERE jogador1 = ? "
+                    + "UNION ALL "
+                    + "SELECT * FROM historico WHERE jogador2 = ? AND jogador1 <> ?"
+                    + ") ORDER BY id DESC" + (limit > 0 ? " LIMIT " + limit : "");
+                PreparedStatement statement = readConnection.prepareStatement(sql);
+                try {
+                    statement.setString(1, playerName);
+                    statement.setString(2, playerName);
+                    statement.setString(3, playerName);
+                    ResultSet result = statement.executeQuery();
+                    while (result.next()) {
+                        history.add(readDuel(result));
+                    }
+                } finally {
+                    statement.close();
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Erro ao consultar histórico de " + playerName + ": " + e.getMessage());
+            }
+        }
+        
+        // Duelos ainda não gravados no banco
+        List<DuelHistory> saved = new ArrayList<DuelHistory>(history);
+        unsaved.addAll(pendingHistory);
+        for (int i = 0; i < unsaved.size(); i++) {
+            DuelHistory duel = unsaved.get(i);
+            if (duel.hasPlayer(playerName) && !containsDuel(saved, duel)) {
+                history.add(0, duel);
+            }
+        }
+        
+        if (limit > 0 && history.size() > limit) {
+            return new ArrayList<DuelHistory>(history.subList(0, limit));
+        }
+        return history;
+    }
+    
+    /**
+     * Verifica se um duelo já está em uma lista lida do banco de dados
+     * Os duelos lidos são instâncias novas, então a comparação é feita pelos jogadores e pela data.
+     *  
+     * @param history Duelos lidos do banco
+     * @param duel Duelo procurado
+     * @return true se o duelo está na lista
+     */
+    private boolean containsDuel(List<DuelHistory> history, DuelHistory duel) {
+        for (DuelHistory saved : history) {
+            if (saved.getDate() == duel.getDate() && saved.getPlayer1().equals(duel.getPlayer1())
+                    && saved.getPlayer2().equals(duel.getPlayer2())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Lê o duelo da linha atual de uma consulta ao histórico
+     *  
+     * @param result Resultado posicionado na linha do duelo
+     * @return Duelo lido
+     * @throws SQLException Se houver erro de leitura
+     */
+    private DuelHistory readDuel(ResultSet result) throws SQLException {
+        return new DuelHistory(
+            result.getString("jogador1"),
+            result.getString("jogador2"),
+            result.getString("vencedor"),
+            result.getString("modo"),
+            result.getString("local"),
+            result.getLong("data"),
+            result.getInt("duracao"),
+            result.getDouble("aposta")
+        );
+    }
+    
+    @Override
+    public void queryHistory(final long from, final long to, final String playerName, final String mode,
+            final Consumer<List<DuelHistory>> callback) {
+        // Duelos ainda não enviados para o banco
+        final List<DuelHistory> pending = new ArrayList<DuelHistory>();
+        for (DuelHistory duel : pendingHistory) {
+            if (HistoryArchive.matches(duel, from, to, playerName, mode)) {
+                pending.add(duel);
+            }
+        }
+        
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final List<DuelHistory> history = new ArrayList<DuelHistory>();
+                    synchronized (connection) {
+                        try {
+                            // O período usa o índice por data; jogador e modo filtram as linhas do período
+                            String sql = "SELECT * FROM historico WHERE data BETWEEN ? AND ?"
+                                + (playerName != null ? " AND (jogador1 = ? OR jogador2 = ?)" : "")
+                                + (mode != null ? " AND modo = ?" : "")
+                                + " ORDER BY id";
+                            PreparedStatement statement = connection.prepareStatement(sql);
+                            try {
+                                int index = 1;
+                                statement.setLong(index++, from);
+                                statement.setLong(index++, to);
+                                if (playerName != null) {
+                                    statement.setString(index++, playerName);
+                                    statement.setString(index++, playerName);
+                                }
+                                if (mode != null) {
+                                    statement.setString(index++, mode);
+                                }
+                                ResultSet result = statement.executeQuery();
+                                while (result.next()) {
+                                    history.add(readDuel(result));
+                                }
+                            } finally {
+                                statement.close();
+                            }
+                        } catch (SQLException e) {
+                            plugin.getLogger().severe("Erro ao consultar o histórico de duelos: " + e.getMessage());
+                        }
+                        
+                        for (DuelHistory duel : new ArrayList<DuelHistory>(unsavedHistory)) {
+                            if (HistoryArchive.matches(duel, from, to, playerName, mode)) {
+                                history.add(duel);
+                            }
+                        }
+                    }
+                    
+                    // Podem ter sido enviados para o banco depois do início da consulta
+                    for (DuelHistory duel : pending) {
+                        if (!history.contains(duel)) {
+                            history.add(duel);
+                        }
+                    }
+                    
+                    Bukkit.getScheduler().runTask(plugin, new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.accept(history);
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Plugin sendo desativado
+        }
+    }
+    
+    @Override
+    public void addDuelHistory(DuelHistory history) {
+        pendingHistory.add(history);
+        saveData();
+    }
+    
+    @Override
+    public List<PlayerStats> getTopPlayers(RankingType type, int limit) {
+        // Cópias mantidas pelos rankings, sem ler o registro de cada jogador
+        return rankings.getTopStats(type, limit, new Function<String, PlayerStats>() {
+            @Override
+            public PlayerStats apply(String playerName) {
+                return findPlayerStats(playerName);
+            }
+        });
+    }
+    
+    @Override
+    public int getRank(RankingType type, String playerName) {
+        return rankings.getRank(type, playerName);
+    }
+    
+    @Override
+    public void savePlayerStats(String playerName, PlayerStats stats) {
+        if (stats != null) {
+            stats.markDirty();
+        }
+    }
+    
+    @Override
+    public void saveData() {
+        final List<PlayerStats> dirtyStats = new ArrayList<PlayerStats>();
+        for (PlayerStats stats : playerStats.values()) {
+            if (stats.isDirty()) {
+                dirtyStats.add(snapshot(stats));
+            }
+        }
+        
+        final List<DuelHistory> newHistory = new ArrayList<DuelHistory>(pendingHistory);
+        pendingHistory.clear();
+        unsavedHistory.addAll(newHistory);
+        
+        // Um lote que falhou é tentado de novo mesmo sem alterações novas
+        if (dirtyStats.isEmpty() && newHistory.isEmpty() && !retryPending) {
+            return;
+        }
+        
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    writeBatch(dirtyStats, newHistory, new ArrayList<RivalData>());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Thread do banco de dados já encerrada, alterações não foram gravadas.");
+        }
+    }
+    
+    /**
+     * Lê as rivalidades gravadas no banco de dados
+     *  
+     * @param minDuels Mínimo de duelos para uma rivalidade entrar no ranking
+     * @return Rivalidades lidas
+     * @throws SQLException Se houver erro na consulta
+     */
+    public RivalIndex readRivalries(int minDuels) throws SQLException {
+        RivalIndex rivalries = new RivalIndex(minDuels);
+        synchronized (connection) {
+            Statement statement = connection.createStatement();
+            try {
+                ResultSet result = statement.executeQuery("SELECT jogador1, jogador2, vitorias1, vitorias2, ultimos FROM rivalidades");
+                while (result.next()) {
+                    String lastDuels = result.getString("ultimos");
+                    List<String> winners = lastDuels == null || lastDuels.isEmpty()
+                        ? new ArrayList<String>() : new ArrayList<String>(Arrays.asList(lastDuels.split(",")));
+                    rivalries.put(new RivalData(result.getString("jogador1"), result.getString("jogador2"),
+                        result.getInt("vitorias1"), result.getInt("vitorias2"), winners));
+                }
+            } finally {
+                statement.close();
+            }
+        }
+        return rivalries;
+    }
+    
+    /**
+     * Envia rivalidades alteradas para gravação na thread do banco de dados
+     *  
+     * @param rivals Cópias das rivalidades alteradas
+     */
+    public void saveRivalries(final List<RivalData> rivals) {
+        if (rivals.isEmpty()) {
+            return;
+        }
+        
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    writeBatch(new ArrayList<PlayerStats>(), new ArrayList<DuelHistory>(), rivals);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Thread do banco de dados já encerrada, rivalidades não foram gravadas.");
+        }
+    }
+    
+    /**
+     * Grava um lote de alterações em uma única transação (executado na thread do banco de dados)
+     * Se a transação falhar, o lote é guardado e gravado junto com o próximo.
+     * 
+     * @param dirtyStats Cópias das estatísticas alteradas
+     * @param newHistory Novos duelos do histórico
+     * @param rivals Cópias das rivalidades alteradas
+     */
+    private void writeBatch(List<PlayerStats> dirtyStats, List<DuelHistory> newHistory, List<RivalData> rivals) {
+        if (!failedStats.isEmpty() || !failedHistory.isEmpty() || !failedRivals.isEmpty()) {
+            // As cópias deste lote são mais novas que as do lote que falhou
+            for (PlayerStats stats : dirtyStats) {
+                failedStats.put(stats.getPlayerName(), stats);
+            }
+            for (RivalData rival : rivals) {
+                failedRivals.put(rival.getKey(), rival);
+            }
+            failedHistory.addAll(newHistory);
+            
+            dirtyStats = new ArrayList<PlayerStats>(failedStats.values());
+            newHistory = new ArrayList<DuelHistory>(failedHistory);
+            rivals = new ArrayList<RivalData>(failedRivals.values());
+            failedStats.clear();
+            failedHistory.clear();
+            failedRivals.clear();
+        }
+        
+        synchronized (connection) {
+            try {
+                connection.setAutoCommit(false);
+                
+                if (!dirtyStats.isEmpty()) {
+                    PreparedStatement statement = connection.prepareStatement(
+                        "INSERT OR REPLACE INTO jogadores (nome, vitorias, derrotas, empates, sequencia, elo) VALUES (?, ?, ?, ?, ?, ?)");
+                    try {
+                        for (PlayerStats stats : dirtyStats) {
+                            statement.setString(1, stats.getPlayerName());
+                            statement.setInt(2, stats.getVictories());
+                            statement.setInt(3, stats.getDefeats());
+                            statement.setInt(4, stats.getDraws());
+                            statement.setInt(5, stats.getStreak());
+                            statement.setInt(6, stats.getElo());
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                    } finally {
+                        statement.close();
+                    }
+                }
+                
+                if (!newHistory.isEmpty()) {
+                    PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO historico (jogador1, jogador2, vencedor, modo, local, data, duracao, aposta) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+                    try {
+                        for (DuelHistory duel : newHistory) {
+                            statement.setString(1, duel.getPlayer1());
+                            statement.setString(2, duel.getPlayer2());
+                            statement.setString(3, duel.getWinner());
+                            statement.setString(4, duel.getMode());
+                            statement.setString(5, duel.getLocation());
+                            statement.setLong(6, duel.getDate());
+                            statement.setInt(7, duel.getDuration());
+                            statement.setDouble(8, duel.getBet());
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                    } finally {
+                        statement.close();
+                    }
+                }
+                
+                if (!rivals.isEmpty()) {
+                    PreparedStatement statement = connection.prepareStatement(
+                        "INSERT OR REPLACE INTO rivalidades (jogador1, jogador2, vitorias1, vitorias2, ultimos) VALUES (?, ?, ?, ?, ?)");
+                    try {
+                        for (RivalData rival : rivals) {
+                            // Cada par é gravado sempre na mesma ordem, como na chave da rivalidade
+                            boolean ordered = rival.getPlayer1().compareTo(rival.getPlayer2()) <= 0;
+                            statement.setString(1, ordered ? rival.getPlayer1() : rival.getPlayer2());
+                            statement.setString(2, ordered ? rival.getPlayer2() : rival.getPlayer1());
+                            statement.setInt(3, ordered ? rival.getPlayer1Victories() : rival.getPlayer2Victories());
+                            statement.setInt(4, ordered ? rival.getPlayer2Victories() : rival.getPlayer1Victories());
+                            statement.setString(5, join(rival.getLastDuels()));
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                    } finally {
+                        statement.close();
+                    }
+                }
+                
+                connection.commit();
+                unsavedHistory.removeAll(newHistory);
+                for (PlayerStats stats : dirtyStats) {
+                    pendingStats.remove(stats.getPlayerName(), stats);
+                }
+                retryPending = false;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Erro ao gravar no banco de dados, nova tentativa no próximo salvamento: " + e.getMessage());
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    // Ignorar erro no rollback
+                }
+                
+                // As cópias continuam em pendingStats e unsavedHistory, visíveis para as leituras
+                for (PlayerStats stats : dirtyStats) {
+                    failedStats.put(stats.getPlayerName(), stats);
+                }
+                for (RivalData rival : rivals) {
+                    failedRivals.put(rival.getKey(), rival);
+                }
+                failedHistory.addAll(newHistory);
+                retryPending = true;
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    // Ignorar
+                }
+            }
+        }
+    }
+    
+    /**
+     * Junta os vencedores dos últimos duelos de uma rivalidade para gravação
+     *  
+     * @param winners Vencedores dos últimos duelos
+     * @return Nomes separados por vírgula
+     */
+    private String join(List<String> winners) {
+        StringBuilder joined = new StringBuilder();
+        for (String winner : winners) {
+            if (joined.length() > 0) {
+                joined.append(',');
+            }
+            joined.append(winner);
+        }
+        return joined.toString();
+    }
+    
+    @Override
+    public void saveAll() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        
+        saveData();
+        if (retryPending) {
+            // Última tentativa para os lotes que falharam
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    writeBatch(new ArrayList<PlayerStats>(), new ArrayList<DuelHistory>(), new ArrayList<RivalData>());
+                    if (retryPending) {
+                        plugin.getLogger().severe("Não foi possível gravar " + failedStats.size() + " estatísticas, "
+                            + failedHistory.size() + " duelos e " + failedRivals.size() + " rivalidades no banco de dados!");
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Tempo esgotado aguardando a gravação no banco de dados!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            plugin.getLogger().severe("Gravação no banco de dados interrompida!");
+        }
+        
+        synchronized (readConnection) {
+            try {
+                readConnection.close();
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Erro ao fechar o banco de dados: " + e.getMessage());
+            }
+        }
+        synchronized (connection) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Erro ao fechar o banco de dados: " + e.getMessage());
+            }
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,128 @@
+package br.com.primeleague.x1.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import br.com.primeleague.x1.models.PlayerStats;
+
+/**
+ * Cache de estatísticas dos jogadores
+ * 
+ * Jogadores online ficam fixos no cache. Jogadores offline ficam em uma lista LRU
+ * de tamanho limitado; ao sair dela, o registro é entregue ao repositório para ser
+ * gravado caso tenha alterações pendentes. Usado apenas pela thread principal.
+ */
+public class StatsCache {
+    
+    private final Map<String, PlayerStats> pinned;
+    private final LinkedHashMap<String, PlayerStats> offline;
+    private final Consumer<PlayerStats> evictionListener;
+    
+    /**
+     * Construtor
+     * 
+     * @param maxOffline Quantidade máxima de jogadores offline mantidos em memória
+     * @param evictionListener Chamado com cada registro removido da lista LRU
+     */
+    public StatsCache(final int maxOffline, Consumer<PlayerStats> evictionListener) {
+        this.pinned = new HashMap<String, PlayerStats>();
+        this.evictionListener = evictionListener;
+        this.offline = new LinkedHashMap<String, PlayerStats>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PlayerStats> eldest) {
+                if (size() > maxOffline) {
+                    StatsCache.this.evictionListener.accept(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Obtém as estatísticas de um jogador se estiverem em memória
+     * 
+     * @param playerName Nome do jogador
+     * @return Estatísticas ou null se não estiverem em cache
+     */
+    public PlayerStats get(String playerName) {
+        PlayerStats stats = pinned.get(playerName);
+        if (stats == null) {
+            stats = offline.get(playerName);
+        }
+        return stats;
+    }
+    
+    /**
+     * Adiciona as estatísticas de um jogador ao cache
+     * 
+     * @param stats Estatísticas do jogador
+     * @param online true para manter o registro fixo enquanto o jogador estiver online
+     */
+    public void put(PlayerStats stats, boolean online) {
+        if (online) {
+            offline.remove(stats.getPlayerName());
+            pinned.put(stats.getPlayerName(), stats);
+        } else if (!pinned.containsKey(stats.getPlayerName())) {
+            offline.put(stats.getPlayerName(), stats);
+        }
+    }
+    
+    /**
+     * Fixa as estatísticas de um jogador que entrou no servidor
+     * 
+     * @param playerName Nome do jogador
+     * @return true se o registro estava em cache
+     */
+    public boolean pin(String playerName) {
+        if (pinned.containsKey(playerName)) {
+            return true;
+        }
+        
+        PlayerStats stats = offline.remove(playerName);
+        if (stats == null) {
+            return false;
+        }
+        pinned.put(playerName, stats);
+        return true;
+    }
+    
+    /**
+     * Libera as estatísticas de um jogador que saiu do servidor para a lista LRU
+     * 
+     * @param playerName Nome do jogador
+     */
+    public void unpin(String playerName) {
+        PlayerStats stats = pinned.remove(playerName);
+        if (stats != null) {
+            offline.put(playerName, stats);
+        }
+    }
+    
+    /**
+     * Obtém todos os registros em memória
+     * 
+     * @return Lista com os registros fixos e os da lista LRU
+     */
+    public List<PlayerStats> values() {
+        List<PlayerStats> values = new ArrayList<PlayerStats>(pinned.size() + offline.size());
+        values.addAll(pinned.values());
+        values.addAll(offline.values());
+        return values;
+    }
+    
+    /**
+     * Obtém a quantidade de registros em memória
+     * 
+     * @return Quantidade de registros
+     */
+    public int size() {
+        return pinned.size() + offline.size();
+    }
+} 
\ No newline at end of file
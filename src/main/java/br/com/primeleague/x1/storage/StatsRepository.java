@@ -0,0 +1,113 @@
+package br.com.primeleague.x1.storage;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import br.com.primeleague.x1.enums.RankingType;
+import br.com.primeleague.x1.models.DuelHistory;
+import br.com.primeleague.x1.models.PlayerStats;
+
+/**
+ * Repositório de estatísticas e histórico de duelos
+ * Implementado pelo armazenamento em arquivos YAML e pelo banco de dados SQLite
+ */
+public interface StatsRepository {
+    
+    /**
+     * Obtém as estatísticas de um jogador, criando um registro vazio se não existir
+     * 
+     * @param playerName Nome do jogador
+     * @return Estatísticas do jogador
+     */
+    PlayerStats getPlayerStats(String playerName);
+    
+    /**
+     * Procura as estatísticas de um jogador sem criar um registro novo
+     * Pode devolver null enquanto as estatísticas de um jogador fora do cache são lidas em segundo plano.
+     * 
+     * @param playerName Nome do jogador
+     * @return Estatísticas do jogador ou null se o jogador não tiver estatísticas
+     */
+    PlayerStats findPlayerStats(String playerName);
+    
+    /**
+     * Carrega em segundo plano as estatísticas de um jogador que entrou no servidor
+     * e as mantém em memória enquanto ele estiver online
+     * 
+     * @param playerName Nome do jogador
+     */
+    void loadPlayer(String playerName);
+    
+    /**
+     * Libera as estatísticas de um jogador que saiu do servidor
+     * 
+     * @param playerName Nome do jogador
+     */
+    void unloadPlayer(String playerName);
+    
+    /**
+     * Obtém o histórico de duelos de um jogador
+     * 
+     * @param playerName Nome do jogador
+     * @param limit Limite de duelos (0 para todos)
+     * @return Lista de duelos do jogador
+     */
+    List<DuelHistory> getPlayerHistory(String playerName, int limit);
+    
+    /**
+     * Consulta em segundo plano os duelos de um período
+     * O resultado é entregue na thread principal, em ordem de gravação.
+     * 
+     * @param from Início do período (milissegundos, inclusivo)
+     * @param to Fim do período (milissegundos, inclusivo)
+     * @param playerName Nome do jogador ou null para todos
+     * @param mode Modo do duelo ou null para todos
+     * @param callback Recebe os duelos encontrados
+     */
+    void queryHistory(long from, long to, String playerName, String mode, Consumer<List<DuelHistory>> callback);
+    
+    /**
+     * Adiciona um duelo ao histórico
+     * 
+     * @param history Histórico de duelo
+     */
+    void addDuelHistory(DuelHistory history);
+    
+    /**
+     * Obtém os N primeiros jogadores de um ranking
+     * As estatísticas são cópias mantidas junto com os rankings (até a quantidade configurada de top jogadores).
+     * 
+     * @param type Tipo de ranking
+     * @param limit Quantidade máxima de jogadores
+     * @return Lista de estatísticas dos jogadores
+     */
+    List<PlayerStats> getTopPlayers(RankingType type, int limit);
+    
+    /**
+     * Obtém a posição de um jogador em um ranking
+     * 
+     * @param type Tipo de ranking
+     * @param playerName Nome do jogador
+     * @return Posição (começando em 1) ou -1 se o jogador não estiver no ranking
+     */
+    int getRank(RankingType type, String playerName);
+    
+    /**
+     * Agenda o salvamento das estatísticas de um jogador
+     * 
+     * @param playerName Nome do jogador
+     * @param stats Estatísticas do jogador
+     */
+    void savePlayerStats(String playerName, PlayerStats stats);
+    
+    /**
+     * Envia as alterações pendentes para gravação em segundo plano
+     */
+    void saveData();
+    
+    /**
+     * Grava todas as alterações pendentes e aguarda o término da gravação
+     * Chamado quando o plugin é desativado
+     */
+    void saveAll();
+} 
\ No newline at end of file